@@ -1,5 +1,11 @@
 package br.com.qrdapio.config;
 
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +15,688 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Senha senha = new Senha();
+
+    private final UserInfo userInfo = new UserInfo();
+
+    public Senha getSenha() {
+        return senha;
+    }
+
+    private final PedidoStream pedidoStream = new PedidoStream();
+
+    public UserInfo getUserInfo() {
+        return userInfo;
+    }
+
+    public PedidoStream getPedidoStream() {
+        return pedidoStream;
+    }
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    private final PedidoExport pedidoExport = new PedidoExport();
+
+    public PedidoExport getPedidoExport() {
+        return pedidoExport;
+    }
+
+    private final ItensPopulares itensPopulares = new ItensPopulares();
+
+    public ItensPopulares getItensPopulares() {
+        return itensPopulares;
+    }
+
+    private final Busca busca = new Busca();
+
+    public Busca getBusca() {
+        return busca;
+    }
+
+    private final Cozinha cozinha = new Cozinha();
+
+    public Cozinha getCozinha() {
+        return cozinha;
+    }
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    private final Sharding sharding = new Sharding();
+
+    public Sharding getSharding() {
+        return sharding;
+    }
+
+    private final Idempotency idempotency = new Idempotency();
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    private final Outbox outbox = new Outbox();
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    private final PedidoArchive pedidoArchive = new PedidoArchive();
+
+    public PedidoArchive getPedidoArchive() {
+        return pedidoArchive;
+    }
+
+    private final PedidoAberto pedidoAberto = new PedidoAberto();
+
+    public PedidoAberto getPedidoAberto() {
+        return pedidoAberto;
+    }
+
+    public static class Senha {
+
+        /**
+         * How many ticket numbers are reserved in the database at once, per restaurante.
+         */
+        private int blockSize = 50;
+
+        /**
+         * Time zone of the business day, ticket numbers start again at 1 every day.
+         */
+        private String timeZone = "America/Sao_Paulo";
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public void setBlockSize(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        public String getTimeZone() {
+            return timeZone;
+        }
+
+        public void setTimeZone(String timeZone) {
+            this.timeZone = timeZone;
+        }
+    }
+
+    public static class UserInfo {
+
+        /**
+         * How many users are kept in the user-info cache.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * How long a user-info response may be served, after which the next request waits for the provider.
+         */
+        private Duration timeToLive = Duration.ofHours(1);
+
+        /**
+         * Age from which a user-info response is still served but refreshed in the background.
+         */
+        private Duration refreshAfter = Duration.ofMinutes(5);
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+    }
+
+    public static class PedidoStream {
+
+        /**
+         * How many recent events are kept per restaurante, for clients resuming with a Last-Event-ID.
+         */
+        private int replaySize = 256;
+
+        /**
+         * How many events may wait for a slow client before it is disconnected, to resume from the replay buffer.
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * How long a stream stays open, clients reconnect after that.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public int getReplaySize() {
+            return replaySize;
+        }
+
+        public void setReplaySize(int replaySize) {
+            this.replaySize = replaySize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Whether servlet requests and @Async tasks run on virtual threads; a no-op below Java 21, which has none.
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class PedidoExport {
+
+        /**
+         * How many lines are fetched from the database at once, and kept in the persistence context.
+         */
+        private int fetchSize = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class ItensPopulares {
+
+        /**
+         * How many items are counted per restaurante and time bucket, the counts are exact below it.
+         */
+        private int capacity = 64;
+
+        /**
+         * File the counts are saved to, and restored from at startup. Not saved when empty.
+         */
+        private String snapshotFile;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public String getSnapshotFile() {
+            return snapshotFile;
+        }
+
+        public void setSnapshotFile(String snapshotFile) {
+            this.snapshotFile = snapshotFile;
+        }
+    }
+
+    public static class Busca {
+
+        /**
+         * File the search indexes are saved to, and restored from at startup. Not saved when empty.
+         */
+        private String segmentFile;
+
+        public String getSegmentFile() {
+            return segmentFile;
+        }
+
+        public void setSegmentFile(String segmentFile) {
+            this.segmentFile = segmentFile;
+        }
+    }
+
+    public static class Cozinha {
+
+        /**
+         * Estimated preparation time of a line of each categoria, whatever its quantity.
+         */
+        private final Map<Categoria, Duration> tempoPreparo = new EnumMap<>(
+            Map.of(
+                Categoria.PRATO,
+                Duration.ofMinutes(15),
+                Categoria.BEBIDA,
+                Duration.ofMinutes(2),
+                Categoria.SOBREMESA,
+                Duration.ofMinutes(5)
+            )
+        );
+
+        /**
+         * How long the queues of a restaurante are served before being read again, to see the lines placed and
+         * claimed on the other servers.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(5);
+
+        public Map<Categoria, Duration> getTempoPreparo() {
+            return tempoPreparo;
+        }
+
+        public Duration getReloadInterval() {
+            return reloadInterval;
+        }
+
+        public void setReloadInterval(Duration reloadInterval) {
+            this.reloadInterval = reloadInterval;
+        }
+    }
+
+    public static class ReadReplicas {
+
+        /**
+         * Replicas of the primary database, read-only transactions are sent to them when not empty.
+         */
+        private List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * How far behind the primary a replica can be and still be read.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        /**
+         * Interval between two measures of the lag of the replicas.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(1);
+
+        /**
+         * How long the reads of a client go to the primary after a write, so that they see it.
+         */
+        private Duration readYourWrites = Duration.ofSeconds(5);
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getReadYourWrites() {
+            return readYourWrites;
+        }
+
+        public void setReadYourWrites(Duration readYourWrites) {
+            this.readYourWrites = readYourWrites;
+        }
+
+        public static class Replica {
+
+            /**
+             * JDBC URL of the replica, the other settings are the ones of the primary pool.
+             */
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
+    }
+
+    public static class Sharding {
+
+        /**
+         * Databases the restaurantes can be moved to, besides the one of {@code spring.datasource}.
+         */
+        private List<Shard> shards = new ArrayList<>();
+
+        /**
+         * Interval between two reloads of the shard map, and wait of a move for the other servers to see it.
+         */
+        private Duration mapRefreshInterval = Duration.ofSeconds(30);
+
+        public List<Shard> getShards() {
+            return shards;
+        }
+
+        public void setShards(List<Shard> shards) {
+            this.shards = shards;
+        }
+
+        public Duration getMapRefreshInterval() {
+            return mapRefreshInterval;
+        }
+
+        public void setMapRefreshInterval(Duration mapRefreshInterval) {
+            this.mapRefreshInterval = mapRefreshInterval;
+        }
+
+        public static class Shard {
+
+            /**
+             * Name of the shard in the shard map, never to be changed once restaurantes are assigned to it.
+             */
+            private String name;
+
+            /**
+             * JDBC URL of the shard, the other settings are the ones of the {@code spring.datasource} pool.
+             */
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * How long the response of a request is replayed to the retries sent with the same key.
+         */
+        private Duration timeToLive = Duration.ofHours(24);
+
+        /**
+         * How many responses are also kept in memory.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * How long a retry waits for the request in flight with the same key, before being answered with a conflict.
+         */
+        private Duration waitTimeout = Duration.ofSeconds(30);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getWaitTimeout() {
+            return waitTimeout;
+        }
+
+        public void setWaitTimeout(Duration waitTimeout) {
+            this.waitTimeout = waitTimeout;
+        }
+    }
+
+    public static class Outbox {
+
+        /**
+         * How many events are delivered at once.
+         */
+        private int batchSize = 100;
+
+        /**
+         * How long the events being delivered are hidden from the other servers.
+         */
+        private Duration lease = Duration.ofMinutes(1);
+
+        /**
+         * Wait before the first retry of an event, doubled on each failure.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        private Duration maxBackoff = Duration.ofMinutes(10);
+
+        private final File file = new File();
+
+        private final Webhook webhook = new Webhook();
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public Webhook getWebhook() {
+            return webhook;
+        }
+
+        public static class File {
+
+            private boolean enabled = true;
+
+            /**
+             * File the events are appended to, one JSON document per line; the log when not set.
+             */
+            private String path;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+        }
+
+        public static class Webhook {
+
+            /**
+             * URL the events are posted to, as a JSON array; no webhook when not set.
+             */
+            private String url;
+
+            private Duration timeout = Duration.ofSeconds(5);
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+    }
+
+    public static class PedidoArchive {
+
+        /**
+         * Directory the closed pedidos older than the retention are moved to; kept in the database when not set.
+         * Must be shared by all the servers.
+         */
+        private String directory;
+
+        /**
+         * How long the pedidos stay in the database.
+         */
+        private Duration retention = Duration.ofDays(365);
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    public static class PedidoAberto {
+
+        /**
+         * How long the open pedidos of a restaurante are served before being read again, to see the pedidos changed
+         * on the other servers.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(10);
+
+        public Duration getReloadInterval() {
+            return reloadInterval;
+        }
+
+        public void setReloadInterval(Duration reloadInterval) {
+            this.reloadInterval = reloadInterval;
+        }
+    }
+}
@@ -1,14 +1,31 @@
 package br.com.qrdapio.config;
 
+import br.com.qrdapio.web.filter.ReadYourWritesFilter;
+import br.com.qrdapio.web.filter.ShardFilter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -54,4 +71,199 @@ public class DatabaseConfiguration {
         }
         return String.valueOf(port);
     }
+
+    /**
+     * Read-replica routing, enabled by listing replicas in {@code application.read-replicas.replicas}.
+     * <p>
+     * The pool of {@code spring.datasource} becomes the primary of a {@link ReadReplicaRoutingDataSource}, and each
+     * replica gets a pool with the same settings. Read-only transactions go to the replicas that are in time, and the
+     * {@link ReadYourWritesFilter} keeps a client on the primary for a while after it wrote.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.read-replicas.replicas[0]", name = "url")
+    static class ReadReplicaConfiguration {
+
+        @Bean
+        public static BeanPostProcessor readReplicaRoutingDataSourcePostProcessor(
+            ObjectProvider<ApplicationProperties> applicationProperties
+        ) {
+            return new ReadReplicaRoutingDataSourcePostProcessor(applicationProperties);
+        }
+
+        @Bean
+        public SchedulingConfigurer readReplicaHeartbeat(DataSource dataSource, ApplicationProperties applicationProperties)
+            throws SQLException {
+            ReadReplicaRoutingDataSource routingDataSource = dataSource.unwrap(ReadReplicaRoutingDataSource.class);
+            long interval = applicationProperties.getReadReplicas().getHeartbeatInterval().toMillis();
+            return registrar -> registrar.addFixedDelayTask(routingDataSource::checkReplicas, interval);
+        }
+
+        @Bean
+        public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ApplicationProperties applicationProperties) {
+            FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(applicationProperties.getReadReplicas().getReadYourWrites())
+            );
+            registration.addUrlPatterns("/api/*");
+            return registration;
+        }
+    }
+
+    /**
+     * Puts the routing in front of the {@code dataSource} bean. Runs after the other post-processors but the sharding
+     * one, so that the primary pool is already wrapped as it should be, and only the default shard has replicas.
+     */
+    static class ReadReplicaRoutingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ApplicationProperties> applicationProperties;
+
+        ReadReplicaRoutingDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+            this.applicationProperties = applicationProperties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource)) {
+                return bean;
+            }
+            ApplicationProperties properties = applicationProperties.getObject();
+            DataSource primary = (DataSource) bean;
+            List<ApplicationProperties.ReadReplicas.Replica> replicaProperties = properties.getReadReplicas().getReplicas();
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            for (int i = 0; i < replicaProperties.size(); i++) {
+                String name = "replica-" + (i + 1);
+                ApplicationProperties.ReadReplicas.Replica replica = replicaProperties.get(i);
+                HikariDataSource pool = createPool(primary, name, replica.getUrl(), replica.getUsername(), replica.getPassword(), true);
+                replicas.put(name, properties.getVirtualThreads().isEnabled() ? VirtualThreadConfiguration.limit(pool) : pool);
+            }
+            LoggerFactory.getLogger(DatabaseConfiguration.class).info("Routing read-only transactions to {}", replicas.keySet());
+            return new LazyRoutingDataSource(
+                new ReadReplicaRoutingDataSource(primary, replicas, properties.getReadReplicas().getMaxLag())
+            );
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+    }
+
+    /**
+     * Tenant sharding, enabled by listing shards in {@code application.sharding.shards}.
+     * <p>
+     * The pool of {@code spring.datasource} becomes the default shard of a {@link ShardRoutingDataSource}, and each
+     * shard gets a pool with the same settings. The {@link ShardFilter} sends each request to the shard of its
+     * restaurante, as given by the {@link ShardMap}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.sharding.shards[0]", name = "url")
+    static class ShardingConfiguration {
+
+        @Bean
+        public static BeanPostProcessor shardRoutingDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+            return new ShardRoutingDataSourcePostProcessor(applicationProperties);
+        }
+
+        @Bean
+        public SchedulingConfigurer shardMapRefresh(ShardMap shardMap, ApplicationProperties applicationProperties) {
+            long interval = applicationProperties.getSharding().getMapRefreshInterval().toMillis();
+            return registrar -> registrar.addFixedDelayTask(shardMap::refresh, interval);
+        }
+
+        @Bean
+        public FilterRegistrationBean<ShardFilter> shardFilter(ShardMap shardMap, ApplicationProperties applicationProperties) {
+            FilterRegistrationBean<ShardFilter> registration = new FilterRegistrationBean<>(
+                new ShardFilter(shardMap, applicationProperties.getSharding().getMapRefreshInterval())
+            );
+            registration.addUrlPatterns("/api/*");
+            return registration;
+        }
+    }
+
+    /**
+     * Puts the shard routing in front of the {@code dataSource} bean. Runs after the other post-processors, so that
+     * the default shard is already wrapped as it should be.
+     */
+    static class ShardRoutingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ApplicationProperties> applicationProperties;
+
+        ShardRoutingDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+            this.applicationProperties = applicationProperties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource)) {
+                return bean;
+            }
+            ApplicationProperties properties = applicationProperties.getObject();
+            DataSource defaultShard = (DataSource) bean;
+            Map<String, DataSource> shards = new LinkedHashMap<>();
+            shards.put(ShardRoutingDataSource.DEFAULT_SHARD, defaultShard);
+            for (ApplicationProperties.Sharding.Shard shard : properties.getSharding().getShards()) {
+                if (shards.containsKey(shard.getName())) {
+                    throw new IllegalStateException("Duplicate shard " + shard.getName());
+                }
+                HikariDataSource pool = createPool(
+                    defaultShard,
+                    shard.getName(),
+                    shard.getUrl(),
+                    shard.getUsername(),
+                    shard.getPassword(),
+                    false
+                );
+                shards.put(shard.getName(), properties.getVirtualThreads().isEnabled() ? VirtualThreadConfiguration.limit(pool) : pool);
+            }
+            LoggerFactory.getLogger(DatabaseConfiguration.class).info("Routing the restaurantes to the shards {}", shards.keySet());
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Create a pool with the settings of another one but the connection ones.
+     */
+    private static HikariDataSource createPool(
+        DataSource model,
+        String name,
+        String url,
+        String username,
+        String password,
+        boolean readOnly
+    ) {
+        HikariConfig config = new HikariConfig();
+        try {
+            if (model.isWrapperFor(HikariDataSource.class)) {
+                model.unwrap(HikariDataSource.class).copyStateTo(config);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the settings of the " + name + " pool", e);
+        }
+        config.setPoolName((config.getPoolName() != null ? config.getPoolName() : "Hikari") + "-" + name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(readOnly);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Defers the choice of the target to the first statement, when the read-only flag of the transaction is known.
+     * Closed with the application context, it closes all the pools.
+     */
+    static class LazyRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+        LazyRoutingDataSource(ReadReplicaRoutingDataSource routingDataSource) {
+            super(routingDataSource);
+        }
+
+        @Override
+        public void close() throws IOException {
+            ((ReadReplicaRoutingDataSource) obtainTargetDataSource()).close();
+        }
+    }
 }
@@ -1,19 +1,29 @@
 package br.com.qrdapio.config;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 import liquibase.integration.spring.SpringLiquibase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.core.io.ResourceLoader;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.liquibase.SpringLiquibaseUtil;
 
@@ -46,8 +56,38 @@ public class LiquibaseConfiguration {
             dataSource.getIfUnique(),
             dataSourceProperties
         );
-        liquibase.setChangeLog("classpath:config/liquibase/master.xml");
+        configure(liquibase, liquibaseProperties);
         liquibase.setContexts(liquibaseProperties.getContexts());
+        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
+        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE))) {
+            liquibase.setShouldRun(false);
+        } else {
+            liquibase.setShouldRun(liquibaseProperties.isEnabled());
+            log.debug("Configuring Liquibase");
+        }
+        return liquibase;
+    }
+
+    /**
+     * Run the changelog on the shards other than the default one, see {@link ShardRoutingDataSource}.
+     *
+     * @param dataSource the shard routing.
+     * @param liquibaseProperties the settings of the changelog of the default shard.
+     * @return the runner, updating the shards when initialized.
+     * @throws SQLException if the shards cannot be read from the data source.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sharding.shards[0]", name = "url")
+    public ShardLiquibase shardLiquibase(DataSource dataSource, LiquibaseProperties liquibaseProperties) throws SQLException {
+        Map<String, DataSource> shards = new LinkedHashMap<>(dataSource.unwrap(ShardRoutingDataSource.class).getShards());
+        shards.remove(ShardRoutingDataSource.DEFAULT_SHARD);
+        boolean shouldRun =
+            liquibaseProperties.isEnabled() && !env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE));
+        return new ShardLiquibase(shards, liquibaseProperties, shouldRun);
+    }
+
+    private static void configure(SpringLiquibase liquibase, LiquibaseProperties liquibaseProperties) {
+        liquibase.setChangeLog("classpath:config/liquibase/master.xml");
         liquibase.setDefaultSchema(liquibaseProperties.getDefaultSchema());
         liquibase.setLiquibaseSchema(liquibaseProperties.getLiquibaseSchema());
         liquibase.setLiquibaseTablespace(liquibaseProperties.getLiquibaseTablespace());
@@ -55,15 +95,81 @@ public class LiquibaseConfiguration {
         liquibase.setDatabaseChangeLogTable(liquibaseProperties.getDatabaseChangeLogTable());
         liquibase.setDropFirst(liquibaseProperties.isDropFirst());
         liquibase.setLabels(liquibaseProperties.getLabels());
-        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
         liquibase.setRollbackFile(liquibaseProperties.getRollbackFile());
         liquibase.setTestRollbackOnUpdate(liquibaseProperties.isTestRollbackOnUpdate());
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE))) {
-            liquibase.setShouldRun(false);
-        } else {
-            liquibase.setShouldRun(liquibaseProperties.isEnabled());
-            log.debug("Configuring Liquibase");
+    }
+
+    /**
+     * Runs the changelog on each shard, one after the other and before the application starts, so that they are
+     * ready for the first request.
+     * <p>
+     * The contexts are the ones of the default shard but {@code faker}, whose rows would collide between shards, and
+     * {@code shard}, which starts the ids of the n-th shard at n * {@value #SHARD_ID_RANGE}. Shards must thus keep
+     * their place in {@code application.sharding.shards}.
+     */
+    public static class ShardLiquibase implements InitializingBean, ResourceLoaderAware {
+
+        public static final long SHARD_ID_RANGE = 1_000_000_000_000L;
+
+        private final Logger log = LoggerFactory.getLogger(ShardLiquibase.class);
+
+        private final Map<String, DataSource> shards;
+
+        private final LiquibaseProperties liquibaseProperties;
+
+        private final boolean shouldRun;
+
+        private ResourceLoader resourceLoader;
+
+        /**
+         * @param shards the shards other than the default one, in their configuration order.
+         * @param liquibaseProperties the settings of the changelog of the default shard.
+         * @param shouldRun whether to run the changelog.
+         */
+        public ShardLiquibase(Map<String, DataSource> shards, LiquibaseProperties liquibaseProperties, boolean shouldRun) {
+            this.shards = shards;
+            this.liquibaseProperties = liquibaseProperties;
+            this.shouldRun = shouldRun;
+        }
+
+        @Override
+        public void setResourceLoader(ResourceLoader resourceLoader) {
+            this.resourceLoader = resourceLoader;
+        }
+
+        @Override
+        public void afterPropertiesSet() throws Exception {
+            long idStart = SHARD_ID_RANGE;
+            for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+                SpringLiquibase liquibase = new SpringLiquibase();
+                liquibase.setDataSource(shard.getValue());
+                liquibase.setResourceLoader(resourceLoader);
+                configure(liquibase, liquibaseProperties);
+                liquibase.setContexts(contexts(liquibaseProperties.getContexts()));
+                Map<String, String> parameters = new HashMap<>();
+                if (liquibaseProperties.getParameters() != null) {
+                    parameters.putAll(liquibaseProperties.getParameters());
+                }
+                parameters.put("shardIdStart", String.valueOf(idStart));
+                liquibase.setChangeLogParameters(parameters);
+                liquibase.setShouldRun(shouldRun);
+                log.debug("Configuring Liquibase of shard {}", shard.getKey());
+                liquibase.afterPropertiesSet();
+                idStart += SHARD_ID_RANGE;
+            }
+        }
+
+        private static String contexts(String contexts) {
+            List<String> shardContexts = new ArrayList<>();
+            if (contexts != null) {
+                for (String context : contexts.split(",")) {
+                    if (!context.isBlank() && !"faker".equals(context.trim())) {
+                        shardContexts.add(context.trim());
+                    }
+                }
+            }
+            shardContexts.add("shard");
+            return String.join(", ", shardContexts);
         }
-        return liquibase;
     }
 }
@@ -0,0 +1,27 @@
+package br.com.qrdapio.config;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link TransactionTemplate} whose transactions read from the primary database, even the read-only ones.
+ * <p>
+ * For the services loading what was just committed into memory, after a commit or on a schedule: a replica behind
+ * the primary would hand them a stale or missing row, which they would then keep. Without read replicas, this is a
+ * plain {@link TransactionTemplate}.
+ */
+public class PrimaryTransactionTemplate extends TransactionTemplate {
+
+    private static final long serialVersionUID = 1L;
+
+    public PrimaryTransactionTemplate(PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+    }
+
+    @Override
+    public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+        return ReadReplicaRoutingDataSource.callOnPrimary(() -> super.execute(action));
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.qrdapio.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} sending the connections of read-only transactions to replicas of the primary database.
+ * <p>
+ * The target is chosen when a connection is requested, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction managers ask for the
+ * connection before the read-only flag of the transaction is published.
+ * <p>
+ * The replicas are used in turn, as long as they are less than {@code maxLag} behind the primary. The lag is measured
+ * by {@link #checkReplicas()}, which writes the current time to the {@code replica_heartbeat} table of the primary and
+ * reads it back from each replica. Until the first check, and when no replica is in time, everything goes to the
+ * primary. Reads that must see the writes of the same client are sent to the primary with
+ * {@link #setPrimaryRequired(boolean)}, and the ones that must see what was just committed, whoever wrote it, with
+ * {@link #callOnPrimary(Supplier)}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final Map<String, DataSource> replicas;
+
+    private final long maxLagMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> availableReplicas = List.of();
+
+    /**
+     * @param primary the primary database.
+     * @param replicas the replicas, by name.
+     * @param maxLag how far behind the primary a replica can be and still be read.
+     */
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Send the read-only transactions of the current thread to the primary, typically for the rest of a request
+     * following a write.
+     *
+     * @param required whether the primary is required.
+     */
+    public static void setPrimaryRequired(boolean required) {
+        if (required) {
+            primaryRequired.set(Boolean.TRUE);
+        } else {
+            primaryRequired.remove();
+        }
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(primaryRequired.get());
+    }
+
+    /**
+     * Run some work with its read-only transactions on the primary, then go back to the routing of the thread.
+     *
+     * @param work the work, which must start its own transactions.
+     * @param <T> the type of the result.
+     * @return the result of the work.
+     */
+    public static <T> T callOnPrimary(Supplier<T> work) {
+        boolean previous = isPrimaryRequired();
+        setPrimaryRequired(true);
+        try {
+            return work.get();
+        } finally {
+            setPrimaryRequired(previous);
+        }
+    }
+
+    /**
+     * @return the names of the replicas currently read from.
+     */
+    public List<String> getAvailableReplicas() {
+        return availableReplicas;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        List<String> available = availableReplicas;
+        if (available.isEmpty()) {
+            return PRIMARY;
+        }
+        return available.get(Math.floorMod(next.getAndIncrement(), available.size()));
+    }
+
+    /**
+     * Write a heartbeat to the primary and measure the lag of each replica, only reading from the ones in time.
+     * A replica that cannot be read is considered behind.
+     */
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try {
+            writeHeartbeat(now);
+        } catch (SQLException e) {
+            // Without a fresh heartbeat the replicas would soon look behind, keep the current ones meanwhile
+            log.warn("Could not write the replica heartbeat to the primary: {}", e.getMessage());
+            return;
+        }
+        List<String> available = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            try {
+                long lag = now - readHeartbeat(replica.getValue());
+                if (lag <= maxLagMillis) {
+                    available.add(name);
+                } else if (availableReplicas.contains(name)) {
+                    log.warn("Replica {} is {}ms behind the primary, reading from it is suspended", name, lag);
+                }
+            } catch (SQLException e) {
+                if (availableReplicas.contains(name)) {
+                    log.warn("Could not read the heartbeat of replica {}, reading from it is suspended: {}", name, e.getMessage());
+                }
+            }
+        }
+        for (String name : available) {
+            if (!availableReplicas.contains(name)) {
+                log.info("Reading from replica {}", name);
+            }
+        }
+        availableReplicas = List.copyOf(available);
+    }
+
+    /**
+     * Close the pools of the primary and of the replicas.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+        if (primary instanceof Closeable) {
+            ((Closeable) primary).close();
+        }
+    }
+
+    private void writeHeartbeat(long now) throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            try (PreparedStatement statement = connection.prepareStatement("update replica_heartbeat set beat = ? where id = 1")) {
+                statement.setLong(1, now);
+                statement.executeUpdate();
+            }
+            if (!autoCommit) {
+                connection.commit();
+            }
+        }
+    }
+
+    private long readHeartbeat(DataSource replica) throws SQLException {
+        try (
+            Connection connection = replica.getConnection();
+            PreparedStatement statement = connection.prepareStatement("select beat from replica_heartbeat where id = 1");
+            ResultSet resultSet = statement.executeQuery()
+        ) {
+            if (!resultSet.next()) {
+                throw new SQLException("No heartbeat row");
+            }
+            long beat = resultSet.getLong(1);
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            return beat;
+        }
+    }
+}
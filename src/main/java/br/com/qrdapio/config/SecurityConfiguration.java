@@ -5,7 +5,10 @@ import br.com.qrdapio.security.SecurityUtils;
 import br.com.qrdapio.security.oauth2.AudienceValidator;
 import br.com.qrdapio.security.oauth2.CustomClaimConverter;
 import br.com.qrdapio.security.oauth2.JwtGrantedAuthorityConverter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.*;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
@@ -141,7 +144,13 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     }
 
     @Bean
-    JwtDecoder jwtDecoder(ClientRegistrationRepository clientRegistrationRepository, RestTemplateBuilder restTemplateBuilder) {
+    JwtDecoder jwtDecoder(
+        ClientRegistrationRepository clientRegistrationRepository,
+        RestTemplateBuilder restTemplateBuilder,
+        ApplicationProperties applicationProperties,
+        @Qualifier("taskExecutor") Executor executor,
+        MeterRegistry meterRegistry
+    ) {
         NimbusJwtDecoder jwtDecoder = (NimbusJwtDecoder) JwtDecoders.fromOidcIssuerLocation(issuerUri);
 
         OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(jHipsterProperties.getSecurity().getOauth2().getAudience());
@@ -150,7 +159,13 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
         jwtDecoder.setJwtValidator(withAudience);
         jwtDecoder.setClaimSetConverter(
-            new CustomClaimConverter(clientRegistrationRepository.findByRegistrationId("oidc"), restTemplateBuilder.build())
+            new CustomClaimConverter(
+                clientRegistrationRepository.findByRegistrationId("oidc"),
+                restTemplateBuilder.build(),
+                applicationProperties.getUserInfo(),
+                executor,
+                meterRegistry
+            )
         );
 
         return jwtDecoder;
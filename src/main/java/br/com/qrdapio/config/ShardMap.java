@@ -0,0 +1,267 @@
+package br.com.qrdapio.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Map of the shards the restaurantes are assigned to.
+ * <p>
+ * The map is the {@code restaurante_shard} table of the default shard: restaurantes without a row are on the default
+ * shard, where they are created. Each server keeps a copy of the table, reloaded every
+ * {@code application.sharding.map-refresh-interval} and right after its own changes. Without shards configured,
+ * everything is on the default shard and the table is not used.
+ */
+@Component
+public class ShardMap {
+
+    /**
+     * The queries of the restaurante of a row of the tenant tables, by table.
+     */
+    private static final Map<String, String> RESTAURANTE_QUERIES = Map.of(
+        "cardapio",
+        "select restaurante_id from cardapio where id = ?",
+        "item_cardapio",
+        "select c.restaurante_id from item_cardapio i join cardapio c on c.id = i.cardapio_id where i.id = ?",
+        "pedido",
+        "select restaurante_id from pedido where id = ?",
+        "item_pedido",
+        "select p.restaurante_id from item_pedido i join pedido p on p.id = i.pedido_id where i.id = ?"
+    );
+
+    /**
+     * How many restaurantes of rows of the tenant tables are remembered.
+     */
+    private static final int ROW_CACHE_SIZE = 100_000;
+
+    private final Logger log = LoggerFactory.getLogger(ShardMap.class);
+
+    private final Map<String, DataSource> shards;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Map<Long, Assignment> assignments = Map.of();
+
+    /**
+     * The restaurantes of the rows already found, by table and id. A row never changes restaurante and an id is never
+     * used twice, so they stay right, moves included.
+     */
+    private final Cache<String, Long> rowRestaurantes = Caffeine.newBuilder().maximumSize(ROW_CACHE_SIZE).build();
+
+    public ShardMap(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(ShardRoutingDataSource.class)) {
+            this.shards = dataSource.unwrap(ShardRoutingDataSource.class).getShards();
+        } else {
+            this.shards = Map.of(ShardRoutingDataSource.DEFAULT_SHARD, dataSource);
+        }
+        DataSource defaultShard = shards.get(ShardRoutingDataSource.DEFAULT_SHARD);
+        this.jdbcTemplate = new JdbcTemplate(defaultShard);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(defaultShard));
+    }
+
+    /**
+     * @return whether there are other shards than the default one.
+     */
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    /**
+     * @return the names of the shards, the default one first.
+     */
+    public List<String> getShardNames() {
+        return new ArrayList<>(shards.keySet());
+    }
+
+    /**
+     * @param shard the name of the shard.
+     * @return the pool of the shard, to be used outside of the JPA transactions; {@code null} if there is no such
+     * shard.
+     */
+    public DataSource getDataSource(String shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * @param restauranteId the id of the restaurante.
+     * @return the name of the shard holding the restaurante.
+     */
+    public String shardOf(Long restauranteId) {
+        Assignment assignment = assignments.get(restauranteId);
+        return assignment != null ? assignment.shard : ShardRoutingDataSource.DEFAULT_SHARD;
+    }
+
+    /**
+     * @param restauranteId the id of the restaurante.
+     * @return whether the restaurante is being moved to another shard, and must not be written meanwhile.
+     */
+    public boolean isMoving(Long restauranteId) {
+        Assignment assignment = assignments.get(restauranteId);
+        return assignment != null && assignment.moving;
+    }
+
+    /**
+     * Run some work on the shard of a restaurante.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param work the work, which must start its own transactions.
+     * @param <T> the type of the result.
+     * @return the result of the work.
+     */
+    public <T> T callInShardOf(Long restauranteId, Supplier<T> work) {
+        return ShardRoutingDataSource.callInShard(shardOf(restauranteId), work);
+    }
+
+    /**
+     * Run some work on each shard, one after the other.
+     *
+     * @param work the work, which must start its own transactions.
+     * @param <T> the type of the results.
+     * @return the results, the one of the default shard first.
+     */
+    public <T> List<T> callInEachShard(Supplier<T> work) {
+        List<T> results = new ArrayList<>(shards.size());
+        for (String shard : shards.keySet()) {
+            results.add(ShardRoutingDataSource.callInShard(shard, work));
+        }
+        return results;
+    }
+
+    /**
+     * Find the restaurante of a row of a tenant table, whichever shard holds it. Ids are unique across shards.
+     *
+     * @param table the table: {@code cardapio}, {@code item_cardapio}, {@code pedido} or {@code item_pedido}.
+     * @param id the id of the row.
+     * @return the id of the restaurante of the row, or empty if no shard holds it.
+     */
+    public Optional<Long> findRestauranteOf(String table, Long id) {
+        return findRestauranteOf(table, id, null);
+    }
+
+    /**
+     * Find the restaurante of a row of a tenant table, whichever shard holds it. Ids are unique across shards.
+     * <p>
+     * The restaurantes found are remembered, so that the requests for a row only look it up once. Otherwise the shard
+     * of the expected restaurante is searched first: most of the time, it is the only one searched.
+     *
+     * @param table the table: {@code cardapio}, {@code item_cardapio}, {@code pedido} or {@code item_pedido}.
+     * @param id the id of the row.
+     * @param expectedRestauranteId the restaurante the row should belong to, {@code null} if unknown.
+     * @return the id of the restaurante of the row, or empty if no shard holds it.
+     */
+    public Optional<Long> findRestauranteOf(String table, Long id, Long expectedRestauranteId) {
+        String query = RESTAURANTE_QUERIES.get(table);
+        if (query == null) {
+            throw new IllegalArgumentException("Not a tenant table: " + table);
+        }
+        String key = table + ":" + id;
+        Long cached = rowRestaurantes.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<String> names = getShardNames();
+        if (expectedRestauranteId != null) {
+            String expected = shardOf(expectedRestauranteId);
+            names.remove(expected);
+            names.add(0, expected);
+        }
+        for (String name : names) {
+            List<Long> restaurantes = new JdbcTemplate(shards.get(name)).queryForList(query, Long.class, id);
+            if (!restaurantes.isEmpty()) {
+                // Rows not found are not remembered, they may be created later
+                rowRestaurantes.put(key, restaurantes.get(0));
+                return Optional.of(restaurantes.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Assign a restaurante to a shard.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param shard the name of the shard.
+     * @param moving whether the restaurante is being moved from its current shard.
+     */
+    public void assign(Long restauranteId, String shard, boolean moving) {
+        if (!shards.containsKey(shard)) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        transactionTemplate.executeWithoutResult(
+            status -> {
+                int updated = jdbcTemplate.update(
+                    "update restaurante_shard set shard = ?, moving = ? where restaurante_id = ?",
+                    shard,
+                    moving,
+                    restauranteId
+                );
+                if (updated == 0) {
+                    jdbcTemplate.update(
+                        "insert into restaurante_shard (restaurante_id, shard, moving) values (?, ?, ?)",
+                        restauranteId,
+                        shard,
+                        moving
+                    );
+                }
+            }
+        );
+        refresh();
+    }
+
+    /**
+     * Reload the map from the default shard. The current copy is kept if it cannot be read.
+     */
+    @PostConstruct
+    public void refresh() {
+        if (!isSharded()) {
+            return;
+        }
+        try {
+            Map<Long, Assignment> loaded = transactionTemplate.execute(
+                status -> {
+                    Map<Long, Assignment> rows = new HashMap<>();
+                    jdbcTemplate.query(
+                        "select restaurante_id, shard, moving from restaurante_shard",
+                        resultSet -> {
+                            rows.put(resultSet.getLong(1), new Assignment(resultSet.getString(2), resultSet.getBoolean(3)));
+                        }
+                    );
+                    return rows;
+                }
+            );
+            assignments = Map.copyOf(loaded);
+        } catch (DataAccessException e) {
+            // Typically the schema is still being created at startup
+            log.warn("Could not load the shard map, keeping the current one: {}", e.getMessage());
+        }
+    }
+
+    private static final class Assignment {
+
+        private final String shard;
+
+        private final boolean moving;
+
+        private Assignment(String shard, boolean moving) {
+            this.shard = shard;
+            this.moving = moving;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.qrdapio.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * {@link DataSource} sending the connections of a thread to the shard it works for.
+ * <p>
+ * The shard of the {@code spring.datasource} is the {@value #DEFAULT_SHARD} one: it holds the global tables, the shard
+ * map and the restaurantes that were not moved. The other shards hold the restaurantes assigned to them, with their
+ * cardapios and pedidos. The shard is set for the thread, from the restaurante of the request, before any
+ * transaction starts; see {@link ShardMap}.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String DEFAULT_SHARD = "default";
+
+    private static final ThreadLocal<String> currentShard = new ThreadLocal<>();
+
+    private final Map<String, DataSource> shards;
+
+    /**
+     * @param shards the shards by name, including the {@value #DEFAULT_SHARD} one.
+     */
+    public ShardRoutingDataSource(Map<String, DataSource> shards) {
+        if (!shards.containsKey(DEFAULT_SHARD)) {
+            throw new IllegalArgumentException("No " + DEFAULT_SHARD + " shard in " + shards.keySet());
+        }
+        this.shards = new LinkedHashMap<>();
+        this.shards.put(DEFAULT_SHARD, shards.get(DEFAULT_SHARD));
+        this.shards.putAll(shards);
+        setTargetDataSources(new LinkedHashMap<>(this.shards));
+        setDefaultTargetDataSource(shards.get(DEFAULT_SHARD));
+        // A shard missing from the configuration must not silently fall back to the default one
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return the shard of the current thread, {@value #DEFAULT_SHARD} if none was set.
+     */
+    public static String getCurrentShard() {
+        String shard = currentShard.get();
+        return shard != null ? shard : DEFAULT_SHARD;
+    }
+
+    /**
+     * Send the connections of the current thread to a shard.
+     *
+     * @param shard the name of the shard, {@code null} for the {@value #DEFAULT_SHARD} one.
+     */
+    public static void setCurrentShard(String shard) {
+        if (shard == null || DEFAULT_SHARD.equals(shard)) {
+            currentShard.remove();
+        } else {
+            currentShard.set(shard);
+        }
+    }
+
+    /**
+     * Run some work on a shard, then go back to the shard of the thread.
+     *
+     * @param shard the name of the shard.
+     * @param work the work, which must start its own transactions.
+     * @param <T> the type of the result.
+     * @return the result of the work.
+     */
+    public static <T> T callInShard(String shard, Supplier<T> work) {
+        String previous = currentShard.get();
+        setCurrentShard(shard);
+        try {
+            return work.get();
+        } finally {
+            setCurrentShard(previous);
+        }
+    }
+
+    /**
+     * Keep the shard of the submitting thread in tasks run by an executor.
+     *
+     * @param task the task.
+     * @return the task, running on the shard of the current thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        String shard = currentShard.get();
+        if (shard == null) {
+            return task;
+        }
+        return () -> {
+            String previous = currentShard.get();
+            setCurrentShard(shard);
+            try {
+                task.run();
+            } finally {
+                setCurrentShard(previous);
+            }
+        };
+    }
+
+    /**
+     * @return the shards by name, the {@value #DEFAULT_SHARD} one first.
+     */
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return getCurrentShard();
+    }
+
+    /**
+     * Close the pools of the shards.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+}
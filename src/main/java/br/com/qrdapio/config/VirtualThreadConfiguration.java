@@ -0,0 +1,75 @@
+package br.com.qrdapio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Opt-in virtual-thread mode, enabled with {@code application.virtual-threads.enabled}.
+ * <p>
+ * Undertow dispatches servlet requests on virtual threads, and {@code @Async} tasks run on them too (see
+ * {@link AsyncConfiguration}). As the request threads are no longer bounded, the connection pool is wrapped in a
+ * {@link ConnectionLimitingDataSource} sized to it. Below Java 21 the mode is a no-op: Undertow keeps its worker
+ * pool, and the connection pool is not wrapped.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new ConnectionLimitingDataSourcePostProcessor();
+    }
+
+    /**
+     * Wraps the pool before any other post-processor, in particular before the read-replica routing of
+     * {@link DatabaseConfiguration} hides it.
+     */
+    static class ConnectionLimitingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource) || !VirtualThreadExecutors.isAvailable()) {
+                return bean;
+            }
+            return limit((HikariDataSource) bean);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    static ConnectionLimitingDataSource limit(HikariDataSource dataSource) {
+        // Fills in the defaults of the pool size and timeout, which are otherwise only applied when the pool starts
+        dataSource.validate();
+        log.debug("Limiting concurrent database access to {} connections of {}", dataSource.getMaximumPoolSize(), dataSource.getPoolName());
+        return new ConnectionLimitingDataSource(dataSource, dataSource.getMaximumPoolSize(), dataSource.getConnectionTimeout());
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.undertow.Undertow")
+    static class UndertowVirtualThreadConfiguration {
+
+        @Bean
+        public UndertowDeploymentInfoCustomizer virtualThreadDeploymentInfoCustomizer() {
+            return deploymentInfo ->
+                VirtualThreadExecutors
+                    .newVirtualThreadPerTaskExecutor("undertow-handler-")
+                    .ifPresent(executor -> {
+                        log.info("Handling Undertow requests on virtual threads");
+                        deploymentInfo.setExecutor(executor);
+                    });
+        }
+    }
+}
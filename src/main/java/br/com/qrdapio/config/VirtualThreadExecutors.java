@@ -0,0 +1,53 @@
+package br.com.qrdapio.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory of virtual-thread-per-task executors.
+ * <p>
+ * The application is compiled for Java 11, so the Java 21 API is looked up reflectively: below Java 21 no executor
+ * is returned and callers keep their platform-thread pools, so the virtual-thread mode is a no-op there.
+ */
+public final class VirtualThreadExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutors.class);
+
+    private VirtualThreadExecutors() {}
+
+    /**
+     * @return whether the JVM has virtual threads, that is whether it is Java 21 or newer.
+     */
+    public static boolean isAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @param namePrefix the prefix of the thread names, followed by a counter.
+     * @return the executor, or empty if the JVM has no virtual threads.
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor(String namePrefix) {
+        if (!isAvailable()) {
+            log.warn("Virtual threads are not available on Java {}, keeping platform threads", System.getProperty("java.version"));
+            return Optional.empty();
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory));
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, keeping platform threads", System.getProperty("java.version"));
+            return Optional.empty();
+        }
+    }
+}
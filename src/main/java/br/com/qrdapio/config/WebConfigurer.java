@@ -2,6 +2,8 @@ package br.com.qrdapio.config;
 
 import static java.net.URLDecoder.decode;
 
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.web.filter.MenuNotModifiedFilter;
 import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
@@ -11,6 +13,7 @@ import javax.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
@@ -111,6 +114,15 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    @Bean
+    public FilterRegistrationBean<MenuNotModifiedFilter> menuNotModifiedFilter(MenuSnapshotService menuSnapshotService) {
+        FilterRegistrationBean<MenuNotModifiedFilter> registration = new FilterRegistrationBean<>(
+            new MenuNotModifiedFilter(menuSnapshotService)
+        );
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
     /**
      * Initializes H2 console.
      */
@@ -1,17 +1,27 @@
 package br.com.qrdapio.domain;
 
+import br.com.qrdapio.domain.event.MenuEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Cardapio.
  */
 @Entity
+@NamedEntityGraph(name = "Cardapio.restaurante", attributeNodes = @NamedAttributeNode("restaurante"))
+@NamedEntityGraph(
+    name = "Cardapio.itemCardapios",
+    attributeNodes = { @NamedAttributeNode("restaurante"), @NamedAttributeNode("itemCardapios") }
+)
+@EntityListeners(MenuEntityListener.class)
 @Table(name = "cardapio")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Cardapio implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -26,6 +36,7 @@ public class Cardapio implements Serializable {
     private String nome;
 
     @OneToMany(mappedBy = "cardapio")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "cardapio" }, allowSetters = true)
     private Set<ItemCardapio> itemCardapios = new HashSet<>();
 
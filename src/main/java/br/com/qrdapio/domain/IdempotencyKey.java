@@ -0,0 +1,157 @@
+package br.com.qrdapio.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * The response of a create request sent with an {@code Idempotency-Key} header, replayed to its retries.
+ * <p>
+ * See {@link br.com.qrdapio.service.IdempotencyService}.
+ */
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Hash of the key, the endpoint and the user.
+     */
+    @Id
+    @Size(max = 64)
+    @Column(name = "id", length = 64)
+    private String id;
+
+    /**
+     * Hash of the request body, telling the retries from other requests reusing the key.
+     */
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @NotNull
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    @Size(max = 255)
+    @Column(name = "location", length = 255)
+    private String location;
+
+    @Lob
+    @Column(name = "body")
+    private String body;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public IdempotencyKey id(String id) {
+        this.id = id;
+        return this;
+    }
+
+    public String getRequestHash() {
+        return this.requestHash;
+    }
+
+    public IdempotencyKey requestHash(String requestHash) {
+        this.requestHash = requestHash;
+        return this;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Integer getStatus() {
+        return this.status;
+    }
+
+    public IdempotencyKey status(Integer status) {
+        this.status = status;
+        return this;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getLocation() {
+        return this.location;
+    }
+
+    public IdempotencyKey location(String location) {
+        this.location = location;
+        return this;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getBody() {
+        return this.body;
+    }
+
+    public IdempotencyKey body(String body) {
+        this.body = body;
+        return this;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public IdempotencyKey createdAt(Instant createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyKey)) {
+            return false;
+        }
+        return id != null && id.equals(((IdempotencyKey) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotencyKey{" +
+            "id='" + getId() + "'" +
+            ", requestHash='" + getRequestHash() + "'" +
+            ", status=" + getStatus() +
+            ", location='" + getLocation() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
@@ -1,17 +1,27 @@
 package br.com.qrdapio.domain;
 
 import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.event.MenuEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A ItemCardapio.
  */
 @Entity
+@NamedEntityGraph(
+    name = "ItemCardapio.cardapio",
+    attributeNodes = @NamedAttributeNode(value = "cardapio", subgraph = "cardapio"),
+    subgraphs = @NamedSubgraph(name = "cardapio", attributeNodes = @NamedAttributeNode("restaurante"))
+)
+@EntityListeners(MenuEntityListener.class)
 @Table(name = "item_cardapio")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ItemCardapio implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -37,6 +47,10 @@ public class ItemCardapio implements Serializable {
     @Column(name = "valor", precision = 21, scale = 2)
     private BigDecimal valor;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private int version;
+
     @ManyToOne(optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "itemCardapios", "restaurante" }, allowSetters = true)
@@ -108,6 +122,19 @@ public class ItemCardapio implements Serializable {
         this.valor = valor;
     }
 
+    public int getVersion() {
+        return this.version;
+    }
+
+    public ItemCardapio version(int version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public Cardapio getCardapio() {
         return this.cardapio;
     }
@@ -149,6 +176,7 @@ public class ItemCardapio implements Serializable {
             ", nome='" + getNome() + "'" +
             ", descricao='" + getDescricao() + "'" +
             ", valor=" + getValor() +
+            ", version=" + getVersion() +
             "}";
     }
 }
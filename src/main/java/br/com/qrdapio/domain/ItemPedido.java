@@ -1,7 +1,11 @@
 package br.com.qrdapio.domain;
 
+import br.com.qrdapio.domain.event.PedidoEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
@@ -9,6 +13,18 @@ import javax.validation.constraints.*;
  * A ItemPedido.
  */
 @Entity
+@NamedEntityGraph(
+    name = "ItemPedido.pedido",
+    attributeNodes = {
+        @NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode(value = "pedido", subgraph = "pedido"),
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "cardapio", subgraph = "cardapio")),
+        @NamedSubgraph(name = "cardapio", attributeNodes = @NamedAttributeNode("restaurante")),
+        @NamedSubgraph(name = "pedido", attributeNodes = @NamedAttributeNode("restaurante")),
+    }
+)
+@EntityListeners(PedidoEntityListener.class)
 @Table(name = "item_pedido")
 public class ItemPedido implements Serializable {
 
@@ -23,10 +39,26 @@ public class ItemPedido implements Serializable {
     @Column(name = "quantidade")
     private Integer quantidade;
 
-    @JsonIgnoreProperties(value = { "cardapio" }, allowSetters = true)
-    @OneToOne(optional = false)
+    /**
+     * The valor of the item when it was ordered, set by the server.
+     */
+    @Column(name = "valor_unitario", precision = 21, scale = 2)
+    private BigDecimal valorUnitario;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    /**
+     * When a kitchen station claimed the line, only set by {@link br.com.qrdapio.service.CozinhaService}.
+     */
+    @JsonIgnore
+    @Column(name = "claimed_at", insertable = false, updatable = false)
+    private Instant claimedAt;
+
+    @ManyToOne(optional = false)
     @NotNull
-    @JoinColumn(unique = true)
+    @JsonIgnoreProperties(value = { "cardapio" }, allowSetters = true)
     private ItemCardapio item;
 
     @ManyToOne(optional = false)
@@ -61,6 +93,36 @@ public class ItemPedido implements Serializable {
         this.quantidade = quantidade;
     }
 
+    public BigDecimal getValorUnitario() {
+        return this.valorUnitario;
+    }
+
+    public ItemPedido valorUnitario(BigDecimal valorUnitario) {
+        this.valorUnitario = valorUnitario;
+        return this;
+    }
+
+    public void setValorUnitario(BigDecimal valorUnitario) {
+        this.valorUnitario = valorUnitario;
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    public ItemPedido version(int version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public Instant getClaimedAt() {
+        return this.claimedAt;
+    }
+
     public ItemCardapio getItem() {
         return this.item;
     }
@@ -112,6 +174,8 @@ public class ItemPedido implements Serializable {
         return "ItemPedido{" +
             "id=" + getId() +
             ", quantidade=" + getQuantidade() +
+            ", valorUnitario=" + getValorUnitario() +
+            ", version=" + getVersion() +
             "}";
     }
 }
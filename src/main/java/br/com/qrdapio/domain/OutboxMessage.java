@@ -0,0 +1,211 @@
+package br.com.qrdapio.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * An event waiting to be delivered to one sink, see {@link br.com.qrdapio.service.OutboxService}.
+ */
+@Entity
+@Table(name = "outbox")
+public class OutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "sink", length = 50, nullable = false)
+    private String sink;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "event_type", length = 50, nullable = false)
+    private String eventType;
+
+    @NotNull
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    /**
+     * Id of the entity the event is about.
+     */
+    @NotNull
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /**
+     * The entity as JSON, as of the transaction of the event.
+     */
+    @NotNull
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public OutboxMessage id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public String getSink() {
+        return this.sink;
+    }
+
+    public OutboxMessage sink(String sink) {
+        this.sink = sink;
+        return this;
+    }
+
+    public void setSink(String sink) {
+        this.sink = sink;
+    }
+
+    public String getEventType() {
+        return this.eventType;
+    }
+
+    public OutboxMessage eventType(String eventType) {
+        this.eventType = eventType;
+        return this;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getRestauranteId() {
+        return this.restauranteId;
+    }
+
+    public OutboxMessage restauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+        return this;
+    }
+
+    public void setRestauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    public Long getAggregateId() {
+        return this.aggregateId;
+    }
+
+    public OutboxMessage aggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+        return this;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public OutboxMessage payload(String payload) {
+        this.payload = payload;
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public OutboxMessage createdAt(Instant createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public OutboxMessage attempts(Integer attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public OutboxMessage nextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxMessage)) {
+            return false;
+        }
+        return id != null && id.equals(((OutboxMessage) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxMessage{" +
+            "id=" + getId() +
+            ", sink='" + getSink() + "'" +
+            ", eventType='" + getEventType() + "'" +
+            ", restauranteId=" + getRestauranteId() +
+            ", aggregateId=" + getAggregateId() +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            "}";
+    }
+}
@@ -1,8 +1,12 @@
 package br.com.qrdapio.domain;
 
 import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.domain.event.PedidoEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -13,6 +17,17 @@ import javax.validation.constraints.*;
  * A Pedido.
  */
 @Entity
+@NamedEntityGraph(name = "Pedido.restaurante", attributeNodes = @NamedAttributeNode("restaurante"))
+@NamedEntityGraph(
+    name = "Pedido.itemPedidos",
+    attributeNodes = { @NamedAttributeNode("restaurante"), @NamedAttributeNode(value = "itemPedidos", subgraph = "itemPedidos") },
+    subgraphs = {
+        @NamedSubgraph(name = "itemPedidos", attributeNodes = @NamedAttributeNode(value = "item", subgraph = "item")),
+        @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "cardapio", subgraph = "cardapio")),
+        @NamedSubgraph(name = "cardapio", attributeNodes = @NamedAttributeNode("restaurante")),
+    }
+)
+@EntityListeners(PedidoEntityListener.class)
 @Table(name = "pedido")
 public class Pedido implements Serializable {
 
@@ -32,9 +47,34 @@ public class Pedido implements Serializable {
     @Column(name = "data_hora", nullable = false)
     private ZonedDateTime dataHora;
 
-    @Column(name = "senha", unique = true)
+    @Column(name = "senha")
     private Integer senha;
 
+    /**
+     * The business day the senha was handed out, set by the server with the senha: a senha is unique per restaurante
+     * and dia.
+     */
+    @Column(name = "dia")
+    private LocalDate dia;
+
+    /**
+     * Only changed through {@link br.com.qrdapio.service.PedidoService#changeStatus}, which checks the transitions.
+     */
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatusPedido status = StatusPedido.RECEBIDO;
+
+    /**
+     * The sum of the valorUnitario times the quantidade of the items, kept up to date by the server.
+     */
+    @Column(name = "total", precision = 21, scale = 2, nullable = false)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private int version;
+
     @OneToMany(mappedBy = "pedido")
     @JsonIgnoreProperties(value = { "item", "pedido" }, allowSetters = true)
     private Set<ItemPedido> itemPedidos = new HashSet<>();
@@ -97,6 +137,58 @@ public class Pedido implements Serializable {
         this.senha = senha;
     }
 
+    public LocalDate getDia() {
+        return this.dia;
+    }
+
+    public Pedido dia(LocalDate dia) {
+        this.dia = dia;
+        return this;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public StatusPedido getStatus() {
+        return this.status;
+    }
+
+    public Pedido status(StatusPedido status) {
+        this.status = status;
+        return this;
+    }
+
+    public void setStatus(StatusPedido status) {
+        this.status = status;
+    }
+
+    public BigDecimal getTotal() {
+        return this.total;
+    }
+
+    public Pedido total(BigDecimal total) {
+        this.total = total;
+        return this;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    public Pedido version(int version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public Set<ItemPedido> getItemPedidos() {
         return this.itemPedidos;
     }
@@ -168,6 +260,10 @@ public class Pedido implements Serializable {
             ", formaPagamento='" + getFormaPagamento() + "'" +
             ", dataHora='" + getDataHora() + "'" +
             ", senha=" + getSenha() +
+            ", dia='" + getDia() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", total=" + getTotal() +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -1,17 +1,23 @@
 package br.com.qrdapio.domain;
 
+import br.com.qrdapio.domain.event.MenuEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Restaurante.
  */
 @Entity
+@NamedEntityGraph(name = "Restaurante.cardapios", attributeNodes = @NamedAttributeNode("cardapios"))
+@EntityListeners(MenuEntityListener.class)
 @Table(name = "restaurante")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Restaurante implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -0,0 +1,113 @@
+package br.com.qrdapio.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * The next ticket number ("senha") not yet reserved by any server, per restaurante and business day.
+ */
+@Entity
+@Table(name = "senha_bloco")
+public class SenhaBloco implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    @NotNull
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+
+    @NotNull
+    @Column(name = "proximo", nullable = false)
+    private Integer proximo;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SenhaBloco id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public Long getRestauranteId() {
+        return this.restauranteId;
+    }
+
+    public SenhaBloco restauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+        return this;
+    }
+
+    public void setRestauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    public LocalDate getDia() {
+        return this.dia;
+    }
+
+    public SenhaBloco dia(LocalDate dia) {
+        this.dia = dia;
+        return this;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public Integer getProximo() {
+        return this.proximo;
+    }
+
+    public SenhaBloco proximo(Integer proximo) {
+        this.proximo = proximo;
+        return this;
+    }
+
+    public void setProximo(Integer proximo) {
+        this.proximo = proximo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SenhaBloco)) {
+            return false;
+        }
+        return id != null && id.equals(((SenhaBloco) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SenhaBloco{" +
+            "id=" + getId() +
+            ", restauranteId=" + getRestauranteId() +
+            ", dia='" + getDia() + "'" +
+            ", proximo=" + getProximo() +
+            "}";
+    }
+}
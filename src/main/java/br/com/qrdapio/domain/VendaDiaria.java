@@ -0,0 +1,174 @@
+package br.com.qrdapio.domain;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * The sales of a restaurante in a business day, for one forma de pagamento and one categoria of items.
+ * <p>
+ * Derived from the {@link ItemPedido}s, see {@link br.com.qrdapio.service.VendaDiariaService}.
+ */
+@Entity
+@Table(name = "sales_daily_rollup")
+public class VendaDiaria implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    @NotNull
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "forma_pagamento", nullable = false)
+    private FormaPagamento formaPagamento;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "categoria", nullable = false)
+    private Categoria categoria;
+
+    @NotNull
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade;
+
+    @NotNull
+    @Column(name = "total", precision = 21, scale = 2, nullable = false)
+    private BigDecimal total;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public VendaDiaria id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public Long getRestauranteId() {
+        return this.restauranteId;
+    }
+
+    public VendaDiaria restauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+        return this;
+    }
+
+    public void setRestauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    public LocalDate getDia() {
+        return this.dia;
+    }
+
+    public VendaDiaria dia(LocalDate dia) {
+        this.dia = dia;
+        return this;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public FormaPagamento getFormaPagamento() {
+        return this.formaPagamento;
+    }
+
+    public VendaDiaria formaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+        return this;
+    }
+
+    public void setFormaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+    }
+
+    public Categoria getCategoria() {
+        return this.categoria;
+    }
+
+    public VendaDiaria categoria(Categoria categoria) {
+        this.categoria = categoria;
+        return this;
+    }
+
+    public void setCategoria(Categoria categoria) {
+        this.categoria = categoria;
+    }
+
+    public Long getQuantidade() {
+        return this.quantidade;
+    }
+
+    public VendaDiaria quantidade(Long quantidade) {
+        this.quantidade = quantidade;
+        return this;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getTotal() {
+        return this.total;
+    }
+
+    public VendaDiaria total(BigDecimal total) {
+        this.total = total;
+        return this;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VendaDiaria)) {
+            return false;
+        }
+        return id != null && id.equals(((VendaDiaria) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VendaDiaria{" +
+            "id=" + getId() +
+            ", restauranteId=" + getRestauranteId() +
+            ", dia='" + getDia() + "'" +
+            ", formaPagamento='" + getFormaPagamento() + "'" +
+            ", categoria='" + getCategoria() + "'" +
+            ", quantidade=" + getQuantidade() +
+            ", total=" + getTotal() +
+            "}";
+    }
+}
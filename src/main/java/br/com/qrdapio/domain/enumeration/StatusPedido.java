@@ -0,0 +1,39 @@
+package br.com.qrdapio.domain.enumeration;
+
+/**
+ * The StatusPedido enumeration.
+ * <p>
+ * A pedido is {@link #RECEBIDO received}, {@link #EM_PREPARO prepared}, {@link #PRONTO ready} then
+ * {@link #ENTREGUE delivered}; it may be {@link #CANCELADO cancelled} until it is ready.
+ */
+public enum StatusPedido {
+    RECEBIDO,
+    EM_PREPARO,
+    PRONTO,
+    ENTREGUE,
+    CANCELADO;
+
+    /**
+     * @param status the next status.
+     * @return whether a pedido in this status may move to the next one.
+     */
+    public boolean podeMudarPara(StatusPedido status) {
+        switch (this) {
+            case RECEBIDO:
+                return status == EM_PREPARO || status == CANCELADO;
+            case EM_PREPARO:
+                return status == PRONTO || status == CANCELADO;
+            case PRONTO:
+                return status == ENTREGUE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return whether a pedido in this status is still to be delivered.
+     */
+    public boolean isAberto() {
+        return this == RECEBIDO || this == EM_PREPARO || this == PRONTO;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.qrdapio.domain.event;
+
+import java.io.Serializable;
+
+/**
+ * Published whenever a {@link br.com.qrdapio.domain.ItemPedido} line is created, in addition to the
+ * {@link PedidoChangedEvent} of its pedido.
+ * <p>
+ * The line may only hold bare references to its pedido and item, listeners should load it by id.
+ */
+public class ItemPedidoCreatedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long itemPedidoId;
+
+    public ItemPedidoCreatedEvent(Long itemPedidoId) {
+        this.itemPedidoId = itemPedidoId;
+    }
+
+    public Long getItemPedidoId() {
+        return itemPedidoId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemPedidoCreatedEvent{" +
+            "itemPedidoId=" + itemPedidoId +
+            "}";
+    }
+}
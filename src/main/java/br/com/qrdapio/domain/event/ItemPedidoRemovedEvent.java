@@ -0,0 +1,46 @@
+package br.com.qrdapio.domain.event;
+
+import java.io.Serializable;
+
+/**
+ * Published whenever a {@link br.com.qrdapio.domain.ItemPedido} line is deleted, in addition to the
+ * {@link PedidoChangedEvent} of its pedido.
+ */
+public class ItemPedidoRemovedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long itemPedidoId;
+
+    private final Long pedidoId;
+
+    private final Long restauranteId;
+
+    public ItemPedidoRemovedEvent(Long itemPedidoId, Long pedidoId, Long restauranteId) {
+        this.itemPedidoId = itemPedidoId;
+        this.pedidoId = pedidoId;
+        this.restauranteId = restauranteId;
+    }
+
+    public Long getItemPedidoId() {
+        return itemPedidoId;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemPedidoRemovedEvent{" +
+            "itemPedidoId=" + itemPedidoId +
+            ", pedidoId=" + pedidoId +
+            ", restauranteId=" + restauranteId +
+            "}";
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.qrdapio.domain.event;
+
+import java.io.Serializable;
+
+/**
+ * Published whenever a {@link br.com.qrdapio.domain.Restaurante}, {@link br.com.qrdapio.domain.Cardapio} or
+ * {@link br.com.qrdapio.domain.ItemCardapio} is created, updated or removed.
+ * <p>
+ * The owning restaurante is not always known when the entity is persisted with a bare reference
+ * (e.g. an item created with {@code "cardapio": {"id": 1}}), so listeners should also match on the
+ * cardapio and item ids.
+ */
+public class MenuChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long restauranteId;
+
+    private final Long cardapioId;
+
+    private final Long itemCardapioId;
+
+    public MenuChangedEvent(Long restauranteId, Long cardapioId, Long itemCardapioId) {
+        this.restauranteId = restauranteId;
+        this.cardapioId = cardapioId;
+        this.itemCardapioId = itemCardapioId;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public Long getCardapioId() {
+        return cardapioId;
+    }
+
+    public Long getItemCardapioId() {
+        return itemCardapioId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MenuChangedEvent{" +
+            "restauranteId=" + restauranteId +
+            ", cardapioId=" + cardapioId +
+            ", itemCardapioId=" + itemCardapioId +
+            "}";
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.qrdapio.domain.event;
+
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Restaurante;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that turns menu writes into {@link MenuChangedEvent}s.
+ * <p>
+ * Events are published inside the writing transaction; consumers that need the committed state should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ */
+public class MenuEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MenuEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onMenuChange(Object entity) {
+        if (entity instanceof Restaurante) {
+            eventPublisher.publishEvent(new MenuChangedEvent(((Restaurante) entity).getId(), null, null));
+        } else if (entity instanceof Cardapio) {
+            Cardapio cardapio = (Cardapio) entity;
+            eventPublisher.publishEvent(new MenuChangedEvent(restauranteId(cardapio), cardapio.getId(), null));
+        } else if (entity instanceof ItemCardapio) {
+            ItemCardapio itemCardapio = (ItemCardapio) entity;
+            Cardapio cardapio = itemCardapio.getCardapio();
+            eventPublisher.publishEvent(
+                new MenuChangedEvent(restauranteId(cardapio), cardapio != null ? cardapio.getId() : null, itemCardapio.getId())
+            );
+        }
+    }
+
+    private static Long restauranteId(Cardapio cardapio) {
+        if (cardapio == null || cardapio.getRestaurante() == null) {
+            return null;
+        }
+        return cardapio.getRestaurante().getId();
+    }
+}
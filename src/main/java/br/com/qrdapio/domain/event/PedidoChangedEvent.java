@@ -0,0 +1,33 @@
+package br.com.qrdapio.domain.event;
+
+import java.io.Serializable;
+
+/**
+ * Published whenever a {@link br.com.qrdapio.domain.Pedido} or one of its
+ * {@link br.com.qrdapio.domain.ItemPedido} lines is created or updated.
+ * <p>
+ * A pedido submitted with several lines publishes several events in the same transaction, listeners
+ * should coalesce them by pedido id.
+ */
+public class PedidoChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long pedidoId;
+
+    public PedidoChangedEvent(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoChangedEvent{" +
+            "pedidoId=" + pedidoId +
+            "}";
+    }
+}
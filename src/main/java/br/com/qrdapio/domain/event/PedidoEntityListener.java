@@ -0,0 +1,66 @@
+package br.com.qrdapio.domain.event;
+
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that turns pedido writes into {@link PedidoChangedEvent}s, new lines into
+ * {@link ItemPedidoCreatedEvent}s, and deletions into {@link PedidoRemovedEvent}s and {@link ItemPedidoRemovedEvent}s.
+ * <p>
+ * Events are published inside the writing transaction, see {@link MenuEntityListener}.
+ */
+public class PedidoEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PedidoEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPedidoCreated(Object entity) {
+        onPedidoChange(entity);
+        if (entity instanceof ItemPedido) {
+            eventPublisher.publishEvent(new ItemPedidoCreatedEvent(((ItemPedido) entity).getId()));
+        }
+    }
+
+    @PostUpdate
+    public void onPedidoChange(Object entity) {
+        if (entity instanceof Pedido) {
+            eventPublisher.publishEvent(new PedidoChangedEvent(((Pedido) entity).getId()));
+        } else if (entity instanceof ItemPedido) {
+            Pedido pedido = ((ItemPedido) entity).getPedido();
+            if (pedido != null && pedido.getId() != null) {
+                eventPublisher.publishEvent(new PedidoChangedEvent(pedido.getId()));
+            }
+        }
+    }
+
+    @PostRemove
+    public void onPedidoRemoved(Object entity) {
+        if (entity instanceof Pedido) {
+            Pedido pedido = (Pedido) entity;
+            eventPublisher.publishEvent(new PedidoRemovedEvent(pedido.getId(), restauranteId(pedido)));
+        } else if (entity instanceof ItemPedido) {
+            ItemPedido itemPedido = (ItemPedido) entity;
+            Pedido pedido = itemPedido.getPedido();
+            eventPublisher.publishEvent(
+                new ItemPedidoRemovedEvent(itemPedido.getId(), pedido != null ? pedido.getId() : null, restauranteId(pedido))
+            );
+            // The pedido itself lost a line
+            onPedidoChange(entity);
+        }
+    }
+
+    private static Long restauranteId(Pedido pedido) {
+        if (pedido == null || pedido.getRestaurante() == null) {
+            return null;
+        }
+        return pedido.getRestaurante().getId();
+    }
+}
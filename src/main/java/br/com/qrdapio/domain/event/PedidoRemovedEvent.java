@@ -0,0 +1,39 @@
+package br.com.qrdapio.domain.event;
+
+import java.io.Serializable;
+
+/**
+ * Published whenever a {@link br.com.qrdapio.domain.Pedido} is deleted.
+ * <p>
+ * The pedido is gone once the transaction commits, listeners should not load it.
+ */
+public class PedidoRemovedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long pedidoId;
+
+    private final Long restauranteId;
+
+    public PedidoRemovedEvent(Long pedidoId, Long restauranteId) {
+        this.pedidoId = pedidoId;
+        this.restauranteId = restauranteId;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoRemovedEvent{" +
+            "pedidoId=" + pedidoId +
+            ", restauranteId=" + restauranteId +
+            "}";
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.qrdapio.domain.event;
+
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.io.Serializable;
+
+/**
+ * Published whenever a {@link br.com.qrdapio.domain.Pedido} moves to another status, in addition to its
+ * {@link PedidoChangedEvent}.
+ */
+public class PedidoStatusChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long pedidoId;
+
+    private final Long restauranteId;
+
+    private final StatusPedido de;
+
+    private final StatusPedido para;
+
+    public PedidoStatusChangedEvent(Long pedidoId, Long restauranteId, StatusPedido de, StatusPedido para) {
+        this.pedidoId = pedidoId;
+        this.restauranteId = restauranteId;
+        this.de = de;
+        this.para = para;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public StatusPedido getDe() {
+        return de;
+    }
+
+    public StatusPedido getPara() {
+        return para;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoStatusChangedEvent{" +
+            "pedidoId=" + pedidoId +
+            ", restauranteId=" + restauranteId +
+            ", de='" + de + "'" +
+            ", para='" + para + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Domain events and the JPA entity listeners publishing them.
+ */
+package br.com.qrdapio.domain.event;
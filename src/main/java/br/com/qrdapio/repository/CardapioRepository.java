@@ -1,6 +1,8 @@
 package br.com.qrdapio.repository;
 
 import br.com.qrdapio.domain.Cardapio;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,9 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CardapioRepository extends JpaRepository<Cardapio, Long> {}
+public interface CardapioRepository extends JpaRepository<Cardapio, Long> {
+    List<Cardapio> findAllByRestauranteIdOrderById(Long restauranteId);
+
+    @EntityGraph("Cardapio.itemCardapios")
+    Optional<Cardapio> findOneWithItemCardapiosById(Long id);
+}
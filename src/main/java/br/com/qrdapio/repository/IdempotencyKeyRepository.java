@@ -0,0 +1,17 @@
+package br.com.qrdapio.repository;
+
+import br.com.qrdapio.domain.IdempotencyKey;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the IdempotencyKey entity.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteByCreatedAtBefore(@Param("before") Instant before);
+}
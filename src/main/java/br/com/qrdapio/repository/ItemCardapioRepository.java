@@ -1,7 +1,10 @@
 package br.com.qrdapio.repository;
 
 import br.com.qrdapio.domain.ItemCardapio;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ItemCardapioRepository extends JpaRepository<ItemCardapio, Long> {}
+public interface ItemCardapioRepository extends JpaRepository<ItemCardapio, Long> {
+    List<ItemCardapio> findAllByCardapioRestauranteIdOrderById(Long restauranteId);
+
+    @Query(
+        "select itemCardapio from ItemCardapio itemCardapio join fetch itemCardapio.cardapio cardapio " +
+        "where itemCardapio.id in :ids and cardapio.restaurante.id = :restauranteId"
+    )
+    List<ItemCardapio> findAllByIdInAndRestauranteId(@Param("ids") Collection<Long> ids, @Param("restauranteId") Long restauranteId);
+}
@@ -0,0 +1,25 @@
+package br.com.qrdapio.repository;
+
+import br.com.qrdapio.domain.OutboxMessage;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the OutboxMessage entity.
+ */
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from OutboxMessage m where m.nextAttemptAt <= :now order by m.nextAttemptAt, m.id")
+    List<OutboxMessage> findDue(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxMessage m where m.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,131 @@
+package br.com.qrdapio.repository;
+
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the merge-patch updates of the versioned entities, run as a single
+ * {@code UPDATE ... SET ..., version = version + 1 WHERE id = ? AND version = ?} statement instead of loading the
+ * entity, changing it and flushing it back.
+ * <p>
+ * Only the non-null values are set, once validated against the constraints of their attribute. The statement
+ * bypasses the entity listeners: callers publish the events of the update themselves.
+ */
+@Repository
+public class PartialUpdateRepository {
+
+    private final EntityManager em;
+
+    private final Validator validator;
+
+    public PartialUpdateRepository(EntityManager em, Validator validator) {
+        this.em = em;
+        this.validator = validator;
+    }
+
+    /**
+     * Start an update of an entity.
+     *
+     * @param type the type of the entity, which must have a {@link javax.persistence.Version}.
+     * @param id the id of the entity.
+     * @param version the version the update applies to, {@code null} for any version.
+     * @param <T> the type of the entity.
+     * @return the update, to add the values to.
+     */
+    public <T> Update<T> update(Class<T> type, Long id, Integer version) {
+        return new Update<>(type, id, version);
+    }
+
+    /**
+     * An update of an entity.
+     *
+     * @param <T> the type of the entity.
+     */
+    public final class Update<T> {
+
+        private final Class<T> type;
+
+        private final Long id;
+
+        private final CriteriaUpdate<T> update;
+
+        private final Root<T> root;
+
+        private Update(Class<T> type, Long id, Integer version) {
+            this.type = type;
+            this.id = id;
+            EntityType<T> entity = em.getMetamodel().entity(type);
+            String versionName = entity
+                .getSingularAttributes()
+                .stream()
+                .filter(SingularAttribute::isVersion)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(type.getName() + " is not versioned"))
+                .getName();
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            this.update = cb.createCriteriaUpdate(type);
+            this.root = update.from(type);
+            Path<Integer> versionPath = root.get(versionName);
+            update.set(versionPath, cb.sum(versionPath, 1));
+            Predicate where = cb.equal(root.get(entity.getId(Long.class)), id);
+            if (version != null) {
+                where = cb.and(where, cb.equal(versionPath, version));
+            }
+            update.where(where);
+        }
+
+        /**
+         * Set an attribute, unless the value is {@code null}.
+         *
+         * @param attribute the attribute.
+         * @param value the new value, {@code null} to keep the current one.
+         * @param <V> the type of the attribute.
+         * @return this update.
+         * @throws ConstraintViolationException if the value is not valid for the attribute.
+         */
+        public <V> Update<T> set(SingularAttribute<? super T, V> attribute, V value) {
+            if (value != null) {
+                Set<ConstraintViolation<T>> violations = validator.validateValue(type, attribute.getName(), value);
+                if (!violations.isEmpty()) {
+                    throw new ConstraintViolationException(violations);
+                }
+                update.set(root.get(attribute), value);
+            }
+            return this;
+        }
+
+        /**
+         * Run the update.
+         *
+         * @return the updated entity, or empty if there is no such entity at that version.
+         */
+        public Optional<T> execute() {
+            if (em.createQuery(update).executeUpdate() == 0) {
+                return Optional.empty();
+            }
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            EntityPersister persister = session.getFactory().getMetamodel().entityPersister(type);
+            Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (managed == null) {
+                return Optional.of(em.find(type, id));
+            }
+            // Loaded earlier in the transaction, with the values from before the update
+            em.refresh(managed);
+            return Optional.of(type.cast(managed));
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package br.com.qrdapio.repository;
 
 import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +14,40 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {}
+public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+    @Query(
+        "select distinct pedido from Pedido pedido join fetch pedido.restaurante " +
+        "left join fetch pedido.itemPedidos itemPedido left join fetch itemPedido.item where pedido.id in :ids"
+    )
+    List<Pedido> findAllWithItemPedidosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph("Pedido.itemPedidos")
+    Optional<Pedido> findOneWithItemPedidosById(Long id);
+
+    /**
+     * Set the total of a pedido to the sum of its lines, once one of them was created, updated or deleted on its own.
+     *
+     * @param id the id of the pedido.
+     * @return the number of rows updated, {@code 0} if there is no such pedido.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update versioned Pedido pedido set pedido.total = (" +
+        "select coalesce(sum(itemPedido.valorUnitario * itemPedido.quantidade), 0) from ItemPedido itemPedido " +
+        "where itemPedido.pedido.id = :id) where pedido.id = :id"
+    )
+    int updateTotal(@Param("id") Long id);
+
+    /**
+     * Move a pedido to another status, only if it is still in the expected one.
+     * The persistence context is cleared, so that the pedido is read again with its new status and version.
+     *
+     * @param id the id of the pedido.
+     * @param de the expected status.
+     * @param para the new status.
+     * @return the number of rows updated, {@code 0} if there is no such pedido or it is in another status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Pedido pedido set pedido.status = :para where pedido.id = :id and pedido.status = :de")
+    int updateStatus(@Param("id") Long id, @Param("de") StatusPedido de, @Param("para") StatusPedido para);
+}
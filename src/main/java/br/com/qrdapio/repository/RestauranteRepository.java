@@ -1,6 +1,7 @@
 package br.com.qrdapio.repository;
 
 import br.com.qrdapio.domain.Restaurante;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +10,7 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RestauranteRepository extends JpaRepository<Restaurante, Long> {}
+public interface RestauranteRepository extends JpaRepository<Restaurante, Long> {
+    @EntityGraph("Restaurante.cardapios")
+    Optional<Restaurante> findOneWithCardapiosById(Long id);
+}
@@ -0,0 +1,17 @@
+package br.com.qrdapio.repository;
+
+import br.com.qrdapio.domain.SenhaBloco;
+import java.time.LocalDate;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the SenhaBloco entity.
+ */
+@Repository
+public interface SenhaBlocoRepository extends JpaRepository<SenhaBloco, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SenhaBloco> findOneByRestauranteIdAndDia(Long restauranteId, LocalDate dia);
+}
@@ -0,0 +1,47 @@
+package br.com.qrdapio.repository;
+
+import br.com.qrdapio.domain.VendaDiaria;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the VendaDiaria entity.
+ */
+@Repository
+public interface VendaDiariaRepository extends JpaRepository<VendaDiaria, Long> {
+    List<VendaDiaria> findAllByRestauranteIdAndDiaBetweenOrderByDiaAscFormaPagamentoAscCategoriaAsc(
+        Long restauranteId,
+        LocalDate from,
+        LocalDate to
+    );
+
+    /**
+     * Add to the totals of a day, in place.
+     *
+     * @return the number of rows updated, {@code 0} if the day has no row for these keys yet.
+     */
+    @Modifying
+    @Query(
+        "update VendaDiaria venda set venda.quantidade = venda.quantidade + :quantidade, venda.total = venda.total + :total " +
+        "where venda.restauranteId = :restauranteId and venda.dia = :dia " +
+        "and venda.formaPagamento = :formaPagamento and venda.categoria = :categoria"
+    )
+    int addToTotals(
+        @Param("restauranteId") Long restauranteId,
+        @Param("dia") LocalDate dia,
+        @Param("formaPagamento") FormaPagamento formaPagamento,
+        @Param("categoria") Categoria categoria,
+        @Param("quantidade") long quantidade,
+        @Param("total") BigDecimal total
+    );
+
+    @Modifying
+    @Query("delete from VendaDiaria venda where venda.dia between :from and :to")
+    int deleteAllByDiaBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,13 +1,24 @@
 package br.com.qrdapio.security.oauth2;
 
+import br.com.qrdapio.config.ApplicationProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -23,9 +34,18 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Claim converter to add custom claims by retrieving the user from the userinfo endpoint.
+ * <p>
+ * Users are cached by {@code sub}, in a bounded cache whose entries expire after
+ * {@code application.user-info.time-to-live}. Concurrent requests for a missing user share a single call to the
+ * provider, and a user older than {@code application.user-info.refresh-after} is still served while it is
+ * reloaded in the background.
  */
 public class CustomClaimConverter implements Converter<Map<String, Object>, Map<String, Object>> {
 
+    static final String CACHE_NAME = "userInfo";
+
+    private final Logger log = LoggerFactory.getLogger(CustomClaimConverter.class);
+
     private final BearerTokenResolver bearerTokenResolver = new DefaultBearerTokenResolver();
 
     private final MappedJwtClaimSetConverter delegate = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
@@ -34,11 +54,53 @@ public class CustomClaimConverter implements Converter<Map<String, Object>, Map<
 
     private final ClientRegistration registration;
 
-    private final Map<String, ObjectNode> users = new HashMap<>();
+    private final Cache<String, CachedUser> users;
+
+    private final Ticker ticker;
+
+    private final long refreshAfterNanos;
 
-    public CustomClaimConverter(ClientRegistration registration, RestTemplate restTemplate) {
+    private final Executor executor;
+
+    private final Counter refreshes;
+
+    private final Counter refreshFailures;
+
+    public CustomClaimConverter(
+        ClientRegistration registration,
+        RestTemplate restTemplate,
+        ApplicationProperties.UserInfo properties,
+        Executor executor,
+        MeterRegistry meterRegistry
+    ) {
+        this(registration, restTemplate, properties, executor, meterRegistry, Ticker.systemTicker());
+    }
+
+    CustomClaimConverter(
+        ClientRegistration registration,
+        RestTemplate restTemplate,
+        ApplicationProperties.UserInfo properties,
+        Executor executor,
+        MeterRegistry meterRegistry,
+        Ticker ticker
+    ) {
         this.registration = registration;
         this.restTemplate = restTemplate;
+        this.executor = executor;
+        this.ticker = ticker;
+        this.refreshAfterNanos = properties.getRefreshAfter().toNanos();
+        this.users =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTimeToLive())
+                .executor(executor)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+        this.refreshes = meterRegistry.counter("cache.refreshes", "cache", CACHE_NAME, "result", "success");
+        this.refreshFailures = meterRegistry.counter("cache.refreshes", "cache", CACHE_NAME, "result", "failure");
     }
 
     public Map<String, Object> convert(Map<String, Object> claims) {
@@ -52,18 +114,7 @@ public class CustomClaimConverter implements Converter<Map<String, Object>, Map<
             headers.set("Authorization", buildBearer(token));
 
             // Retrieve user infos from OAuth provider if not already loaded
-            ObjectNode user = users.computeIfAbsent(
-                claims.get("sub").toString(),
-                s -> {
-                    ResponseEntity<ObjectNode> userInfo = restTemplate.exchange(
-                        registration.getProviderDetails().getUserInfoEndpoint().getUri(),
-                        HttpMethod.GET,
-                        new HttpEntity<String>(headers),
-                        ObjectNode.class
-                    );
-                    return userInfo.getBody();
-                }
-            );
+            ObjectNode user = getUser(claims.get("sub").toString(), headers);
 
             // Add custom claims
             if (user != null) {
@@ -82,7 +133,64 @@ public class CustomClaimConverter implements Converter<Map<String, Object>, Map<
         return convertedClaims;
     }
 
+    private ObjectNode getUser(String sub, HttpHeaders headers) {
+        // Only one thread loads a missing user, the others wait for its result
+        CachedUser cached = users.get(sub, s -> load(headers));
+        if (cached == null) {
+            return null;
+        }
+        if (ticker.read() - cached.loadedAt >= refreshAfterNanos && cached.refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> refresh(sub, headers, cached));
+            } catch (RejectedExecutionException e) {
+                log.warn("Could not schedule the refresh of user info of {}: {}", sub, e.getMessage());
+                cached.refreshing.set(false);
+            }
+        }
+        return cached.user;
+    }
+
+    private void refresh(String sub, HttpHeaders headers, CachedUser stale) {
+        try {
+            CachedUser refreshed = load(headers);
+            if (refreshed != null) {
+                users.asMap().replace(sub, stale, refreshed);
+            }
+            refreshes.increment();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh user info of {}: {}", sub, e.getMessage());
+            refreshFailures.increment();
+        } finally {
+            // Still cached if the refresh failed or found nothing, in which case the next request tries again
+            stale.refreshing.set(false);
+        }
+    }
+
+    private CachedUser load(HttpHeaders headers) {
+        ResponseEntity<ObjectNode> userInfo = restTemplate.exchange(
+            registration.getProviderDetails().getUserInfoEndpoint().getUri(),
+            HttpMethod.GET,
+            new HttpEntity<String>(headers),
+            ObjectNode.class
+        );
+        return userInfo.getBody() == null ? null : new CachedUser(userInfo.getBody(), ticker.read());
+    }
+
     private String buildBearer(String token) {
         return "Bearer " + token;
     }
+
+    private static final class CachedUser {
+
+        private final ObjectNode user;
+
+        private final long loadedAt;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private CachedUser(ObjectNode user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
 }
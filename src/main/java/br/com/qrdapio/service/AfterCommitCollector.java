@@ -0,0 +1,79 @@
+package br.com.qrdapio.service;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the ids changed by the current transaction, to handle them at once when it commits.
+ * <p>
+ * The entity events come one per row, while the services listening to them read the rows again in batches: each
+ * service registers one collector per transaction, which hands it all the ids after the commit.
+ */
+final class AfterCommitCollector implements TransactionSynchronization {
+
+    private final Object key;
+
+    private final Set<Long> ids = new LinkedHashSet<>();
+
+    private final Consumer<Set<Long>> afterCommit;
+
+    private AfterCommitCollector(Object key, Consumer<Set<Long>> afterCommit) {
+        this.key = key;
+        this.afterCommit = afterCommit;
+    }
+
+    /**
+     * Collect an id changed by the current transaction, or handle it right away without transaction.
+     *
+     * @param key the collector of the current transaction to add the id to, one per service.
+     * @param id the changed id.
+     * @param afterCommit handles the ids collected, once the transaction commits.
+     */
+    static void collect(Object key, Long id, Consumer<Set<Long>> afterCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit.accept(Set.of(id));
+            return;
+        }
+        registered(AfterCommitCollector.class, collector -> collector.key == key, () -> new AfterCommitCollector(key, afterCommit))
+            .ids.add(id);
+    }
+
+    /**
+     * Get the synchronization of a type registered with the current transaction, registering a new one the first
+     * time.
+     *
+     * @param type the type of the synchronization.
+     * @param factory creates the synchronization, which is then registered.
+     * @return the synchronization.
+     */
+    static <S extends TransactionSynchronization> S registered(Class<S> type, Supplier<S> factory) {
+        return registered(type, synchronization -> true, factory);
+    }
+
+    private static <S extends TransactionSynchronization> S registered(Class<S> type, Predicate<S> filter, Supplier<S> factory) {
+        return TransactionSynchronizationManager
+            .getSynchronizations()
+            .stream()
+            .filter(type::isInstance)
+            .map(type::cast)
+            .filter(filter)
+            .findFirst()
+            .orElseGet(
+                () -> {
+                    S synchronization = factory.get();
+                    TransactionSynchronizationManager.registerSynchronization(synchronization);
+                    return synchronization;
+                }
+            );
+    }
+
+    @Override
+    public void afterCommit() {
+        afterCommit.accept(ids);
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.Cardapio_;
+import br.com.qrdapio.domain.Restaurante_;
+import br.com.qrdapio.service.criteria.CardapioCriteria;
+import br.com.qrdapio.service.dto.CardapioResumoDTO;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link Cardapio} entities in the database.
+ * The main input is a {@link CardapioCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Slice} of {@link Cardapio} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CardapioQueryService extends KeysetQueryService<Cardapio> {
+
+    private final Logger log = LoggerFactory.getLogger(CardapioQueryService.class);
+
+    private final EntityManager entityManager;
+
+    public CardapioQueryService(EntityManager entityManager) {
+        super(entityManager, Cardapio.class, Cardapio_.id, "Cardapio.restaurante");
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Cardapio} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after the id of the last entity of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, in id order.
+     */
+    public Slice<Cardapio> findByCriteria(CardapioCriteria criteria, Long after, int size) {
+        log.debug("find by criteria : {}, after : {}, size : {}", criteria, after, size);
+        final Specification<Cardapio> specification = createSpecification(criteria);
+        return findAfter(specification, after, size);
+    }
+
+    /**
+     * Return a {@link Slice} of the cardapios of a restaurante, summarized by a single query with the number of their items.
+     * @param restauranteId the id of the restaurante.
+     * @param after the id of the last cardapio of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of cardapios to return.
+     * @return the cardapios of the restaurante, in id order.
+     */
+    public Slice<CardapioResumoDTO> findResumosByRestaurante(Long restauranteId, Long after, int size) {
+        log.debug("find resumos by restaurante : {}, after : {}, size : {}", restauranteId, after, size);
+        TypedQuery<CardapioResumoDTO> query = entityManager
+            .createQuery(
+                "select new br.com.qrdapio.service.dto.CardapioResumoDTO(cardapio.id, cardapio.nome, count(itemCardapio.id)) " +
+                "from Cardapio cardapio left join cardapio.itemCardapios itemCardapio where cardapio.restaurante.id = :restauranteId " +
+                (after == null ? "" : "and cardapio.id > :after ") +
+                "group by cardapio.id, cardapio.nome order by cardapio.id",
+                CardapioResumoDTO.class
+            )
+            .setParameter("restauranteId", restauranteId);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return findSlice(query, size);
+    }
+
+    /**
+     * Function to convert {@link CardapioCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Cardapio> createSpecification(CardapioCriteria criteria) {
+        Specification<Cardapio> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Cardapio_.id));
+            }
+            if (criteria.getNome() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getNome(), Cardapio_.nome));
+            }
+            if (criteria.getRestauranteId() != null) {
+                specification = specification.and(
+                        buildSpecification(criteria.getRestauranteId(), root -> root.get(Cardapio_.restaurante).get(Restaurante_.id))
+                    );
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,491 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.domain.event.ItemPedidoCreatedEvent;
+import br.com.qrdapio.domain.event.ItemPedidoRemovedEvent;
+import br.com.qrdapio.domain.event.PedidoRemovedEvent;
+import br.com.qrdapio.domain.event.PedidoStatusChangedEvent;
+import br.com.qrdapio.service.dto.TarefaCozinhaDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service dispatching the {@link br.com.qrdapio.domain.ItemPedido}s to the stations of the kitchen of each
+ * restaurante, one station per {@link Categoria}, without going through the history of the pedidos.
+ * <p>
+ * A station hands out first the line that should start the earliest for its pedido to be ready on time: a pedido is
+ * due when its slowest line is ready, {@code application.cozinha.tempo-preparo} after it was placed, and each of its
+ * lines should start that long before the due time. A drink is thus served after the dish of an older pedido is
+ * started, but along with it. Lines added to a pedido later are due on their own.
+ * <p>
+ * The claims are kept in the database: a line is handed out by the conditional update setting its
+ * {@code claimed_at}, so that it goes to one caller only, whatever the server, and is never handed out again after a
+ * restart. The queues in memory only order the lines to claim. Those of a restaurante are loaded on its first read,
+ * with the lines not claimed of its open pedidos, through the index on {@code (restaurante_id, status, data_hora)};
+ * the first read once {@code application.cozinha.reload-interval} has elapsed loads them again, so the lines placed
+ * on another server reach the stations of this one within that time. Meanwhile, the lines committed on this server
+ * are queued as soon as their transaction commits, and the ones deleted, or of a pedido cancelled or deleted, are
+ * taken off the stations.
+ * <p>
+ * The queues are concurrent skip lists, so that the stations claim their lines without locking; lines are only
+ * queued under the lock of the restaurante in a {@link ConcurrentHashMap}.
+ */
+@Service
+public class CozinhaService {
+
+    private static final List<StatusPedido> ABERTOS = Arrays
+        .stream(StatusPedido.values())
+        .filter(StatusPedido::isAberto)
+        .collect(Collectors.toList());
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_TAREFAS =
+        "select itemPedido.id, pedido.id, pedido.restaurante.id, pedido.senha, pedido.dataHora, " +
+        "item.id, item.nome, item.categoria, itemPedido.quantidade " +
+        "from ItemPedido itemPedido join itemPedido.pedido pedido join itemPedido.item item ";
+
+    private final Logger log = LoggerFactory.getLogger(CozinhaService.class);
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final TransactionTemplate claimTransaction;
+
+    private final Executor executor;
+
+    private final ApplicationProperties.Cozinha properties;
+
+    private final Map<Categoria, Duration> tempoPreparo;
+
+    private final ConcurrentMap<Long, Cozinha> cozinhas = new ConcurrentHashMap<>();
+
+    public CozinhaService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor executor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.readTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.properties = applicationProperties.getCozinha();
+        this.tempoPreparo = new EnumMap<>(properties.getTempoPreparo());
+    }
+
+    /**
+     * Claim the next line of a station: it is removed from the queue, and handed out to no other caller.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param estacao the station.
+     * @return the line that should start the earliest, if any.
+     */
+    public Optional<TarefaCozinhaDTO> proximo(Long restauranteId, Categoria estacao) {
+        log.debug("Request to claim the next ItemPedido of station {} of Restaurante : {}", estacao, restauranteId);
+        Cozinha cozinha = cozinha(restauranteId);
+        Tarefa tarefa;
+        while ((tarefa = cozinha.poll(estacao)) != null) {
+            // Claimed already by another server, or deleted, when no row is updated
+            if (claim(tarefa.itemPedidoId)) {
+                return Optional.of(tarefa.toDto());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param restauranteId the id of the restaurante.
+     * @param estacao the station.
+     * @return the number of lines waiting at the station, counting the ones claimed on another server since the
+     * queues were loaded.
+     */
+    public int pendentes(Long restauranteId, Categoria estacao) {
+        return cozinha(restauranteId).fila(estacao).size();
+    }
+
+    /**
+     * Collect the lines created by the current transaction, to queue them once it commits.
+     *
+     * @param event the created line.
+     */
+    @EventListener
+    public void onItemPedidoCreated(ItemPedidoCreatedEvent event) {
+        AfterCommitCollector.collect(this, event.getItemPedidoId(), this::enqueueAsync);
+    }
+
+    /**
+     * Take the lines of a pedido off the stations once its cancellation commits.
+     *
+     * @param event the status change.
+     */
+    @EventListener
+    public void onPedidoStatusChanged(PedidoStatusChangedEvent event) {
+        if (event.getPara() == StatusPedido.CANCELADO) {
+            afterCommit(() -> discard(event.getRestauranteId(), tarefa -> event.getPedidoId().equals(tarefa.pedidoId)));
+        }
+    }
+
+    /**
+     * Take the lines of a pedido off the stations once its deletion commits.
+     *
+     * @param event the deleted pedido.
+     */
+    @EventListener
+    public void onPedidoRemoved(PedidoRemovedEvent event) {
+        afterCommit(() -> discard(event.getRestauranteId(), tarefa -> event.getPedidoId().equals(tarefa.pedidoId)));
+    }
+
+    /**
+     * Take a line off its station once its deletion commits.
+     *
+     * @param event the deleted line.
+     */
+    @EventListener
+    public void onItemPedidoRemoved(ItemPedidoRemovedEvent event) {
+        afterCommit(() -> discard(event.getRestauranteId(), tarefa -> tarefa.itemPedidoId == event.getItemPedidoId()));
+    }
+
+    private boolean claim(long itemPedidoId) {
+        Integer claimed = claimTransaction.execute(
+            status ->
+                entityManager
+                    .createQuery(
+                        "update ItemPedido itemPedido set itemPedido.claimedAt = :agora " +
+                        "where itemPedido.id = :id and itemPedido.claimedAt is null"
+                    )
+                    .setParameter("agora", Instant.now())
+                    .setParameter("id", itemPedidoId)
+                    .executeUpdate()
+        );
+        return claimed != null && claimed > 0;
+    }
+
+    private Cozinha cozinha(Long restauranteId) {
+        Cozinha cozinha = cozinhas.get(restauranteId);
+        if (cozinha == null) {
+            return load(restauranteId, null);
+        }
+        if (cozinha.isOlderThan(properties.getReloadInterval().toMillis()) && cozinha.reloading.compareAndSet(false, true)) {
+            // The other reads keep on serving the previous queues meanwhile
+            return load(restauranteId, cozinha);
+        }
+        return cozinha;
+    }
+
+    /**
+     * Load the queues of a restaurante, outside of the map so that the query does not hold the lock of other
+     * restaurantes, and publish them along with the lines queued on this server meanwhile.
+     *
+     * @param previous the queues to replace, {@code null} on the first load.
+     * @return the queues published.
+     */
+    private Cozinha load(Long restauranteId, Cozinha previous) {
+        long now = System.currentTimeMillis();
+        Cozinha loaded = new Cozinha(now);
+        try {
+            List<Object[]> rows = readTransaction.execute(
+                status ->
+                    entityManager
+                        .createQuery(
+                            SELECT_TAREFAS +
+                            "where pedido.restaurante.id = :id and pedido.status in :abertos and itemPedido.claimedAt is null",
+                            Object[].class
+                        )
+                        .setParameter("id", restauranteId)
+                        .setParameter("abertos", ABERTOS)
+                        .getResultList()
+            );
+            tarefas(rows, now).forEach(loaded::add);
+            log.debug("Loaded {} waiting ItemPedidos of Restaurante : {}", rows.size(), restauranteId);
+        } finally {
+            if (previous != null) {
+                previous.reloading.set(false);
+            }
+        }
+        return cozinhas.compute(
+            restauranteId,
+            (id, current) -> {
+                if (current != null) {
+                    // Committed after the query started, they may be missing from it
+                    current.tarefas().filter(tarefa -> tarefa.enfileiradaEm >= now).forEach(loaded::add);
+                }
+                return loaded;
+            }
+        );
+    }
+
+    private void discard(Long restauranteId, Predicate<Tarefa> filter) {
+        Cozinha cozinha = restauranteId != null ? cozinhas.get(restauranteId) : null;
+        if (cozinha != null) {
+            cozinha.removeIf(filter);
+        }
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            }
+        );
+    }
+
+    private void enqueueAsync(Collection<Long> itemPedidoIds) {
+        executor.execute(() -> enqueueLines(itemPedidoIds));
+    }
+
+    private void enqueueLines(Collection<Long> itemPedidoIds) {
+        List<Long> ids = new ArrayList<>(itemPedidoIds);
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        readTransaction.executeWithoutResult(
+            status -> {
+                for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                    rows.addAll(
+                        entityManager
+                            .createQuery(SELECT_TAREFAS + "where itemPedido.id in :ids", Object[].class)
+                            .setParameter("ids", ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())))
+                            .getResultList()
+                    );
+                }
+            }
+        );
+        List<Tarefa> novas = tarefas(rows, System.currentTimeMillis());
+        Map<Long, List<Tarefa>> tarefas = new HashMap<>();
+        for (int i = 0; i < novas.size(); i++) {
+            tarefas.computeIfAbsent((Long) rows.get(i)[2], id -> new ArrayList<>()).add(novas.get(i));
+        }
+        tarefas.forEach(
+            (restauranteId, lines) ->
+                cozinhas.compute(
+                    restauranteId,
+                    (id, cozinha) -> {
+                        // Kept for a first load in progress, which may have missed them
+                        Cozinha queued = cozinha != null ? cozinha : new Cozinha(0);
+                        lines.forEach(queued::add);
+                        return queued;
+                    }
+                )
+        );
+    }
+
+    /**
+     * @param rows the rows of {@link #SELECT_TAREFAS}, from which the ones without restaurante or categoria are
+     * removed.
+     * @return the lines of the rows, in the same order.
+     */
+    private List<Tarefa> tarefas(List<Object[]> rows, long enfileiradaEm) {
+        rows.removeIf(row -> row[2] == null || row[7] == null);
+
+        // The slowest line of each pedido sets when all of them are due
+        Map<Long, Duration> preparos = new HashMap<>();
+        for (Object[] row : rows) {
+            preparos.merge((Long) row[1], tempoPreparo((Categoria) row[7]), (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        }
+        List<Tarefa> tarefas = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long pedidoId = (Long) row[1];
+            Categoria estacao = (Categoria) row[7];
+            Instant dataHora = row[4] != null ? ((ZonedDateTime) row[4]).toInstant() : Instant.now();
+            Instant inicio = dataHora.plus(preparos.get(pedidoId)).minus(tempoPreparo(estacao));
+            tarefas.add(
+                new Tarefa(
+                    (Long) row[0],
+                    pedidoId,
+                    (Integer) row[3],
+                    (Long) row[5],
+                    (String) row[6],
+                    estacao,
+                    row[8] != null ? (Integer) row[8] : 0,
+                    dataHora.toEpochMilli(),
+                    inicio.toEpochMilli(),
+                    enfileiradaEm
+                )
+            );
+        }
+        return tarefas;
+    }
+
+    private Duration tempoPreparo(Categoria categoria) {
+        return tempoPreparo.getOrDefault(categoria, Duration.ZERO);
+    }
+
+    /**
+     * The stations of a restaurante, each with its lines ordered by start time, then by id.
+     */
+    private static final class Cozinha {
+
+        private final Map<Categoria, NavigableSet<Tarefa>> filas = new EnumMap<>(Categoria.class);
+
+        /**
+         * The lines queued, so that a line queued both by a load and on its commit waits once.
+         */
+        private final Set<Long> itemPedidoIds = ConcurrentHashMap.newKeySet();
+
+        private final long carregadaEm;
+
+        /**
+         * Whether a read is loading the queues again, so that the other reads do not.
+         */
+        private final AtomicBoolean reloading = new AtomicBoolean();
+
+        /**
+         * @param carregadaEm when the queues were loaded, {@code 0} for the ones only holding the lines committed on
+         * this server before the first read.
+         */
+        private Cozinha(long carregadaEm) {
+            this.carregadaEm = carregadaEm;
+            for (Categoria estacao : Categoria.values()) {
+                filas.put(estacao, new ConcurrentSkipListSet<>(Tarefa.ORDEM));
+            }
+        }
+
+        NavigableSet<Tarefa> fila(Categoria estacao) {
+            return filas.get(estacao);
+        }
+
+        void add(Tarefa tarefa) {
+            if (itemPedidoIds.add(tarefa.itemPedidoId)) {
+                fila(tarefa.estacao).add(tarefa);
+            }
+        }
+
+        Tarefa poll(Categoria estacao) {
+            Tarefa tarefa = fila(estacao).pollFirst();
+            if (tarefa != null) {
+                itemPedidoIds.remove(tarefa.itemPedidoId);
+            }
+            return tarefa;
+        }
+
+        void removeIf(Predicate<Tarefa> filter) {
+            tarefas().filter(filter).forEach(
+                tarefa -> {
+                    if (fila(tarefa.estacao).remove(tarefa)) {
+                        itemPedidoIds.remove(tarefa.itemPedidoId);
+                    }
+                }
+            );
+        }
+
+        Stream<Tarefa> tarefas() {
+            return filas.values().stream().flatMap(Collection::stream);
+        }
+
+        boolean isOlderThan(long millis) {
+            return System.currentTimeMillis() - carregadaEm >= millis;
+        }
+    }
+
+    /**
+     * A line waiting at a station.
+     */
+    private static final class Tarefa {
+
+        static final Comparator<Tarefa> ORDEM = Comparator.comparingLong((Tarefa tarefa) -> tarefa.inicio).thenComparingLong(
+            tarefa -> tarefa.itemPedidoId
+        );
+
+        private final long itemPedidoId;
+
+        private final Long pedidoId;
+
+        private final Integer senha;
+
+        private final Long itemCardapioId;
+
+        private final String nome;
+
+        private final Categoria estacao;
+
+        private final int quantidade;
+
+        private final long dataHora;
+
+        private final long inicio;
+
+        private final long enfileiradaEm;
+
+        Tarefa(
+            long itemPedidoId,
+            Long pedidoId,
+            Integer senha,
+            Long itemCardapioId,
+            String nome,
+            Categoria estacao,
+            int quantidade,
+            long dataHora,
+            long inicio,
+            long enfileiradaEm
+        ) {
+            this.itemPedidoId = itemPedidoId;
+            this.pedidoId = pedidoId;
+            this.senha = senha;
+            this.itemCardapioId = itemCardapioId;
+            this.nome = nome;
+            this.estacao = estacao;
+            this.quantidade = quantidade;
+            this.dataHora = dataHora;
+            this.inicio = inicio;
+            this.enfileiradaEm = enfileiradaEm;
+        }
+
+        TarefaCozinhaDTO toDto() {
+            return new TarefaCozinhaDTO(
+                itemPedidoId,
+                pedidoId,
+                senha,
+                itemCardapioId,
+                nome,
+                estacao,
+                quantidade,
+                Instant.ofEpochMilli(dataHora),
+                Instant.ofEpochMilli(inicio)
+            );
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.qrdapio.service;
+
+/**
+ * Thrown when the {@code Idempotency-Key} of a request cannot be honored.
+ */
+public class IdempotencyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String errorKey;
+
+    public IdempotencyException(String message, String errorKey) {
+        super(message);
+        this.errorKey = errorKey;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+}
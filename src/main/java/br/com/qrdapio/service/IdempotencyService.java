@@ -0,0 +1,316 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import br.com.qrdapio.domain.IdempotencyKey;
+import br.com.qrdapio.repository.IdempotencyKeyRepository;
+import br.com.qrdapio.security.SecurityUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service honoring the {@value #HEADER} header of the create requests: the retries of a request get its response
+ * again instead of creating a second entity.
+ * <p>
+ * The response of a request is written to the {@link IdempotencyKey} table in the transaction of the request, and
+ * kept in memory once it commits. The retries arriving while the request is still in flight on this server wait for
+ * its response; on another server, the second insert of the key fails and they are answered with a
+ * {@code 409 (Conflict)}. Keys are scoped to the endpoint and the user, and may only be reused with the same body.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * Header set on the responses replayed from a previous request.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final EntityManager em;
+
+    private final ObjectMapper objectMapper;
+
+    private final ShardMap shardMap;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final Duration timeToLive;
+
+    private final Duration waitTimeout;
+
+    /**
+     * The responses by key, completed when their request commits.
+     */
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    public IdempotencyService(
+        IdempotencyKeyRepository idempotencyKeyRepository,
+        EntityManager em,
+        ObjectMapper objectMapper,
+        ShardMap shardMap,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.em = em;
+        this.objectMapper = objectMapper;
+        this.shardMap = shardMap;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        ApplicationProperties.Idempotency properties = applicationProperties.getIdempotency();
+        this.timeToLive = properties.getTimeToLive();
+        this.waitTimeout = properties.getWaitTimeout();
+        this.responses = Caffeine.newBuilder().maximumSize(properties.getMaxEntries()).expireAfterWrite(timeToLive).build();
+    }
+
+    /**
+     * Create an entity at most once per key.
+     *
+     * @param endpoint the method and path of the request, scoping the key.
+     * @param key the value of the {@value #HEADER} header, {@code null} if none.
+     * @param request the body of the request.
+     * @param type the type of the body of the response.
+     * @param creation the creation of the entity, run in the transaction of the caller unless the key was seen.
+     * @param <T> the type of the body of the response.
+     * @return the response of the creation, or the one of the first request with the key.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @Transactional
+    public <T> ResponseEntity<T> execute(String endpoint, String key, Object request, Class<T> type, Creation<T> creation)
+        throws URISyntaxException {
+        if (key == null) {
+            return creation.create();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException("Invalid " + HEADER + " header", "idempotencykeyinvalid");
+        }
+        String id = hash(endpoint + '\n' + SecurityUtils.getCurrentUserLogin().orElse("") + '\n' + key);
+        String requestHash = hash(toJson(request));
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> inFlight = responses.asMap().putIfAbsent(id, own);
+            if (inFlight == null) {
+                return createOnce(id, requestHash, type, creation, own);
+            }
+            try {
+                StoredResponse response = inFlight.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                log.debug("Replaying the response of {} {}", HEADER, key);
+                return replay(response, requestHash, type);
+            } catch (ExecutionException e) {
+                // The first request failed, this one takes its place
+                log.debug("Retrying the failed request of {} {}", HEADER, key);
+            } catch (TimeoutException e) {
+                throw new ConcurrencyFailureException("The request of " + HEADER + " " + key + " is still in flight");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConcurrencyFailureException("Interrupted while waiting for the request of " + HEADER + " " + key);
+            }
+        }
+    }
+
+    /**
+     * Delete the responses no longer replayed, on every shard.
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    public void purge() {
+        Instant before = Instant.now().minus(timeToLive);
+        for (String shard : shardMap.getShardNames()) {
+            Integer deleted = ShardRoutingDataSource.callInShard(
+                shard,
+                () -> writeTransaction.execute(status -> idempotencyKeyRepository.deleteByCreatedAtBefore(before))
+            );
+            log.debug("Purged {} idempotency keys from shard {}", deleted, shard);
+        }
+    }
+
+    private <T> ResponseEntity<T> createOnce(
+        String id,
+        String requestHash,
+        Class<T> type,
+        Creation<T> creation,
+        CompletableFuture<StoredResponse> own
+    ) throws URISyntaxException {
+        boolean completing = false;
+        try {
+            IdempotencyKey stored = idempotencyKeyRepository.findById(id).orElse(null);
+            if (stored != null && stored.getCreatedAt().isAfter(Instant.now().minus(timeToLive))) {
+                StoredResponse response = new StoredResponse(stored);
+                own.complete(response);
+                completing = true;
+                return replay(response, requestHash, type);
+            }
+            if (stored != null) {
+                // Expired but not purged yet
+                idempotencyKeyRepository.delete(stored);
+            }
+            ResponseEntity<T> result = creation.create();
+            URI location = result.getHeaders().getLocation();
+            StoredResponse response = new StoredResponse(
+                requestHash,
+                result.getStatusCodeValue(),
+                location != null ? location.toString() : null,
+                toJson(result.getBody())
+            );
+            // Only the key may clash from now on
+            em.flush();
+            try {
+                em.persist(response.toEntity(id));
+                em.flush();
+            } catch (PersistenceException e) {
+                throw new ConcurrencyFailureException("The request of " + HEADER + " is in flight on another server", e);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new Completion(id, own, response));
+            completing = true;
+            return result;
+        } finally {
+            if (!completing) {
+                fail(id, own);
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse response, String requestHash, Class<T> type) {
+        if (!response.requestHash.equals(requestHash)) {
+            throw new IdempotencyException(HEADER + " already used by another request", "idempotencykeyreused");
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.status).header(REPLAYED_HEADER, "true");
+        if (response.location != null) {
+            builder.location(URI.create(response.location));
+        }
+        try {
+            return builder.body(response.body != null ? objectMapper.readValue(response.body, type) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the stored response", e);
+        }
+    }
+
+    private void fail(String id, CompletableFuture<StoredResponse> own) {
+        // Removed first, so that the requests waiting for it can take its place
+        responses.asMap().remove(id, own);
+        own.completeExceptionally(new IllegalStateException("The request was not completed"));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write " + value, e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The creation of an entity, answered with its response.
+     *
+     * @param <T> the type of the body of the response.
+     */
+    @FunctionalInterface
+    public interface Creation<T> {
+        ResponseEntity<T> create() throws URISyntaxException;
+    }
+
+    private static final class StoredResponse {
+
+        private final String requestHash;
+
+        private final int status;
+
+        private final String location;
+
+        private final String body;
+
+        private StoredResponse(String requestHash, int status, String location, String body) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+
+        private StoredResponse(IdempotencyKey stored) {
+            this(stored.getRequestHash(), stored.getStatus(), stored.getLocation(), stored.getBody());
+        }
+
+        IdempotencyKey toEntity(String id) {
+            return new IdempotencyKey()
+                .id(id)
+                .requestHash(requestHash)
+                .status(status)
+                .location(location)
+                .body(body)
+                .createdAt(Instant.now());
+        }
+    }
+
+    /**
+     * Hands the response to the retries once the request commits.
+     */
+    private final class Completion implements TransactionSynchronization {
+
+        private final String id;
+
+        private final CompletableFuture<StoredResponse> own;
+
+        private final StoredResponse response;
+
+        private Completion(String id, CompletableFuture<StoredResponse> own, StoredResponse response) {
+            this.id = id;
+            this.own = own;
+            this.response = response;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                own.complete(response);
+            } else {
+                fail(id, own);
+            }
+        }
+    }
+}
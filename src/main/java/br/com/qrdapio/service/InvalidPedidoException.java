@@ -0,0 +1,20 @@
+package br.com.qrdapio.service;
+
+/**
+ * Thrown when a submitted pedido cannot be accepted.
+ */
+public class InvalidPedidoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String errorKey;
+
+    public InvalidPedidoException(String message, String errorKey) {
+        super(message);
+        this.errorKey = errorKey;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+}
@@ -0,0 +1,427 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.event.MenuChangedEvent;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.dto.ItemBuscaDTO;
+import br.com.qrdapio.service.search.InvertedIndex;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the {@link br.com.qrdapio.domain.ItemCardapio}s of a restaurante by their nome and descricao,
+ * in one {@link InvertedIndex} per restaurante, without querying the items.
+ * <p>
+ * The index of a restaurante is built on its first search. Once a transaction writing menus commits, the items and
+ * cardapios it changed are read again and updated in the indexes, on the task executor: the searches see the change
+ * a few milliseconds later.
+ * <p>
+ * The indexed items are saved to {@code application.busca.segment-file} every {@link #SEGMENT_INTERVAL} milliseconds
+ * and at shutdown, and restored at startup. As the menus may have changed while the server was stopped, or on
+ * another server, the restored index of a restaurante is only used once one query has checked that the items still
+ * have the same ids and versions; it is built again otherwise.
+ */
+@Service
+public class ItemBuscaService {
+
+    /**
+     * Interval between two saves of the indexes.
+     */
+    public static final long SEGMENT_INTERVAL = 60_000;
+
+    private static final int SEGMENT_VERSION = 1;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String ITENS =
+        "select i.id, c.id, c.restaurante.id, i.categoria, i.nome, i.descricao, i.valor, i.version " +
+        "from ItemCardapio i join i.cardapio c ";
+
+    private static final String ITENS_OF_RESTAURANTE = ITENS + "where c.restaurante.id in :ids";
+
+    private static final String ITENS_BY_ID = ITENS + "where i.id in :ids";
+
+    private static final String ITENS_OF_CARDAPIOS = ITENS + "where c.id in :ids";
+
+    private static final String FINGERPRINT =
+        "select count(i), coalesce(sum(i.id), 0), coalesce(sum(i.version), 0) " +
+        "from ItemCardapio i where i.cardapio.restaurante.id = :id";
+
+    private final Logger log = LoggerFactory.getLogger(ItemBuscaService.class);
+
+    private final RestauranteRepository restauranteRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final Executor executor;
+
+    private final Path segmentFile;
+
+    private final ConcurrentMap<Long, Catalogo> catalogos = new ConcurrentHashMap<>();
+
+    public ItemBuscaService(
+        RestauranteRepository restauranteRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor executor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.restauranteRepository = restauranteRepository;
+        this.entityManager = entityManager;
+        this.readTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.executor = executor;
+        String file = applicationProperties.getBusca().getSegmentFile();
+        this.segmentFile = file == null || file.isBlank() ? null : Paths.get(file);
+    }
+
+    /**
+     * Search the items of a restaurante.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param query the words to search, as typed: the last one may be incomplete.
+     * @param limit the maximum number of items.
+     * @return the items, the most relevant first.
+     */
+    public List<ItemBuscaDTO> search(Long restauranteId, String query, int limit) {
+        log.debug("Request to search the ItemCardapios of Restaurante : {} for {}", restauranteId, query);
+        Catalogo catalogo = catalogos.get(restauranteId);
+        if (catalogo == null || !catalogo.validado) {
+            catalogo = load(restauranteId);
+        }
+        return catalogo != null ? catalogo.search(query, limit) : List.of();
+    }
+
+    /**
+     * Collect the menu writes of the current transaction, to index them once it commits.
+     *
+     * @param event the changed menu.
+     */
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getItemCardapioId() == null && event.getCardapioId() == null) {
+            // The items do not show the restaurante
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges changes = new PendingChanges();
+            changes.add(event);
+            changes.afterCommit();
+            return;
+        }
+        AfterCommitCollector.registered(PendingChanges.class, PendingChanges::new).add(event);
+    }
+
+    /**
+     * Replace the indexes by the ones saved by the last {@link #saveSegment() save}, if any, to be checked on their
+     * first search.
+     */
+    @PostConstruct
+    public void loadSegment() {
+        catalogos.clear();
+        if (segmentFile == null || !Files.exists(segmentFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile)))) {
+            int version = in.readInt();
+            if (version != SEGMENT_VERSION) {
+                throw new IOException("Unknown segment version " + version);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                long restauranteId = in.readLong();
+                Catalogo catalogo = new Catalogo(false);
+                catalogo.readFrom(in);
+                catalogos.put(restauranteId, catalogo);
+            }
+            log.info("Restored the search indexes of {} Restaurantes from {}", size, segmentFile);
+        } catch (IOException | RuntimeException e) {
+            // Building them again is better than not starting
+            catalogos.clear();
+            log.warn("Could not restore the search indexes from {}: {}", segmentFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Save the indexed items.
+     * <p>
+     * The file is written next to the previous segment and moved over it, so a crash never leaves it half written.
+     */
+    @Scheduled(fixedDelay = SEGMENT_INTERVAL)
+    @PreDestroy
+    public synchronized void saveSegment() {
+        if (segmentFile == null) {
+            return;
+        }
+        try {
+            Path parent = segmentFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, segmentFile.getFileName().toString(), ".tmp");
+            List<Map.Entry<Long, Catalogo>> entries = new ArrayList<>(catalogos.entrySet());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SEGMENT_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<Long, Catalogo> entry : entries) {
+                    out.writeLong(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            }
+            Files.move(temporary, segmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved the search indexes of {} Restaurantes to {}", entries.size(), segmentFile);
+        } catch (IOException e) {
+            log.warn("Could not save the search indexes to {}: {}", segmentFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Check the restored index of a restaurante, or build it.
+     * <p>
+     * Synchronized with {@link #reindex}, so that the items changed while an index is built are updated in it
+     * afterwards, rather than skipped because it was not there yet.
+     */
+    private synchronized Catalogo load(Long restauranteId) {
+        Catalogo restored = catalogos.get(restauranteId);
+        if (restored != null && restored.validado) {
+            return restored;
+        }
+        Catalogo catalogo = readTransaction.execute(
+            status -> {
+                if (restored != null && restored.matches(fingerprint(restauranteId))) {
+                    restored.validado = true;
+                    return restored;
+                }
+                return build(restauranteId);
+            }
+        );
+        if (catalogo != null) {
+            catalogos.put(restauranteId, catalogo);
+        } else {
+            catalogos.remove(restauranteId);
+        }
+        return catalogo;
+    }
+
+    private Catalogo build(Long restauranteId) {
+        log.debug("Building the search index of Restaurante : {}", restauranteId);
+        List<Object[]> rows = rows(ITENS_OF_RESTAURANTE, List.of(restauranteId));
+        if (rows.isEmpty() && !restauranteRepository.existsById(restauranteId)) {
+            return null;
+        }
+        Catalogo catalogo = new Catalogo(true);
+        rows.forEach(row -> catalogo.put(new Entrada(row)));
+        return catalogo;
+    }
+
+    private long[] fingerprint(Long restauranteId) {
+        Object[] row = entityManager.createQuery(FINGERPRINT, Object[].class).setParameter("id", restauranteId).getSingleResult();
+        return new long[] { ((Number) row[0]).longValue(), ((Number) row[1]).longValue(), ((Number) row[2]).longValue() };
+    }
+
+    /**
+     * Read changed items again, and update them in the indexes built so far.
+     */
+    private synchronized void reindex(Collection<Long> itemCardapioIds, Collection<Long> cardapioIds) {
+        readTransaction.executeWithoutResult(
+            status -> {
+                Set<Long> deleted = new HashSet<>(itemCardapioIds);
+                List<Object[]> rows = rows(ITENS_BY_ID, new ArrayList<>(itemCardapioIds));
+                rows.addAll(rows(ITENS_OF_CARDAPIOS, new ArrayList<>(cardapioIds)));
+                for (Object[] row : rows) {
+                    Entrada entrada = new Entrada(row);
+                    Long restauranteId = (Long) row[2];
+                    deleted.remove(entrada.item.getId());
+                    // Also removed from the previous restaurante of a moved item
+                    catalogos.forEach(
+                        (id, catalogo) -> {
+                            if (id.equals(restauranteId)) {
+                                catalogo.put(entrada);
+                            } else {
+                                catalogo.remove(entrada.item.getId());
+                            }
+                        }
+                    );
+                }
+                deleted.forEach(id -> catalogos.values().forEach(catalogo -> catalogo.remove(id)));
+            }
+        );
+    }
+
+    private List<Object[]> rows(String jpql, List<Long> ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            rows.addAll(
+                entityManager
+                    .createQuery(jpql, Object[].class)
+                    .setParameter("ids", ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())))
+                    .getResultList()
+            );
+        }
+        return rows;
+    }
+
+    /**
+     * The menu writes of a transaction, indexed once it commits.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Set<Long> itemCardapioIds = new LinkedHashSet<>();
+
+        private final Set<Long> cardapioIds = new LinkedHashSet<>();
+
+        void add(MenuChangedEvent event) {
+            if (event.getItemCardapioId() != null) {
+                itemCardapioIds.add(event.getItemCardapioId());
+            } else {
+                // A moved cardapio moves its items
+                cardapioIds.add(event.getCardapioId());
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            executor.execute(() -> reindex(itemCardapioIds, cardapioIds));
+        }
+    }
+
+    /**
+     * An indexed item, with its version to check a restored index.
+     */
+    private static final class Entrada {
+
+        private final ItemBuscaDTO item;
+
+        private final int version;
+
+        private Entrada(ItemBuscaDTO item, int version) {
+            this.item = item;
+            this.version = version;
+        }
+
+        private Entrada(Object[] row) {
+            this(
+                new ItemBuscaDTO((Long) row[0], (Long) row[1], (Categoria) row[3], (String) row[4], (String) row[5], (BigDecimal) row[6]),
+                (Integer) row[7]
+            );
+        }
+    }
+
+    /**
+     * The indexed items of a restaurante.
+     */
+    private static final class Catalogo {
+
+        private final InvertedIndex index = new InvertedIndex();
+
+        private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+        /**
+         * Whether the items are known to be the ones of the database, and not only of the last segment.
+         */
+        private volatile boolean validado;
+
+        private Catalogo(boolean validado) {
+            this.validado = validado;
+        }
+
+        void put(Entrada entrada) {
+            entradas.put(entrada.item.getId(), entrada);
+            index.put(entrada.item.getId(), entrada.item.getNome(), entrada.item.getDescricao());
+        }
+
+        void remove(Long id) {
+            index.remove(id);
+            entradas.remove(id);
+        }
+
+        List<ItemBuscaDTO> search(String query, int limit) {
+            List<ItemBuscaDTO> itens = new ArrayList<>();
+            for (InvertedIndex.Hit hit : index.search(query, limit)) {
+                Entrada entrada = entradas.get(hit.getId());
+                if (entrada != null) {
+                    itens.add(entrada.item);
+                }
+            }
+            return itens;
+        }
+
+        boolean matches(long[] fingerprint) {
+            long count = 0;
+            long ids = 0;
+            long versions = 0;
+            for (Entrada entrada : entradas.values()) {
+                count++;
+                ids += entrada.item.getId();
+                versions += entrada.version;
+            }
+            return fingerprint[0] == count && fingerprint[1] == ids && fingerprint[2] == versions;
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            List<Entrada> snapshot = new ArrayList<>(entradas.values());
+            out.writeInt(snapshot.size());
+            for (Entrada entrada : snapshot) {
+                ItemBuscaDTO item = entrada.item;
+                out.writeLong(item.getId());
+                out.writeLong(item.getCardapioId());
+                out.writeUTF(item.getCategoria().name());
+                out.writeUTF(item.getNome());
+                out.writeUTF(item.getDescricao());
+                out.writeBoolean(item.getValor() != null);
+                if (item.getValor() != null) {
+                    out.writeUTF(item.getValor().toPlainString());
+                }
+                out.writeInt(entrada.version);
+            }
+        }
+
+        void readFrom(DataInput in) throws IOException {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                long id = in.readLong();
+                long cardapioId = in.readLong();
+                Categoria categoria = Categoria.valueOf(in.readUTF());
+                String nome = in.readUTF();
+                String descricao = in.readUTF();
+                BigDecimal valor = in.readBoolean() ? new BigDecimal(in.readUTF()) : null;
+                put(new Entrada(new ItemBuscaDTO(id, cardapioId, categoria, nome, descricao, valor), in.readInt()));
+            }
+        }
+    }
+}
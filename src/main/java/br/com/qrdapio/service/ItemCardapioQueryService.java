@@ -0,0 +1,84 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.domain.Cardapio_;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemCardapio_;
+import br.com.qrdapio.domain.Restaurante_;
+import br.com.qrdapio.service.criteria.ItemCardapioCriteria;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link ItemCardapio} entities in the database.
+ * The main input is a {@link ItemCardapioCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Slice} of {@link ItemCardapio} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ItemCardapioQueryService extends KeysetQueryService<ItemCardapio> {
+
+    private final Logger log = LoggerFactory.getLogger(ItemCardapioQueryService.class);
+
+    public ItemCardapioQueryService(EntityManager entityManager) {
+        super(entityManager, ItemCardapio.class, ItemCardapio_.id, "ItemCardapio.cardapio");
+    }
+
+    /**
+     * Return a {@link Slice} of {@link ItemCardapio} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after the id of the last entity of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, in id order.
+     */
+    public Slice<ItemCardapio> findByCriteria(ItemCardapioCriteria criteria, Long after, int size) {
+        log.debug("find by criteria : {}, after : {}, size : {}", criteria, after, size);
+        final Specification<ItemCardapio> specification = createSpecification(criteria);
+        return findAfter(specification, after, size);
+    }
+
+    /**
+     * Function to convert {@link ItemCardapioCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<ItemCardapio> createSpecification(ItemCardapioCriteria criteria) {
+        Specification<ItemCardapio> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), ItemCardapio_.id));
+            }
+            if (criteria.getCategoria() != null) {
+                specification = specification.and(buildSpecification(criteria.getCategoria(), ItemCardapio_.categoria));
+            }
+            if (criteria.getNome() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getNome(), ItemCardapio_.nome));
+            }
+            if (criteria.getDescricao() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getDescricao(), ItemCardapio_.descricao));
+            }
+            if (criteria.getValor() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getValor(), ItemCardapio_.valor));
+            }
+            if (criteria.getCardapioId() != null) {
+                specification = specification.and(
+                        buildSpecification(criteria.getCardapioId(), root -> root.get(ItemCardapio_.cardapio).get(Cardapio_.id))
+                    );
+            }
+            if (criteria.getRestauranteId() != null) {
+                specification = specification.and(
+                        buildSpecification(
+                            criteria.getRestauranteId(),
+                            root -> root.get(ItemCardapio_.cardapio).get(Cardapio_.restaurante).get(Restaurante_.id)
+                        )
+                    );
+            }
+        }
+        return specification;
+    }
+}
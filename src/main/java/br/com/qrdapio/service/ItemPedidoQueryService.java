@@ -0,0 +1,86 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.domain.ItemCardapio_;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.ItemPedido_;
+import br.com.qrdapio.domain.Pedido_;
+import br.com.qrdapio.domain.Restaurante_;
+import br.com.qrdapio.service.criteria.ItemPedidoCriteria;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link ItemPedido} entities in the database.
+ * The main input is a {@link ItemPedidoCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Slice} of {@link ItemPedido} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ItemPedidoQueryService extends KeysetQueryService<ItemPedido> {
+
+    private final Logger log = LoggerFactory.getLogger(ItemPedidoQueryService.class);
+
+    public ItemPedidoQueryService(EntityManager entityManager) {
+        super(entityManager, ItemPedido.class, ItemPedido_.id, "ItemPedido.pedido");
+    }
+
+    /**
+     * Return a {@link Slice} of {@link ItemPedido} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after the id of the last entity of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, in id order.
+     */
+    public Slice<ItemPedido> findByCriteria(ItemPedidoCriteria criteria, Long after, int size) {
+        log.debug("find by criteria : {}, after : {}, size : {}", criteria, after, size);
+        final Specification<ItemPedido> specification = createSpecification(criteria);
+        return findAfter(specification, after, size);
+    }
+
+    /**
+     * Function to convert {@link ItemPedidoCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<ItemPedido> createSpecification(ItemPedidoCriteria criteria) {
+        Specification<ItemPedido> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), ItemPedido_.id));
+            }
+            if (criteria.getQuantidade() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getQuantidade(), ItemPedido_.quantidade));
+            }
+            if (criteria.getItemId() != null) {
+                specification = specification.and(
+                        buildSpecification(criteria.getItemId(), root -> root.get(ItemPedido_.item).get(ItemCardapio_.id))
+                    );
+            }
+            if (criteria.getCategoria() != null) {
+                specification = specification.and(
+                        buildSpecification(criteria.getCategoria(), root -> root.get(ItemPedido_.item).get(ItemCardapio_.categoria))
+                    );
+            }
+            if (criteria.getPedidoId() != null) {
+                specification = specification.and(
+                        buildSpecification(criteria.getPedidoId(), root -> root.get(ItemPedido_.pedido).get(Pedido_.id))
+                    );
+            }
+            if (criteria.getRestauranteId() != null) {
+                specification = specification.and(
+                        buildSpecification(
+                            criteria.getRestauranteId(),
+                            root -> root.get(ItemPedido_.pedido).get(Pedido_.restaurante).get(Restaurante_.id)
+                        )
+                    );
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,336 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.domain.event.ItemPedidoCreatedEvent;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.service.dto.ItemPopularDTO;
+import br.com.qrdapio.service.sketch.SlidingWindowSummary;
+import br.com.qrdapio.service.sketch.SpaceSaving;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service counting the best-selling {@link br.com.qrdapio.domain.ItemCardapio}s of each restaurante over the last
+ * {@link Janela}s, without querying the pedidos.
+ * <p>
+ * Once a transaction creating {@link br.com.qrdapio.domain.ItemPedido}s commits, their quantities are added to
+ * one {@link SlidingWindowSummary} per window and restaurante, at the time of their pedido. The counts are exact
+ * while a restaurante sells fewer than {@code application.itens-populares.capacity} distinct items per bucket, and
+ * over-estimated beyond, see {@link SpaceSaving}. Restaurantes without sales for a day are forgotten.
+ * <p>
+ * The counts are saved to {@code application.itens-populares.snapshot-file} every {@link #SNAPSHOT_INTERVAL}
+ * milliseconds and at shutdown, and restored at startup: only the sales since the last snapshot are lost if the
+ * server stops abruptly. Lines updated or deleted afterwards are not tracked.
+ */
+@Service
+public class ItemPopularService {
+
+    /**
+     * Interval between two snapshots of the counts.
+     */
+    public static final long SNAPSHOT_INTERVAL = 60_000;
+
+    /**
+     * The windows the items are counted over.
+     */
+    public enum Janela {
+        QUINZE_MINUTOS("15m", Duration.ofMinutes(15), 15),
+        UMA_HORA("1h", Duration.ofHours(1), 12),
+        UM_DIA("1d", Duration.ofDays(1), 24);
+
+        private final String codigo;
+
+        private final Duration duracao;
+
+        private final int buckets;
+
+        Janela(String codigo, Duration duracao, int buckets) {
+            this.codigo = codigo;
+            this.duracao = duracao;
+            this.buckets = buckets;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        /**
+         * @param codigo the code of the window, like {@code 15m}.
+         * @return the window, if the code is known.
+         */
+        public static Optional<Janela> of(String codigo) {
+            return Arrays.stream(values()).filter(janela -> janela.codigo.equals(codigo.toLowerCase(Locale.ROOT))).findFirst();
+        }
+    }
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(ItemPopularService.class);
+
+    private final ItemCardapioRepository itemCardapioRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final Executor executor;
+
+    private final int capacity;
+
+    private final Path snapshotFile;
+
+    private final ConcurrentMap<Long, Popularidade> popularidades = new ConcurrentHashMap<>();
+
+    public ItemPopularService(
+        ItemCardapioRepository itemCardapioRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor executor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.itemCardapioRepository = itemCardapioRepository;
+        this.entityManager = entityManager;
+        this.readTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.executor = executor;
+        ApplicationProperties.ItensPopulares itensPopulares = applicationProperties.getItensPopulares();
+        this.capacity = itensPopulares.getCapacity();
+        String file = itensPopulares.getSnapshotFile();
+        this.snapshotFile = file == null || file.isBlank() ? null : Paths.get(file);
+    }
+
+    /**
+     * @return the maximum number of items returned by {@link #findPopulares(Long, Janela, int)}.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the best-selling items of a restaurante.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param janela the window.
+     * @param limit the maximum number of items.
+     * @return the items in descending quantity order, without the ones deleted since.
+     */
+    @Transactional(readOnly = true)
+    public List<ItemPopularDTO> findPopulares(Long restauranteId, Janela janela, int limit) {
+        log.debug("Request to get the popular ItemCardapios of Restaurante : {} over {}", restauranteId, janela.codigo);
+        Popularidade popularidade = popularidades.get(restauranteId);
+        if (popularidade == null) {
+            return List.of();
+        }
+        List<ItemPopularDTO> populares = new ArrayList<>();
+        for (SpaceSaving.Estimate estimate : popularidade.top(janela, limit, Instant.now())) {
+            // Served by the second-level cache
+            itemCardapioRepository
+                .findById(estimate.getItem())
+                .ifPresent(item -> populares.add(new ItemPopularDTO(item.getId(), item.getNome(), estimate.getCount())));
+        }
+        return populares;
+    }
+
+    /**
+     * Collect the lines created by the current transaction, to count them once it commits.
+     *
+     * @param event the created line.
+     */
+    @EventListener
+    public void onItemPedidoCreated(ItemPedidoCreatedEvent event) {
+        AfterCommitCollector.collect(this, event.getItemPedidoId(), this::countAsync);
+    }
+
+    /**
+     * Add a sale to the counts.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param itemCardapioId the id of the sold item.
+     * @param quantidade the quantity sold.
+     * @param at the time of the sale.
+     */
+    public void count(Long restauranteId, Long itemCardapioId, long quantidade, Instant at) {
+        if (quantidade <= 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        popularidades.compute(
+            restauranteId,
+            (id, popularidade) -> {
+                Popularidade counted = popularidade != null ? popularidade : new Popularidade(capacity);
+                counted.add(itemCardapioId, quantidade, at, now);
+                return counted;
+            }
+        );
+    }
+
+    /**
+     * Replace the counts by the ones saved by the last {@link #saveSnapshot() snapshot}, if any.
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        popularidades.clear();
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unknown snapshot version " + version);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                long restauranteId = in.readLong();
+                Popularidade popularidade = new Popularidade(capacity);
+                popularidade.readFrom(in);
+                popularidades.put(restauranteId, popularidade);
+            }
+            log.info("Restored the popular ItemCardapios of {} Restaurantes from {}", size, snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            // Counting again from zero is better than not starting
+            popularidades.clear();
+            log.warn("Could not restore the popular ItemCardapios from {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Save the counts, and forget the restaurantes without sales for a day.
+     * <p>
+     * The file is written next to the previous snapshot and moved over it, so a crash never leaves it half written.
+     */
+    @Scheduled(fixedDelay = SNAPSHOT_INTERVAL)
+    @PreDestroy
+    public synchronized void saveSnapshot() {
+        Instant now = Instant.now();
+        popularidades.keySet().forEach(id -> popularidades.computeIfPresent(id, (key, p) -> p.isEmpty(now) ? null : p));
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, snapshotFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                List<Map.Entry<Long, Popularidade>> entries = new ArrayList<>(popularidades.entrySet());
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<Long, Popularidade> entry : entries) {
+                    out.writeLong(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            }
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved the popular ItemCardapios of {} Restaurantes to {}", popularidades.size(), snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not save the popular ItemCardapios to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private void countAsync(Collection<Long> itemPedidoIds) {
+        executor.execute(() -> countLines(itemPedidoIds));
+    }
+
+    private void countLines(Collection<Long> itemPedidoIds) {
+        List<Long> ids = new ArrayList<>(itemPedidoIds);
+        readTransaction.executeWithoutResult(
+            status -> {
+                for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                    entityManager
+                        .createQuery(
+                            "select pedido.restaurante.id, itemPedido.item.id, itemPedido.quantidade, pedido.dataHora " +
+                            "from ItemPedido itemPedido join itemPedido.pedido pedido where itemPedido.id in :ids",
+                            Object[].class
+                        )
+                        .setParameter("ids", ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())))
+                        .getResultList()
+                        .stream()
+                        .filter(row -> row[0] != null && row[1] != null && row[2] != null)
+                        .forEach(
+                            row -> {
+                                Instant at = row[3] != null ? ((ZonedDateTime) row[3]).toInstant() : Instant.now();
+                                count((Long) row[0], (Long) row[1], (Integer) row[2], at);
+                            }
+                        );
+                }
+            }
+        );
+    }
+
+    /**
+     * The counts of a restaurante, one summary per window.
+     */
+    private static final class Popularidade {
+
+        private final Map<Janela, SlidingWindowSummary> summaries = new EnumMap<>(Janela.class);
+
+        private Popularidade(int capacity) {
+            for (Janela janela : Janela.values()) {
+                summaries.put(janela, new SlidingWindowSummary(janela.duracao, janela.buckets, capacity));
+            }
+        }
+
+        synchronized void add(long item, long quantidade, Instant at, Instant now) {
+            summaries.values().forEach(summary -> summary.add(item, quantidade, at, now));
+        }
+
+        synchronized List<SpaceSaving.Estimate> top(Janela janela, int limit, Instant now) {
+            return summaries.get(janela).top(limit, now);
+        }
+
+        synchronized boolean isEmpty(Instant now) {
+            return summaries.values().stream().allMatch(summary -> summary.isEmpty(now));
+        }
+
+        synchronized void writeTo(DataOutput out) throws IOException {
+            for (SlidingWindowSummary summary : summaries.values()) {
+                summary.writeTo(out);
+            }
+        }
+
+        synchronized void readFrom(DataInput in) throws IOException {
+            for (SlidingWindowSummary summary : summaries.values()) {
+                summary.readFrom(in);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.qrdapio.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Base service for listing entities in id order, one slice at a time.
+ * <p>
+ * Instead of an {@code OFFSET} and a {@code COUNT(*)} per page, each slice starts right after the id of the
+ * last entity of the previous one, so every page costs a single index range scan whatever its position.
+ * An optional named entity graph fetches the associations serialized with the entities in the same query,
+ * instead of one query per entity and association.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+public abstract class KeysetQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    /**
+     * Default number of entities in a slice.
+     */
+    public static final int DEFAULT_SIZE = 20;
+
+    /**
+     * Maximum number of entities in a slice, larger requests are capped.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    private final Class<ENTITY> entityClass;
+
+    private final SingularAttribute<? super ENTITY, Long> idAttribute;
+
+    private final String entityGraph;
+
+    protected KeysetQueryService(
+        EntityManager entityManager,
+        Class<ENTITY> entityClass,
+        SingularAttribute<? super ENTITY, Long> idAttribute
+    ) {
+        this(entityManager, entityClass, idAttribute, null);
+    }
+
+    /**
+     * @param entityGraph the name of the entity graph loaded with the entities, {@code null} for none.
+     */
+    protected KeysetQueryService(
+        EntityManager entityManager,
+        Class<ENTITY> entityClass,
+        SingularAttribute<? super ENTITY, Long> idAttribute,
+        String entityGraph
+    ) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.idAttribute = idAttribute;
+        this.entityGraph = entityGraph;
+    }
+
+    /**
+     * Return the entities matching the specification whose id is greater than {@code after}, in id order.
+     *
+     * @param specification the filter to apply.
+     * @param after the id of the last entity of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, with {@link Slice#hasNext()} telling whether there are more.
+     */
+    protected Slice<ENTITY> findAfter(Specification<ENTITY> specification, Long after, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ENTITY> query = builder.createQuery(entityClass);
+        Root<ENTITY> root = query.from(entityClass);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (after != null) {
+            Predicate keyset = builder.greaterThan(root.get(idAttribute), after);
+            predicate = predicate == null ? keyset : builder.and(predicate, keyset);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(builder.asc(root.get(idAttribute)));
+        TypedQuery<ENTITY> typedQuery = entityManager.createQuery(query);
+        if (entityGraph != null) {
+            typedQuery.setHint("javax.persistence.loadgraph", entityManager.getEntityGraph(entityGraph));
+        }
+        return findSlice(typedQuery, size);
+    }
+
+    /**
+     * Return the first results of a query already restricted to the ids greater than the previous slice, in id order.
+     *
+     * @param query the query, typically a projection of the entities.
+     * @param size the maximum number of results to return.
+     * @param <R> the type of the results.
+     * @return the results, with {@link Slice#hasNext()} telling whether there are more.
+     */
+    protected <R> Slice<R> findSlice(TypedQuery<R> query, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_SIZE);
+        // One extra row tells whether there is a next slice without counting.
+        List<R> content = query.setMaxResults(limit + 1).getResultList();
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content = content.subList(0, limit);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, limit), hasNext);
+    }
+
+    /**
+     * Merge the slices read after the same id from several databases, such as the shards, into the slice of the
+     * first entities of all of them. The ids must be unique across the databases.
+     *
+     * @param slices the slices, all of the same size.
+     * @param id the function extracting the id of a result.
+     * @param <R> the type of the results.
+     * @return the first results of the slices, in id order, with {@link Slice#hasNext()} telling whether there are more.
+     */
+    public static <R> Slice<R> merge(List<Slice<R>> slices, Function<R, Long> id) {
+        if (slices.size() == 1) {
+            return slices.get(0);
+        }
+        int limit = slices.get(0).getSize();
+        List<R> content = new ArrayList<>();
+        // Each database has more results when its own slice has a next one
+        boolean hasNext = false;
+        for (Slice<R> slice : slices) {
+            content.addAll(slice.getContent());
+            hasNext |= slice.hasNext();
+        }
+        content.sort(Comparator.comparing(id));
+        if (content.size() > limit) {
+            content = content.subList(0, limit);
+            hasNext = true;
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, limit), hasNext);
+    }
+}
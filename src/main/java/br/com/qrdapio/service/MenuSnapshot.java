@@ -0,0 +1,62 @@
+package br.com.qrdapio.service;
+
+import java.util.Set;
+
+/**
+ * An immutable, pre-serialized menu of one restaurante.
+ * <p>
+ * The body is shared between all readers and must never be modified.
+ */
+public final class MenuSnapshot {
+
+    private final Long restauranteId;
+
+    private final String version;
+
+    private final byte[] body;
+
+    private final Set<Long> cardapioIds;
+
+    private final Set<Long> itemCardapioIds;
+
+    MenuSnapshot(Long restauranteId, String version, byte[] body, Set<Long> cardapioIds, Set<Long> itemCardapioIds) {
+        this.restauranteId = restauranteId;
+        this.version = version;
+        this.body = body;
+        this.cardapioIds = Set.copyOf(cardapioIds);
+        this.itemCardapioIds = Set.copyOf(itemCardapioIds);
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    /**
+     * @return the version of the menu, which changes whenever the menu may have changed.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the UTF-8 encoded JSON of the menu.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @param cardapioId the id of a cardapio.
+     * @return whether the cardapio is one of the menu.
+     */
+    public boolean containsCardapio(Long cardapioId) {
+        return contains(cardapioId, null);
+    }
+
+    boolean contains(Long cardapioId, Long itemCardapioId) {
+        return (
+            (cardapioId != null && cardapioIds.contains(cardapioId)) ||
+            (itemCardapioId != null && itemCardapioIds.contains(itemCardapioId))
+        );
+    }
+}
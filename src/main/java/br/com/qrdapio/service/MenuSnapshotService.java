@@ -0,0 +1,200 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.event.MenuChangedEvent;
+import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.dto.MenuCardapioDTO;
+import br.com.qrdapio.service.dto.MenuDTO;
+import br.com.qrdapio.service.dto.MenuItemDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service holding one pre-serialized {@link MenuSnapshot} per restaurante.
+ * <p>
+ * Snapshots are built on first read and evicted after any menu write commits, so the read path
+ * does not touch the database while the menu is unchanged.
+ * <p>
+ * The version of a snapshot is also the version of the menu of its restaurante, which the menu resources send as
+ * their entity tag: it is a hash of the serialized menu and of the versions of its items, so that every server, and
+ * every restart, tags the same menu alike.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private final Logger log = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    private final ConcurrentMap<Long, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final RestauranteRepository restauranteRepository;
+
+    private final CardapioRepository cardapioRepository;
+
+    private final ItemCardapioRepository itemCardapioRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MenuSnapshotService(
+        RestauranteRepository restauranteRepository,
+        CardapioRepository cardapioRepository,
+        ItemCardapioRepository itemCardapioRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.restauranteRepository = restauranteRepository;
+        this.cardapioRepository = cardapioRepository;
+        this.itemCardapioRepository = itemCardapioRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get the menu snapshot of a restaurante, building it if needed.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @return the snapshot, or empty if the restaurante does not exist.
+     */
+    public Optional<MenuSnapshot> getSnapshot(Long restauranteId) {
+        MenuSnapshot snapshot = snapshots.get(restauranteId);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        long buildGeneration = generation.get();
+        // Built outside of the map, so that the query does not hold the lock of other restaurantes
+        MenuSnapshot built = readOnlyTransaction.execute(status -> build(restauranteId));
+        if (built == null) {
+            return Optional.empty();
+        }
+        // Concurrent builds of a cold menu all serve the first one published
+        snapshot = snapshots.putIfAbsent(restauranteId, built);
+        if (snapshot == null) {
+            snapshot = built;
+        }
+        if (buildGeneration != generation.get()) {
+            // A menu changed while we were building, the snapshot may miss it: serve it once, but don't keep it
+            snapshots.remove(restauranteId, built);
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Get the menu snapshot of a restaurante if it is already built, without touching the database.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @return the snapshot, or empty if it is not built.
+     */
+    public Optional<MenuSnapshot> getCachedSnapshot(Long restauranteId) {
+        return Optional.ofNullable(snapshots.get(restauranteId));
+    }
+
+    /**
+     * Get the generation of the menus, to read before loading a resource of a menu.
+     *
+     * @return the current generation, which changes whenever a menu write commits.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Get the version of the menu of a restaurante for a resource loaded since a generation, building its snapshot
+     * if needed.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param since the generation read before loading the resource.
+     * @return the version, or empty if the restaurante does not exist or a menu changed since: the resource may then
+     * be older than the version.
+     */
+    public Optional<String> getVersion(Long restauranteId, long since) {
+        Optional<String> version = getSnapshot(restauranteId).map(MenuSnapshot::getVersion);
+        return generation.get() == since ? version : Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        log.debug("Evicting menu snapshots for {}", event);
+        generation.incrementAndGet();
+        if (event.getRestauranteId() != null) {
+            snapshots.remove(event.getRestauranteId());
+        }
+        // Also evict the previous owner of a moved cardapio/item, or the owner we could not resolve
+        snapshots.values().removeIf(snapshot -> snapshot.contains(event.getCardapioId(), event.getItemCardapioId()));
+    }
+
+    private MenuSnapshot build(Long restauranteId) {
+        return restauranteRepository
+            .findById(restauranteId)
+            .map(
+                restaurante -> {
+                    log.debug("Building menu snapshot for Restaurante : {}", restauranteId);
+                    MenuDTO menu = new MenuDTO(restaurante);
+                    Map<Long, MenuCardapioDTO> cardapios = new LinkedHashMap<>();
+                    cardapioRepository
+                        .findAllByRestauranteIdOrderById(restauranteId)
+                        .forEach(cardapio -> cardapios.put(cardapio.getId(), new MenuCardapioDTO(cardapio)));
+                    Set<Long> itemCardapioIds = new HashSet<>();
+                    // The item resources also carry their version, which the menu does not
+                    StringBuilder itemVersions = new StringBuilder();
+                    for (ItemCardapio itemCardapio : itemCardapioRepository.findAllByCardapioRestauranteIdOrderById(restauranteId)) {
+                        itemCardapioIds.add(itemCardapio.getId());
+                        itemVersions.append(itemCardapio.getId()).append(':').append(itemCardapio.getVersion()).append(',');
+                        cardapios
+                            .get(itemCardapio.getCardapio().getId())
+                            .getItens()
+                            .computeIfAbsent(itemCardapio.getCategoria(), categoria -> new ArrayList<>())
+                            .add(new MenuItemDTO(itemCardapio));
+                    }
+                    menu.setCardapios(new ArrayList<>(cardapios.values()));
+                    byte[] body = serialize(menu);
+                    return new MenuSnapshot(restauranteId, version(body, itemVersions), body, cardapios.keySet(), itemCardapioIds);
+                }
+            )
+            .orElse(null);
+    }
+
+    private static String version(byte[] body, CharSequence itemVersions) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(body);
+            byte[] hash = digest.digest(itemVersions.toString().getBytes(StandardCharsets.UTF_8));
+            return Long.toUnsignedString(ByteBuffer.wrap(hash).getLong(), Character.MAX_RADIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] serialize(MenuDTO menu) {
+        try {
+            return objectMapper.writeValueAsBytes(menu);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu of Restaurante " + menu.getId(), e);
+        }
+    }
+}
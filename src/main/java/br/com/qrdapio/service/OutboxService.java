@@ -0,0 +1,266 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.OutboxMessage;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.event.PedidoChangedEvent;
+import br.com.qrdapio.repository.OutboxMessageRepository;
+import br.com.qrdapio.service.dto.OutboxEventDTO;
+import br.com.qrdapio.service.dto.PedidoStreamDTO;
+import br.com.qrdapio.service.outbox.OutboxSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service delivering the changes of the {@link br.com.qrdapio.domain.Pedido}s to the {@link OutboxSink}s.
+ * <p>
+ * The pedidos changed by a transaction are written to the outbox table right before it commits, one row per pedido
+ * and sink, so that an event is stored if and only if its change is. Like Hibernate Envers, this is done once the
+ * commit has flushed the last changes. A relay on the scheduling pool then delivers the rows in batches and deletes
+ * them; a failed batch is retried with an exponential backoff, so every event reaches every sink at least once,
+ * though not always in order. The request threads never wait for the sinks.
+ */
+@Service
+public class OutboxService {
+
+    /**
+     * Interval between two runs of the relay.
+     */
+    public static final long RELAY_INTERVAL = 1_000;
+
+    /**
+     * Type of the events of a pedido created or updated, with the pedido and its lines as payload.
+     */
+    public static final String PEDIDO_CHANGED = "PedidoChanged";
+
+    private static final String PEDIDOS = "select p from Pedido p join fetch p.restaurante where p.id in :ids order by p.id";
+
+    private static final String ITEM_PEDIDOS =
+        "select i from ItemPedido i join fetch i.item where i.pedido.id in :ids order by i.id";
+
+    private final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, OutboxSink> sinks;
+
+    private final ShardMap shardMap;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final ApplicationProperties.Outbox properties;
+
+    public OutboxService(
+        OutboxMessageRepository outboxMessageRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        List<OutboxSink> sinks,
+        ShardMap shardMap,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.sinks = sinks.stream().collect(Collectors.toMap(OutboxSink::getName, sink -> sink, (a, b) -> a, LinkedHashMap::new));
+        this.shardMap = shardMap;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getOutbox();
+    }
+
+    /**
+     * Collect the pedidos changed by the current transaction, to write their events when it commits.
+     *
+     * @param event the changed pedido.
+     */
+    @EventListener
+    public void onPedidoChanged(PedidoChangedEvent event) {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeTransaction.executeWithoutResult(status -> write(entityManager, Set.of(event.getPedidoId())));
+            return;
+        }
+        PendingPedidos pending = AfterCommitCollector.registered(
+            PendingPedidos.class,
+            () -> {
+                PendingPedidos synchronization = new PendingPedidos();
+                // The changes are mostly flushed by the commit itself, after the beforeCommit callbacks
+                entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(synchronization);
+                return synchronization;
+            }
+        );
+        pending.pedidoIds.add(event.getPedidoId());
+    }
+
+    /**
+     * Deliver the events due on every shard.
+     */
+    @Scheduled(fixedDelay = RELAY_INTERVAL)
+    public synchronized void relay() {
+        for (String shard : shardMap.getShardNames()) {
+            int delivered = ShardRoutingDataSource.callInShard(shard, this::relayShard);
+            if (delivered > 0) {
+                log.debug("Delivered {} outbox events of shard {}", delivered, shard);
+            }
+        }
+    }
+
+    private int relayShard() {
+        int delivered = 0;
+        List<OutboxMessage> batch;
+        do {
+            batch = claim();
+            delivered += deliver(batch);
+        } while (batch.size() == properties.getBatchSize());
+        return delivered;
+    }
+
+    /**
+     * Take the next batch of due events, hiding them from the relays of the other servers for a while.
+     */
+    private List<OutboxMessage> claim() {
+        return writeTransaction.execute(
+            status -> {
+                Instant now = Instant.now();
+                List<OutboxMessage> batch = outboxMessageRepository.findDue(now, PageRequest.of(0, properties.getBatchSize()));
+                batch.forEach(message -> message.setNextAttemptAt(now.plus(properties.getLease())));
+                return batch;
+            }
+        );
+    }
+
+    private int deliver(List<OutboxMessage> batch) {
+        Map<String, List<OutboxMessage>> bySink = batch
+            .stream()
+            .collect(Collectors.groupingBy(OutboxMessage::getSink, LinkedHashMap::new, Collectors.toList()));
+        List<Long> delivered = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        bySink.forEach(
+            (name, messages) -> {
+                List<Long> ids = messages.stream().map(OutboxMessage::getId).collect(Collectors.toList());
+                try {
+                    OutboxSink sink = sinks.get(name);
+                    if (sink == null) {
+                        throw new IOException("No such sink");
+                    }
+                    sink.send(messages.stream().map(OutboxEventDTO::new).collect(Collectors.toList()));
+                    delivered.addAll(ids);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not deliver {} outbox events to sink {}: {}", ids.size(), name, e.getMessage());
+                    failed.addAll(ids);
+                }
+            }
+        );
+        if (!delivered.isEmpty() || !failed.isEmpty()) {
+            writeTransaction.executeWithoutResult(
+                status -> {
+                    if (!delivered.isEmpty()) {
+                        outboxMessageRepository.deleteByIdIn(delivered);
+                    }
+                    Instant now = Instant.now();
+                    for (OutboxMessage message : outboxMessageRepository.findAllById(failed)) {
+                        message.setAttempts(message.getAttempts() + 1);
+                        message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                    }
+                }
+            );
+        }
+        return delivered.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private void write(EntityManager em, Collection<Long> pedidoIds) {
+        Instant now = Instant.now();
+        for (PedidoStreamDTO pedido : load(em, pedidoIds)) {
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(pedido);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not write " + pedido, e);
+            }
+            for (String sink : sinks.keySet()) {
+                em.persist(
+                    new OutboxMessage()
+                        .sink(sink)
+                        .eventType(PEDIDO_CHANGED)
+                        .restauranteId(pedido.getRestauranteId())
+                        .aggregateId(pedido.getId())
+                        .payload(payload)
+                        .createdAt(now)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                );
+            }
+        }
+    }
+
+    /**
+     * Load the pedidos as stored, mapped like the {@link PedidoStreamService} does. The lines are queried on their
+     * own: the collection of a pedido loaded earlier in the transaction may not hold the lines created since.
+     */
+    private List<PedidoStreamDTO> load(EntityManager em, Collection<Long> pedidoIds) {
+        Map<Long, List<ItemPedido>> itemPedidos = new HashMap<>();
+        for (ItemPedido itemPedido : em.createQuery(ITEM_PEDIDOS, ItemPedido.class).setParameter("ids", pedidoIds).getResultList()) {
+            itemPedidos.computeIfAbsent(itemPedido.getPedido().getId(), id -> new ArrayList<>()).add(itemPedido);
+        }
+        List<PedidoStreamDTO> pedidos = new ArrayList<>();
+        for (Pedido pedido : em.createQuery(PEDIDOS, Pedido.class).setParameter("ids", pedidoIds).getResultList()) {
+            pedidos.add(new PedidoStreamDTO(pedido, itemPedidos.getOrDefault(pedido.getId(), List.of())));
+        }
+        return pedidos;
+    }
+
+    /**
+     * The pedidos changed by a transaction, written to the outbox once its last changes are flushed.
+     */
+    private final class PendingPedidos implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private final Set<Long> pedidoIds = new LinkedHashSet<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            write(session, pedidoIds);
+            session.flush();
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.domain.event.PedidoChangedEvent;
+import br.com.qrdapio.domain.event.PedidoRemovedEvent;
+import br.com.qrdapio.service.dto.PedidoAbertoDTO;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping in memory the {@link br.com.qrdapio.domain.Pedido}s of each restaurante that are still to be
+ * delivered, so that the kitchen screens and the waiters read them in the time of the open pedidos, not of the
+ * history.
+ * <p>
+ * The open pedidos of a restaurante are loaded on its first read, through the index on
+ * {@code (restaurante_id, status, data_hora)}. Once a transaction changing pedidos commits, they are read again by
+ * id and replaced in the views already loaded, unless a newer version is there already, and the deleted ones leave
+ * them without being read; the ones closed are kept
+ * for {@link #PURGE_INTERVAL} milliseconds, so that a late read of their previous version does not open them again.
+ * The views are updated under the lock of their restaurante in a {@link ConcurrentHashMap}, and read without lock.
+ * They are loaded outside of the map, and the pedidos changed while a view loads are read again once it is published.
+ * <p>
+ * The changes committed on the other servers are only seen when the view is loaded again: the first read once
+ * {@code application.pedido-aberto.reload-interval} has elapsed loads it through the index, while the other reads
+ * keep on serving the previous view.
+ */
+@Service
+public class PedidoAbertoService {
+
+    /**
+     * Interval between two purges of the closed pedidos.
+     */
+    public static final long PURGE_INTERVAL = 60_000;
+
+    private static final List<StatusPedido> ABERTOS = Arrays
+        .stream(StatusPedido.values())
+        .filter(StatusPedido::isAberto)
+        .collect(Collectors.toList());
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Comparator<PedidoAbertoDTO> ORDEM = Comparator
+        .comparing((PedidoAbertoDTO pedido) -> pedido.getDataHora().toInstant())
+        .thenComparing(PedidoAbertoDTO::getId);
+
+    private final Logger log = LoggerFactory.getLogger(PedidoAbertoService.class);
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final ApplicationProperties.PedidoAberto properties;
+
+    private final ConcurrentMap<Long, View> abertos = new ConcurrentHashMap<>();
+
+    /**
+     * The pedidos changed while the view of their restaurante loads, to read again once it is published.
+     */
+    private final ConcurrentMap<Long, Set<Long>> changedWhileLoading = new ConcurrentHashMap<>();
+
+    public PedidoAbertoService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.properties = applicationProperties.getPedidoAberto();
+        this.readTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get the open pedidos of a restaurante.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param status the status of the pedidos, all the open ones if {@code null}.
+     * @return the pedidos, the oldest first.
+     */
+    public List<PedidoAbertoDTO> findAbertos(Long restauranteId, StatusPedido status) {
+        log.debug("Request to get the open Pedidos of Restaurante : {} in status {}", restauranteId, status);
+        View view = abertos.get(restauranteId);
+        if (view == null) {
+            view = load(restauranteId, null);
+        } else if (view.isOlderThan(properties.getReloadInterval().toMillis()) && view.reloading.compareAndSet(false, true)) {
+            view = load(restauranteId, view);
+        }
+        return view.pedidos
+            .values()
+            .stream()
+            .filter(aberto -> status != null ? aberto.pedido.getStatus() == status : aberto.pedido.getStatus().isAberto())
+            .map(aberto -> aberto.pedido)
+            .sorted(ORDEM)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Collect the pedidos changed by the current transaction, to read them again once it commits.
+     *
+     * @param event the changed pedido.
+     */
+    @EventListener
+    public void onPedidoChanged(PedidoChangedEvent event) {
+        refresh(event.getPedidoId());
+    }
+
+    /**
+     * Take a deleted pedido off the view of its restaurante once the current transaction commits.
+     *
+     * @param event the deleted pedido.
+     */
+    @EventListener
+    public void onPedidoRemoved(PedidoRemovedEvent event) {
+        if (event.getRestauranteId() == null) {
+            refresh(event.getPedidoId());
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(event.getRestauranteId(), event.getPedidoId());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(event.getRestauranteId(), event.getPedidoId());
+                }
+            }
+        );
+    }
+
+    /**
+     * Read a pedido again once the current transaction commits, or right away without transaction; a pedido which
+     * no longer exists leaves the views.
+     *
+     * @param pedidoId the id of the pedido.
+     */
+    public void refresh(Long pedidoId) {
+        AfterCommitCollector.collect(this, pedidoId, this::refreshCommitted);
+    }
+
+    /**
+     * Forget the closed pedidos that have been closed for a while.
+     */
+    @Scheduled(fixedDelay = PURGE_INTERVAL)
+    public void purge() {
+        long before = System.currentTimeMillis() - PURGE_INTERVAL;
+        abertos.keySet().forEach(
+            id ->
+                abertos.computeIfPresent(
+                    id,
+                    (key, view) -> {
+                        view.pedidos.values().removeIf(aberto -> !aberto.pedido.getStatus().isAberto() && aberto.lidoEm < before);
+                        return view;
+                    }
+                )
+        );
+    }
+
+    private void forget(Long restauranteId, Long pedidoId) {
+        Set<Long> changed = changedWhileLoading.get(restauranteId);
+        if (changed != null) {
+            changed.add(pedidoId);
+        }
+        abertos.computeIfPresent(
+            restauranteId,
+            (id, view) -> {
+                view.pedidos.remove(pedidoId);
+                return view;
+            }
+        );
+    }
+
+    /**
+     * Load the view of a restaurante, outside of the map so that the query does not hold the lock of other
+     * restaurantes, and publish it.
+     *
+     * @param previous the view to replace, {@code null} on the first load.
+     * @return the view published, which is another one if a concurrent load published first.
+     */
+    private View load(Long restauranteId, View previous) {
+        Set<Long> changed = changedWhileLoading.computeIfAbsent(restauranteId, id -> ConcurrentHashMap.newKeySet());
+        ConcurrentMap<Long, Aberto> pedidos = new ConcurrentHashMap<>();
+        long now = System.currentTimeMillis();
+        View loaded = new View(pedidos, now);
+        View published;
+        try {
+            readTransaction.executeWithoutResult(
+                status ->
+                    entityManager
+                        .createQuery(
+                            "select pedido.id, pedido.restaurante.id, pedido.senha, pedido.status, pedido.dataHora, pedido.total, " +
+                            "pedido.version from Pedido pedido where pedido.restaurante.id = :id and pedido.status in :abertos",
+                            Object[].class
+                        )
+                        .setParameter("id", restauranteId)
+                        .setParameter("abertos", ABERTOS)
+                        .getResultList()
+                        .forEach(row -> pedidos.put((Long) row[0], new Aberto(row, now)))
+            );
+            log.debug("Loaded {} open Pedidos of Restaurante : {}", pedidos.size(), restauranteId);
+            if (previous == null) {
+                published = abertos.putIfAbsent(restauranteId, loaded);
+            } else {
+                keepClosed(previous, pedidos);
+                published = abertos.replace(restauranteId, previous, loaded) ? null : abertos.get(restauranteId);
+            }
+        } finally {
+            changedWhileLoading.remove(restauranteId, changed);
+            if (previous != null) {
+                previous.reloading.set(false);
+            }
+        }
+        // The changes committed after the query may be missing from the view
+        if (!changed.isEmpty()) {
+            refresh(new ArrayList<>(changed));
+        }
+        return published != null ? published : loaded;
+    }
+
+    /**
+     * Keep the pedidos closed on this server in a view loaded again, and the versions newer than the ones loaded, so
+     * that a late read of their previous version does not open them again. The open ones missing from the view were
+     * closed or deleted on another server.
+     */
+    private void keepClosed(View previous, ConcurrentMap<Long, Aberto> pedidos) {
+        previous.pedidos.forEach(
+            (id, aberto) -> {
+                if (pedidos.containsKey(id)) {
+                    pedidos.merge(id, aberto, (a, b) -> a.version >= b.version ? a : b);
+                } else if (!aberto.pedido.getStatus().isAberto()) {
+                    pedidos.put(id, aberto);
+                }
+            }
+        );
+    }
+
+    private void refreshCommitted(Set<Long> pedidoIds) {
+        // Synchronous, so that the next request of the client sees its change
+        try {
+            refresh(pedidoIds);
+        } catch (RuntimeException e) {
+            // The change is committed already, the views are loaded again instead
+            abertos.clear();
+            log.warn("Could not refresh the open Pedidos {}: {}", pedidoIds, e.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> pedidoIds) {
+        if (abertos.isEmpty() && changedWhileLoading.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pedidoIds);
+        Set<Long> missing = new HashSet<>(ids);
+        long now = System.currentTimeMillis();
+        readTransaction.executeWithoutResult(
+            status -> {
+                for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                    entityManager
+                        .createQuery(
+                            "select pedido.id, pedido.restaurante.id, pedido.senha, pedido.status, pedido.dataHora, pedido.total, " +
+                            "pedido.version from Pedido pedido where pedido.id in :ids",
+                            Object[].class
+                        )
+                        .setParameter("ids", ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())))
+                        .getResultList()
+                        .forEach(
+                            row -> {
+                                missing.remove((Long) row[0]);
+                                Aberto aberto = new Aberto(row, now);
+                                Set<Long> changed = changedWhileLoading.get((Long) row[1]);
+                                if (changed != null) {
+                                    changed.add(aberto.pedido.getId());
+                                }
+                                abertos.computeIfPresent(
+                                    (Long) row[1],
+                                    (id, view) -> {
+                                        view.pedidos.merge(aberto.pedido.getId(), aberto, (a, b) -> a.version >= b.version ? a : b);
+                                        return view;
+                                    }
+                                );
+                            }
+                        );
+                }
+            }
+        );
+        if (!missing.isEmpty()) {
+            // Their restaurante is not known anymore
+            changedWhileLoading.values().forEach(changed -> changed.addAll(missing));
+            abertos.keySet().forEach(
+                id ->
+                    abertos.computeIfPresent(
+                        id,
+                        (key, view) -> {
+                            view.pedidos.keySet().removeAll(missing);
+                            return view;
+                        }
+                    )
+            );
+        }
+    }
+
+    /**
+     * The open pedidos of a restaurante, with the time they were loaded at.
+     */
+    private static final class View {
+
+        private final ConcurrentMap<Long, Aberto> pedidos;
+
+        private final long carregadoEm;
+
+        /**
+         * Whether a read is loading the view again, so that the other reads do not.
+         */
+        private final AtomicBoolean reloading = new AtomicBoolean();
+
+        View(ConcurrentMap<Long, Aberto> pedidos, long carregadoEm) {
+            this.pedidos = pedidos;
+            this.carregadoEm = carregadoEm;
+        }
+
+        boolean isOlderThan(long millis) {
+            return System.currentTimeMillis() - carregadoEm >= millis;
+        }
+    }
+
+    /**
+     * A pedido of a view, with the version it was read at.
+     */
+    private static final class Aberto {
+
+        private final PedidoAbertoDTO pedido;
+
+        private final int version;
+
+        private final long lidoEm;
+
+        Aberto(Object[] row, long lidoEm) {
+            this.pedido =
+                new PedidoAbertoDTO((Long) row[0], (Integer) row[2], (StatusPedido) row[3], (ZonedDateTime) row[4], (BigDecimal) row[5]);
+            this.version = (Integer) row[6];
+            this.lidoEm = lidoEm;
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.service.archive.ArchivedLine;
+import br.com.qrdapio.service.archive.PartitionFile;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service moving the closed {@link br.com.qrdapio.domain.Pedido}s older than
+ * {@code application.pedido-archive.retention} out of the database, so that the {@code pedido} and
+ * {@code item_pedido} tables and their indexes only hold the retention window.
+ * <p>
+ * Every night, the delivered and cancelled pedidos placed before the retention window are written with their lines
+ * to a {@link PartitionFile} per restaurante and business month, under {@code application.pedido-archive.directory},
+ * then deleted. They are read {@value #BATCH_SIZE} at a time, in date order, and gathered by month: each partition is
+ * written once per run, when its month is complete, and only then are its pedidos deleted. A partition is rewritten
+ * with the lines it already had, which are kept once if a run stopped between writing them and deleting them. Only
+ * one server archives at a time, under a lock on the directory.
+ * <p>
+ * The date before which pedidos may be archived is kept in the directory as well: reports and exports of periods
+ * starting before it {@link #read read} the archive, and then the database. The file is read again whenever it was
+ * replaced, so that the servers which do not archive follow the horizon of the one which does. The open pedidos are
+ * never archived, whatever their date.
+ */
+@Service
+public class PedidoArchiveService {
+
+    /**
+     * Receives the archived lines.
+     */
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(ArchivedLine line) throws IOException;
+    }
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<StatusPedido> FECHADOS = Arrays
+        .stream(StatusPedido.values())
+        .filter(status -> !status.isAberto())
+        .collect(Collectors.toList());
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final String EXTENSION = ".gz";
+
+    private static final String HORIZON_FILE = "horizon";
+
+    private static final String LOCK_FILE = ".lock";
+
+    private static final String LINHAS =
+        "select pedido.id, pedido.restaurante.id, pedido.dataHora, pedido.senha, pedido.formaPagamento, pedido.status, " +
+        "itemPedido.id, item.id, item.nome, item.categoria, itemPedido.quantidade, itemPedido.valorUnitario " +
+        "from Pedido pedido left join pedido.itemPedidos itemPedido left join itemPedido.item item " +
+        "where pedido.id in :ids";
+
+    private final Logger log = LoggerFactory.getLogger(PedidoArchiveService.class);
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final ShardMap shardMap;
+
+    private final Path directory;
+
+    private final Duration retention;
+
+    private final ZoneId timeZone;
+
+    private volatile Horizon horizon = Horizon.NONE;
+
+    public PedidoArchiveService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ShardMap shardMap,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.readTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardMap = shardMap;
+        String path = applicationProperties.getPedidoArchive().getDirectory();
+        this.directory = path == null || path.isBlank() ? null : Paths.get(path);
+        this.retention = applicationProperties.getPedidoArchive().getRetention();
+        this.timeZone = ZoneId.of(applicationProperties.getSenha().getTimeZone());
+    }
+
+    /**
+     * Read the date before which pedidos may have been archived, as saved by the last archiving.
+     */
+    @PostConstruct
+    public void loadHorizon() {
+        horizon = readHorizon();
+    }
+
+    /**
+     * @return the date before which pedidos may have been archived, empty if none was.
+     */
+    public Optional<Instant> getHorizon() {
+        return Optional.ofNullable(currentHorizon().value);
+    }
+
+    /**
+     * @param from the start of a period.
+     * @return whether some pedidos of the period may have been archived.
+     */
+    public boolean reaches(ZonedDateTime from) {
+        Instant current = currentHorizon().value;
+        return directory != null && current != null && from.toInstant().isBefore(current);
+    }
+
+    /**
+     * Archive the closed pedidos older than the retention.
+     */
+    @Scheduled(cron = "0 0 5 * * ?")
+    public void archiveExpired() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            archive(Instant.now().minus(retention));
+        } catch (RuntimeException e) {
+            // What was archived before the failure is consistent, the rest is archived next time
+            log.warn("Could not archive the Pedidos older than {}: {}", retention, e.getMessage());
+        }
+    }
+
+    /**
+     * Move the closed pedidos placed before a date, and their lines, from the database to the archive.
+     *
+     * @param before the date, exclusive.
+     * @return the number of pedidos archived; none if the archive is disabled, or another server is archiving.
+     * @throws UncheckedIOException if the archive cannot be written.
+     */
+    public synchronized int archive(Instant before) {
+        log.debug("Request to archive the Pedidos placed before {}", before);
+        if (directory == null) {
+            return 0;
+        }
+        try {
+            Files.createDirectories(directory);
+            try (
+                FileChannel channel = FileChannel.open(
+                    directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE
+                );
+                FileLock lock = channel.tryLock()
+            ) {
+                if (lock == null) {
+                    log.info("Another server is archiving Pedidos, skipping");
+                    return 0;
+                }
+                Instant current = currentHorizon().value;
+                // Reads must look into the archive before the first pedido is deleted
+                if (current == null || current.isBefore(before)) {
+                    saveHorizon(before);
+                }
+                ZonedDateTime cutoff = before.atZone(timeZone);
+                int archived = 0;
+                if (!shardMap.isSharded()) {
+                    archived = archiveShard(cutoff);
+                } else {
+                    // Each shard holds the pedidos of its restaurantes
+                    for (String shard : shardMap.getShardNames()) {
+                        archived += ShardRoutingDataSource.callInShard(shard, () -> archiveShard(cutoff));
+                    }
+                }
+                log.info("Archived {} Pedidos placed before {}", archived, before);
+                return archived;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the archived lines of a period. Pedidos without lines are skipped.
+     *
+     * @param restauranteId the restaurante of the pedidos, {@code null} for all of them.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @param consumer receives the lines in date order, one month of the archive in memory at a time.
+     * @return the number of lines read.
+     * @throws IOException if the archive cannot be read, or the consumer fails.
+     */
+    public long read(Long restauranteId, ZonedDateTime from, ZonedDateTime to, LineConsumer consumer) throws IOException {
+        Instant current = currentHorizon().value;
+        if (directory == null || current == null || !from.toInstant().isBefore(current) || !from.isBefore(to)) {
+            return 0;
+        }
+        ZonedDateTime end = to.toInstant().isAfter(current) ? current.atZone(timeZone) : to;
+        List<Long> restauranteIds = restauranteId != null ? List.of(restauranteId) : archivedRestaurantes();
+        long read = 0;
+        YearMonth last = month(end);
+        YearMonth month = month(from);
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            List<ArchivedLine> lines = new ArrayList<>();
+            for (Long id : restauranteIds) {
+                for (ArchivedLine line : PartitionFile.read(partition(id, month), id)) {
+                    ZonedDateTime dataHora = line.getDataHora();
+                    if (line.getItemPedidoId() != null && !dataHora.isBefore(from) && dataHora.isBefore(to)) {
+                        lines.add(line);
+                    }
+                }
+            }
+            if (restauranteIds.size() > 1) {
+                lines.sort(ArchivedLine.ORDER);
+            }
+            for (ArchivedLine line : lines) {
+                consumer.accept(line);
+            }
+            read += lines.size();
+        }
+        return read;
+    }
+
+    private List<Long> archivedRestaurantes() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                .filter(Files::isDirectory)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.chars().allMatch(Character::isDigit))
+                .map(Long::valueOf)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private int archiveShard(ZonedDateTime before) {
+        List<Long> restauranteIds = readTransaction.execute(
+            status ->
+                entityManager
+                    .createQuery("select restaurante.id from Restaurante restaurante order by restaurante.id", Long.class)
+                    .getResultList()
+        );
+        int archived = 0;
+        for (Long restauranteId : restauranteIds) {
+            // Its pedidos are being copied to another shard
+            if (!shardMap.isMoving(restauranteId)) {
+                archived += archiveRestaurante(restauranteId, before);
+            }
+        }
+        return archived;
+    }
+
+    private int archiveRestaurante(Long restauranteId, ZonedDateTime before) {
+        // The pedidos and lines read so far, by month, until their partition is written
+        TreeMap<YearMonth, List<Long>> ids = new TreeMap<>();
+        Map<YearMonth, List<ArchivedLine>> lines = new HashMap<>();
+        int archived = 0;
+        Object[] last = null;
+        while (true) {
+            Object[] after = last;
+            List<Object[]> batch = readTransaction.execute(status -> nextBatch(restauranteId, before, after));
+            if (batch.isEmpty()) {
+                return archived + archiveMonths(restauranteId, ids, lines);
+            }
+            for (Object[] row : batch) {
+                ids.computeIfAbsent(month((ZonedDateTime) row[1]), month -> new ArrayList<>()).add((Long) row[0]);
+            }
+            List<Long> batchIds = batch.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+            for (ArchivedLine line : readLines(batchIds)) {
+                lines.computeIfAbsent(month(line.getDataHora()), month -> new ArrayList<>()).add(line);
+            }
+            last = batch.get(batch.size() - 1);
+            // The batches come in date order: the months before the one of the last pedido are complete
+            archived += archiveMonths(restauranteId, ids.headMap(month((ZonedDateTime) last[1])), lines);
+        }
+    }
+
+    /**
+     * The next closed pedidos of a restaurante placed before a date, with their date, in date order.
+     *
+     * @param after the id and date of the last pedido of the previous batch, {@code null} for the first batch.
+     */
+    private List<Object[]> nextBatch(Long restauranteId, ZonedDateTime before, Object[] after) {
+        String query =
+            "select pedido.id, pedido.dataHora from Pedido pedido where pedido.restaurante.id = :restauranteId " +
+            "and pedido.status in :fechados and pedido.dataHora < :before " +
+            (
+                after == null
+                    ? ""
+                    : "and (pedido.dataHora > :lastDataHora or (pedido.dataHora = :lastDataHora and pedido.id > :lastId)) "
+            ) +
+            "order by pedido.dataHora, pedido.id";
+        TypedQuery<Object[]> batch = entityManager
+            .createQuery(query, Object[].class)
+            .setParameter("restauranteId", restauranteId)
+            .setParameter("fechados", FECHADOS)
+            .setParameter("before", before)
+            .setMaxResults(BATCH_SIZE);
+        if (after != null) {
+            batch.setParameter("lastId", after[0]).setParameter("lastDataHora", after[1]);
+        }
+        return batch.getResultList();
+    }
+
+    private List<ArchivedLine> readLines(List<Long> ids) {
+        return readTransaction.execute(
+            status ->
+                entityManager
+                    .createQuery(LINHAS, Object[].class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .stream()
+                    .map(PedidoArchiveService::toArchivedLine)
+                    .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Write the partitions of some months, then delete their pedidos.
+     *
+     * @param ids the pedidos of each month, removed once archived.
+     * @param lines the lines of each month, removed once archived.
+     * @return the number of pedidos archived.
+     */
+    private int archiveMonths(Long restauranteId, Map<YearMonth, List<Long>> ids, Map<YearMonth, List<ArchivedLine>> lines) {
+        int archived = 0;
+        for (Iterator<Map.Entry<YearMonth, List<Long>>> months = ids.entrySet().iterator(); months.hasNext();) {
+            Map.Entry<YearMonth, List<Long>> month = months.next();
+            merge(partition(restauranteId, month.getKey()), restauranteId, lines.getOrDefault(month.getKey(), List.of()));
+            List<Long> monthIds = month.getValue();
+            for (int from = 0; from < monthIds.size(); from += BATCH_SIZE) {
+                delete(monthIds.subList(from, Math.min(from + BATCH_SIZE, monthIds.size())));
+            }
+            log.debug("Archived {} Pedidos of Restaurante : {} in {}", monthIds.size(), restauranteId, month.getKey());
+            archived += monthIds.size();
+            lines.remove(month.getKey());
+            months.remove();
+        }
+        return archived;
+    }
+
+    private void delete(List<Long> ids) {
+        writeTransaction.executeWithoutResult(
+            status -> {
+                entityManager
+                    .createQuery("delete from ItemPedido itemPedido where itemPedido.pedido.id in :ids")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+                entityManager.createQuery("delete from Pedido pedido where pedido.id in :ids").setParameter("ids", ids).executeUpdate();
+            }
+        );
+    }
+
+    private void merge(Path partition, long restauranteId, List<ArchivedLine> lines) {
+        try {
+            TreeSet<ArchivedLine> merged = new TreeSet<>(ArchivedLine.ORDER);
+            merged.addAll(PartitionFile.read(partition, restauranteId));
+            merged.addAll(lines);
+            PartitionFile.write(partition, new ArrayList<>(merged));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private YearMonth month(ZonedDateTime dataHora) {
+        return YearMonth.from(dataHora.withZoneSameInstant(timeZone));
+    }
+
+    private Path partition(long restauranteId, YearMonth month) {
+        return directory.resolve(Long.toString(restauranteId)).resolve(MONTH.format(month) + EXTENSION);
+    }
+
+    private void saveHorizon(Instant before) throws IOException {
+        Path file = directory.resolve(HORIZON_FILE);
+        Path temporary = Files.createTempFile(directory, HORIZON_FILE, ".tmp");
+        try {
+            Files.writeString(temporary, before.toString(), StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        horizon = readHorizon();
+    }
+
+    /**
+     * The horizon, read again if its file was replaced since: by the archiving of another server, most of the time.
+     */
+    private Horizon currentHorizon() {
+        Horizon current = horizon;
+        try {
+            if (directory != null && !current.isReadFrom(horizonAttributes())) {
+                current = readHorizon();
+                horizon = current;
+            }
+        } catch (IOException e) {
+            log.warn("Could not check the archive horizon in {}: {}", directory, e.getMessage());
+        }
+        return current;
+    }
+
+    private Horizon readHorizon() {
+        BasicFileAttributes attributes = null;
+        try {
+            attributes = horizonAttributes();
+            if (attributes == null) {
+                return Horizon.NONE;
+            }
+            return new Horizon(Instant.parse(Files.readString(directory.resolve(HORIZON_FILE), StandardCharsets.UTF_8).trim()), attributes);
+        } catch (IOException | RuntimeException e) {
+            // Reading the whole archive is better than missing part of it
+            log.warn("Could not read the archive horizon from {}: {}", directory, e.getMessage());
+            return new Horizon(Instant.MAX, attributes);
+        }
+    }
+
+    /**
+     * @return the attributes of the horizon file, {@code null} if there is none.
+     */
+    private BasicFileAttributes horizonAttributes() throws IOException {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return Files.readAttributes(directory.resolve(HORIZON_FILE), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static ArchivedLine toArchivedLine(Object[] row) {
+        return new ArchivedLine()
+            .pedidoId((Long) row[0])
+            .restauranteId((Long) row[1])
+            .dataHora((ZonedDateTime) row[2])
+            .senha((Integer) row[3])
+            .formaPagamento((FormaPagamento) row[4])
+            .status((StatusPedido) row[5])
+            .itemPedidoId((Long) row[6])
+            .itemId((Long) row[7])
+            .item((String) row[8])
+            .categoria((Categoria) row[9])
+            .quantidade((Integer) row[10])
+            .valorUnitario((BigDecimal) row[11]);
+    }
+
+    /**
+     * The horizon as read from its file, with the attributes of the file at the time. The file is replaced, never
+     * written in place, so a new key or modification time means a new horizon.
+     */
+    private static final class Horizon {
+
+        private static final Horizon NONE = new Horizon(null, null);
+
+        private final Instant value;
+
+        private final FileTime lastModified;
+
+        private final Object fileKey;
+
+        private Horizon(Instant value, BasicFileAttributes attributes) {
+            this.value = value;
+            this.lastModified = attributes == null ? null : attributes.lastModifiedTime();
+            this.fileKey = attributes == null ? null : attributes.fileKey();
+        }
+
+        private boolean isReadFrom(BasicFileAttributes attributes) {
+            if (attributes == null) {
+                return lastModified == null;
+            }
+            return attributes.lastModifiedTime().equals(lastModified) && Objects.equals(attributes.fileKey(), fileKey);
+        }
+    }
+}
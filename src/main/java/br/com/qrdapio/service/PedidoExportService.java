@@ -0,0 +1,329 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.service.archive.ArchivedLine;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service exporting the lines of the {@link Pedido}s of a period, for accounting.
+ * <p>
+ * The lines are read with a forward-only cursor and written as they come, and the persistence context is
+ * cleared every {@code application.pedido-export.fetch-size} lines: the memory used does not depend on the
+ * length of the period.
+ * <p>
+ * Periods starting before the {@link PedidoArchiveService archive} horizon start with the archived lines, one month
+ * at a time, followed by the lines still in the database. The lines of a restaurante are read on its shard; the
+ * export of all the restaurantes reads the shards one after the other, so its lines are in date order shard by shard.
+ */
+@Service
+public class PedidoExportService {
+
+    /**
+     * Format of an export.
+     */
+    public enum Format {
+        /**
+         * One JSON object per line.
+         */
+        NDJSON,
+        /**
+         * Comma-separated values, with a header line.
+         */
+        CSV,
+    }
+
+    private static final String[] COLUMNS = {
+        "pedidoId",
+        "restauranteId",
+        "dataHora",
+        "senha",
+        "formaPagamento",
+        "itemId",
+        "item",
+        "quantidade",
+        "valorUnitario",
+        "total",
+    };
+
+    private final Logger log = LoggerFactory.getLogger(PedidoExportService.class);
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final PedidoArchiveService pedidoArchiveService;
+
+    private final ShardMap shardMap;
+
+    private final TransactionTemplate readTransaction;
+
+    private final int fetchSize;
+
+    public PedidoExportService(
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        PedidoArchiveService pedidoArchiveService,
+        ShardMap shardMap,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.pedidoArchiveService = pedidoArchiveService;
+        this.shardMap = shardMap;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.fetchSize = applicationProperties.getPedidoExport().getFetchSize();
+    }
+
+    /**
+     * Write the lines of the pedidos placed in a period, in date order: the archived ones first.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @param restauranteId the restaurante of the pedidos, {@code null} for all of them.
+     * @param format the format of the export.
+     * @param out the stream to write to, left open.
+     * @return the number of lines exported.
+     * @throws IOException if the export cannot be written.
+     */
+    public long export(ZonedDateTime from, ZonedDateTime to, Long restauranteId, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export Pedidos from {} to {} of Restaurante : {} as {}", from, to, restauranteId, format);
+        LineWriter writer = format == Format.CSV ? new CsvLineWriter(out) : new NdjsonLineWriter(objectMapper, out);
+        writer.begin();
+        // The archive holds the pedidos of all the shards
+        long lines = pedidoArchiveService.read(restauranteId, from, to, line -> writer.write(values(line)));
+        try {
+            if (restauranteId != null) {
+                lines += shardMap.callInShardOf(restauranteId, () -> exportShard(from, to, restauranteId, writer));
+            } else {
+                for (long shardLines : shardMap.callInEachShard(() -> exportShard(from, to, null, writer))) {
+                    lines += shardLines;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.debug("Exported {} lines", lines);
+        return lines;
+    }
+
+    /**
+     * Write the lines of the pedidos of the current shard, in a read-only transaction of their own.
+     */
+    private long exportShard(ZonedDateTime from, ZonedDateTime to, Long restauranteId, LineWriter writer) {
+        return readTransaction.execute(
+            status -> {
+                Session session = entityManager.unwrap(Session.class);
+                Query<ItemPedido> query = session
+                    .createQuery(
+                        "select itemPedido from ItemPedido itemPedido " +
+                        "join fetch itemPedido.pedido pedido join fetch pedido.restaurante " +
+                        "join fetch itemPedido.item item join fetch item.cardapio cardapio join fetch cardapio.restaurante " +
+                        "where pedido.dataHora >= :from and pedido.dataHora < :to " +
+                        (restauranteId == null ? "" : "and pedido.restaurante.id = :restauranteId ") +
+                        "order by pedido.dataHora, pedido.id, itemPedido.id",
+                        ItemPedido.class
+                    )
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE);
+                if (restauranteId != null) {
+                    query.setParameter("restauranteId", restauranteId);
+                }
+                long lines = 0;
+                try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        writer.write(values((ItemPedido) results.get(0)));
+                        if (++lines % fetchSize == 0) {
+                            // The lines written so far are not needed anymore
+                            session.clear();
+                            writer.flush();
+                        }
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return lines;
+            }
+        );
+    }
+
+    /**
+     * The values of the {@link #COLUMNS} for a line.
+     */
+    private static Object[] values(ItemPedido itemPedido) {
+        Pedido pedido = itemPedido.getPedido();
+        ItemCardapio item = itemPedido.getItem();
+        return new Object[] {
+            pedido.getId(),
+            pedido.getRestaurante().getId(),
+            format(pedido.getDataHora()),
+            pedido.getSenha(),
+            pedido.getFormaPagamento() == null ? null : pedido.getFormaPagamento().name(),
+            item.getId(),
+            item.getNome(),
+            itemPedido.getQuantidade(),
+            itemPedido.getValorUnitario(),
+            total(itemPedido.getValorUnitario(), itemPedido.getQuantidade()),
+        };
+    }
+
+    private static Object[] values(ArchivedLine line) {
+        return new Object[] {
+            line.getPedidoId(),
+            line.getRestauranteId(),
+            format(line.getDataHora()),
+            line.getSenha(),
+            line.getFormaPagamento() == null ? null : line.getFormaPagamento().name(),
+            line.getItemId(),
+            line.getItem(),
+            line.getQuantidade(),
+            line.getValorUnitario(),
+            total(line.getValorUnitario(), line.getQuantidade()),
+        };
+    }
+
+    private static BigDecimal total(BigDecimal valor, Integer quantidade) {
+        return valor == null || quantidade == null ? null : valor.multiply(BigDecimal.valueOf(quantidade));
+    }
+
+    private static String format(ZonedDateTime dataHora) {
+        return dataHora == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dataHora);
+    }
+
+    private interface LineWriter {
+        void begin() throws IOException;
+
+        void write(Object[] values) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonLineWriter implements LineWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonLineWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // Closing the response is up to the caller
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void begin() {
+            // No header
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                writeField(COLUMNS[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeField(String name, Object value) throws IOException {
+            generator.writeFieldName(name);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof BigDecimal) {
+                generator.writeNumber((BigDecimal) value);
+            } else if (value instanceof Number) {
+                generator.writeNumber(((Number) value).longValue());
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvLineWriter implements LineWriter {
+
+        private final Writer writer;
+
+        private CsvLineWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(COLUMNS[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Write a value, quoted if it contains a separator, a quote or a line break.
+         */
+        private void writeField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+            } else {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
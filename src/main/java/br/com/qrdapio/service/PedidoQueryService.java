@@ -0,0 +1,105 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Pedido_;
+import br.com.qrdapio.domain.Restaurante_;
+import br.com.qrdapio.service.criteria.PedidoCriteria;
+import br.com.qrdapio.service.dto.PedidoResumoDTO;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link Pedido} entities in the database.
+ * The main input is a {@link PedidoCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Slice} of {@link Pedido} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PedidoQueryService extends KeysetQueryService<Pedido> {
+
+    private final Logger log = LoggerFactory.getLogger(PedidoQueryService.class);
+
+    private final EntityManager entityManager;
+
+    public PedidoQueryService(EntityManager entityManager) {
+        super(entityManager, Pedido.class, Pedido_.id, "Pedido.restaurante");
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Pedido} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after the id of the last entity of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, in id order.
+     */
+    public Slice<Pedido> findByCriteria(PedidoCriteria criteria, Long after, int size) {
+        log.debug("find by criteria : {}, after : {}, size : {}", criteria, after, size);
+        final Specification<Pedido> specification = createSpecification(criteria);
+        return findAfter(specification, after, size);
+    }
+
+    /**
+     * Return a {@link Slice} of the pedidos of a restaurante, summarized by a single query with the number of their items.
+     * @param restauranteId the id of the restaurante.
+     * @param after the id of the last pedido of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of pedidos to return.
+     * @return the pedidos of the restaurante, in id order.
+     */
+    public Slice<PedidoResumoDTO> findResumosByRestaurante(Long restauranteId, Long after, int size) {
+        log.debug("find resumos by restaurante : {}, after : {}, size : {}", restauranteId, after, size);
+        TypedQuery<PedidoResumoDTO> query = entityManager
+            .createQuery(
+                "select new br.com.qrdapio.service.dto.PedidoResumoDTO(" +
+                "pedido.id, pedido.senha, pedido.dataHora, pedido.formaPagamento, count(itemPedido.id), pedido.total) " +
+                "from Pedido pedido left join pedido.itemPedidos itemPedido where pedido.restaurante.id = :restauranteId " +
+                (after == null ? "" : "and pedido.id > :after ") +
+                "group by pedido.id, pedido.senha, pedido.dataHora, pedido.formaPagamento, pedido.total order by pedido.id",
+                PedidoResumoDTO.class
+            )
+            .setParameter("restauranteId", restauranteId);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return findSlice(query, size);
+    }
+
+    /**
+     * Function to convert {@link PedidoCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Pedido> createSpecification(PedidoCriteria criteria) {
+        Specification<Pedido> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Pedido_.id));
+            }
+            if (criteria.getFormaPagamento() != null) {
+                specification = specification.and(buildSpecification(criteria.getFormaPagamento(), Pedido_.formaPagamento));
+            }
+            if (criteria.getDataHora() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getDataHora(), Pedido_.dataHora));
+            }
+            if (criteria.getSenha() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getSenha(), Pedido_.senha));
+            }
+            if (criteria.getStatus() != null) {
+                specification = specification.and(buildSpecification(criteria.getStatus(), Pedido_.status));
+            }
+            if (criteria.getRestauranteId() != null) {
+                specification = specification.and(
+                        buildSpecification(criteria.getRestauranteId(), root -> root.get(Pedido_.restaurante).get(Restaurante_.id))
+                    );
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.domain.event.PedidoChangedEvent;
+import br.com.qrdapio.domain.event.PedidoStatusChangedEvent;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.ItemPedidoRepository;
+import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for managing {@link Pedido}s.
+ */
+@Service
+@Transactional
+public class PedidoService {
+
+    private final Logger log = LoggerFactory.getLogger(PedidoService.class);
+
+    private final PedidoRepository pedidoRepository;
+
+    private final ItemPedidoRepository itemPedidoRepository;
+
+    private final ItemCardapioRepository itemCardapioRepository;
+
+    private final RestauranteRepository restauranteRepository;
+
+    private final SenhaService senhaService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PedidoService(
+        PedidoRepository pedidoRepository,
+        ItemPedidoRepository itemPedidoRepository,
+        ItemCardapioRepository itemCardapioRepository,
+        RestauranteRepository restauranteRepository,
+        SenhaService senhaService,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.pedidoRepository = pedidoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.itemCardapioRepository = itemCardapioRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.senhaService = senhaService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Create a pedido, handing out its senha.
+     * Its senha, its total (zero) and its status ({@link StatusPedido#RECEBIDO}) are the server's, whatever the client
+     * sent.
+     *
+     * @param pedido the pedido to create.
+     * @return the persisted pedido.
+     */
+    public Pedido create(Pedido pedido) {
+        log.debug("Request to create Pedido : {}", pedido);
+        pedido.setTotal(BigDecimal.ZERO);
+        pedido.setStatus(StatusPedido.RECEBIDO);
+        senhaService.assignSenha(pedido);
+        return pedidoRepository.save(pedido);
+    }
+
+    /**
+     * Create a pedido and all its lines in a single transaction.
+     * <p>
+     * Lines ordering the same item are merged, and every item must belong to the restaurante.
+     * The senha is always handed out by the server.
+     * Each line keeps the current valor of its item, and the pedido the total of its lines, so that later price
+     * changes leave it as it was charged.
+     * The inserts are flushed together, so they go out in JDBC batches.
+     *
+     * @param restauranteId the id of the restaurante receiving the pedido.
+     * @param submission the pedido and its lines.
+     * @return the persisted pedido, with its lines.
+     * @throws InvalidPedidoException if the restaurante or one of the items does not exist.
+     */
+    public Pedido submit(Long restauranteId, PedidoSubmissionDTO submission) {
+        log.debug("Request to submit Pedido : {} for Restaurante : {}", submission, restauranteId);
+        Restaurante restaurante = restauranteRepository
+            .findById(restauranteId)
+            .orElseThrow(() -> new InvalidPedidoException("Restaurante not found", "restaurantenotfound"));
+
+        Map<Long, Integer> quantidades = submission
+            .getItens()
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    ItemPedidoSubmissionDTO::getItemId,
+                    ItemPedidoSubmissionDTO::getQuantidade,
+                    Integer::sum,
+                    LinkedHashMap::new
+                )
+            );
+        Map<Long, ItemCardapio> itens = itemCardapioRepository
+            .findAllByIdInAndRestauranteId(quantidades.keySet(), restauranteId)
+            .stream()
+            .collect(Collectors.toMap(ItemCardapio::getId, Function.identity()));
+        if (itens.size() != quantidades.size()) {
+            throw new InvalidPedidoException("Item not found in the restaurante menu", "itemnotfound");
+        }
+
+        Pedido pedido = new Pedido()
+            .formaPagamento(submission.getFormaPagamento())
+            .dataHora(submission.getDataHora() != null ? submission.getDataHora() : ZonedDateTime.now())
+            .restaurante(restaurante);
+        senhaService.assignSenha(pedido);
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> linha : quantidades.entrySet()) {
+            ItemCardapio item = itens.get(linha.getKey());
+            pedido.addItemPedido(new ItemPedido().item(item).quantidade(linha.getValue()).valorUnitario(item.getValor()));
+            if (item.getValor() != null) {
+                total = total.add(item.getValor().multiply(BigDecimal.valueOf(linha.getValue())));
+            }
+        }
+        pedido.setTotal(total);
+
+        Pedido result = pedidoRepository.save(pedido);
+        itemPedidoRepository.saveAll(result.getItemPedidos());
+        return result;
+    }
+
+    /**
+     * Move a pedido to another status, if it is still in the expected one: of concurrent changes from the same
+     * status, a single one succeeds.
+     *
+     * @param id the id of the pedido.
+     * @param de the status the pedido is expected to be in.
+     * @param para the new status.
+     * @return the updated pedido, or empty if it is no longer in the expected status.
+     * @throws InvalidPedidoException if the pedido does not exist, or may not move from the expected status to the new one.
+     */
+    public Optional<Pedido> changeStatus(Long id, StatusPedido de, StatusPedido para) {
+        log.debug("Request to change the status of Pedido : {} from {} to {}", id, de, para);
+        if (!de.podeMudarPara(para)) {
+            throw new InvalidPedidoException("A pedido cannot go from " + de + " to " + para, "invalidtransicao");
+        }
+        if (pedidoRepository.updateStatus(id, de, para) == 0) {
+            if (!pedidoRepository.existsById(id)) {
+                throw new InvalidPedidoException("Pedido not found", "idnotfound");
+            }
+            return Optional.empty();
+        }
+        Pedido pedido = pedidoRepository.findById(id).orElseThrow();
+        // Bulk updates skip the entity listeners
+        eventPublisher.publishEvent(new PedidoChangedEvent(id));
+        eventPublisher.publishEvent(new PedidoStatusChangedEvent(id, pedido.getRestaurante().getId(), de, para));
+        return Optional.of(pedido);
+    }
+}
@@ -0,0 +1,295 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.event.PedidoChangedEvent;
+import br.com.qrdapio.domain.event.PedidoRemovedEvent;
+import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.service.dto.PedidoStreamDTO;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service fanning out committed {@link Pedido}s to the subscribers of each restaurante.
+ * <p>
+ * The {@link PedidoChangedEvent}s of a transaction are collected and, once it commits, each pedido is loaded
+ * with its lines and handed to the subscribers of its restaurante; the deleted ones are handed out as
+ * {@link Event.Type#REMOVED}, without being loaded. Events get increasing ids, and the last
+ * {@code application.pedido-stream.replay-size} ones of each restaurante are kept so that a subscriber can
+ * resume after the last id it received. The ids start from the startup time, so an id from before a restart
+ * is seen as too old and answered with a {@link Event.Type#RESET}.
+ */
+@Service
+public class PedidoStreamService {
+
+    /**
+     * Interval between heartbeats, which keep idle connections open through proxies.
+     */
+    public static final long HEARTBEAT_INTERVAL = 15_000;
+
+    /**
+     * Receiver of the events of one restaurante.
+     */
+    public interface Subscriber {
+        /**
+         * Take an event. Called while holding the restaurante lock, so it must not block.
+         *
+         * @param event the event.
+         * @return {@code false} if the subscriber is gone or cannot keep up, and must be dropped.
+         */
+        boolean offer(Event event);
+    }
+
+    /**
+     * An event of the stream.
+     */
+    public static final class Event {
+
+        public enum Type {
+            /**
+             * A pedido was created or updated.
+             */
+            PEDIDO,
+            /**
+             * A pedido was deleted, the event only holds its id and restaurante.
+             */
+            REMOVED,
+            /**
+             * Events were missed since the requested id, the subscriber should reload the open pedidos.
+             */
+            RESET,
+            /**
+             * Nothing happened.
+             */
+            HEARTBEAT,
+        }
+
+        private static final Event HEARTBEAT = new Event(Type.HEARTBEAT, null, null);
+
+        private final Type type;
+
+        private final Long id;
+
+        private final PedidoStreamDTO pedido;
+
+        private Event(Type type, Long id, PedidoStreamDTO pedido) {
+            this.type = type;
+            this.id = id;
+            this.pedido = pedido;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public PedidoStreamDTO getPedido() {
+            return pedido;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(PedidoStreamService.class);
+
+    private final PedidoRepository pedidoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor executor;
+
+    private final int replaySize;
+
+    private final AtomicLong sequence;
+
+    private final long firstId;
+
+    private final ConcurrentMap<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    public PedidoStreamService(
+        PedidoRepository pedidoRepository,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor executor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.pedidoRepository = pedidoRepository;
+        this.transactionTemplate = new PrimaryTransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+        this.replaySize = applicationProperties.getPedidoStream().getReplaySize();
+        this.firstId = System.currentTimeMillis() * 1000;
+        this.sequence = new AtomicLong(firstId);
+    }
+
+    /**
+     * Subscribe to the events of a restaurante.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param lastEventId the id of the last event received before reconnecting, {@code null} for a new subscriber.
+     * @param subscriber the subscriber, which first receives the events after {@code lastEventId}.
+     * @return a handle to call to unsubscribe.
+     */
+    public Runnable subscribe(Long restauranteId, Long lastEventId, Subscriber subscriber) {
+        log.debug("Request to subscribe to the Pedidos of Restaurante : {} after : {}", restauranteId, lastEventId);
+        Channel channel = channels.computeIfAbsent(restauranteId, id -> new Channel());
+        channel.subscribe(lastEventId, subscriber);
+        return () -> channel.subscribers.remove(subscriber);
+    }
+
+    /**
+     * Collect the pedidos changed by the current transaction, to publish them once it commits.
+     *
+     * @param event the changed pedido.
+     */
+    @EventListener
+    public void onPedidoChanged(PedidoChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishAsync(Set.of(event.getPedidoId()), Map.of());
+            return;
+        }
+        pending().pedidoIds.add(event.getPedidoId());
+    }
+
+    /**
+     * Collect the pedidos deleted by the current transaction, to publish their removal once it commits.
+     *
+     * @param event the deleted pedido.
+     */
+    @EventListener
+    public void onPedidoRemoved(PedidoRemovedEvent event) {
+        if (event.getRestauranteId() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishAsync(Set.of(), Map.of(event.getPedidoId(), event.getRestauranteId()));
+            return;
+        }
+        pending().removed.put(event.getPedidoId(), event.getRestauranteId());
+    }
+
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL)
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.fanOut(Event.HEARTBEAT));
+    }
+
+    private PendingPedidos pending() {
+        return AfterCommitCollector.registered(PendingPedidos.class, PendingPedidos::new);
+    }
+
+    private void publishAsync(Collection<Long> pedidoIds, Map<Long, Long> removed) {
+        executor.execute(
+            () -> {
+                if (!pedidoIds.isEmpty()) {
+                    publish(pedidoIds);
+                }
+                removed.forEach(this::publishRemoval);
+            }
+        );
+    }
+
+    private void publish(Collection<Long> pedidoIds) {
+        List<PedidoStreamDTO> pedidos = transactionTemplate.execute(
+            status -> {
+                List<PedidoStreamDTO> result = new ArrayList<>();
+                pedidoRepository.findAllWithItemPedidosByIdIn(pedidoIds).forEach(pedido -> result.add(new PedidoStreamDTO(pedido)));
+                return result;
+            }
+        );
+        for (PedidoStreamDTO pedido : pedidos) {
+            channels.computeIfAbsent(pedido.getRestauranteId(), id -> new Channel()).publish(Event.Type.PEDIDO, pedido);
+        }
+    }
+
+    private void publishRemoval(Long pedidoId, Long restauranteId) {
+        PedidoStreamDTO pedido = new PedidoStreamDTO();
+        pedido.setId(pedidoId);
+        pedido.setRestauranteId(restauranteId);
+        channels.computeIfAbsent(restauranteId, id -> new Channel()).publish(Event.Type.REMOVED, pedido);
+    }
+
+    private final class PendingPedidos implements TransactionSynchronization {
+
+        private final Set<Long> pedidoIds = new LinkedHashSet<>();
+
+        /**
+         * The restaurante of each deleted pedido.
+         */
+        private final Map<Long, Long> removed = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            // A deleted pedido is not found, but its lines may have changed it before
+            pedidoIds.removeAll(removed.keySet());
+            publishAsync(pedidoIds, removed);
+        }
+    }
+
+    /**
+     * The replay buffer and subscribers of one restaurante.
+     */
+    private final class Channel {
+
+        private final Deque<Event> replay = new ArrayDeque<>();
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        /**
+         * Id of the last event dropped from the replay buffer: resuming from an older id would miss events.
+         */
+        private long evictedId = firstId;
+
+        synchronized void subscribe(Long lastEventId, Subscriber subscriber) {
+            if (lastEventId != null) {
+                if (lastEventId < evictedId || lastEventId > sequence.get()) {
+                    subscriber.offer(new Event(Event.Type.RESET, null, null));
+                } else {
+                    for (Event event : replay) {
+                        if (event.getId() > lastEventId && !subscriber.offer(event)) {
+                            return;
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        synchronized void publish(Event.Type type, PedidoStreamDTO pedido) {
+            Event event = new Event(type, sequence.incrementAndGet(), pedido);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                evictedId = replay.removeFirst().getId();
+            }
+            fanOut(event);
+        }
+
+        synchronized void fanOut(Event event) {
+            subscribers.removeIf(subscriber -> !subscriber.offer(event));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.Restaurante_;
+import br.com.qrdapio.service.criteria.RestauranteCriteria;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link Restaurante} entities in the database.
+ * The main input is a {@link RestauranteCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Slice} of {@link Restaurante} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RestauranteQueryService extends KeysetQueryService<Restaurante> {
+
+    private final Logger log = LoggerFactory.getLogger(RestauranteQueryService.class);
+
+    public RestauranteQueryService(EntityManager entityManager) {
+        super(entityManager, Restaurante.class, Restaurante_.id);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Restaurante} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after the id of the last entity of the previous slice, {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, in id order.
+     */
+    public Slice<Restaurante> findByCriteria(RestauranteCriteria criteria, Long after, int size) {
+        log.debug("find by criteria : {}, after : {}, size : {}", criteria, after, size);
+        final Specification<Restaurante> specification = createSpecification(criteria);
+        return findAfter(specification, after, size);
+    }
+
+    /**
+     * Function to convert {@link RestauranteCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Restaurante> createSpecification(RestauranteCriteria criteria) {
+        Specification<Restaurante> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Restaurante_.id));
+            }
+            if (criteria.getNome() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getNome(), Restaurante_.nome));
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.SenhaBloco;
+import br.com.qrdapio.repository.SenhaBlocoRepository;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service handing out the daily ticket numbers ("senhas") of each restaurante.
+ * <p>
+ * Numbers are taken from an in-memory block with a single atomic increment. Only when a block is exhausted
+ * is a new one reserved from the {@link SenhaBloco} table, in its own short transaction, so numbers are never
+ * reused across restarts or servers: the unused rest of a block is simply skipped.
+ * <p>
+ * A single thread per restaurante reserves the next block, outside of the map of blocks, so that the transaction
+ * never holds the lock of other restaurantes; the block is then swapped in with a compare-and-set.
+ */
+@Service
+public class SenhaService {
+
+    private final Logger log = LoggerFactory.getLogger(SenhaService.class);
+
+    private final ConcurrentMap<Long, Bloco> blocos = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Object> reservas = new ConcurrentHashMap<>();
+
+    private final SenhaBlocoRepository senhaBlocoRepository;
+
+    private final TransactionTemplate newTransaction;
+
+    private final int blockSize;
+
+    private final ZoneId timeZone;
+
+    public SenhaService(
+        SenhaBlocoRepository senhaBlocoRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.senhaBlocoRepository = senhaBlocoRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = applicationProperties.getSenha().getBlockSize();
+        this.timeZone = ZoneId.of(applicationProperties.getSenha().getTimeZone());
+    }
+
+    /**
+     * Get the next ticket number of a restaurante for the current business day.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @return the ticket number, starting at 1 every business day.
+     */
+    public int nextSenha(Long restauranteId) {
+        return nextSenha(restauranteId, today());
+    }
+
+    /**
+     * Hand out the next ticket number of the restaurante of a pedido, replacing any number it had.
+     *
+     * @param pedido the pedido, with its restaurante.
+     */
+    public void assignSenha(Pedido pedido) {
+        LocalDate dia = today();
+        pedido.setSenha(nextSenha(pedido.getRestaurante().getId(), dia));
+        pedido.setDia(dia);
+    }
+
+    /**
+     * @return the current business day.
+     */
+    public LocalDate today() {
+        return LocalDate.now(timeZone);
+    }
+
+    int nextSenha(Long restauranteId, LocalDate dia) {
+        while (true) {
+            Bloco bloco = blocos.get(restauranteId);
+            if (bloco != null && bloco.dia.equals(dia)) {
+                int senha = bloco.proximo.getAndIncrement();
+                if (senha < bloco.limite) {
+                    return senha;
+                }
+            }
+            // Only threads finding the block exhausted (or from another day) get here, and only one of them reserves
+            synchronized (reservas.computeIfAbsent(restauranteId, id -> new Object())) {
+                if (blocos.get(restauranteId) == bloco) {
+                    Bloco reservado = reserve(restauranteId, dia);
+                    boolean swapped = bloco == null
+                        ? blocos.putIfAbsent(restauranteId, reservado) == null
+                        : blocos.replace(restauranteId, bloco, reservado);
+                    if (!swapped) {
+                        log.warn("The senhas of Restaurante : {} changed while reserving, skipping the block", restauranteId);
+                    }
+                }
+            }
+        }
+    }
+
+    private Bloco reserve(Long restauranteId, LocalDate dia) {
+        try {
+            return newTransaction.execute(status -> reserveBlock(restauranteId, dia));
+        } catch (DataIntegrityViolationException e) {
+            // Another server created the row of the day first, it exists now
+            return newTransaction.execute(status -> reserveBlock(restauranteId, dia));
+        }
+    }
+
+    private Bloco reserveBlock(Long restauranteId, LocalDate dia) {
+        SenhaBloco senhaBloco = senhaBlocoRepository
+            .findOneByRestauranteIdAndDia(restauranteId, dia)
+            .orElseGet(() -> senhaBlocoRepository.saveAndFlush(new SenhaBloco().restauranteId(restauranteId).dia(dia).proximo(1)));
+        int inicio = senhaBloco.getProximo();
+        senhaBloco.setProximo(inicio + blockSize);
+        log.debug("Reserved senhas [{}, {}) of {} for Restaurante : {}", inicio, inicio + blockSize, dia, restauranteId);
+        return new Bloco(dia, inicio, inicio + blockSize);
+    }
+
+    private static final class Bloco {
+
+        private final LocalDate dia;
+
+        private final AtomicInteger proximo;
+
+        private final int limite;
+
+        private Bloco(LocalDate dia, int inicio, int limite) {
+            this.dia = dia;
+            this.proximo = new AtomicInteger(inicio);
+            this.limite = limite;
+        }
+    }
+}
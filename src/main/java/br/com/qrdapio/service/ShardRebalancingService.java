@@ -0,0 +1,234 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.service.dto.ShardDTO;
+import br.com.qrdapio.service.dto.ShardMoveDTO;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service moving the {@link br.com.qrdapio.domain.Restaurante}s between the database shards, see {@link ShardMap}.
+ * <p>
+ * A move first marks the restaurante as moving in the shard map, and waits for the other servers to reload it: from
+ * then on its requests are refused. Its rows are then copied to the new shard in one transaction, the map is updated
+ * and the rows are deleted from the old shard. The ids are kept, they are unique across shards.
+ */
+@Service
+public class ShardRebalancingService {
+
+    /**
+     * The tables holding the data of a restaurante, parents first, with the condition selecting its rows.
+     */
+    private static final List<TenantTable> TABLES = List.of(
+        new TenantTable("restaurante", "id = ?"),
+        new TenantTable("cardapio", "restaurante_id = ?"),
+        new TenantTable("item_cardapio", "cardapio_id in (select id from cardapio where restaurante_id = ?)"),
+        new TenantTable("pedido", "restaurante_id = ?"),
+        new TenantTable("item_pedido", "pedido_id in (select id from pedido where restaurante_id = ?)"),
+        new TenantTable("senha_bloco", "restaurante_id = ?"),
+        new TenantTable("sales_daily_rollup", "restaurante_id = ?"),
+        new TenantTable("outbox", "restaurante_id = ?")
+    );
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(ShardRebalancingService.class);
+
+    private final ShardMap shardMap;
+
+    private final Duration mapRefreshInterval;
+
+    public ShardRebalancingService(ShardMap shardMap, ApplicationProperties applicationProperties) {
+        this.shardMap = shardMap;
+        this.mapRefreshInterval = applicationProperties.getSharding().getMapRefreshInterval();
+    }
+
+    /**
+     * Get the shards with their number of restaurantes.
+     *
+     * @return the shards, the default one first.
+     */
+    public List<ShardDTO> findAll() {
+        log.debug("Request to get all Shards");
+        List<ShardDTO> shards = new ArrayList<>();
+        for (String shard : shardMap.getShardNames()) {
+            try {
+                shards.add(new ShardDTO(shard, count(shardMap.getDataSource(shard), "select count(*) from restaurante")));
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not count the restaurantes of shard " + shard, e);
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Move a restaurante and its data to another shard. Only one move runs at a time on a server.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param destino the name of the shard to move it to, other than its current one.
+     * @return the move, or empty if there is no such restaurante.
+     */
+    public synchronized Optional<ShardMoveDTO> move(Long restauranteId, String destino) {
+        log.debug("Request to move Restaurante : {} to Shard : {}", restauranteId, destino);
+        String origem = shardMap.shardOf(restauranteId);
+        DataSource from = shardMap.getDataSource(origem);
+        DataSource to = shardMap.getDataSource(destino);
+        if (to == null || destino.equals(origem)) {
+            throw new IllegalArgumentException("Cannot move Restaurante " + restauranteId + " from " + origem + " to " + destino);
+        }
+        if (!exists(from, restauranteId)) {
+            return Optional.empty();
+        }
+        shardMap.assign(restauranteId, origem, true);
+        long linhas;
+        try {
+            // Until the other servers see the restaurante as moving, they may still write to it
+            Thread.sleep(mapRefreshInterval.toMillis());
+            linhas = copy(from, to, restauranteId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shardMap.assign(restauranteId, origem, false);
+            throw new IllegalStateException("Interrupted while moving Restaurante " + restauranteId, e);
+        } catch (SQLException | RuntimeException e) {
+            shardMap.assign(restauranteId, origem, false);
+            throw new IllegalStateException("Could not copy Restaurante " + restauranteId + " to shard " + destino, e);
+        }
+        shardMap.assign(restauranteId, destino, false);
+        try {
+            delete(from, restauranteId);
+        } catch (SQLException e) {
+            // Not reachable anymore, the copy is the one in use
+            log.error("Could not delete the moved Restaurante {} from shard {}: {}", restauranteId, origem, e.getMessage());
+        }
+        log.info("Moved Restaurante {} from shard {} to shard {}: {} rows", restauranteId, origem, destino, linhas);
+        return Optional.of(new ShardMoveDTO(restauranteId, origem, destino, linhas));
+    }
+
+    private static boolean exists(DataSource dataSource, Long restauranteId) {
+        try {
+            return count(dataSource, "select count(*) from restaurante where id = ?", restauranteId) > 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read Restaurante " + restauranteId, e);
+        }
+    }
+
+    private static long count(DataSource dataSource, String sql, Object... parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                long count = resultSet.getLong(1);
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                return count;
+            }
+        }
+    }
+
+    private static long copy(DataSource from, DataSource to, Long restauranteId) throws SQLException {
+        try (Connection source = from.getConnection(); Connection target = to.getConnection()) {
+            source.setAutoCommit(false);
+            target.setAutoCommit(false);
+            try {
+                long linhas = 0;
+                for (TenantTable table : TABLES) {
+                    linhas += table.copy(source, target, restauranteId);
+                }
+                target.commit();
+                return linhas;
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                source.rollback();
+            }
+        }
+    }
+
+    private static void delete(DataSource dataSource, Long restauranteId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    TABLES.get(i).delete(connection, restauranteId);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static final class TenantTable {
+
+        private final String name;
+
+        private final String condition;
+
+        private TenantTable(String name, String condition) {
+            this.name = name;
+            this.condition = condition;
+        }
+
+        long copy(Connection source, Connection target, Long restauranteId) throws SQLException {
+            try (PreparedStatement select = source.prepareStatement("select * from " + name + " where " + condition)) {
+                select.setLong(1, restauranteId);
+                select.setFetchSize(BATCH_SIZE);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    int columns = metaData.getColumnCount();
+                    StringJoiner names = new StringJoiner(", ");
+                    StringJoiner values = new StringJoiner(", ");
+                    for (int i = 1; i <= columns; i++) {
+                        names.add(metaData.getColumnName(i));
+                        values.add("?");
+                    }
+                    String sql = "insert into " + name + " (" + names + ") values (" + values + ")";
+                    try (PreparedStatement insert = target.prepareStatement(sql)) {
+                        long rows = 0;
+                        while (resultSet.next()) {
+                            for (int i = 1; i <= columns; i++) {
+                                Object value = resultSet.getObject(i);
+                                if (value == null) {
+                                    insert.setNull(i, metaData.getColumnType(i));
+                                } else {
+                                    insert.setObject(i, value);
+                                }
+                            }
+                            insert.addBatch();
+                            if (++rows % BATCH_SIZE == 0) {
+                                insert.executeBatch();
+                            }
+                        }
+                        insert.executeBatch();
+                        return rows;
+                    }
+                }
+            }
+        }
+
+        void delete(Connection connection, Long restauranteId) throws SQLException {
+            try (PreparedStatement delete = connection.prepareStatement("delete from " + name + " where " + condition)) {
+                delete.setLong(1, restauranteId);
+                delete.executeUpdate();
+            }
+        }
+    }
+}
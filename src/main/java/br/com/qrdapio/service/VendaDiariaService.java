@@ -0,0 +1,408 @@
+package br.com.qrdapio.service;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.PrimaryTransactionTemplate;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import br.com.qrdapio.domain.VendaDiaria;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.event.ItemPedidoCreatedEvent;
+import br.com.qrdapio.repository.VendaDiariaRepository;
+import br.com.qrdapio.service.archive.ArchivedLine;
+import br.com.qrdapio.service.dto.VendaDiariaDTO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link VendaDiaria} rollups: the sales of each restaurante per business day,
+ * forma de pagamento and categoria.
+ * <p>
+ * Once a transaction creating {@link br.com.qrdapio.domain.ItemPedido}s commits, their quantities and totals
+ * are added to in-memory accumulators, which are written to the rollups every {@link #FLUSH_INTERVAL}
+ * milliseconds with one in-place update per key. The dashboards only read the rollups, so their cost
+ * depends on the number of days and not on the number of pedidos.
+ * <p>
+ * Accumulators not yet flushed are lost if the server stops abruptly, and updated or deleted lines are not
+ * tracked: the {@link #backfill(LocalDate, LocalDate) backfill} rebuilds past days from the pedidos, archived
+ * or not, and runs every night for the day before.
+ */
+@Service
+public class VendaDiariaService {
+
+    /**
+     * Interval between two writes of the accumulators to the rollups.
+     */
+    public static final long FLUSH_INTERVAL = 10_000;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String LINHAS =
+        "select pedido.restaurante.id, pedido.dataHora, pedido.formaPagamento, item.categoria, " +
+        "itemPedido.quantidade, itemPedido.valorUnitario " +
+        "from ItemPedido itemPedido join itemPedido.pedido pedido join itemPedido.item item ";
+
+    private final Logger log = LoggerFactory.getLogger(VendaDiariaService.class);
+
+    private final VendaDiariaRepository vendaDiariaRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readTransaction;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final Executor executor;
+
+    private final ZoneId timeZone;
+
+    private final ShardMap shardMap;
+
+    private final PedidoArchiveService pedidoArchiveService;
+
+    private final ConcurrentMap<Chave, Totais> acumulados = new ConcurrentHashMap<>();
+
+    public VendaDiariaService(
+        VendaDiariaRepository vendaDiariaRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor executor,
+        ApplicationProperties applicationProperties,
+        ShardMap shardMap,
+        PedidoArchiveService pedidoArchiveService
+    ) {
+        this.vendaDiariaRepository = vendaDiariaRepository;
+        this.entityManager = entityManager;
+        this.readTransaction = new PrimaryTransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.timeZone = ZoneId.of(applicationProperties.getSenha().getTimeZone());
+        this.shardMap = shardMap;
+        this.pedidoArchiveService = pedidoArchiveService;
+    }
+
+    /**
+     * @return the current business day.
+     */
+    public LocalDate today() {
+        return LocalDate.now(timeZone);
+    }
+
+    /**
+     * Get the rollups of a restaurante.
+     *
+     * @param restauranteId the id of the restaurante.
+     * @param from the first day, inclusive.
+     * @param to the last day, inclusive.
+     * @return the rollups in day, forma de pagamento and categoria order; days without sales have none.
+     */
+    @Transactional(readOnly = true)
+    public List<VendaDiariaDTO> findByRestaurante(Long restauranteId, LocalDate from, LocalDate to) {
+        log.debug("Request to get the VendaDiarias of Restaurante : {} from {} to {}", restauranteId, from, to);
+        return vendaDiariaRepository
+            .findAllByRestauranteIdAndDiaBetweenOrderByDiaAscFormaPagamentoAscCategoriaAsc(restauranteId, from, to)
+            .stream()
+            .map(VendaDiariaDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Collect the lines created by the current transaction, to accumulate them once it commits.
+     *
+     * @param event the created line.
+     */
+    @EventListener
+    public void onItemPedidoCreated(ItemPedidoCreatedEvent event) {
+        AfterCommitCollector.collect(this, event.getItemPedidoId(), this::accumulateAsync);
+    }
+
+    /**
+     * Write the accumulators to the rollups. If the write fails, they are kept for the next flush.
+     */
+    @Scheduled(fixedDelay = FLUSH_INTERVAL)
+    @PreDestroy
+    public synchronized void flush() {
+        Map<String, Map<Chave, Totais>> lotes = new HashMap<>();
+        for (Chave chave : acumulados.keySet()) {
+            Totais totais = acumulados.remove(chave);
+            if (totais != null) {
+                lotes.computeIfAbsent(shardMap.shardOf(chave.restauranteId), shard -> new HashMap<>()).put(chave, totais);
+            }
+        }
+        lotes.forEach(this::flush);
+    }
+
+    private void flush(String shard, Map<Chave, Totais> lote) {
+        try {
+            ShardRoutingDataSource.callInShard(
+                shard,
+                () ->
+                    writeTransaction.execute(
+                        status -> {
+                            lote.forEach(this::addToRollup);
+                            return lote.size();
+                        }
+                    )
+            );
+            log.debug("Flushed {} VendaDiaria accumulators", lote.size());
+        } catch (RuntimeException e) {
+            // Typically another server created a row first, it will be updated next time
+            log.warn("Could not flush {} VendaDiaria accumulators, retrying later: {}", lote.size(), e.getMessage());
+            lote.forEach(this::accumulate);
+        }
+    }
+
+    /**
+     * Rebuild the rollups of past days from the pedidos.
+     *
+     * @param from the first day, inclusive.
+     * @param to the last day, inclusive, before today.
+     * @return the number of rollups written.
+     */
+    @Transactional
+    public int backfill(LocalDate from, LocalDate to) {
+        log.debug("Request to rebuild the VendaDiarias from {} to {}", from, to);
+        // Lines accumulated before the rebuild must not be added again after it
+        flush();
+        if (!shardMap.isSharded()) {
+            return backfillShard(from, to);
+        }
+        // Each shard holds the pedidos and the rollups of its restaurantes
+        int written = 0;
+        for (String shard : shardMap.getShardNames()) {
+            written += ShardRoutingDataSource.callInShard(shard, () -> writeTransaction.execute(status -> backfillShard(from, to)));
+        }
+        return written;
+    }
+
+    private int backfillShard(LocalDate from, LocalDate to) {
+        Map<Chave, Totais> rollups = new HashMap<>();
+        ZonedDateTime start = from.atStartOfDay(timeZone);
+        ZonedDateTime end = to.plusDays(1).atStartOfDay(timeZone);
+        String shard = ShardRoutingDataSource.getCurrentShard();
+        try {
+            pedidoArchiveService.read(
+                null,
+                start,
+                end,
+                archived -> {
+                    // The archive holds the pedidos of all the shards
+                    if (!shardMap.isSharded() || shardMap.shardOf(archived.getRestauranteId()).equals(shard)) {
+                        Linha linha = new Linha(archived);
+                        rollups.merge(linha.chave(timeZone), linha.totais(), Totais::plus);
+                    }
+                }
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Session session = entityManager.unwrap(Session.class);
+        try (
+            ScrollableResults linhas = session
+                .createQuery(LINHAS + "where pedido.dataHora >= :from and pedido.dataHora < :to", Object[].class)
+                .setParameter("from", start)
+                .setParameter("to", end)
+                .setFetchSize(BATCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)
+        ) {
+            while (linhas.next()) {
+                Linha linha = new Linha(linhas.get());
+                rollups.merge(linha.chave(timeZone), linha.totais(), Totais::plus);
+            }
+        }
+        vendaDiariaRepository.deleteAllByDiaBetween(from, to);
+        // Make sure the deletes run before the inserts reuse their keys
+        vendaDiariaRepository.flush();
+        List<VendaDiaria> vendas = new ArrayList<>();
+        rollups.forEach((chave, totais) -> vendas.add(chave.toVendaDiaria(totais)));
+        vendaDiariaRepository.saveAll(vendas);
+        log.info("Rebuilt {} VendaDiarias from {} to {}", vendas.size(), from, to);
+        return vendas.size();
+    }
+
+    /**
+     * Rebuild the rollups of the day before, including the lines updated or deleted during that day.
+     */
+    @Scheduled(cron = "0 30 4 * * ?")
+    public void backfillYesterday() {
+        LocalDate yesterday = today().minusDays(1);
+        writeTransaction.executeWithoutResult(status -> backfill(yesterday, yesterday));
+    }
+
+    private void accumulateAsync(Collection<Long> itemPedidoIds) {
+        executor.execute(() -> accumulate(itemPedidoIds));
+    }
+
+    private void accumulate(Collection<Long> itemPedidoIds) {
+        List<Long> ids = new ArrayList<>(itemPedidoIds);
+        readTransaction.executeWithoutResult(
+            status -> {
+                for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                    entityManager
+                        .createQuery(LINHAS + "where itemPedido.id in :ids", Object[].class)
+                        .setParameter("ids", ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())))
+                        .getResultList()
+                        .forEach(
+                            row -> {
+                                Linha linha = new Linha(row);
+                                accumulate(linha.chave(timeZone), linha.totais());
+                            }
+                        );
+                }
+            }
+        );
+    }
+
+    private void accumulate(Chave chave, Totais totais) {
+        acumulados.merge(chave, totais, Totais::plus);
+    }
+
+    private void addToRollup(Chave chave, Totais totais) {
+        int updated = vendaDiariaRepository.addToTotals(
+            chave.restauranteId,
+            chave.dia,
+            chave.formaPagamento,
+            chave.categoria,
+            totais.quantidade,
+            totais.total
+        );
+        if (updated == 0) {
+            vendaDiariaRepository.save(chave.toVendaDiaria(totais));
+        }
+    }
+
+    /**
+     * A row of {@link #LINHAS}.
+     */
+    private static final class Linha {
+
+        private final Object[] row;
+
+        private Linha(Object[] row) {
+            this.row = row;
+        }
+
+        private Linha(ArchivedLine archived) {
+            this(
+                new Object[] {
+                    archived.getRestauranteId(),
+                    archived.getDataHora(),
+                    archived.getFormaPagamento(),
+                    archived.getCategoria(),
+                    archived.getQuantidade(),
+                    archived.getValorUnitario(),
+                }
+            );
+        }
+
+        Chave chave(ZoneId timeZone) {
+            LocalDate dia = ((ZonedDateTime) row[1]).withZoneSameInstant(timeZone).toLocalDate();
+            return new Chave((Long) row[0], dia, (FormaPagamento) row[2], (Categoria) row[3]);
+        }
+
+        Totais totais() {
+            long quantidade = row[4] == null ? 0 : (Integer) row[4];
+            BigDecimal valor = row[5] == null ? BigDecimal.ZERO : (BigDecimal) row[5];
+            return new Totais(quantidade, valor.multiply(BigDecimal.valueOf(quantidade)));
+        }
+    }
+
+    private static final class Chave {
+
+        private final Long restauranteId;
+
+        private final LocalDate dia;
+
+        private final FormaPagamento formaPagamento;
+
+        private final Categoria categoria;
+
+        private Chave(Long restauranteId, LocalDate dia, FormaPagamento formaPagamento, Categoria categoria) {
+            this.restauranteId = restauranteId;
+            this.dia = dia;
+            this.formaPagamento = formaPagamento;
+            this.categoria = categoria;
+        }
+
+        VendaDiaria toVendaDiaria(Totais totais) {
+            return new VendaDiaria()
+                .restauranteId(restauranteId)
+                .dia(dia)
+                .formaPagamento(formaPagamento)
+                .categoria(categoria)
+                .quantidade(totais.quantidade)
+                .total(totais.total);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave chave = (Chave) o;
+            return (
+                restauranteId.equals(chave.restauranteId) &&
+                dia.equals(chave.dia) &&
+                formaPagamento == chave.formaPagamento &&
+                categoria == chave.categoria
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(restauranteId, dia, formaPagamento, categoria);
+        }
+    }
+
+    private static final class Totais {
+
+        private final long quantidade;
+
+        private final BigDecimal total;
+
+        private Totais(long quantidade, BigDecimal total) {
+            this.quantidade = quantidade;
+            this.total = total;
+        }
+
+        Totais plus(Totais other) {
+            return new Totais(quantidade + other.quantidade, total.add(other.total));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.qrdapio.service.archive;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A line of an archived {@link br.com.qrdapio.domain.Pedido}, with the fields of its pedido and of its item.
+ * A pedido without lines is archived as a single line without item.
+ */
+public class ArchivedLine {
+
+    /**
+     * The order of the lines in a {@link PartitionFile}: by date, pedido and line.
+     */
+    public static final Comparator<ArchivedLine> ORDER = Comparator
+        .comparing((ArchivedLine line) -> line.getDataHora().toInstant())
+        .thenComparingLong(ArchivedLine::getPedidoId)
+        .thenComparing(ArchivedLine::getItemPedidoId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private long pedidoId;
+
+    private long restauranteId;
+
+    private ZonedDateTime dataHora;
+
+    private Integer senha;
+
+    private FormaPagamento formaPagamento;
+
+    private StatusPedido status;
+
+    private Long itemPedidoId;
+
+    private Long itemId;
+
+    private String item;
+
+    private Categoria categoria;
+
+    private Integer quantidade;
+
+    private BigDecimal valorUnitario;
+
+    public long getPedidoId() {
+        return pedidoId;
+    }
+
+    public ArchivedLine pedidoId(long pedidoId) {
+        this.pedidoId = pedidoId;
+        return this;
+    }
+
+    public long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public ArchivedLine restauranteId(long restauranteId) {
+        this.restauranteId = restauranteId;
+        return this;
+    }
+
+    public ZonedDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public ArchivedLine dataHora(ZonedDateTime dataHora) {
+        this.dataHora = dataHora;
+        return this;
+    }
+
+    public Integer getSenha() {
+        return senha;
+    }
+
+    public ArchivedLine senha(Integer senha) {
+        this.senha = senha;
+        return this;
+    }
+
+    public FormaPagamento getFormaPagamento() {
+        return formaPagamento;
+    }
+
+    public ArchivedLine formaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+        return this;
+    }
+
+    public StatusPedido getStatus() {
+        return status;
+    }
+
+    public ArchivedLine status(StatusPedido status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * @return the id of the line, {@code null} for a pedido without lines.
+     */
+    public Long getItemPedidoId() {
+        return itemPedidoId;
+    }
+
+    public ArchivedLine itemPedidoId(Long itemPedidoId) {
+        this.itemPedidoId = itemPedidoId;
+        return this;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public ArchivedLine itemId(Long itemId) {
+        this.itemId = itemId;
+        return this;
+    }
+
+    /**
+     * @return the nome of the item when the pedido was archived.
+     */
+    public String getItem() {
+        return item;
+    }
+
+    public ArchivedLine item(String item) {
+        this.item = item;
+        return this;
+    }
+
+    public Categoria getCategoria() {
+        return categoria;
+    }
+
+    public ArchivedLine categoria(Categoria categoria) {
+        this.categoria = categoria;
+        return this;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public ArchivedLine quantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+        return this;
+    }
+
+    public BigDecimal getValorUnitario() {
+        return valorUnitario;
+    }
+
+    public ArchivedLine valorUnitario(BigDecimal valorUnitario) {
+        this.valorUnitario = valorUnitario;
+        return this;
+    }
+
+    /**
+     * Two lines are the same if they are the same line of the same pedido, whatever the other fields.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArchivedLine)) {
+            return false;
+        }
+        ArchivedLine other = (ArchivedLine) o;
+        return pedidoId == other.pedidoId && Objects.equals(itemPedidoId, other.itemPedidoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pedidoId, itemPedidoId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ArchivedLine{" +
+            "pedidoId=" + pedidoId +
+            ", itemPedidoId=" + itemPedidoId +
+            ", dataHora='" + dataHora + "'" +
+            ", itemId=" + itemId +
+            ", quantidade=" + quantidade +
+            ", valorUnitario=" + valorUnitario +
+            "}";
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.qrdapio.service.archive;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the {@link ArchivedLine}s of a restaurante and a month, in a gzipped file.
+ * <p>
+ * The file is laid out by column rather than by line: all the pedido ids, then all the dates, and so on. Numbers are
+ * written as variable-length differences with the previous line, which are small once the lines are in
+ * {@link ArchivedLine#ORDER}; texts and enums are written once in a dictionary per column, then as indexes into it.
+ * Each column is thus made of a few repeated values, which the compression takes down to a fraction of the size of
+ * the rows in the database.
+ * <p>
+ * The restaurante is not stored, since it is given by the location of the file.
+ */
+public final class PartitionFile {
+
+    static final int VERSION = 1;
+
+    private PartitionFile() {}
+
+    /**
+     * Read the lines of a file.
+     *
+     * @param file the file, may not exist.
+     * @param restauranteId the restaurante of the file.
+     * @return the lines, in {@link ArchivedLine#ORDER}; empty if the file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<ArchivedLine> read(Path file, long restauranteId) throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, restauranteId);
+        }
+    }
+
+    /**
+     * Replace a file by one holding some lines, atomically: readers see either the previous lines or the new ones.
+     *
+     * @param file the file.
+     * @param lines the lines, in {@link ArchivedLine#ORDER}.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path file, List<ArchivedLine> lines) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                write(out, lines);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static List<ArchivedLine> read(InputStream stream, long restauranteId) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown archive version " + version);
+        }
+        int size = in.readInt();
+        Long[] pedidoIds = readLongs(in, size);
+        Long[] seconds = readLongs(in, size);
+        Long[] nanos = readLongs(in, size);
+        Long[] offsets = readLongs(in, size);
+        Long[] senhas = readLongs(in, size);
+        String[] formasPagamento = readStrings(in, size);
+        String[] status = readStrings(in, size);
+        Long[] itemPedidoIds = readLongs(in, size);
+        Long[] itemIds = readLongs(in, size);
+        String[] itens = readStrings(in, size);
+        String[] categorias = readStrings(in, size);
+        Long[] quantidades = readLongs(in, size);
+        String[] valores = readStrings(in, size);
+        List<ArchivedLine> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Instant instant = Instant.ofEpochSecond(seconds[i], nanos[i]);
+            lines.add(
+                new ArchivedLine()
+                    .pedidoId(pedidoIds[i])
+                    .restauranteId(restauranteId)
+                    .dataHora(ZonedDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(offsets[i].intValue())))
+                    .senha(senhas[i] == null ? null : senhas[i].intValue())
+                    .formaPagamento(formasPagamento[i] == null ? null : FormaPagamento.valueOf(formasPagamento[i]))
+                    .status(status[i] == null ? null : StatusPedido.valueOf(status[i]))
+                    .itemPedidoId(itemPedidoIds[i])
+                    .itemId(itemIds[i])
+                    .item(itens[i])
+                    .categoria(categorias[i] == null ? null : Categoria.valueOf(categorias[i]))
+                    .quantidade(quantidades[i] == null ? null : quantidades[i].intValue())
+                    .valorUnitario(valores[i] == null ? null : new BigDecimal(valores[i]))
+            );
+        }
+        return lines;
+    }
+
+    static void write(OutputStream stream, List<ArchivedLine> lines) throws IOException {
+        // Closing the gzip stream writes its trailer, closing the stream is up to the caller
+        GZIPOutputStream gzip = new GZIPOutputStream(stream);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip));
+        out.writeInt(VERSION);
+        out.writeInt(lines.size());
+        writeLongs(out, lines, ArchivedLine::getPedidoId);
+        writeLongs(out, lines, line -> line.getDataHora().toEpochSecond());
+        writeLongs(out, lines, line -> (long) line.getDataHora().getNano());
+        writeLongs(out, lines, line -> (long) line.getDataHora().getOffset().getTotalSeconds());
+        writeLongs(out, lines, line -> line.getSenha() == null ? null : line.getSenha().longValue());
+        writeStrings(out, lines, line -> line.getFormaPagamento() == null ? null : line.getFormaPagamento().name());
+        writeStrings(out, lines, line -> line.getStatus() == null ? null : line.getStatus().name());
+        writeLongs(out, lines, ArchivedLine::getItemPedidoId);
+        writeLongs(out, lines, ArchivedLine::getItemId);
+        writeStrings(out, lines, ArchivedLine::getItem);
+        writeStrings(out, lines, line -> line.getCategoria() == null ? null : line.getCategoria().name());
+        writeLongs(out, lines, line -> line.getQuantidade() == null ? null : line.getQuantidade().longValue());
+        writeStrings(out, lines, line -> line.getValorUnitario() == null ? null : line.getValorUnitario().toPlainString());
+        out.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Write a column of numbers, each as the difference with the last number before it; {@code 0} stands for
+     * {@code null}.
+     */
+    private static void writeLongs(DataOutputStream out, List<ArchivedLine> lines, Function<ArchivedLine, Long> column)
+        throws IOException {
+        long previous = 0;
+        for (ArchivedLine line : lines) {
+            Long value = column.apply(line);
+            if (value == null) {
+                writeVarLong(out, 0);
+            } else {
+                writeVarLong(out, zigZag(value - previous) + 1);
+                previous = value;
+            }
+        }
+    }
+
+    private static Long[] readLongs(DataInputStream in, int size) throws IOException {
+        Long[] values = new Long[size];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long encoded = readVarLong(in);
+            if (encoded != 0) {
+                previous += unZigZag(encoded - 1);
+                values[i] = previous;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Write a column of texts, as a dictionary of the distinct texts followed by the index of each text in it;
+     * {@code 0} stands for {@code null}.
+     */
+    private static void writeStrings(DataOutputStream out, List<ArchivedLine> lines, Function<ArchivedLine, String> column)
+        throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> texts = new ArrayList<>();
+        int[] indexes = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            String text = column.apply(lines.get(i));
+            if (text != null) {
+                indexes[i] = dictionary.computeIfAbsent(
+                    text,
+                    t -> {
+                        texts.add(t);
+                        return texts.size();
+                    }
+                );
+            }
+        }
+        writeVarLong(out, texts.size());
+        for (String text : texts) {
+            out.writeUTF(text);
+        }
+        for (int index : indexes) {
+            writeVarLong(out, index);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in, int size) throws IOException {
+        String[] dictionary = new String[(int) readVarLong(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            int index = (int) readVarLong(in);
+            if (index > dictionary.length) {
+                throw new IOException("Corrupted archive");
+            }
+            values[i] = index == 0 ? null : dictionary[index - 1];
+        }
+        return values;
+    }
+
+    /**
+     * Map signed numbers to unsigned ones, the small negative numbers to small numbers as well.
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Write an unsigned number 7 bits at a time, the lowest first, with the high bit set on all bytes but the last.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted archive");
+    }
+}
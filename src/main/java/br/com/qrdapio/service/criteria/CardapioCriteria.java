@@ -0,0 +1,117 @@
+package br.com.qrdapio.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.qrdapio.domain.Cardapio} entity. This class is used
+ * in {@link br.com.qrdapio.web.rest.CardapioResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /cardapios?restauranteId.equals=1&nome.contains=something}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class CardapioCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter nome;
+
+    private LongFilter restauranteId;
+
+    public CardapioCriteria() {}
+
+    public CardapioCriteria(CardapioCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.nome = other.nome == null ? null : other.nome.copy();
+        this.restauranteId = other.restauranteId == null ? null : other.restauranteId.copy();
+    }
+
+    @Override
+    public CardapioCriteria copy() {
+        return new CardapioCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getNome() {
+        return nome;
+    }
+
+    public StringFilter nome() {
+        if (nome == null) {
+            nome = new StringFilter();
+        }
+        return nome;
+    }
+
+    public void setNome(StringFilter nome) {
+        this.nome = nome;
+    }
+
+    public LongFilter getRestauranteId() {
+        return restauranteId;
+    }
+
+    public LongFilter restauranteId() {
+        if (restauranteId == null) {
+            restauranteId = new LongFilter();
+        }
+        return restauranteId;
+    }
+
+    public void setRestauranteId(LongFilter restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CardapioCriteria that = (CardapioCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(nome, that.nome) &&
+            Objects.equals(restauranteId, that.restauranteId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, nome, restauranteId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CardapioCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (nome != null ? "nome=" + nome + ", " : "") +
+            (restauranteId != null ? "restauranteId=" + restauranteId + ", " : "") +
+            "}";
+    }
+}
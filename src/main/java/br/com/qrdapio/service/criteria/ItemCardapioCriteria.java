@@ -0,0 +1,216 @@
+package br.com.qrdapio.service.criteria;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.BigDecimalFilter;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.qrdapio.domain.ItemCardapio} entity. This class is used
+ * in {@link br.com.qrdapio.web.rest.ItemCardapioResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /item-cardapios?restauranteId.equals=1&categoria.in=PRATO,SOBREMESA}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class ItemCardapioCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering Categoria
+     */
+    public static class CategoriaFilter extends Filter<Categoria> {
+
+        public CategoriaFilter() {}
+
+        public CategoriaFilter(CategoriaFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public CategoriaFilter copy() {
+            return new CategoriaFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private CategoriaFilter categoria;
+
+    private StringFilter nome;
+
+    private StringFilter descricao;
+
+    private BigDecimalFilter valor;
+
+    private LongFilter cardapioId;
+
+    private LongFilter restauranteId;
+
+    public ItemCardapioCriteria() {}
+
+    public ItemCardapioCriteria(ItemCardapioCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.categoria = other.categoria == null ? null : other.categoria.copy();
+        this.nome = other.nome == null ? null : other.nome.copy();
+        this.descricao = other.descricao == null ? null : other.descricao.copy();
+        this.valor = other.valor == null ? null : other.valor.copy();
+        this.cardapioId = other.cardapioId == null ? null : other.cardapioId.copy();
+        this.restauranteId = other.restauranteId == null ? null : other.restauranteId.copy();
+    }
+
+    @Override
+    public ItemCardapioCriteria copy() {
+        return new ItemCardapioCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public CategoriaFilter getCategoria() {
+        return categoria;
+    }
+
+    public CategoriaFilter categoria() {
+        if (categoria == null) {
+            categoria = new CategoriaFilter();
+        }
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaFilter categoria) {
+        this.categoria = categoria;
+    }
+
+    public StringFilter getNome() {
+        return nome;
+    }
+
+    public StringFilter nome() {
+        if (nome == null) {
+            nome = new StringFilter();
+        }
+        return nome;
+    }
+
+    public void setNome(StringFilter nome) {
+        this.nome = nome;
+    }
+
+    public StringFilter getDescricao() {
+        return descricao;
+    }
+
+    public StringFilter descricao() {
+        if (descricao == null) {
+            descricao = new StringFilter();
+        }
+        return descricao;
+    }
+
+    public void setDescricao(StringFilter descricao) {
+        this.descricao = descricao;
+    }
+
+    public BigDecimalFilter getValor() {
+        return valor;
+    }
+
+    public BigDecimalFilter valor() {
+        if (valor == null) {
+            valor = new BigDecimalFilter();
+        }
+        return valor;
+    }
+
+    public void setValor(BigDecimalFilter valor) {
+        this.valor = valor;
+    }
+
+    public LongFilter getCardapioId() {
+        return cardapioId;
+    }
+
+    public LongFilter cardapioId() {
+        if (cardapioId == null) {
+            cardapioId = new LongFilter();
+        }
+        return cardapioId;
+    }
+
+    public void setCardapioId(LongFilter cardapioId) {
+        this.cardapioId = cardapioId;
+    }
+
+    public LongFilter getRestauranteId() {
+        return restauranteId;
+    }
+
+    public LongFilter restauranteId() {
+        if (restauranteId == null) {
+            restauranteId = new LongFilter();
+        }
+        return restauranteId;
+    }
+
+    public void setRestauranteId(LongFilter restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ItemCardapioCriteria that = (ItemCardapioCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(categoria, that.categoria) &&
+            Objects.equals(nome, that.nome) &&
+            Objects.equals(descricao, that.descricao) &&
+            Objects.equals(valor, that.valor) &&
+            Objects.equals(cardapioId, that.cardapioId) &&
+            Objects.equals(restauranteId, that.restauranteId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, categoria, nome, descricao, valor, cardapioId, restauranteId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemCardapioCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (categoria != null ? "categoria=" + categoria + ", " : "") +
+            (nome != null ? "nome=" + nome + ", " : "") +
+            (descricao != null ? "descricao=" + descricao + ", " : "") +
+            (valor != null ? "valor=" + valor + ", " : "") +
+            (cardapioId != null ? "cardapioId=" + cardapioId + ", " : "") +
+            (restauranteId != null ? "restauranteId=" + restauranteId + ", " : "") +
+            "}";
+    }
+}
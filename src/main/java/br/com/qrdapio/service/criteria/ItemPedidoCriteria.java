@@ -0,0 +1,195 @@
+package br.com.qrdapio.service.criteria;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Criteria class for the {@link br.com.qrdapio.domain.ItemPedido} entity. This class is used
+ * in {@link br.com.qrdapio.web.rest.ItemPedidoResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /item-pedidos?pedidoId.equals=1&categoria.equals=BEBIDA}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class ItemPedidoCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering Categoria
+     */
+    public static class CategoriaFilter extends Filter<Categoria> {
+
+        public CategoriaFilter() {}
+
+        public CategoriaFilter(CategoriaFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public CategoriaFilter copy() {
+            return new CategoriaFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private IntegerFilter quantidade;
+
+    private LongFilter itemId;
+
+    private CategoriaFilter categoria;
+
+    private LongFilter pedidoId;
+
+    private LongFilter restauranteId;
+
+    public ItemPedidoCriteria() {}
+
+    public ItemPedidoCriteria(ItemPedidoCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.quantidade = other.quantidade == null ? null : other.quantidade.copy();
+        this.itemId = other.itemId == null ? null : other.itemId.copy();
+        this.categoria = other.categoria == null ? null : other.categoria.copy();
+        this.pedidoId = other.pedidoId == null ? null : other.pedidoId.copy();
+        this.restauranteId = other.restauranteId == null ? null : other.restauranteId.copy();
+    }
+
+    @Override
+    public ItemPedidoCriteria copy() {
+        return new ItemPedidoCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public IntegerFilter getQuantidade() {
+        return quantidade;
+    }
+
+    public IntegerFilter quantidade() {
+        if (quantidade == null) {
+            quantidade = new IntegerFilter();
+        }
+        return quantidade;
+    }
+
+    public void setQuantidade(IntegerFilter quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public LongFilter getItemId() {
+        return itemId;
+    }
+
+    public LongFilter itemId() {
+        if (itemId == null) {
+            itemId = new LongFilter();
+        }
+        return itemId;
+    }
+
+    public void setItemId(LongFilter itemId) {
+        this.itemId = itemId;
+    }
+
+    public CategoriaFilter getCategoria() {
+        return categoria;
+    }
+
+    public CategoriaFilter categoria() {
+        if (categoria == null) {
+            categoria = new CategoriaFilter();
+        }
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaFilter categoria) {
+        this.categoria = categoria;
+    }
+
+    public LongFilter getPedidoId() {
+        return pedidoId;
+    }
+
+    public LongFilter pedidoId() {
+        if (pedidoId == null) {
+            pedidoId = new LongFilter();
+        }
+        return pedidoId;
+    }
+
+    public void setPedidoId(LongFilter pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public LongFilter getRestauranteId() {
+        return restauranteId;
+    }
+
+    public LongFilter restauranteId() {
+        if (restauranteId == null) {
+            restauranteId = new LongFilter();
+        }
+        return restauranteId;
+    }
+
+    public void setRestauranteId(LongFilter restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ItemPedidoCriteria that = (ItemPedidoCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(quantidade, that.quantidade) &&
+            Objects.equals(itemId, that.itemId) &&
+            Objects.equals(categoria, that.categoria) &&
+            Objects.equals(pedidoId, that.pedidoId) &&
+            Objects.equals(restauranteId, that.restauranteId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, quantidade, itemId, categoria, pedidoId, restauranteId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemPedidoCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (quantidade != null ? "quantidade=" + quantidade + ", " : "") +
+            (itemId != null ? "itemId=" + itemId + ", " : "") +
+            (categoria != null ? "categoria=" + categoria + ", " : "") +
+            (pedidoId != null ? "pedidoId=" + pedidoId + ", " : "") +
+            (restauranteId != null ? "restauranteId=" + restauranteId + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.qrdapio.service.criteria;
+
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.ZonedDateTimeFilter;
+
+/**
+ * Criteria class for the {@link br.com.qrdapio.domain.Pedido} entity. This class is used
+ * in {@link br.com.qrdapio.web.rest.PedidoResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /pedidos?restauranteId.equals=1&dataHora.greaterThanOrEqual=2021-05-01T00:00:00Z&formaPagamento.equals=PIX}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class PedidoCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering FormaPagamento
+     */
+    public static class FormaPagamentoFilter extends Filter<FormaPagamento> {
+
+        public FormaPagamentoFilter() {}
+
+        public FormaPagamentoFilter(FormaPagamentoFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public FormaPagamentoFilter copy() {
+            return new FormaPagamentoFilter(this);
+        }
+    }
+
+    /**
+     * Class for filtering StatusPedido
+     */
+    public static class StatusPedidoFilter extends Filter<StatusPedido> {
+
+        public StatusPedidoFilter() {}
+
+        public StatusPedidoFilter(StatusPedidoFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public StatusPedidoFilter copy() {
+            return new StatusPedidoFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private FormaPagamentoFilter formaPagamento;
+
+    private ZonedDateTimeFilter dataHora;
+
+    private IntegerFilter senha;
+
+    private StatusPedidoFilter status;
+
+    private LongFilter restauranteId;
+
+    public PedidoCriteria() {}
+
+    public PedidoCriteria(PedidoCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.formaPagamento = other.formaPagamento == null ? null : other.formaPagamento.copy();
+        this.dataHora = other.dataHora == null ? null : other.dataHora.copy();
+        this.senha = other.senha == null ? null : other.senha.copy();
+        this.status = other.status == null ? null : other.status.copy();
+        this.restauranteId = other.restauranteId == null ? null : other.restauranteId.copy();
+    }
+
+    @Override
+    public PedidoCriteria copy() {
+        return new PedidoCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public FormaPagamentoFilter getFormaPagamento() {
+        return formaPagamento;
+    }
+
+    public FormaPagamentoFilter formaPagamento() {
+        if (formaPagamento == null) {
+            formaPagamento = new FormaPagamentoFilter();
+        }
+        return formaPagamento;
+    }
+
+    public void setFormaPagamento(FormaPagamentoFilter formaPagamento) {
+        this.formaPagamento = formaPagamento;
+    }
+
+    public ZonedDateTimeFilter getDataHora() {
+        return dataHora;
+    }
+
+    public ZonedDateTimeFilter dataHora() {
+        if (dataHora == null) {
+            dataHora = new ZonedDateTimeFilter();
+        }
+        return dataHora;
+    }
+
+    public void setDataHora(ZonedDateTimeFilter dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public IntegerFilter getSenha() {
+        return senha;
+    }
+
+    public IntegerFilter senha() {
+        if (senha == null) {
+            senha = new IntegerFilter();
+        }
+        return senha;
+    }
+
+    public void setSenha(IntegerFilter senha) {
+        this.senha = senha;
+    }
+
+    public StatusPedidoFilter getStatus() {
+        return status;
+    }
+
+    public StatusPedidoFilter status() {
+        if (status == null) {
+            status = new StatusPedidoFilter();
+        }
+        return status;
+    }
+
+    public void setStatus(StatusPedidoFilter status) {
+        this.status = status;
+    }
+
+    public LongFilter getRestauranteId() {
+        return restauranteId;
+    }
+
+    public LongFilter restauranteId() {
+        if (restauranteId == null) {
+            restauranteId = new LongFilter();
+        }
+        return restauranteId;
+    }
+
+    public void setRestauranteId(LongFilter restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PedidoCriteria that = (PedidoCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(formaPagamento, that.formaPagamento) &&
+            Objects.equals(dataHora, that.dataHora) &&
+            Objects.equals(senha, that.senha) &&
+            Objects.equals(status, that.status) &&
+            Objects.equals(restauranteId, that.restauranteId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, formaPagamento, dataHora, senha, status, restauranteId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (formaPagamento != null ? "formaPagamento=" + formaPagamento + ", " : "") +
+            (dataHora != null ? "dataHora=" + dataHora + ", " : "") +
+            (senha != null ? "senha=" + senha + ", " : "") +
+            (status != null ? "status=" + status + ", " : "") +
+            (restauranteId != null ? "restauranteId=" + restauranteId + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.qrdapio.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.qrdapio.domain.Restaurante} entity. This class is used
+ * in {@link br.com.qrdapio.web.rest.RestauranteResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /restaurantes?id.greaterThan=5&nome.contains=something}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class RestauranteCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter nome;
+
+    public RestauranteCriteria() {}
+
+    public RestauranteCriteria(RestauranteCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.nome = other.nome == null ? null : other.nome.copy();
+    }
+
+    @Override
+    public RestauranteCriteria copy() {
+        return new RestauranteCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getNome() {
+        return nome;
+    }
+
+    public StringFilter nome() {
+        if (nome == null) {
+            nome = new StringFilter();
+        }
+        return nome;
+    }
+
+    public void setNome(StringFilter nome) {
+        this.nome = nome;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RestauranteCriteria that = (RestauranteCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(nome, that.nome)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, nome);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RestauranteCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (nome != null ? "nome=" + nome + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Criteria classes receiving the filtering options of the entity list endpoints.
+ */
+package br.com.qrdapio.service.criteria;
@@ -0,0 +1,57 @@
+package br.com.qrdapio.service.dto;
+
+/**
+ * A DTO representing a line of the list of cardapios of a restaurante, with the number of its items instead of the items.
+ */
+public class CardapioResumoDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private Long itens;
+
+    public CardapioResumoDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CardapioResumoDTO(Long id, String nome, Long itens) {
+        this.id = id;
+        this.nome = nome;
+        this.itens = itens;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Long getItens() {
+        return itens;
+    }
+
+    public void setItens(Long itens) {
+        this.itens = itens;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CardapioResumoDTO{" +
+            "id=" + id +
+            ", nome='" + nome + "'" +
+            ", itens=" + itens +
+            "}";
+    }
+}
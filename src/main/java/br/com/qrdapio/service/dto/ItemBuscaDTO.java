@@ -0,0 +1,96 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.math.BigDecimal;
+
+/**
+ * A DTO representing a {@link br.com.qrdapio.domain.ItemCardapio} found by a search of a menu.
+ */
+public class ItemBuscaDTO {
+
+    private Long id;
+
+    private Long cardapioId;
+
+    private Categoria categoria;
+
+    private String nome;
+
+    private String descricao;
+
+    private BigDecimal valor;
+
+    public ItemBuscaDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ItemBuscaDTO(Long id, Long cardapioId, Categoria categoria, String nome, String descricao, BigDecimal valor) {
+        this.id = id;
+        this.cardapioId = cardapioId;
+        this.categoria = categoria;
+        this.nome = nome;
+        this.descricao = descricao;
+        this.valor = valor;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCardapioId() {
+        return cardapioId;
+    }
+
+    public void setCardapioId(Long cardapioId) {
+        this.cardapioId = cardapioId;
+    }
+
+    public Categoria getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(Categoria categoria) {
+        this.categoria = categoria;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemBuscaDTO{" +
+            "id=" + id +
+            ", cardapioId=" + cardapioId +
+            ", categoria='" + categoria + "'" +
+            ", nome='" + nome + "'" +
+            ", descricao='" + descricao + "'" +
+            ", valor=" + valor +
+            "}";
+    }
+}
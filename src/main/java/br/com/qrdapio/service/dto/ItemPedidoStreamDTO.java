@@ -0,0 +1,97 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.math.BigDecimal;
+
+/**
+ * A DTO representing one line of a {@link PedidoStreamDTO}.
+ */
+public class ItemPedidoStreamDTO {
+
+    private Long id;
+
+    private Long itemId;
+
+    private String nome;
+
+    private Categoria categoria;
+
+    private Integer quantidade;
+
+    private BigDecimal valorUnitario;
+
+    public ItemPedidoStreamDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ItemPedidoStreamDTO(ItemPedido itemPedido) {
+        this.id = itemPedido.getId();
+        this.itemId = itemPedido.getItem().getId();
+        this.nome = itemPedido.getItem().getNome();
+        this.categoria = itemPedido.getItem().getCategoria();
+        this.quantidade = itemPedido.getQuantidade();
+        this.valorUnitario = itemPedido.getValorUnitario();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Categoria getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(Categoria categoria) {
+        this.categoria = categoria;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getValorUnitario() {
+        return valorUnitario;
+    }
+
+    public void setValorUnitario(BigDecimal valorUnitario) {
+        this.valorUnitario = valorUnitario;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemPedidoStreamDTO{" +
+            "id=" + id +
+            ", itemId=" + itemId +
+            ", nome='" + nome + '\'' +
+            ", categoria=" + categoria +
+            ", quantidade=" + quantidade +
+            ", valorUnitario=" + valorUnitario +
+            "}";
+    }
+}
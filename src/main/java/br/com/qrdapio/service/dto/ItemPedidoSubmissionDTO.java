@@ -0,0 +1,51 @@
+package br.com.qrdapio.service.dto;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing one line of a {@link PedidoSubmissionDTO}.
+ */
+public class ItemPedidoSubmissionDTO {
+
+    @NotNull
+    private Long itemId;
+
+    @NotNull
+    @Min(value = 1)
+    private Integer quantidade;
+
+    public ItemPedidoSubmissionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ItemPedidoSubmissionDTO(Long itemId, Integer quantidade) {
+        this.itemId = itemId;
+        this.quantidade = quantidade;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemPedidoSubmissionDTO{" +
+            "itemId=" + itemId +
+            ", quantidade=" + quantidade +
+            "}";
+    }
+}
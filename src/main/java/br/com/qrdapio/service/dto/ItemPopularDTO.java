@@ -0,0 +1,57 @@
+package br.com.qrdapio.service.dto;
+
+/**
+ * A DTO representing a best-selling {@link br.com.qrdapio.domain.ItemCardapio} over a window.
+ */
+public class ItemPopularDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private Long quantidade;
+
+    public ItemPopularDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ItemPopularDTO(Long id, String nome, Long quantidade) {
+        this.id = id;
+        this.nome = nome;
+        this.quantidade = quantidade;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ItemPopularDTO{" +
+            "id=" + id +
+            ", nome='" + nome + "'" +
+            ", quantidade=" + quantidade +
+            "}";
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A DTO representing one cardapio of a {@link MenuDTO}, with its items grouped by {@link Categoria}.
+ */
+public class MenuCardapioDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private Map<Categoria, List<MenuItemDTO>> itens = new EnumMap<>(Categoria.class);
+
+    public MenuCardapioDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public MenuCardapioDTO(Cardapio cardapio) {
+        this.id = cardapio.getId();
+        this.nome = cardapio.getNome();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Map<Categoria, List<MenuItemDTO>> getItens() {
+        return itens;
+    }
+
+    public void setItens(Map<Categoria, List<MenuItemDTO>> itens) {
+        this.itens = itens;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MenuCardapioDTO{" +
+            "id=" + id +
+            ", nome='" + nome + '\'' +
+            ", itens=" + itens +
+            "}";
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.Restaurante;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the whole menu of a restaurante, as served to guests on a QR scan.
+ */
+public class MenuDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private List<MenuCardapioDTO> cardapios = new ArrayList<>();
+
+    public MenuDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public MenuDTO(Restaurante restaurante) {
+        this.id = restaurante.getId();
+        this.nome = restaurante.getNome();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public List<MenuCardapioDTO> getCardapios() {
+        return cardapios;
+    }
+
+    public void setCardapios(List<MenuCardapioDTO> cardapios) {
+        this.cardapios = cardapios;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MenuDTO{" +
+            "id=" + id +
+            ", nome='" + nome + '\'' +
+            ", cardapios=" + cardapios +
+            "}";
+    }
+}
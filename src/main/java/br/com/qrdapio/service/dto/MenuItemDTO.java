@@ -0,0 +1,72 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.ItemCardapio;
+import java.math.BigDecimal;
+
+/**
+ * A DTO representing one item of a {@link MenuCardapioDTO}.
+ */
+public class MenuItemDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private String descricao;
+
+    private BigDecimal valor;
+
+    public MenuItemDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public MenuItemDTO(ItemCardapio itemCardapio) {
+        this.id = itemCardapio.getId();
+        this.nome = itemCardapio.getNome();
+        this.descricao = itemCardapio.getDescricao();
+        this.valor = itemCardapio.getValor();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MenuItemDTO{" +
+            "id=" + id +
+            ", nome='" + nome + '\'' +
+            ", descricao='" + descricao + '\'' +
+            ", valor=" + valor +
+            "}";
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.OutboxMessage;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Instant;
+
+/**
+ * A DTO representing an event of the outbox, as delivered to the sinks.
+ */
+public class OutboxEventDTO {
+
+    private Long id;
+
+    private String eventType;
+
+    private Long restauranteId;
+
+    private Long aggregateId;
+
+    private Instant createdAt;
+
+    @JsonRawValue
+    private String payload;
+
+    public OutboxEventDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OutboxEventDTO(OutboxMessage message) {
+        this.id = message.getId();
+        this.eventType = message.getEventType();
+        this.restauranteId = message.getRestauranteId();
+        this.aggregateId = message.getAggregateId();
+        this.createdAt = message.getCreatedAt();
+        this.payload = message.getPayload();
+    }
+
+    /**
+     * @return the id of the event, the same for all its retries, for the consumers to drop the duplicates.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public void setRestauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(JsonNode payload) {
+        this.payload = payload != null ? payload.toString() : null;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxEventDTO{" +
+            "id=" + id +
+            ", eventType='" + eventType + "'" +
+            ", restauranteId=" + restauranteId +
+            ", aggregateId=" + aggregateId +
+            ", createdAt='" + createdAt + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing a {@link br.com.qrdapio.domain.Pedido} still to be delivered, for the kitchen and the waiters.
+ */
+public class PedidoAbertoDTO {
+
+    private Long id;
+
+    private Integer senha;
+
+    private StatusPedido status;
+
+    private ZonedDateTime dataHora;
+
+    private BigDecimal total;
+
+    public PedidoAbertoDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PedidoAbertoDTO(Long id, Integer senha, StatusPedido status, ZonedDateTime dataHora, BigDecimal total) {
+        this.id = id;
+        this.senha = senha;
+        this.status = status;
+        this.dataHora = dataHora;
+        this.total = total;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getSenha() {
+        return senha;
+    }
+
+    public void setSenha(Integer senha) {
+        this.senha = senha;
+    }
+
+    public StatusPedido getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusPedido status) {
+        this.status = status;
+    }
+
+    public ZonedDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(ZonedDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoAbertoDTO{" +
+            "id=" + id +
+            ", senha=" + senha +
+            ", status='" + status + "'" +
+            ", dataHora='" + dataHora + "'" +
+            ", total=" + total +
+            "}";
+    }
+}
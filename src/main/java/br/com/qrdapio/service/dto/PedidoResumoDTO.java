@@ -0,0 +1,105 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing a line of the list of pedidos of a restaurante, with the number of its items and its total
+ * instead of the items.
+ */
+public class PedidoResumoDTO {
+
+    private Long id;
+
+    private Integer senha;
+
+    private ZonedDateTime dataHora;
+
+    private FormaPagamento formaPagamento;
+
+    private Long itens;
+
+    private BigDecimal total;
+
+    public PedidoResumoDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PedidoResumoDTO(
+        Long id,
+        Integer senha,
+        ZonedDateTime dataHora,
+        FormaPagamento formaPagamento,
+        Long itens,
+        BigDecimal total
+    ) {
+        this.id = id;
+        this.senha = senha;
+        this.dataHora = dataHora;
+        this.formaPagamento = formaPagamento;
+        this.itens = itens;
+        this.total = total;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getSenha() {
+        return senha;
+    }
+
+    public void setSenha(Integer senha) {
+        this.senha = senha;
+    }
+
+    public ZonedDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(ZonedDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public FormaPagamento getFormaPagamento() {
+        return formaPagamento;
+    }
+
+    public void setFormaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+    }
+
+    public Long getItens() {
+        return itens;
+    }
+
+    public void setItens(Long itens) {
+        this.itens = itens;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoResumoDTO{" +
+            "id=" + id +
+            ", senha=" + senha +
+            ", dataHora='" + dataHora + "'" +
+            ", formaPagamento='" + formaPagamento + "'" +
+            ", itens=" + itens +
+            ", total=" + total +
+            "}";
+    }
+}
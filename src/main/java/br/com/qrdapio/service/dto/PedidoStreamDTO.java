@@ -0,0 +1,137 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A DTO representing a {@link Pedido} and its lines, as pushed to the kitchen displays.
+ */
+public class PedidoStreamDTO {
+
+    private Long id;
+
+    private Long restauranteId;
+
+    private Integer senha;
+
+    private FormaPagamento formaPagamento;
+
+    private ZonedDateTime dataHora;
+
+    private StatusPedido status;
+
+    private BigDecimal total;
+
+    private List<ItemPedidoStreamDTO> itens;
+
+    public PedidoStreamDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PedidoStreamDTO(Pedido pedido) {
+        this(pedido, pedido.getItemPedidos());
+    }
+
+    /**
+     * @param pedido the pedido.
+     * @param itemPedidos the lines of the pedido, when its collection may not hold them all yet.
+     */
+    public PedidoStreamDTO(Pedido pedido, Collection<ItemPedido> itemPedidos) {
+        this.id = pedido.getId();
+        this.restauranteId = pedido.getRestaurante().getId();
+        this.senha = pedido.getSenha();
+        this.formaPagamento = pedido.getFormaPagamento();
+        this.dataHora = pedido.getDataHora();
+        this.status = pedido.getStatus();
+        this.total = pedido.getTotal();
+        this.itens =
+            itemPedidos.stream().sorted(Comparator.comparing(ItemPedido::getId)).map(ItemPedidoStreamDTO::new).collect(Collectors.toList());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public void setRestauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    public Integer getSenha() {
+        return senha;
+    }
+
+    public void setSenha(Integer senha) {
+        this.senha = senha;
+    }
+
+    public FormaPagamento getFormaPagamento() {
+        return formaPagamento;
+    }
+
+    public void setFormaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+    }
+
+    public ZonedDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(ZonedDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public StatusPedido getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusPedido status) {
+        this.status = status;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public List<ItemPedidoStreamDTO> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<ItemPedidoStreamDTO> itens) {
+        this.itens = itens;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoStreamDTO{" +
+            "id=" + id +
+            ", restauranteId=" + restauranteId +
+            ", senha=" + senha +
+            ", formaPagamento='" + formaPagamento + "'" +
+            ", dataHora='" + dataHora + "'" +
+            ", status='" + status + "'" +
+            ", total=" + total +
+            ", itens=" + itens +
+            "}";
+    }
+}
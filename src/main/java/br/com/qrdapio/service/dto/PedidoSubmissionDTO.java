@@ -0,0 +1,58 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing a whole customer order, submitted with all its lines at once.
+ */
+public class PedidoSubmissionDTO {
+
+    @NotNull
+    private FormaPagamento formaPagamento;
+
+    private ZonedDateTime dataHora;
+
+    @Valid
+    @NotEmpty
+    private List<ItemPedidoSubmissionDTO> itens = new ArrayList<>();
+
+    public FormaPagamento getFormaPagamento() {
+        return formaPagamento;
+    }
+
+    public void setFormaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+    }
+
+    public ZonedDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(ZonedDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public List<ItemPedidoSubmissionDTO> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<ItemPedidoSubmissionDTO> itens) {
+        this.itens = itens;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PedidoSubmissionDTO{" +
+            "formaPagamento=" + formaPagamento +
+            ", dataHora=" + dataHora +
+            ", itens=" + itens +
+            "}";
+    }
+}
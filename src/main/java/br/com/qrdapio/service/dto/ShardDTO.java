@@ -0,0 +1,45 @@
+package br.com.qrdapio.service.dto;
+
+/**
+ * A DTO representing a database shard and the number of {@link br.com.qrdapio.domain.Restaurante}s it holds.
+ */
+public class ShardDTO {
+
+    private String nome;
+
+    private Long restaurantes;
+
+    public ShardDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ShardDTO(String nome, Long restaurantes) {
+        this.nome = nome;
+        this.restaurantes = restaurantes;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Long getRestaurantes() {
+        return restaurantes;
+    }
+
+    public void setRestaurantes(Long restaurantes) {
+        this.restaurantes = restaurantes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ShardDTO{" +
+            "nome='" + nome + "'" +
+            ", restaurantes=" + restaurantes +
+            "}";
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.qrdapio.service.dto;
+
+/**
+ * A DTO representing the move of a {@link br.com.qrdapio.domain.Restaurante} and its data from a shard to another.
+ */
+public class ShardMoveDTO {
+
+    private Long restauranteId;
+
+    private String origem;
+
+    private String destino;
+
+    private Long linhas;
+
+    public ShardMoveDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ShardMoveDTO(Long restauranteId, String origem, String destino, Long linhas) {
+        this.restauranteId = restauranteId;
+        this.origem = origem;
+        this.destino = destino;
+        this.linhas = linhas;
+    }
+
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public void setRestauranteId(Long restauranteId) {
+        this.restauranteId = restauranteId;
+    }
+
+    public String getOrigem() {
+        return origem;
+    }
+
+    public void setOrigem(String origem) {
+        this.origem = origem;
+    }
+
+    public String getDestino() {
+        return destino;
+    }
+
+    public void setDestino(String destino) {
+        this.destino = destino;
+    }
+
+    public Long getLinhas() {
+        return linhas;
+    }
+
+    public void setLinhas(Long linhas) {
+        this.linhas = linhas;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ShardMoveDTO{" +
+            "restauranteId=" + restauranteId +
+            ", origem='" + origem + "'" +
+            ", destino='" + destino + "'" +
+            ", linhas=" + linhas +
+            "}";
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing a change of status of a {@link br.com.qrdapio.domain.Pedido}, from the status the client saw.
+ */
+public class StatusPedidoTransicaoDTO {
+
+    @NotNull
+    private StatusPedido de;
+
+    @NotNull
+    private StatusPedido para;
+
+    public StatusPedidoTransicaoDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public StatusPedidoTransicaoDTO(StatusPedido de, StatusPedido para) {
+        this.de = de;
+        this.para = para;
+    }
+
+    public StatusPedido getDe() {
+        return de;
+    }
+
+    public void setDe(StatusPedido de) {
+        this.de = de;
+    }
+
+    public StatusPedido getPara() {
+        return para;
+    }
+
+    public void setPara(StatusPedido para) {
+        this.para = para;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StatusPedidoTransicaoDTO{" +
+            "de='" + de + "'" +
+            ", para='" + para + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import java.time.Instant;
+
+/**
+ * A DTO representing an {@link br.com.qrdapio.domain.ItemPedido} claimed by a station of the kitchen.
+ */
+public class TarefaCozinhaDTO {
+
+    private Long itemPedidoId;
+
+    private Long pedidoId;
+
+    private Integer senha;
+
+    private Long itemCardapioId;
+
+    private String nome;
+
+    private Categoria categoria;
+
+    private Integer quantidade;
+
+    private Instant dataHora;
+
+    private Instant inicio;
+
+    public TarefaCozinhaDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TarefaCozinhaDTO(
+        Long itemPedidoId,
+        Long pedidoId,
+        Integer senha,
+        Long itemCardapioId,
+        String nome,
+        Categoria categoria,
+        Integer quantidade,
+        Instant dataHora,
+        Instant inicio
+    ) {
+        this.itemPedidoId = itemPedidoId;
+        this.pedidoId = pedidoId;
+        this.senha = senha;
+        this.itemCardapioId = itemCardapioId;
+        this.nome = nome;
+        this.categoria = categoria;
+        this.quantidade = quantidade;
+        this.dataHora = dataHora;
+        this.inicio = inicio;
+    }
+
+    public Long getItemPedidoId() {
+        return itemPedidoId;
+    }
+
+    public void setItemPedidoId(Long itemPedidoId) {
+        this.itemPedidoId = itemPedidoId;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public void setPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public Integer getSenha() {
+        return senha;
+    }
+
+    public void setSenha(Integer senha) {
+        this.senha = senha;
+    }
+
+    public Long getItemCardapioId() {
+        return itemCardapioId;
+    }
+
+    public void setItemCardapioId(Long itemCardapioId) {
+        this.itemCardapioId = itemCardapioId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Categoria getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(Categoria categoria) {
+        this.categoria = categoria;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * @return when the pedido was placed.
+     */
+    public Instant getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(Instant dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    /**
+     * @return when the line should start being prepared, for all the lines of its pedido to be ready together.
+     */
+    public Instant getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(Instant inicio) {
+        this.inicio = inicio;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TarefaCozinhaDTO{" +
+            "itemPedidoId=" + itemPedidoId +
+            ", pedidoId=" + pedidoId +
+            ", senha=" + senha +
+            ", itemCardapioId=" + itemCardapioId +
+            ", nome='" + nome + "'" +
+            ", categoria='" + categoria + "'" +
+            ", quantidade=" + quantidade +
+            ", dataHora='" + dataHora + "'" +
+            ", inicio='" + inicio + "'" +
+            "}";
+    }
+}
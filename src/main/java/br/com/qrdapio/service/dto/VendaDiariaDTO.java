@@ -0,0 +1,87 @@
+package br.com.qrdapio.service.dto;
+
+import br.com.qrdapio.domain.VendaDiaria;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing the sales of a restaurante in a day, for one forma de pagamento and one categoria.
+ */
+public class VendaDiariaDTO {
+
+    private LocalDate dia;
+
+    private FormaPagamento formaPagamento;
+
+    private Categoria categoria;
+
+    private Long quantidade;
+
+    private BigDecimal total;
+
+    public VendaDiariaDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public VendaDiariaDTO(VendaDiaria venda) {
+        this.dia = venda.getDia();
+        this.formaPagamento = venda.getFormaPagamento();
+        this.categoria = venda.getCategoria();
+        this.quantidade = venda.getQuantidade();
+        this.total = venda.getTotal();
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public FormaPagamento getFormaPagamento() {
+        return formaPagamento;
+    }
+
+    public void setFormaPagamento(FormaPagamento formaPagamento) {
+        this.formaPagamento = formaPagamento;
+    }
+
+    public Categoria getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(Categoria categoria) {
+        this.categoria = categoria;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VendaDiariaDTO{" +
+            "dia='" + dia + "'" +
+            ", formaPagamento='" + formaPagamento + "'" +
+            ", categoria='" + categoria + "'" +
+            ", quantidade=" + quantidade +
+            ", total=" + total +
+            "}";
+    }
+}
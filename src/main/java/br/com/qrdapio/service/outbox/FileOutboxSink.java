@@ -0,0 +1,72 @@
+package br.com.qrdapio.service.outbox;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.service.dto.OutboxEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sink appending the events to a local file, one JSON document per line, or writing them to the log when no file is
+ * configured.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox.file", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    public static final String NAME = "file";
+
+    private final Logger log = LoggerFactory.getLogger(FileOutboxSink.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        String file = applicationProperties.getOutbox().getFile().getPath();
+        this.path = file == null || file.isBlank() ? null : Paths.get(file);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(List<OutboxEventDTO> events) throws IOException {
+        if (path == null) {
+            for (OutboxEventDTO event : events) {
+                log.info("Outbox event: {}", objectMapper.writeValueAsString(event));
+            }
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (
+            Writer writer = Files.newBufferedWriter(
+                path,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+            )
+        ) {
+            for (OutboxEventDTO event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.qrdapio.service.outbox;
+
+import br.com.qrdapio.service.dto.OutboxEventDTO;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A consumer of the events of the outbox, see {@link br.com.qrdapio.service.OutboxService}.
+ * <p>
+ * Every event is delivered at least once to each sink: the consumers must drop the duplicates, by event id.
+ */
+public interface OutboxSink {
+    /**
+     * @return the name of the sink, stored with its pending events: not to be changed while some are left.
+     */
+    String getName();
+
+    /**
+     * Deliver a batch of events. Called by the relay only, one batch at a time.
+     *
+     * @param events the events, oldest first.
+     * @throws IOException if the batch was not delivered, to be retried later as a whole.
+     */
+    void send(List<OutboxEventDTO> events) throws IOException;
+}
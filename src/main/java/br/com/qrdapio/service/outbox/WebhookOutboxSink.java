@@ -0,0 +1,59 @@
+package br.com.qrdapio.service.outbox;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.service.dto.OutboxEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Sink posting the events to a webhook, as a JSON array. Any response other than a {@code 2xx} is a failure, and the
+ * batch is posted again later.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox.webhook", name = "url")
+public class WebhookOutboxSink implements OutboxSink {
+
+    public static final String NAME = "webhook";
+
+    private final ObjectMapper objectMapper;
+
+    private final RestTemplate restTemplate;
+
+    private final String url;
+
+    public WebhookOutboxSink(
+        ObjectMapper objectMapper,
+        RestTemplateBuilder restTemplateBuilder,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Outbox.Webhook webhook = applicationProperties.getOutbox().getWebhook();
+        this.objectMapper = objectMapper;
+        this.restTemplate = restTemplateBuilder.setConnectTimeout(webhook.getTimeout()).setReadTimeout(webhook.getTimeout()).build();
+        this.url = webhook.getUrl();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(List<OutboxEventDTO> events) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        try {
+            restTemplate.postForEntity(url, new HttpEntity<>(objectMapper.writeValueAsString(events), headers), Void.class);
+        } catch (RestClientException e) {
+            throw new IOException("Could not post " + events.size() + " events to " + url, e);
+        }
+    }
+}
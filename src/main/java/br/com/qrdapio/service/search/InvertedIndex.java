@@ -0,0 +1,266 @@
+package br.com.qrdapio.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of documents made of a title and a body, analyzed by the {@link PortugueseAnalyzer}.
+ * <p>
+ * Every term of a query must match a document, in one of three ways, from the best to the worst: exactly, as the
+ * prefix of a term of the document when it is the last term of a query still being typed, or within
+ * {@link #maxEdits(String)} edits of a term of the document. A document scores the sum over the query terms of its
+ * best match, weighted by where the term appears: a word of the title weighs {@value #TITLE_WEIGHT} times a word of
+ * the body.
+ * <p>
+ * The terms are kept sorted, so that the prefix matches are a range of them; the typo matches are found by
+ * comparing the query term with every term of about its length, which stays well under a millisecond for the
+ * vocabulary of a menu. Documents may be replaced or removed at any time; searches run concurrently with each other,
+ * and wait for the updates.
+ */
+public class InvertedIndex {
+
+    static final int TITLE_WEIGHT = 2;
+
+    private static final double EXACT = 1.0;
+
+    private static final double PREFIX = 0.75;
+
+    private static final double TYPO = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    /**
+     * For each term, the weight of the term in each document having it.
+     */
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    /**
+     * The terms of each document, to remove them.
+     */
+    private final Map<Long, List<String>> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add a document, or replace it.
+     *
+     * @param id the id of the document.
+     * @param title the title.
+     * @param body the body.
+     */
+    public void put(long id, String title, String body) {
+        Map<String, Integer> weights = new HashMap<>();
+        PortugueseAnalyzer.terms(title).forEach(term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        PortugueseAnalyzer.terms(body).forEach(term -> weights.merge(term, 1, Integer::sum));
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            documents.put(id, new ArrayList<>(weights.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document, if present.
+     *
+     * @param id the id of the document.
+     * @return whether the document was present.
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return removeTerms(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search the documents.
+     *
+     * @param query the query, as typed: its last word is taken as a prefix unless it is followed by a space.
+     * @param limit the maximum number of hits.
+     * @return the hits, best first, then in id order.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = PortugueseAnalyzer.terms(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        boolean typing = !Character.isWhitespace(query.charAt(query.length() - 1));
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Double> matches = match(terms.get(i), typing && i == terms.size() - 1);
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    Map<Long, Double> both = new HashMap<>();
+                    for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                        Double match = matches.get(score.getKey());
+                        if (match != null) {
+                            both.put(score.getKey(), score.getValue() + match);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+            hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparingLong(Hit::getId));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The best score of each document for a query term.
+     */
+    private Map<Long, Double> match(String term, boolean prefix) {
+        Map<Long, Double> matches = new HashMap<>();
+        add(matches, postings.get(term), EXACT);
+        if (prefix && term.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Map<Long, Integer>> posting : postings.tailMap(term, false).entrySet()) {
+                if (!posting.getKey().startsWith(term)) {
+                    break;
+                }
+                add(matches, posting.getValue(), PREFIX);
+            }
+        }
+        int maxEdits = maxEdits(term);
+        if (maxEdits > 0) {
+            for (Map.Entry<String, Map<Long, Integer>> posting : postings.entrySet()) {
+                String candidate = posting.getKey();
+                if (Math.abs(candidate.length() - term.length()) <= maxEdits && !candidate.equals(term)) {
+                    int edits = distance(term, candidate, maxEdits);
+                    if (edits <= maxEdits) {
+                        add(matches, posting.getValue(), TYPO / edits);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void add(Map<Long, Double> matches, Map<Long, Integer> posting, double factor) {
+        if (posting != null) {
+            posting.forEach((id, weight) -> matches.merge(id, factor * weight, Math::max));
+        }
+    }
+
+    private boolean removeTerms(long id) {
+        List<String> terms = documents.remove(id);
+        if (terms == null) {
+            return false;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How many typos a query term may have: none below 4 letters, where most edits lead to another word, and one
+     * more from 8 letters. None either in a term with digits, where {@code "300g"} is no typo of {@code "500g"}.
+     *
+     * @param term the query term.
+     * @return the maximum number of edits.
+     */
+    static int maxEdits(String term) {
+        if (term.length() < 4 || term.chars().anyMatch(Character::isDigit)) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    /**
+     * Levenshtein distance between two terms, stopping as soon as it exceeds a maximum.
+     *
+     * @param a a term.
+     * @param b another term.
+     * @param max the maximum distance of interest.
+     * @return the distance, or {@code max + 1} if it is above the maximum.
+     */
+    static int distance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int best = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                best = Math.min(best, current[j]);
+            }
+            if (best > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * A document matching a query.
+     */
+    public static final class Hit {
+
+        private final long id;
+
+        private final double score;
+
+        Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
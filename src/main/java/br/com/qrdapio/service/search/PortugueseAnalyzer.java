@@ -0,0 +1,119 @@
+package br.com.qrdapio.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns Portuguese text into the terms of an {@link InvertedIndex}.
+ * <p>
+ * The text is lower-cased, stripped of its accents ({@code "Feijão"} and {@code "feijao"} are the same word) and
+ * split on anything but letters and digits. Articles and the most common prepositions are dropped, though not
+ * {@code "com"} and {@code "sem"}, which matter on a menu. Each word is then reduced by a light stemmer, which only
+ * removes the plural and the final vowel: {@code "grelhados"} and {@code "grelhada"} both become {@code "grelhad"}.
+ * Being light, it keeps the prefix of a word typed so far a prefix of its stem.
+ */
+public final class PortugueseAnalyzer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a",
+        "o",
+        "as",
+        "os",
+        "e",
+        "ou",
+        "um",
+        "uma",
+        "de",
+        "da",
+        "do",
+        "das",
+        "dos",
+        "em",
+        "na",
+        "no",
+        "nas",
+        "nos",
+        "ao",
+        "aos",
+        "para",
+        "por"
+    );
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private PortugueseAnalyzer() {}
+
+    /**
+     * Get the terms of a text.
+     *
+     * @param text the text, may be {@code null}.
+     * @return the terms, in the order of the text.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : SEPARATORS.split(fold(text))) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-case a text and strip it of its accents.
+     *
+     * @param text the text.
+     * @return the folded text.
+     */
+    static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Reduce a folded word to its stem.
+     *
+     * @param word the folded word.
+     * @return the stem.
+     */
+    static String stem(String word) {
+        if (word.length() <= MIN_STEM_LENGTH || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = singular(word);
+        char last = stem.charAt(stem.length() - 1);
+        if (stem.length() > MIN_STEM_LENGTH && (last == 'a' || last == 'e' || last == 'o')) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String singular(String word) {
+        if (word.endsWith("oes") || word.endsWith("aes")) {
+            return word.substring(0, word.length() - 3) + "ao";
+        }
+        if (word.endsWith("ais") || word.endsWith("eis") || word.endsWith("ois")) {
+            return word.substring(0, word.length() - 2) + "l";
+        }
+        if (word.endsWith("ns")) {
+            return word.substring(0, word.length() - 2) + "m";
+        }
+        if (word.endsWith("res") || word.endsWith("zes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.qrdapio.service.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heaviest items of a sliding time window, as a ring of {@link SpaceSaving} summaries, one per time bucket.
+ * <p>
+ * The window is made of the current bucket and the ones before it, so it slides one bucket at a time and covers
+ * between {@code buckets - 1} and {@code buckets} bucket durations. Buckets leaving the window are reused, the memory
+ * used is bounded by {@code buckets * capacity} counters whatever the number of updates. Not thread-safe.
+ */
+public class SlidingWindowSummary {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+
+    private final SpaceSaving[] summaries;
+
+    private final long[] bucketIndexes;
+
+    /**
+     * @param window the duration of the window.
+     * @param buckets the number of buckets of the window, its precision.
+     * @param capacity the number of counters per bucket.
+     */
+    public SlidingWindowSummary(Duration window, int buckets, int capacity) {
+        if (buckets < 1 || window.toMillis() % buckets != 0) {
+            throw new IllegalArgumentException("The window " + window + " cannot be split in " + buckets + " buckets");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.summaries = new SpaceSaving[buckets];
+        this.bucketIndexes = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            summaries[i] = new SpaceSaving(capacity);
+            bucketIndexes[i] = EMPTY;
+        }
+    }
+
+    /**
+     * Add a weight to an item at some time. Ignored if the time is already out of the window.
+     *
+     * @param item the item.
+     * @param weight the weight, positive.
+     * @param at the time of the update.
+     * @param now the current time.
+     */
+    public void add(long item, long weight, Instant at, Instant now) {
+        long index = bucketIndex(at);
+        if (!isInWindow(index, bucketIndex(now))) {
+            return;
+        }
+        int slot = slot(index);
+        if (bucketIndexes[slot] != index) {
+            summaries[slot].clear();
+            bucketIndexes[slot] = index;
+        }
+        summaries[slot].add(item, weight);
+    }
+
+    /**
+     * @param limit the maximum number of items.
+     * @param now the current time.
+     * @return the estimates of the heaviest items of the window, heaviest first. Each count adds up the counts of the
+     * buckets the item was kept in.
+     */
+    public List<SpaceSaving.Estimate> top(int limit, Instant now) {
+        long current = bucketIndex(now);
+        Map<Long, SpaceSaving.Estimate> estimates = new HashMap<>();
+        for (int slot = 0; slot < summaries.length; slot++) {
+            if (isInWindow(bucketIndexes[slot], current)) {
+                summaries[slot].addTo(estimates);
+            }
+        }
+        List<SpaceSaving.Estimate> top = new ArrayList<>(estimates.values());
+        top.sort(SpaceSaving.Estimate.HEAVIEST_FIRST);
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    /**
+     * @param now the current time.
+     * @return whether nothing was added during the window.
+     */
+    public boolean isEmpty(Instant now) {
+        long current = bucketIndex(now);
+        for (int slot = 0; slot < summaries.length; slot++) {
+            if (isInWindow(bucketIndexes[slot], current) && !summaries[slot].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(bucketMillis);
+        out.writeInt(summaries.length);
+        for (int slot = 0; slot < summaries.length; slot++) {
+            out.writeLong(bucketIndexes[slot]);
+            summaries[slot].writeTo(out);
+        }
+    }
+
+    /**
+     * Replace the buckets of this window by the ones written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the input.
+     * @throws IOException if the input cannot be read, or was written by a window of another shape.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        long readBucketMillis = in.readLong();
+        int readBuckets = in.readInt();
+        if (readBucketMillis != bucketMillis || readBuckets != summaries.length) {
+            throw new IOException("Expected " + summaries.length + " buckets of " + bucketMillis + "ms, read " + readBuckets + " buckets");
+        }
+        for (int slot = 0; slot < summaries.length; slot++) {
+            bucketIndexes[slot] = in.readLong();
+            summaries[slot].readFrom(in);
+        }
+    }
+
+    private long bucketIndex(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), bucketMillis);
+    }
+
+    private boolean isInWindow(long index, long current) {
+        return index != EMPTY && index <= current && index > current - summaries.length;
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) summaries.length);
+    }
+}
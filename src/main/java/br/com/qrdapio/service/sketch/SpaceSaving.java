@@ -0,0 +1,177 @@
+package br.com.qrdapio.service.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the heaviest items of a stream of weighted updates, in a fixed number of counters.
+ * <p>
+ * While fewer than {@code capacity} distinct items were added the counts are exact. Past it, a new item takes the
+ * counter of the lightest one and inherits its count as error: counts are then over-estimated by at most the sum of
+ * the weights divided by the capacity, and every item heavier than that is guaranteed to be kept.
+ * <p>
+ * The capacity is expected to be small, finding the lightest counter is a linear scan. Not thread-safe.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+
+    private final Map<Long, Counter> counters;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Add a weight to an item.
+     *
+     * @param item the item.
+     * @param weight the weight, positive.
+     */
+    public void add(long item, long weight) {
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.count += weight;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Counter(item, weight, 0));
+        } else {
+            Counter lightest = counters.values().stream().min(Comparator.comparingLong(c -> c.count)).orElseThrow();
+            counters.remove(lightest.item);
+            counters.put(item, new Counter(item, lightest.count + weight, lightest.count));
+        }
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+
+    /**
+     * Add the counts of this summary to estimates merged from several summaries.
+     *
+     * @param estimates the estimates by item.
+     */
+    public void addTo(Map<Long, Estimate> estimates) {
+        for (Counter counter : counters.values()) {
+            estimates.merge(counter.item, new Estimate(counter.item, counter.count, counter.error), Estimate::plus);
+        }
+    }
+
+    /**
+     * @return the estimates of the counted items, heaviest first.
+     */
+    public List<Estimate> estimates() {
+        List<Estimate> estimates = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            estimates.add(new Estimate(counter.item, counter.count, counter.error));
+        }
+        estimates.sort(Estimate.HEAVIEST_FIRST);
+        return estimates;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(counters.size());
+        for (Counter counter : counters.values()) {
+            out.writeLong(counter.item);
+            out.writeLong(counter.count);
+            out.writeLong(counter.error);
+        }
+    }
+
+    /**
+     * Replace the counts of this summary by the ones written by {@link #writeTo(DataOutput)}, keeping the heaviest
+     * ones if they do not fit in the capacity.
+     *
+     * @param in the input.
+     * @throws IOException if the input cannot be read.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        counters.clear();
+        int size = in.readInt();
+        List<Counter> read = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            read.add(new Counter(in.readLong(), in.readLong(), in.readLong()));
+        }
+        read.sort(Comparator.comparingLong((Counter c) -> c.count).reversed());
+        for (Counter counter : read.subList(0, Math.min(capacity, read.size()))) {
+            counters.put(counter.item, counter);
+        }
+    }
+
+    private static final class Counter {
+
+        private final long item;
+
+        private long count;
+
+        private final long error;
+
+        private Counter(long item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * The estimated count of an item, over-estimated by at most {@code error}.
+     */
+    public static final class Estimate {
+
+        public static final Comparator<Estimate> HEAVIEST_FIRST = Comparator
+            .comparingLong(Estimate::getCount)
+            .reversed()
+            .thenComparingLong(Estimate::getItem);
+
+        private final long item;
+
+        private final long count;
+
+        private final long error;
+
+        public Estimate(long item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getItem() {
+            return item;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        Estimate plus(Estimate other) {
+            return new Estimate(item, count + other.count, error + other.error);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Estimate{" +
+                "item=" + item +
+                ", count=" + count +
+                ", error=" + error +
+                "}";
+        }
+    }
+}
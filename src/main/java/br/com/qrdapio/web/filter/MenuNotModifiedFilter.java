@@ -0,0 +1,105 @@
+package br.com.qrdapio.web.filter;
+
+import br.com.qrdapio.service.MenuSnapshot;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter answering the conditional reads of the menu resources with a {@code 304 (Not Modified)} while the menu of
+ * their restaurante is unchanged, before any transaction starts.
+ * <p>
+ * The menu resources are {@code /api/restaurantes/{id}}, {@code /api/restaurantes/{id}/menu},
+ * {@code /api/cardapios/{id}} and the {@code /api/item-cardapios} of a single restaurante or cardapio; their entity
+ * tag holds the version of the menu of their restaurante, see {@link ETagUtil#toMenuETag}. Only the menus already
+ * in memory in the {@link MenuSnapshotService} are compared, so the requests answered here never touch the database;
+ * the others go on to the resources, which send the current tag.
+ */
+public class MenuNotModifiedFilter extends OncePerRequestFilter {
+
+    private static final Pattern RESTAURANTE_PATH = Pattern.compile("^/api/restaurantes/(\\d+)(/menu)?$");
+
+    private static final Pattern CARDAPIO_PATH = Pattern.compile("^/api/cardapios/(\\d+)$");
+
+    private static final String ITEM_CARDAPIOS_PATH = "/api/item-cardapios";
+
+    private static final String RESTAURANTE_PARAMETER = "restauranteId.equals";
+
+    private static final String CARDAPIO_PARAMETER = "cardapioId.equals";
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    public MenuNotModifiedFilter(MenuSnapshotService menuSnapshotService) {
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || request.getHeader(HttpHeaders.IF_NONE_MATCH) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String eTag : request.getHeader(HttpHeaders.IF_NONE_MATCH).split(",")) {
+            String tag = eTag.trim();
+            Long restauranteId = ETagUtil.menuRestauranteId(tag);
+            Optional<MenuSnapshot> snapshot = restauranteId != null
+                ? menuSnapshotService.getCachedSnapshot(restauranteId)
+                : Optional.empty();
+            if (
+                snapshot.isPresent() &&
+                tag.equals(ETagUtil.toMenuETag(restauranteId, snapshot.get().getVersion())) &&
+                isOfMenu(request, path, snapshot.get())
+            ) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(HttpHeaders.ETAG, tag);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, ETagUtil.menuCacheControl().getHeaderValue());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Whether the requested resource belongs to a menu, and so has not changed since the version of the menu.
+     */
+    private static boolean isOfMenu(HttpServletRequest request, String path, MenuSnapshot snapshot) {
+        Matcher restaurante = RESTAURANTE_PATH.matcher(path);
+        if (restaurante.matches()) {
+            return snapshot.getRestauranteId().equals(id(restaurante.group(1)));
+        }
+        Matcher cardapio = CARDAPIO_PATH.matcher(path);
+        if (cardapio.matches()) {
+            return snapshot.containsCardapio(id(cardapio.group(1)));
+        }
+        if (!ITEM_CARDAPIOS_PATH.equals(path)) {
+            return false;
+        }
+        // Only the items of a single menu have its version as tag
+        String restauranteId = request.getParameter(RESTAURANTE_PARAMETER);
+        if (restauranteId != null) {
+            return snapshot.getRestauranteId().equals(id(restauranteId));
+        }
+        String cardapioId = request.getParameter(CARDAPIO_PARAMETER);
+        return cardapioId != null && snapshot.containsCardapio(id(cardapioId));
+    }
+
+    private static Long id(String value) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
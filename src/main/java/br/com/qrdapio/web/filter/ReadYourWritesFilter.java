@@ -0,0 +1,78 @@
+package br.com.qrdapio.web.filter;
+
+import br.com.qrdapio.config.ReadReplicaRoutingDataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter sending the reads of a client to the primary database for a while after it wrote, so that it sees its own
+ * writes even when the replicas lag, see {@link ReadReplicaRoutingDataSource}.
+ * <p>
+ * Any request that is not a GET, HEAD or OPTIONS sets a cookie holding the time until which the reads of the client
+ * stay on the primary. As the cookie travels with the client, this works whichever server answers the next requests.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "qrdapio-primary-until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration duration;
+
+    /**
+     * @param duration how long the reads of a client go to the primary after a write.
+     */
+    public ReadYourWritesFilter(Duration duration) {
+        this.duration = duration;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + duration.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, duration.toSeconds()));
+            response.addCookie(cookie);
+        }
+        // Cookies set further away than the duration were not set by this filter
+        long primaryUntil = primaryUntil(request);
+        if (!write && (primaryUntil <= now || primaryUntil > now + duration.toMillis())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadReplicaRoutingDataSource.setPrimaryRequired(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadReplicaRoutingDataSource.setPrimaryRequired(false);
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
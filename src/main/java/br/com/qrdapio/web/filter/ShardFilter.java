@@ -0,0 +1,150 @@
+package br.com.qrdapio.web.filter;
+
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter sending the database work of a request to the shard of its restaurante, see {@link ShardRoutingDataSource}.
+ * <p>
+ * The restaurante is the one of the {@code /api/restaurantes/{id}/...} paths, the one of the cardapio, item-cardapio,
+ * pedido or item-pedido of the {@code /api/cardapios/{id}/...} like paths, the {@code restaurante} parameter of the
+ * {@code /api/pedidos/export} path, or else the one of the {@value #RESTAURANTE_HEADER} header. The header must match
+ * the restaurante of the path, if any, and is required to create cardapios, item-cardapios, pedidos and item-pedidos
+ * once there are several shards. The restaurante is left in the {@value #RESTAURANTE_ATTRIBUTE} request attribute, for
+ * the resources to check the entities they are sent.
+ * Requests for a restaurante being moved are answered with a {@code 503 (Service Unavailable)}.
+ */
+public class ShardFilter extends OncePerRequestFilter {
+
+    public static final String RESTAURANTE_HEADER = "X-Restaurante-Id";
+
+    public static final String RESTAURANTE_ATTRIBUTE = "br.com.qrdapio.restauranteId";
+
+    private static final Pattern RESTAURANTE_PATH = Pattern.compile("^/api/restaurantes/(\\d+)(/.*)?$");
+
+    /**
+     * The export streams its lines from another thread, on the shards it picks itself: the restaurante of the path is
+     * only checked here.
+     */
+    private static final String EXPORT_PATH = "/api/pedidos/export";
+
+    private static final Pattern TENANT_PATH = Pattern.compile("^/api/(cardapios|item-cardapios|pedidos|item-pedidos)(/(\\d+)(/.*)?)?$");
+
+    /**
+     * The tables of the entities of the tenant paths.
+     */
+    private static final Map<String, String> TENANT_TABLES = Map.of(
+        "cardapios",
+        "cardapio",
+        "item-cardapios",
+        "item_cardapio",
+        "pedidos",
+        "pedido",
+        "item-pedidos",
+        "item_pedido"
+    );
+
+    private final ShardMap shardMap;
+
+    private final Duration retryAfter;
+
+    /**
+     * @param shardMap the shard map.
+     * @param retryAfter when the clients of a restaurante being moved should try again.
+     */
+    public ShardFilter(ShardMap shardMap, Duration retryAfter) {
+        this.shardMap = shardMap;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String header = request.getHeader(RESTAURANTE_HEADER);
+        Long headerRestauranteId = header != null ? parseId(header) : null;
+        if (header != null && headerRestauranteId == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + RESTAURANTE_HEADER + " header: " + header);
+            return;
+        }
+        Long restauranteId = restauranteOfPath(request, path, headerRestauranteId);
+        if (restauranteId != null && headerRestauranteId != null && !restauranteId.equals(headerRestauranteId)) {
+            response.sendError(
+                HttpServletResponse.SC_BAD_REQUEST,
+                "The " + RESTAURANTE_HEADER + " header does not match restaurante " + restauranteId + " of the path"
+            );
+            return;
+        }
+        if (restauranteId == null) {
+            restauranteId = headerRestauranteId;
+        }
+        if (restauranteId == null && shardMap.isSharded() && isTenantCreation(request, path)) {
+            // Would be created on the default shard, whichever shard its restaurante is on
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "The " + RESTAURANTE_HEADER + " header is required");
+            return;
+        }
+        if (restauranteId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (shardMap.isMoving(restauranteId)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Restaurante " + restauranteId + " is being moved");
+            return;
+        }
+        request.setAttribute(RESTAURANTE_ATTRIBUTE, restauranteId);
+        ShardRoutingDataSource.setCurrentShard(shardMap.shardOf(restauranteId));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardRoutingDataSource.setCurrentShard(null);
+        }
+    }
+
+    /**
+     * The restaurante of a {@code /api/restaurantes/{id}/...} path or of an export, or of the entity of a tenant path
+     * once there are several shards. Without shards, the entity is where it is whatever its restaurante, which need not
+     * be looked up. The entity is looked up on the shard of the header first.
+     */
+    private Long restauranteOfPath(HttpServletRequest request, String path, Long headerRestauranteId) {
+        if (EXPORT_PATH.equals(path)) {
+            String restaurante = request.getParameter("restaurante");
+            return restaurante != null ? parseId(restaurante) : null;
+        }
+        Matcher matcher = RESTAURANTE_PATH.matcher(path);
+        if (matcher.matches()) {
+            return parseId(matcher.group(1));
+        }
+        matcher = TENANT_PATH.matcher(path);
+        if (!matcher.matches() || matcher.group(3) == null || !shardMap.isSharded()) {
+            return null;
+        }
+        Long id = parseId(matcher.group(3));
+        return id != null ? shardMap.findRestauranteOf(TENANT_TABLES.get(matcher.group(1)), id, headerRestauranteId).orElse(null) : null;
+    }
+
+    private static boolean isTenantCreation(HttpServletRequest request, String path) {
+        Matcher matcher = TENANT_PATH.matcher(path);
+        return HttpMethod.POST.matches(request.getMethod()) && matcher.matches() && matcher.group(2) == null;
+    }
+
+    private static Long parseId(String id) {
+        try {
+            return Long.valueOf(id.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package br.com.qrdapio.web.rest;
 
+import br.com.qrdapio.config.ShardMap;
 import br.com.qrdapio.domain.Cardapio;
 import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.service.CardapioQueryService;
+import br.com.qrdapio.service.KeysetQueryService;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.service.criteria.CardapioCriteria;
+import br.com.qrdapio.service.dto.CardapioResumoDTO;
+import br.com.qrdapio.web.filter.ShardFilter;
 import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import br.com.qrdapio.web.rest.util.KeysetPaginationUtil;
+import br.com.qrdapio.web.rest.util.ShardUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -13,9 +23,15 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -36,23 +52,43 @@ public class CardapioResource {
 
     private final CardapioRepository cardapioRepository;
 
-    public CardapioResource(CardapioRepository cardapioRepository) {
+    private final CardapioQueryService cardapioQueryService;
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    private final ShardMap shardMap;
+
+    public CardapioResource(
+        CardapioRepository cardapioRepository,
+        CardapioQueryService cardapioQueryService,
+        MenuSnapshotService menuSnapshotService,
+        ShardMap shardMap
+    ) {
         this.cardapioRepository = cardapioRepository;
+        this.cardapioQueryService = cardapioQueryService;
+        this.menuSnapshotService = menuSnapshotService;
+        this.shardMap = shardMap;
     }
 
     /**
      * {@code POST  /cardapios} : Create a new cardapio.
      *
      * @param cardapio the cardapio to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new cardapio, or with status {@code 400 (Bad Request)} if the cardapio has already an ID.
+     * @param restauranteId the restaurante of the request, if any.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new cardapio, or with status {@code 400 (Bad Request)} if the cardapio has already an ID
+     * or is of another restaurante than the request.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/cardapios")
-    public ResponseEntity<Cardapio> createCardapio(@Valid @RequestBody Cardapio cardapio) throws URISyntaxException {
+    public ResponseEntity<Cardapio> createCardapio(
+        @Valid @RequestBody Cardapio cardapio,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
+    ) throws URISyntaxException {
         log.debug("REST request to save Cardapio : {}", cardapio);
         if (cardapio.getId() != null) {
             throw new BadRequestAlertException("A new cardapio cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        ShardUtil.checkRestaurante(restauranteId, restauranteIdOf(cardapio), ENTITY_NAME);
         Cardapio result = cardapioRepository.save(cardapio);
         return ResponseEntity
             .created(new URI("/api/cardapios/" + result.getId()))
@@ -65,15 +101,17 @@ public class CardapioResource {
      *
      * @param id the id of the cardapio to save.
      * @param cardapio the cardapio to update.
+     * @param restauranteId the restaurante of the request, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated cardapio,
-     * or with status {@code 400 (Bad Request)} if the cardapio is not valid,
+     * or with status {@code 400 (Bad Request)} if the cardapio is not valid or is of another restaurante than the request,
      * or with status {@code 500 (Internal Server Error)} if the cardapio couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/cardapios/{id}")
     public ResponseEntity<Cardapio> updateCardapio(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Cardapio cardapio
+        @Valid @RequestBody Cardapio cardapio,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
     ) throws URISyntaxException {
         log.debug("REST request to update Cardapio : {}, {}", id, cardapio);
         if (cardapio.getId() == null) {
@@ -82,6 +120,7 @@ public class CardapioResource {
         if (!Objects.equals(id, cardapio.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        ShardUtil.checkRestaurante(restauranteId, restauranteIdOf(cardapio), ENTITY_NAME);
 
         if (!cardapioRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
@@ -142,27 +181,82 @@ public class CardapioResource {
     }
 
     /**
-     * {@code GET  /cardapios} : get all the cardapios.
+     * {@code GET  /cardapios} : get the cardapios, in id order, from all the shards.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cardapios in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the id of the last cardapio of the previous slice, omitted for the first slice.
+     * @param size the maximum number of cardapios to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cardapios in body,
+     * with a {@code Link} header pointing to the next slice when there is one.
      */
     @GetMapping("/cardapios")
-    public List<Cardapio> getAllCardapios() {
-        log.debug("REST request to get all Cardapios");
-        return cardapioRepository.findAll();
+    // Each shard is read in a transaction of its own
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ResponseEntity<List<Cardapio>> getAllCardapios(
+        CardapioCriteria criteria,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get Cardapios by criteria: {}", criteria);
+        Slice<Cardapio> slice = KeysetQueryService.merge(
+            shardMap.callInEachShard(() -> cardapioQueryService.findByCriteria(criteria, after, size)),
+            Cardapio::getId
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Cardapio::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/cardapios} : get the cardapios of the "id" restaurante, summarized for list views.
+     *
+     * @param id the id of the restaurante.
+     * @param after the id of the last cardapio of the previous slice, omitted for the first slice.
+     * @param size the maximum number of cardapios to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cardapios in body,
+     * with a {@code Link} header pointing to the next slice when there is one.
+     */
+    @GetMapping("/restaurantes/{id}/cardapios")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<CardapioResumoDTO>> getCardapioResumos(
+        @PathVariable Long id,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get Cardapio resumos of Restaurante : {}", id);
+        Slice<CardapioResumoDTO> slice = cardapioQueryService.findResumosByRestaurante(id, after, size);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            CardapioResumoDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /cardapios/:id} : get the "id" cardapio.
      *
      * @param id the id of the cardapio to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the cardapio, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the cardapio and the tag of the menu of its restaurante, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/cardapios/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Cardapio> getCardapio(@PathVariable Long id) {
         log.debug("REST request to get Cardapio : {}", id);
-        Optional<Cardapio> cardapio = cardapioRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(cardapio);
+        long generation = menuSnapshotService.getGeneration();
+        return cardapioRepository
+            .findOneWithItemCardapiosById(id)
+            .map(
+                cardapio -> {
+                    Long restauranteId = cardapio.getRestaurante().getId();
+                    String menuVersion = menuSnapshotService.getVersion(restauranteId, generation).orElse(null);
+                    return ETagUtil.menuResponse(restauranteId, menuVersion).body(cardapio);
+                }
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -180,4 +274,8 @@ public class CardapioResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Long restauranteIdOf(Cardapio cardapio) {
+        return cardapio.getRestaurante() != null ? cardapio.getRestaurante().getId() : null;
+    }
 }
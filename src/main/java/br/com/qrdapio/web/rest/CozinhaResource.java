@@ -0,0 +1,71 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.service.CozinhaService;
+import br.com.qrdapio.service.InvalidPedidoException;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.dto.TarefaCozinhaDTO;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.util.Arrays;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the stations of the kitchen of the restaurantes.
+ */
+@RestController
+@RequestMapping("/api")
+public class CozinhaResource {
+
+    private static final String ENTITY_NAME = "itemPedido";
+
+    private final Logger log = LoggerFactory.getLogger(CozinhaResource.class);
+
+    private final CozinhaService cozinhaService;
+
+    private final PedidoService pedidoService;
+
+    public CozinhaResource(CozinhaService cozinhaService, PedidoService pedidoService) {
+        this.cozinhaService = cozinhaService;
+        this.pedidoService = pedidoService;
+    }
+
+    /**
+     * {@code POST  /restaurantes/:id/estacoes/:estacao/proximo} : claim the next line of a station of the "id" restaurante.
+     * <p>
+     * Served from the queues kept in memory as the pedidos are placed, and claimed in the database: the line is handed
+     * out to this caller only, whatever the server.
+     * The first line claimed puts its pedido {@link StatusPedido#EM_PREPARO in preparation}.
+     *
+     * @param id the id of the restaurante.
+     * @param estacao the station, named after its categoria: {@code prato}, {@code bebida} or {@code sobremesa}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the line in body,
+     * or with status {@code 204 (No Content)} if no line is waiting at the station,
+     * or with status {@code 400 (Bad Request)} if the station is not known.
+     */
+    @PostMapping("/restaurantes/{id}/estacoes/{estacao}/proximo")
+    public ResponseEntity<TarefaCozinhaDTO> claimProximo(@PathVariable Long id, @PathVariable String estacao) {
+        log.debug("REST request to claim the next ItemPedido of station {} of Restaurante : {}", estacao, id);
+        Categoria categoria = Arrays
+            .stream(Categoria.values())
+            .filter(value -> value.name().equalsIgnoreCase(estacao))
+            .findFirst()
+            .orElseThrow(() -> new BadRequestAlertException("Unknown station " + estacao, ENTITY_NAME, "invalidestacao"));
+        Optional<TarefaCozinhaDTO> tarefa = cozinhaService.proximo(id, categoria);
+        tarefa.ifPresent(this::startPreparo);
+        return tarefa.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    private void startPreparo(TarefaCozinhaDTO tarefa) {
+        try {
+            // A single update by id, left as is when the pedido is no longer received
+            pedidoService.changeStatus(tarefa.getPedidoId(), StatusPedido.RECEBIDO, StatusPedido.EM_PREPARO);
+        } catch (InvalidPedidoException e) {
+            log.debug("Pedido : {} of the claimed ItemPedido not found", tarefa.getPedidoId());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.service.ItemBuscaService;
+import br.com.qrdapio.service.dto.ItemBuscaDTO;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for searching the {@link br.com.qrdapio.domain.ItemCardapio}s of the restaurantes.
+ */
+@RestController
+@RequestMapping("/api")
+public class ItemBuscaResource {
+
+    /**
+     * Number of items returned when no limit is given.
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * Highest limit accepted.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final String ENTITY_NAME = "itemCardapio";
+
+    private final Logger log = LoggerFactory.getLogger(ItemBuscaResource.class);
+
+    private final ItemBuscaService itemBuscaService;
+
+    public ItemBuscaResource(ItemBuscaService itemBuscaService) {
+        this.itemBuscaService = itemBuscaService;
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/itens/busca?q=} : search the items of the "id" restaurante by their nome and descricao.
+     * <p>
+     * Searched in memory, so the menu can search as the customer types: the last word of the query matches the items
+     * it starts a word of, and words with a typo still match.
+     *
+     * @param id the id of the restaurante.
+     * @param q the words to search.
+     * @param limite the maximum number of items, {@value #DEFAULT_LIMIT} by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the items having every word, the most relevant first,
+     * or with status {@code 400 (Bad Request)} if the limit is not valid.
+     */
+    @GetMapping("/restaurantes/{id}/itens/busca")
+    public ResponseEntity<List<ItemBuscaDTO>> searchItens(
+        @PathVariable Long id,
+        @RequestParam String q,
+        @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limite
+    ) {
+        log.debug("REST request to search the ItemCardapios of Restaurante : {} for {}", id, q);
+        if (limite < 1 || limite > MAX_LIMIT) {
+            throw new BadRequestAlertException("The limit must be from 1 to " + MAX_LIMIT, ENTITY_NAME, "invalidlimite");
+        }
+        return ResponseEntity.ok(itemBuscaService.search(id, q, limite));
+    }
+}
@@ -1,23 +1,45 @@
 package br.com.qrdapio.web.rest;
 
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.domain.Cardapio;
 import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemCardapio_;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.event.MenuChangedEvent;
+import br.com.qrdapio.repository.CardapioRepository;
 import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.PartialUpdateRepository;
+import br.com.qrdapio.service.ItemCardapioQueryService;
+import br.com.qrdapio.service.KeysetQueryService;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.service.criteria.ItemCardapioCriteria;
+import br.com.qrdapio.web.filter.ShardFilter;
 import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import br.com.qrdapio.web.rest.errors.PreconditionFailedAlertException;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import br.com.qrdapio.web.rest.util.KeysetPaginationUtil;
+import br.com.qrdapio.web.rest.util.ShardUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link br.com.qrdapio.domain.ItemCardapio}.
@@ -36,23 +58,55 @@ public class ItemCardapioResource {
 
     private final ItemCardapioRepository itemCardapioRepository;
 
-    public ItemCardapioResource(ItemCardapioRepository itemCardapioRepository) {
+    private final ItemCardapioQueryService itemCardapioQueryService;
+
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CardapioRepository cardapioRepository;
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    private final ShardMap shardMap;
+
+    public ItemCardapioResource(
+        ItemCardapioRepository itemCardapioRepository,
+        ItemCardapioQueryService itemCardapioQueryService,
+        PartialUpdateRepository partialUpdateRepository,
+        ApplicationEventPublisher eventPublisher,
+        CardapioRepository cardapioRepository,
+        MenuSnapshotService menuSnapshotService,
+        ShardMap shardMap
+    ) {
         this.itemCardapioRepository = itemCardapioRepository;
+        this.itemCardapioQueryService = itemCardapioQueryService;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.eventPublisher = eventPublisher;
+        this.cardapioRepository = cardapioRepository;
+        this.menuSnapshotService = menuSnapshotService;
+        this.shardMap = shardMap;
     }
 
     /**
      * {@code POST  /item-cardapios} : Create a new itemCardapio.
      *
      * @param itemCardapio the itemCardapio to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new itemCardapio, or with status {@code 400 (Bad Request)} if the itemCardapio has already an ID.
+     * @param restauranteId the restaurante of the request, if any.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new itemCardapio, or with status {@code 400 (Bad Request)} if the itemCardapio has already an ID
+     * or its cardapio is not one of the restaurante of the request.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/item-cardapios")
-    public ResponseEntity<ItemCardapio> createItemCardapio(@Valid @RequestBody ItemCardapio itemCardapio) throws URISyntaxException {
+    public ResponseEntity<ItemCardapio> createItemCardapio(
+        @Valid @RequestBody ItemCardapio itemCardapio,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
+    ) throws URISyntaxException {
         log.debug("REST request to save ItemCardapio : {}", itemCardapio);
         if (itemCardapio.getId() != null) {
             throw new BadRequestAlertException("A new itemCardapio cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        checkRestaurante(itemCardapio, restauranteId);
         ItemCardapio result = itemCardapioRepository.save(itemCardapio);
         return ResponseEntity
             .created(new URI("/api/item-cardapios/" + result.getId()))
@@ -62,18 +116,24 @@ public class ItemCardapioResource {
 
     /**
      * {@code PUT  /item-cardapios/:id} : Updates an existing itemCardapio.
+     * The update only applies to the version of the {@code If-Match} header, if any.
      *
      * @param id the id of the itemCardapio to save.
      * @param itemCardapio the itemCardapio to update.
+     * @param ifMatch the entity tag of the version to update, if any.
+     * @param restauranteId the restaurante of the request, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated itemCardapio,
-     * or with status {@code 400 (Bad Request)} if the itemCardapio is not valid,
+     * or with status {@code 400 (Bad Request)} if the itemCardapio is not valid or its cardapio is not one of the restaurante of the request,
+     * or with status {@code 412 (Precondition Failed)} if the itemCardapio was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the itemCardapio couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/item-cardapios/{id}")
     public ResponseEntity<ItemCardapio> updateItemCardapio(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody ItemCardapio itemCardapio
+        @Valid @RequestBody ItemCardapio itemCardapio,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
     ) throws URISyntaxException {
         log.debug("REST request to update ItemCardapio : {}, {}", id, itemCardapio);
         if (itemCardapio.getId() == null) {
@@ -82,33 +142,50 @@ public class ItemCardapioResource {
         if (!Objects.equals(id, itemCardapio.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        checkRestaurante(itemCardapio, restauranteId);
+        Integer version = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
 
-        if (!itemCardapioRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        // Loaded anyway by the merge, and checked again by its update
+        ItemCardapio existingItemCardapio = itemCardapioRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (version != null && version != existingItemCardapio.getVersion()) {
+            throw versionMismatch();
         }
+        itemCardapio.setVersion(existingItemCardapio.getVersion());
 
-        ItemCardapio result = itemCardapioRepository.save(itemCardapio);
+        ItemCardapio result;
+        try {
+            result = itemCardapioRepository.saveAndFlush(itemCardapio);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionMismatch();
+        }
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, itemCardapio.getId().toString()))
+            .eTag(ETagUtil.toETag(result.getVersion()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /item-cardapios/:id} : Partial updates given fields of an existing itemCardapio, field will ignore if it is null
+     * {@code PATCH  /item-cardapios/:id} : Partial updates given fields of an existing itemCardapio, field will ignore if it is null.
+     * The update is a single statement, which only applies to the version of the {@code If-Match} header, if any.
      *
      * @param id the id of the itemCardapio to save.
      * @param itemCardapio the itemCardapio to update.
+     * @param ifMatch the entity tag of the version to update, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated itemCardapio,
      * or with status {@code 400 (Bad Request)} if the itemCardapio is not valid,
      * or with status {@code 404 (Not Found)} if the itemCardapio is not found,
+     * or with status {@code 412 (Precondition Failed)} if the itemCardapio was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the itemCardapio couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/item-cardapios/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<ItemCardapio> partialUpdateItemCardapio(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody ItemCardapio itemCardapio
+        @NotNull @RequestBody ItemCardapio itemCardapio,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update ItemCardapio partially : {}, {}", id, itemCardapio);
         if (itemCardapio.getId() == null) {
@@ -117,61 +194,106 @@ public class ItemCardapioResource {
         if (!Objects.equals(id, itemCardapio.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        Integer version = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
 
-        if (!itemCardapioRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        ItemCardapio result = partialUpdateRepository
+            .update(ItemCardapio.class, id, version)
+            .set(ItemCardapio_.categoria, itemCardapio.getCategoria())
+            .set(ItemCardapio_.nome, itemCardapio.getNome())
+            .set(ItemCardapio_.descricao, itemCardapio.getDescricao())
+            .set(ItemCardapio_.valor, itemCardapio.getValor())
+            .execute()
+            .orElseThrow(() -> notUpdated(id));
+        eventPublisher.publishEvent(new MenuChangedEvent(result.getCardapio().getRestaurante().getId(), result.getCardapio().getId(), id));
 
-        Optional<ItemCardapio> result = itemCardapioRepository
-            .findById(itemCardapio.getId())
-            .map(
-                existingItemCardapio -> {
-                    if (itemCardapio.getCategoria() != null) {
-                        existingItemCardapio.setCategoria(itemCardapio.getCategoria());
-                    }
-                    if (itemCardapio.getNome() != null) {
-                        existingItemCardapio.setNome(itemCardapio.getNome());
-                    }
-                    if (itemCardapio.getDescricao() != null) {
-                        existingItemCardapio.setDescricao(itemCardapio.getDescricao());
-                    }
-                    if (itemCardapio.getValor() != null) {
-                        existingItemCardapio.setValor(itemCardapio.getValor());
-                    }
-
-                    return existingItemCardapio;
-                }
-            )
-            .map(itemCardapioRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, itemCardapio.getId().toString())
-        );
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, itemCardapio.getId().toString()))
+            .eTag(ETagUtil.toETag(result.getVersion()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /item-cardapios} : get all the itemCardapios.
+     * {@code GET  /item-cardapios} : get the itemCardapios, in id order, from all the shards.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of itemCardapios in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the id of the last itemCardapio of the previous slice, omitted for the first slice.
+     * @param size the maximum number of itemCardapios to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of itemCardapios in body,
+     * with a {@code Link} header pointing to the next slice when there is one, and the tag of the menu when the
+     * criteria select a single restaurante or cardapio.
      */
     @GetMapping("/item-cardapios")
-    public List<ItemCardapio> getAllItemCardapios() {
-        log.debug("REST request to get all ItemCardapios");
-        return itemCardapioRepository.findAll();
+    // Each shard is read in a transaction of its own
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ResponseEntity<List<ItemCardapio>> getAllItemCardapios(
+        ItemCardapioCriteria criteria,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get ItemCardapios by criteria: {}", criteria);
+        long generation = menuSnapshotService.getGeneration();
+        Long restauranteId = menuRestauranteId(criteria);
+        Slice<ItemCardapio> slice = KeysetQueryService.merge(
+            shardMap.callInEachShard(() -> itemCardapioQueryService.findByCriteria(criteria, after, size)),
+            ItemCardapio::getId
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            ItemCardapio::getId
+        );
+        if (restauranteId == null) {
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        String menuVersion = shardMap
+            .callInShardOf(restauranteId, () -> menuSnapshotService.getVersion(restauranteId, generation))
+            .orElse(null);
+        return ETagUtil.menuResponse(restauranteId, menuVersion).headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * The restaurante whose menu holds all the itemCardapios the criteria may select, if any.
+     */
+    private Long menuRestauranteId(ItemCardapioCriteria criteria) {
+        if (criteria.getRestauranteId() != null && criteria.getRestauranteId().getEquals() != null) {
+            return criteria.getRestauranteId().getEquals();
+        }
+        if (criteria.getCardapioId() != null && criteria.getCardapioId().getEquals() != null) {
+            return shardMap.findRestauranteOf("cardapio", criteria.getCardapioId().getEquals()).orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * Check that the cardapio of an itemCardapio is one of the restaurante of the request, on the shard of the request.
+     */
+    private void checkRestaurante(ItemCardapio itemCardapio, Long restauranteId) {
+        if (restauranteId == null || itemCardapio.getCardapio() == null) {
+            return;
+        }
+        Long cardapioRestauranteId = cardapioRepository
+            .findById(itemCardapio.getCardapio().getId())
+            .map(Cardapio::getRestaurante)
+            .map(Restaurante::getId)
+            .orElse(null);
+        ShardUtil.checkRestaurante(restauranteId, cardapioRestauranteId, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /item-cardapios/:id} : get the "id" itemCardapio.
      *
      * @param id the id of the itemCardapio to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the itemCardapio, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the itemCardapio and its entity tag, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/item-cardapios/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<ItemCardapio> getItemCardapio(@PathVariable Long id) {
         log.debug("REST request to get ItemCardapio : {}", id);
-        Optional<ItemCardapio> itemCardapio = itemCardapioRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(itemCardapio);
+        return itemCardapioRepository
+            .findById(id)
+            .map(itemCardapio -> ResponseEntity.ok().eTag(ETagUtil.toETag(itemCardapio.getVersion())).body(itemCardapio))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -189,4 +311,15 @@ public class ItemCardapioResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private RuntimeException notUpdated(Long id) {
+        if (!itemCardapioRepository.existsById(id)) {
+            return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        return versionMismatch();
+    }
+
+    private PreconditionFailedAlertException versionMismatch() {
+        return new PreconditionFailedAlertException("The itemCardapio was updated since that version", ENTITY_NAME, "versionmismatch");
+    }
 }
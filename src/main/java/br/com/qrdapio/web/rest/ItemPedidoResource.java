@@ -1,23 +1,49 @@
 package br.com.qrdapio.web.rest;
 
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.domain.ItemCardapio;
 import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.ItemPedido_;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.event.PedidoChangedEvent;
+import br.com.qrdapio.repository.ItemCardapioRepository;
 import br.com.qrdapio.repository.ItemPedidoRepository;
+import br.com.qrdapio.repository.PartialUpdateRepository;
+import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.service.IdempotencyException;
+import br.com.qrdapio.service.IdempotencyService;
+import br.com.qrdapio.service.ItemPedidoQueryService;
+import br.com.qrdapio.service.KeysetQueryService;
+import br.com.qrdapio.service.criteria.ItemPedidoCriteria;
+import br.com.qrdapio.web.filter.ShardFilter;
 import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import br.com.qrdapio.web.rest.errors.PreconditionFailedAlertException;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import br.com.qrdapio.web.rest.util.KeysetPaginationUtil;
+import br.com.qrdapio.web.rest.util.ShardUtil;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link br.com.qrdapio.domain.ItemPedido}.
@@ -36,44 +62,105 @@ public class ItemPedidoResource {
 
     private final ItemPedidoRepository itemPedidoRepository;
 
-    public ItemPedidoResource(ItemPedidoRepository itemPedidoRepository) {
+    private final ItemPedidoQueryService itemPedidoQueryService;
+
+    private final ItemCardapioRepository itemCardapioRepository;
+
+    private final PedidoRepository pedidoRepository;
+
+    private final IdempotencyService idempotencyService;
+
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ShardMap shardMap;
+
+    public ItemPedidoResource(
+        ItemPedidoRepository itemPedidoRepository,
+        ItemPedidoQueryService itemPedidoQueryService,
+        ItemCardapioRepository itemCardapioRepository,
+        PedidoRepository pedidoRepository,
+        IdempotencyService idempotencyService,
+        PartialUpdateRepository partialUpdateRepository,
+        ApplicationEventPublisher eventPublisher,
+        ShardMap shardMap
+    ) {
         this.itemPedidoRepository = itemPedidoRepository;
+        this.itemPedidoQueryService = itemPedidoQueryService;
+        this.itemCardapioRepository = itemCardapioRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.idempotencyService = idempotencyService;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardMap = shardMap;
     }
 
     /**
      * {@code POST  /item-pedidos} : Create a new itemPedido.
+     * Its valorUnitario is the current valor of its item, and is added to the total of its pedido.
+     * The retries sent with the same {@code Idempotency-Key} header get the response of the first request.
      *
      * @param itemPedido the itemPedido to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new itemPedido, or with status {@code 400 (Bad Request)} if the itemPedido has already an ID.
+     * @param idempotencyKey the key of the request, if any.
+     * @param restauranteId the restaurante of the request, if any.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new itemPedido, or with status {@code 400 (Bad Request)} if the itemPedido has already an ID
+     * or its pedido is not one of the restaurante of the request,
+     * or with status {@code 409 (Conflict)} if a request with the same key is still in flight.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/item-pedidos")
-    public ResponseEntity<ItemPedido> createItemPedido(@Valid @RequestBody ItemPedido itemPedido) throws URISyntaxException {
+    public ResponseEntity<ItemPedido> createItemPedido(
+        @Valid @RequestBody ItemPedido itemPedido,
+        @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
+    ) throws URISyntaxException {
         log.debug("REST request to save ItemPedido : {}", itemPedido);
         if (itemPedido.getId() != null) {
             throw new BadRequestAlertException("A new itemPedido cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        ItemPedido result = itemPedidoRepository.save(itemPedido);
-        return ResponseEntity
-            .created(new URI("/api/item-pedidos/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-            .body(result);
+        checkRestaurante(itemPedido, restauranteId);
+        try {
+            return idempotencyService.execute(
+                "POST /api/item-pedidos",
+                idempotencyKey,
+                itemPedido,
+                ItemPedido.class,
+                () -> {
+                    ItemPedido result = itemPedidoRepository.save(itemPedido.valorUnitario(valorOf(itemPedido.getItem())));
+                    pedidoRepository.updateTotal(result.getPedido().getId());
+                    return ResponseEntity
+                        .created(new URI("/api/item-pedidos/" + result.getId()))
+                        .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result);
+                }
+            );
+        } catch (IdempotencyException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
     }
 
     /**
      * {@code PUT  /item-pedidos/:id} : Updates an existing itemPedido.
+     * It keeps its valorUnitario unless it is now another item, and the totals of the pedidos follow.
+     * The update only applies to the version of the {@code If-Match} header, if any.
      *
      * @param id the id of the itemPedido to save.
      * @param itemPedido the itemPedido to update.
+     * @param ifMatch the entity tag of the version to update, if any.
+     * @param restauranteId the restaurante of the request, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated itemPedido,
-     * or with status {@code 400 (Bad Request)} if the itemPedido is not valid,
+     * or with status {@code 400 (Bad Request)} if the itemPedido is not valid or its pedido is not one of the restaurante of the request,
+     * or with status {@code 412 (Precondition Failed)} if the itemPedido was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the itemPedido couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/item-pedidos/{id}")
     public ResponseEntity<ItemPedido> updateItemPedido(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody ItemPedido itemPedido
+        @Valid @RequestBody ItemPedido itemPedido,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
     ) throws URISyntaxException {
         log.debug("REST request to update ItemPedido : {}, {}", id, itemPedido);
         if (itemPedido.getId() == null) {
@@ -82,33 +169,62 @@ public class ItemPedidoResource {
         if (!Objects.equals(id, itemPedido.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        checkRestaurante(itemPedido, restauranteId);
+        Integer version = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
 
-        if (!itemPedidoRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        // Loaded anyway by the merge, and checked again by its update
+        ItemPedido existingItemPedido = itemPedidoRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (version != null && version != existingItemPedido.getVersion()) {
+            throw versionMismatch();
         }
+        itemPedido.setVersion(existingItemPedido.getVersion());
+        itemPedido.setValorUnitario(
+            Objects.equals(existingItemPedido.getItem().getId(), itemPedido.getItem().getId())
+                ? existingItemPedido.getValorUnitario()
+                : valorOf(itemPedido.getItem())
+        );
+        // The merge changes the managed line itself
+        Long previousPedidoId = existingItemPedido.getPedido().getId();
 
-        ItemPedido result = itemPedidoRepository.save(itemPedido);
+        ItemPedido result;
+        try {
+            result = itemPedidoRepository.saveAndFlush(itemPedido);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionMismatch();
+        }
+        pedidoRepository.updateTotal(result.getPedido().getId());
+        if (!previousPedidoId.equals(result.getPedido().getId())) {
+            pedidoRepository.updateTotal(previousPedidoId);
+        }
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, itemPedido.getId().toString()))
+            .eTag(ETagUtil.toETag(result.getVersion()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /item-pedidos/:id} : Partial updates given fields of an existing itemPedido, field will ignore if it is null
+     * {@code PATCH  /item-pedidos/:id} : Partial updates given fields of an existing itemPedido, field will ignore if it is null.
+     * The update is a single statement, which only applies to the version of the {@code If-Match} header, if any.
+     * The total of its pedido follows.
      *
      * @param id the id of the itemPedido to save.
      * @param itemPedido the itemPedido to update.
+     * @param ifMatch the entity tag of the version to update, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated itemPedido,
      * or with status {@code 400 (Bad Request)} if the itemPedido is not valid,
      * or with status {@code 404 (Not Found)} if the itemPedido is not found,
+     * or with status {@code 412 (Precondition Failed)} if the itemPedido was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the itemPedido couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/item-pedidos/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<ItemPedido> partialUpdateItemPedido(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody ItemPedido itemPedido
+        @NotNull @RequestBody ItemPedido itemPedido,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update ItemPedido partially : {}, {}", id, itemPedido);
         if (itemPedido.getId() == null) {
@@ -117,52 +233,67 @@ public class ItemPedidoResource {
         if (!Objects.equals(id, itemPedido.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        Integer version = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
 
-        if (!itemPedidoRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<ItemPedido> result = itemPedidoRepository
-            .findById(itemPedido.getId())
-            .map(
-                existingItemPedido -> {
-                    if (itemPedido.getQuantidade() != null) {
-                        existingItemPedido.setQuantidade(itemPedido.getQuantidade());
-                    }
+        ItemPedido result = partialUpdateRepository
+            .update(ItemPedido.class, id, version)
+            .set(ItemPedido_.quantidade, itemPedido.getQuantidade())
+            .execute()
+            .orElseThrow(() -> notUpdated(id));
+        pedidoRepository.updateTotal(result.getPedido().getId());
+        eventPublisher.publishEvent(new PedidoChangedEvent(result.getPedido().getId()));
 
-                    return existingItemPedido;
-                }
-            )
-            .map(itemPedidoRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, itemPedido.getId().toString())
-        );
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, itemPedido.getId().toString()))
+            .eTag(ETagUtil.toETag(result.getVersion()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /item-pedidos} : get all the itemPedidos.
+     * {@code GET  /item-pedidos} : get the itemPedidos, in id order, from all the shards.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of itemPedidos in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the id of the last itemPedido of the previous slice, omitted for the first slice.
+     * @param size the maximum number of itemPedidos to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of itemPedidos in body,
+     * with a {@code Link} header pointing to the next slice when there is one.
      */
     @GetMapping("/item-pedidos")
-    public List<ItemPedido> getAllItemPedidos() {
-        log.debug("REST request to get all ItemPedidos");
-        return itemPedidoRepository.findAll();
+    // Each shard is read in a transaction of its own
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ResponseEntity<List<ItemPedido>> getAllItemPedidos(
+        ItemPedidoCriteria criteria,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get ItemPedidos by criteria: {}", criteria);
+        Slice<ItemPedido> slice = KeysetQueryService.merge(
+            shardMap.callInEachShard(() -> itemPedidoQueryService.findByCriteria(criteria, after, size)),
+            ItemPedido::getId
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            ItemPedido::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /item-pedidos/:id} : get the "id" itemPedido.
      *
      * @param id the id of the itemPedido to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the itemPedido, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the itemPedido and its entity tag, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/item-pedidos/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<ItemPedido> getItemPedido(@PathVariable Long id) {
         log.debug("REST request to get ItemPedido : {}", id);
-        Optional<ItemPedido> itemPedido = itemPedidoRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(itemPedido);
+        return itemPedidoRepository
+            .findById(id)
+            .map(itemPedido -> ResponseEntity.ok().eTag(ETagUtil.toETag(itemPedido.getVersion())).body(itemPedido))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -174,10 +305,47 @@ public class ItemPedidoResource {
     @DeleteMapping("/item-pedidos/{id}")
     public ResponseEntity<Void> deleteItemPedido(@PathVariable Long id) {
         log.debug("REST request to delete ItemPedido : {}", id);
+        Long pedidoId = itemPedidoRepository.findById(id).map(itemPedido -> itemPedido.getPedido().getId()).orElse(null);
         itemPedidoRepository.deleteById(id);
+        if (pedidoId != null) {
+            pedidoRepository.updateTotal(pedidoId);
+        }
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Check that the pedido of a line is one of the restaurante of the request, on the shard of the request.
+     */
+    private void checkRestaurante(ItemPedido itemPedido, Long restauranteId) {
+        if (restauranteId == null || itemPedido.getPedido() == null) {
+            return;
+        }
+        Long pedidoRestauranteId = pedidoRepository
+            .findById(itemPedido.getPedido().getId())
+            .map(Pedido::getRestaurante)
+            .map(Restaurante::getId)
+            .orElse(null);
+        ShardUtil.checkRestaurante(restauranteId, pedidoRestauranteId, ENTITY_NAME);
+    }
+
+    /**
+     * The current valor of the item of a line, which the line keeps from then on.
+     */
+    private BigDecimal valorOf(ItemCardapio item) {
+        return item.getId() == null ? null : itemCardapioRepository.findById(item.getId()).map(ItemCardapio::getValor).orElse(null);
+    }
+
+    private RuntimeException notUpdated(Long id) {
+        if (!itemPedidoRepository.existsById(id)) {
+            return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        return versionMismatch();
+    }
+
+    private PreconditionFailedAlertException versionMismatch() {
+        return new PreconditionFailedAlertException("The itemPedido was updated since that version", ENTITY_NAME, "versionmismatch");
+    }
 }
@@ -0,0 +1,64 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.service.ItemPopularService;
+import br.com.qrdapio.service.dto.ItemPopularDTO;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the best-selling {@link br.com.qrdapio.domain.ItemCardapio}s of the restaurantes.
+ */
+@RestController
+@RequestMapping("/api")
+public class ItemPopularResource {
+
+    /**
+     * Number of items returned when no limit is given.
+     */
+    public static final int DEFAULT_LIMIT = 10;
+
+    private static final String ENTITY_NAME = "itemCardapio";
+
+    private final Logger log = LoggerFactory.getLogger(ItemPopularResource.class);
+
+    private final ItemPopularService itemPopularService;
+
+    public ItemPopularResource(ItemPopularService itemPopularService) {
+        this.itemPopularService = itemPopularService;
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/itens/populares} : get the best-selling items of the "id" restaurante.
+     * <p>
+     * Counted in memory as the pedidos are placed, so the menu can show them on every load.
+     *
+     * @param id the id of the restaurante.
+     * @param janela the window the items are counted over: {@code 15m}, {@code 1h} (the default) or {@code 1d}.
+     * @param limite the maximum number of items, {@value #DEFAULT_LIMIT} by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the items in descending quantity order in body,
+     * or with status {@code 400 (Bad Request)} if the window or the limit is not valid.
+     */
+    @GetMapping("/restaurantes/{id}/itens/populares")
+    public ResponseEntity<List<ItemPopularDTO>> getItensPopulares(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "1h") String janela,
+        @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limite
+    ) {
+        log.debug("REST request to get the popular ItemCardapios of Restaurante : {} over {}", id, janela);
+        ItemPopularService.Janela window = ItemPopularService.Janela
+            .of(janela)
+            .orElseThrow(() -> new BadRequestAlertException("Unknown window " + janela, ENTITY_NAME, "invalidjanela"));
+        if (limite < 1 || limite > itemPopularService.getCapacity()) {
+            throw new BadRequestAlertException(
+                "The limit must be from 1 to " + itemPopularService.getCapacity(),
+                ENTITY_NAME,
+                "invalidlimite"
+            );
+        }
+        return ResponseEntity.ok(itemPopularService.findPopulares(id, window, limite));
+    }
+}
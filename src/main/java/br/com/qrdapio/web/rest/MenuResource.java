@@ -0,0 +1,45 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller serving the pre-built menu of a {@link br.com.qrdapio.domain.Restaurante}.
+ */
+@RestController
+@RequestMapping("/api")
+public class MenuResource {
+
+    private final Logger log = LoggerFactory.getLogger(MenuResource.class);
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    public MenuResource(MenuSnapshotService menuSnapshotService) {
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/menu} : get the menu of the "id" restaurante, with its cardapios and their items grouped by categoria.
+     *
+     * @param id the id of the restaurante.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the menu and its tag, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/restaurantes/{id}/menu", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getMenu(@PathVariable Long id) {
+        log.debug("REST request to get the menu of Restaurante : {}", id);
+        return menuSnapshotService
+            .getSnapshot(id)
+            .map(
+                snapshot ->
+                    ETagUtil.menuResponse(id, snapshot.getVersion()).contentType(MediaType.APPLICATION_JSON).body(snapshot.getBody())
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
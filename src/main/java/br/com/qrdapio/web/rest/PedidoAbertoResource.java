@@ -0,0 +1,51 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.service.PedidoAbertoService;
+import br.com.qrdapio.service.dto.PedidoAbertoDTO;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the open {@link br.com.qrdapio.domain.Pedido}s of the restaurantes.
+ */
+@RestController
+@RequestMapping("/api")
+public class PedidoAbertoResource {
+
+    private static final String ENTITY_NAME = "pedido";
+
+    private final Logger log = LoggerFactory.getLogger(PedidoAbertoResource.class);
+
+    private final PedidoAbertoService pedidoAbertoService;
+
+    public PedidoAbertoResource(PedidoAbertoService pedidoAbertoService) {
+        this.pedidoAbertoService = pedidoAbertoService;
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/pedidos/abertos} : get the pedidos of the "id" restaurante still to be delivered.
+     * <p>
+     * Kept in memory as the pedidos change, so the kitchen screens and the waiters can poll them.
+     *
+     * @param id the id of the restaurante.
+     * @param status the status of the pedidos, all the open ones by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the pedidos, the oldest first, in body,
+     * or with status {@code 400 (Bad Request)} if the status is not an open one.
+     */
+    @GetMapping("/restaurantes/{id}/pedidos/abertos")
+    public ResponseEntity<List<PedidoAbertoDTO>> getPedidosAbertos(
+        @PathVariable Long id,
+        @RequestParam(required = false) StatusPedido status
+    ) {
+        log.debug("REST request to get the open Pedidos of Restaurante : {} in status {}", id, status);
+        if (status != null && !status.isAberto()) {
+            throw new BadRequestAlertException("The status " + status + " is not an open one", ENTITY_NAME, "invalidstatus");
+        }
+        return ResponseEntity.ok(pedidoAbertoService.findAbertos(id, status));
+    }
+}
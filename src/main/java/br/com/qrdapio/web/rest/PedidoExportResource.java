@@ -0,0 +1,81 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.service.PedidoExportService;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller exporting the {@link br.com.qrdapio.domain.Pedido}s of a period.
+ */
+@RestController
+@RequestMapping("/api")
+public class PedidoExportResource {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private static final String ENTITY_NAME = "pedido";
+
+    private final Logger log = LoggerFactory.getLogger(PedidoExportResource.class);
+
+    private final PedidoExportService pedidoExportService;
+
+    public PedidoExportResource(PedidoExportService pedidoExportService) {
+        this.pedidoExportService = pedidoExportService;
+    }
+
+    /**
+     * {@code GET  /pedidos/export} : export the lines of the pedidos placed in a period, with their totals.
+     * <p>
+     * The lines are written while they are read from the database, so the export of a long period does not
+     * need more memory than the one of a day.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @param restaurante the id of the restaurante of the pedidos, omitted for all of them.
+     * @param format {@code ndjson} (the default) or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the lines in body,
+     * or with status {@code 400 (Bad Request)} if the period or the format is not valid.
+     */
+    @GetMapping("/pedidos/export")
+    public ResponseEntity<StreamingResponseBody> exportPedidos(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+        @RequestParam(required = false) Long restaurante,
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        log.debug("REST request to export Pedidos from {} to {} of Restaurante : {} as {}", from, to, restaurante, format);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The period must end after it starts", ENTITY_NAME, "invalidperiod");
+        }
+        PedidoExportService.Format exportFormat = parseFormat(format);
+        StreamingResponseBody body = out -> pedidoExportService.export(from, to, restaurante, exportFormat, out);
+        return ResponseEntity
+            .ok()
+            .contentType(exportFormat == PedidoExportService.Format.CSV ? TEXT_CSV : APPLICATION_NDJSON)
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("pedidos." + format.toLowerCase(Locale.ROOT)).build().toString()
+            )
+            .body(body);
+    }
+
+    private static PedidoExportService.Format parseFormat(String format) {
+        try {
+            return PedidoExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown export format " + format, ENTITY_NAME, "invalidformat");
+        }
+    }
+}
@@ -1,23 +1,48 @@
 package br.com.qrdapio.web.rest;
 
+import br.com.qrdapio.config.ShardMap;
 import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Pedido_;
+import br.com.qrdapio.domain.event.PedidoChangedEvent;
+import br.com.qrdapio.repository.PartialUpdateRepository;
 import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.service.IdempotencyException;
+import br.com.qrdapio.service.IdempotencyService;
+import br.com.qrdapio.service.InvalidPedidoException;
+import br.com.qrdapio.service.KeysetQueryService;
+import br.com.qrdapio.service.PedidoQueryService;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.criteria.PedidoCriteria;
+import br.com.qrdapio.service.dto.PedidoResumoDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.StatusPedidoTransicaoDTO;
+import br.com.qrdapio.web.filter.ShardFilter;
 import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import br.com.qrdapio.web.rest.errors.PreconditionFailedAlertException;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import br.com.qrdapio.web.rest.util.KeysetPaginationUtil;
+import br.com.qrdapio.web.rest.util.ShardUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link br.com.qrdapio.domain.Pedido}.
@@ -36,44 +61,139 @@ public class PedidoResource {
 
     private final PedidoRepository pedidoRepository;
 
-    public PedidoResource(PedidoRepository pedidoRepository) {
+    private final PedidoService pedidoService;
+
+    private final PedidoQueryService pedidoQueryService;
+
+    private final IdempotencyService idempotencyService;
+
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ShardMap shardMap;
+
+    public PedidoResource(
+        PedidoRepository pedidoRepository,
+        PedidoService pedidoService,
+        PedidoQueryService pedidoQueryService,
+        IdempotencyService idempotencyService,
+        PartialUpdateRepository partialUpdateRepository,
+        ApplicationEventPublisher eventPublisher,
+        ShardMap shardMap
+    ) {
         this.pedidoRepository = pedidoRepository;
+        this.pedidoService = pedidoService;
+        this.pedidoQueryService = pedidoQueryService;
+        this.idempotencyService = idempotencyService;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardMap = shardMap;
     }
 
     /**
      * {@code POST  /pedidos} : Create a new pedido.
+     * The senha is handed out by the server, whatever the client sent.
+     * The retries sent with the same {@code Idempotency-Key} header get the response of the first request.
      *
      * @param pedido the pedido to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new pedido, or with status {@code 400 (Bad Request)} if the pedido has already an ID.
+     * @param idempotencyKey the key of the request, if any.
+     * @param restauranteId the restaurante of the request, if any.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new pedido, or with status {@code 400 (Bad Request)} if the pedido has already an ID
+     * or is of another restaurante than the request,
+     * or with status {@code 409 (Conflict)} if a request with the same key is still in flight.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/pedidos")
-    public ResponseEntity<Pedido> createPedido(@Valid @RequestBody Pedido pedido) throws URISyntaxException {
+    public ResponseEntity<Pedido> createPedido(
+        @Valid @RequestBody Pedido pedido,
+        @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
+    ) throws URISyntaxException {
         log.debug("REST request to save Pedido : {}", pedido);
         if (pedido.getId() != null) {
             throw new BadRequestAlertException("A new pedido cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Pedido result = pedidoRepository.save(pedido);
-        return ResponseEntity
-            .created(new URI("/api/pedidos/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-            .body(result);
+        ShardUtil.checkRestaurante(restauranteId, restauranteIdOf(pedido), ENTITY_NAME);
+        try {
+            return idempotencyService.execute(
+                "POST /api/pedidos",
+                idempotencyKey,
+                pedido,
+                Pedido.class,
+                () -> {
+                    Pedido result = pedidoService.create(pedido);
+                    return ResponseEntity
+                        .created(new URI("/api/pedidos/" + result.getId()))
+                        .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result);
+                }
+            );
+        } catch (IdempotencyException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
+    }
+
+    /**
+     * {@code POST  /restaurantes/:id/pedidos:submit} : Create a new pedido with all its lines, in a single transaction.
+     * The retries sent with the same {@code Idempotency-Key} header get the response of the first request.
+     *
+     * @param id the id of the restaurante receiving the pedido.
+     * @param submission the pedido and its lines.
+     * @param idempotencyKey the key of the request, if any.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new pedido,
+     * or with status {@code 400 (Bad Request)} if the restaurante or one of the items does not exist,
+     * or with status {@code 409 (Conflict)} if a request with the same key is still in flight.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/restaurantes/{id}/pedidos:submit")
+    public ResponseEntity<Pedido> submitPedido(
+        @PathVariable Long id,
+        @Valid @RequestBody PedidoSubmissionDTO submission,
+        @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey
+    ) throws URISyntaxException {
+        log.debug("REST request to submit Pedido : {} for Restaurante : {}", submission, id);
+        try {
+            return idempotencyService.execute(
+                "POST /api/restaurantes/" + id + "/pedidos:submit",
+                idempotencyKey,
+                submission,
+                Pedido.class,
+                () -> {
+                    Pedido result = pedidoService.submit(id, submission);
+                    return ResponseEntity
+                        .created(new URI("/api/pedidos/" + result.getId()))
+                        .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result);
+                }
+            );
+        } catch (InvalidPedidoException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        } catch (IdempotencyException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
     }
 
     /**
      * {@code PUT  /pedidos/:id} : Updates an existing pedido.
+     * The update only applies to the version of the {@code If-Match} header, if any.
      *
      * @param id the id of the pedido to save.
      * @param pedido the pedido to update.
+     * @param ifMatch the entity tag of the version to update, if any.
+     * @param restauranteId the restaurante of the request, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pedido,
-     * or with status {@code 400 (Bad Request)} if the pedido is not valid,
+     * or with status {@code 400 (Bad Request)} if the pedido is not valid or is of another restaurante than the request,
+     * or with status {@code 412 (Precondition Failed)} if the pedido was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the pedido couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/pedidos/{id}")
     public ResponseEntity<Pedido> updatePedido(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Pedido pedido
+        @Valid @RequestBody Pedido pedido,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestAttribute(name = ShardFilter.RESTAURANTE_ATTRIBUTE, required = false) Long restauranteId
     ) throws URISyntaxException {
         log.debug("REST request to update Pedido : {}, {}", id, pedido);
         if (pedido.getId() == null) {
@@ -82,33 +202,56 @@ public class PedidoResource {
         if (!Objects.equals(id, pedido.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        ShardUtil.checkRestaurante(restauranteId, restauranteIdOf(pedido), ENTITY_NAME);
+        Integer version = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
 
-        if (!pedidoRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        // Loaded anyway by the merge, and checked again by its update
+        Pedido existingPedido = pedidoRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (version != null && version != existingPedido.getVersion()) {
+            throw versionMismatch();
         }
+        pedido.setVersion(existingPedido.getVersion());
+        // Follows the lines and the status changes, not the client
+        pedido.setTotal(existingPedido.getTotal());
+        pedido.setStatus(existingPedido.getStatus());
+        // Handed out by the server
+        pedido.setSenha(existingPedido.getSenha());
+        pedido.setDia(existingPedido.getDia());
 
-        Pedido result = pedidoRepository.save(pedido);
+        Pedido result;
+        try {
+            result = pedidoRepository.saveAndFlush(pedido);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionMismatch();
+        }
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, pedido.getId().toString()))
+            .eTag(ETagUtil.toETag(result.getVersion()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /pedidos/:id} : Partial updates given fields of an existing pedido, field will ignore if it is null
+     * {@code PATCH  /pedidos/:id} : Partial updates given fields of an existing pedido, field will ignore if it is null.
+     * The update is a single statement, which only applies to the version of the {@code If-Match} header, if any.
      *
      * @param id the id of the pedido to save.
      * @param pedido the pedido to update.
+     * @param ifMatch the entity tag of the version to update, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pedido,
      * or with status {@code 400 (Bad Request)} if the pedido is not valid,
      * or with status {@code 404 (Not Found)} if the pedido is not found,
+     * or with status {@code 412 (Precondition Failed)} if the pedido was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the pedido couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/pedidos/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<Pedido> partialUpdatePedido(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Pedido pedido
+        @NotNull @RequestBody Pedido pedido,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Pedido partially : {}, {}", id, pedido);
         if (pedido.getId() == null) {
@@ -117,58 +260,120 @@ public class PedidoResource {
         if (!Objects.equals(id, pedido.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        Integer version = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
 
-        if (!pedidoRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Pedido result = partialUpdateRepository
+            .update(Pedido.class, id, version)
+            .set(Pedido_.formaPagamento, pedido.getFormaPagamento())
+            .set(Pedido_.dataHora, pedido.getDataHora())
+            .execute()
+            .orElseThrow(() -> notUpdated(id));
+        eventPublisher.publishEvent(new PedidoChangedEvent(id));
 
-        Optional<Pedido> result = pedidoRepository
-            .findById(pedido.getId())
-            .map(
-                existingPedido -> {
-                    if (pedido.getFormaPagamento() != null) {
-                        existingPedido.setFormaPagamento(pedido.getFormaPagamento());
-                    }
-                    if (pedido.getDataHora() != null) {
-                        existingPedido.setDataHora(pedido.getDataHora());
-                    }
-                    if (pedido.getSenha() != null) {
-                        existingPedido.setSenha(pedido.getSenha());
-                    }
-
-                    return existingPedido;
-                }
-            )
-            .map(pedidoRepository::save);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, pedido.getId().toString()))
+            .eTag(ETagUtil.toETag(result.getVersion()))
+            .body(result);
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, pedido.getId().toString())
-        );
+    /**
+     * {@code POST  /pedidos/:id/status} : move the "id" pedido to another status, if it is still in the one the client saw.
+     * Of concurrent changes from the same status, a single one succeeds.
+     *
+     * @param id the id of the pedido.
+     * @param transicao the status the client saw, and the new one.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pedido,
+     * or with status {@code 400 (Bad Request)} if the pedido does not exist or may not go to the new status,
+     * or with status {@code 412 (Precondition Failed)} if the pedido is no longer in the status the client saw.
+     */
+    @PostMapping("/pedidos/{id}/status")
+    public ResponseEntity<Pedido> changeStatus(@PathVariable Long id, @Valid @RequestBody StatusPedidoTransicaoDTO transicao) {
+        log.debug("REST request to change the status of Pedido : {}, {}", id, transicao);
+        try {
+            Pedido result = pedidoService
+                .changeStatus(id, transicao.getDe(), transicao.getPara())
+                .orElseThrow(() -> statusMismatch(transicao));
+            return ResponseEntity
+                .ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+                .eTag(ETagUtil.toETag(result.getVersion()))
+                .body(result);
+        } catch (InvalidPedidoException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
     }
 
     /**
-     * {@code GET  /pedidos} : get all the pedidos.
+     * {@code GET  /pedidos} : get the pedidos, in id order, from all the shards.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pedidos in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the id of the last pedido of the previous slice, omitted for the first slice.
+     * @param size the maximum number of pedidos to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pedidos in body,
+     * with a {@code Link} header pointing to the next slice when there is one.
      */
     @GetMapping("/pedidos")
-    public List<Pedido> getAllPedidos() {
-        log.debug("REST request to get all Pedidos");
-        return pedidoRepository.findAll();
+    // Each shard is read in a transaction of its own
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ResponseEntity<List<Pedido>> getAllPedidos(
+        PedidoCriteria criteria,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get Pedidos by criteria: {}", criteria);
+        Slice<Pedido> slice = KeysetQueryService.merge(
+            shardMap.callInEachShard(() -> pedidoQueryService.findByCriteria(criteria, after, size)),
+            Pedido::getId
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Pedido::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/pedidos} : get the pedidos of the "id" restaurante, summarized for list views.
+     *
+     * @param id the id of the restaurante.
+     * @param after the id of the last pedido of the previous slice, omitted for the first slice.
+     * @param size the maximum number of pedidos to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pedidos in body,
+     * with a {@code Link} header pointing to the next slice when there is one.
+     */
+    @GetMapping("/restaurantes/{id}/pedidos")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<PedidoResumoDTO>> getPedidoResumos(
+        @PathVariable Long id,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get Pedido resumos of Restaurante : {}", id);
+        Slice<PedidoResumoDTO> slice = pedidoQueryService.findResumosByRestaurante(id, after, size);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            PedidoResumoDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /pedidos/:id} : get the "id" pedido.
      *
      * @param id the id of the pedido to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pedido, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pedido and its entity tag, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/pedidos/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Pedido> getPedido(@PathVariable Long id) {
         log.debug("REST request to get Pedido : {}", id);
-        Optional<Pedido> pedido = pedidoRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(pedido);
+        return pedidoRepository
+            .findOneWithItemPedidosById(id)
+            .map(pedido -> ResponseEntity.ok().eTag(ETagUtil.toETag(pedido.getVersion())).body(pedido))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -186,4 +391,23 @@ public class PedidoResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Long restauranteIdOf(Pedido pedido) {
+        return pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null;
+    }
+
+    private RuntimeException notUpdated(Long id) {
+        if (!pedidoRepository.existsById(id)) {
+            return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        return versionMismatch();
+    }
+
+    private PreconditionFailedAlertException statusMismatch(StatusPedidoTransicaoDTO transicao) {
+        return new PreconditionFailedAlertException("The pedido is no longer " + transicao.getDe(), ENTITY_NAME, "statusmismatch");
+    }
+
+    private PreconditionFailedAlertException versionMismatch() {
+        return new PreconditionFailedAlertException("The pedido was updated since that version", ENTITY_NAME, "versionmismatch");
+    }
 }
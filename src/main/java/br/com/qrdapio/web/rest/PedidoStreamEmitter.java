@@ -0,0 +1,96 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.service.PedidoStreamService;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Writes the events of a {@link PedidoStreamService} subscription to an {@link SseEmitter}.
+ * <p>
+ * Events are queued and written by a single drain task at a time, so that the publisher never waits on the
+ * network. When the queue is full the client is too slow: the stream is closed, and the client reconnects
+ * with its {@code Last-Event-ID} to catch up from the replay buffer.
+ */
+class PedidoStreamEmitter implements PedidoStreamService.Subscriber {
+
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<PedidoStreamService.Event> queue;
+
+    private final Executor executor;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    PedidoStreamEmitter(SseEmitter emitter, int queueCapacity, Executor executor) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean offer(PedidoStreamService.Event event) {
+        if (closed) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            closed = true;
+            queue.clear();
+            emitter.complete();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Stop sending events, once the emitter is completed or timed out.
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    private void drain() {
+        try {
+            PedidoStreamService.Event event;
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(toSse(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, or the emitter was completed meanwhile
+            closed = true;
+            queue.clear();
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(PedidoStreamService.Event event) {
+        switch (event.getType()) {
+            case PEDIDO:
+                return SseEmitter.event().id(event.getId().toString()).name("pedido").data(event.getPedido(), MediaType.APPLICATION_JSON);
+            case REMOVED:
+                return SseEmitter
+                    .event()
+                    .id(event.getId().toString())
+                    .name("pedido-removed")
+                    .data(event.getPedido(), MediaType.APPLICATION_JSON);
+            case RESET:
+                return SseEmitter.event().name("reset").data("reset");
+            default:
+                return SseEmitter.event().comment("heartbeat");
+        }
+    }
+}
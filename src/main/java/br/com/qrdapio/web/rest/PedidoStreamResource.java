@@ -0,0 +1,88 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.PedidoStreamService;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming the {@link br.com.qrdapio.domain.Pedido}s of a {@link br.com.qrdapio.domain.Restaurante}
+ * as Server-Sent Events.
+ */
+@RestController
+@RequestMapping("/api")
+public class PedidoStreamResource {
+
+    private final Logger log = LoggerFactory.getLogger(PedidoStreamResource.class);
+
+    private final PedidoStreamService pedidoStreamService;
+
+    private final RestauranteRepository restauranteRepository;
+
+    private final ApplicationProperties.PedidoStream properties;
+
+    private final Executor executor;
+
+    public PedidoStreamResource(
+        PedidoStreamService pedidoStreamService,
+        RestauranteRepository restauranteRepository,
+        ApplicationProperties applicationProperties,
+        @Qualifier("taskExecutor") Executor executor
+    ) {
+        this.pedidoStreamService = pedidoStreamService;
+        this.restauranteRepository = restauranteRepository;
+        this.properties = applicationProperties.getPedidoStream();
+        this.executor = executor;
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/pedidos/stream} : stream the pedidos of the "id" restaurante as they are committed.
+     * <p>
+     * Each pedido is sent as a {@code pedido} event with its lines, and each deleted one as a {@code pedido-removed}
+     * event with its id. A client reconnecting with a {@code Last-Event-ID} first receives the events it missed, or a
+     * {@code reset} event if they are no longer available.
+     *
+     * @param id the id of the restaurante.
+     * @param lastEventId the id of the last event received, if reconnecting.
+     * @return the event stream, or status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/restaurantes/{id}/pedidos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPedidos(@PathVariable Long id, @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("REST request to stream the Pedidos of Restaurante : {} after : {}", id, lastEventId);
+        if (!restauranteRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        PedidoStreamEmitter subscriber = new PedidoStreamEmitter(emitter, properties.getQueueCapacity(), executor);
+        Runnable unsubscribe = pedidoStreamService.subscribe(id, parseEventId(lastEventId), subscriber);
+        emitter.onCompletion(
+            () -> {
+                subscriber.close();
+                unsubscribe.run();
+            }
+        );
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+        return emitter;
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // An unknown id is answered with a reset, like an expired one
+            return 0L;
+        }
+    }
+}
@@ -2,7 +2,13 @@ package br.com.qrdapio.web.rest;
 
 import br.com.qrdapio.domain.Restaurante;
 import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.KeysetQueryService;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.service.RestauranteQueryService;
+import br.com.qrdapio.service.criteria.RestauranteCriteria;
 import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import br.com.qrdapio.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -13,9 +19,14 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -36,8 +47,18 @@ public class RestauranteResource {
 
     private final RestauranteRepository restauranteRepository;
 
-    public RestauranteResource(RestauranteRepository restauranteRepository) {
+    private final RestauranteQueryService restauranteQueryService;
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    public RestauranteResource(
+        RestauranteRepository restauranteRepository,
+        RestauranteQueryService restauranteQueryService,
+        MenuSnapshotService menuSnapshotService
+    ) {
         this.restauranteRepository = restauranteRepository;
+        this.restauranteQueryService = restauranteQueryService;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     /**
@@ -142,27 +163,49 @@ public class RestauranteResource {
     }
 
     /**
-     * {@code GET  /restaurantes} : get all the restaurantes.
+     * {@code GET  /restaurantes} : get the restaurantes, in id order.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of restaurantes in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the id of the last restaurante of the previous slice, omitted for the first slice.
+     * @param size the maximum number of restaurantes to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of restaurantes in body,
+     * with a {@code Link} header pointing to the next slice when there is one.
      */
     @GetMapping("/restaurantes")
-    public List<Restaurante> getAllRestaurantes() {
-        log.debug("REST request to get all Restaurantes");
-        return restauranteRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Restaurante>> getAllRestaurantes(
+        RestauranteCriteria criteria,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + KeysetQueryService.DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get Restaurantes by criteria: {}", criteria);
+        Slice<Restaurante> slice = restauranteQueryService.findByCriteria(criteria, after, size);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Restaurante::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /restaurantes/:id} : get the "id" restaurante.
      *
      * @param id the id of the restaurante to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the restaurante, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the restaurante and the tag of its menu, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/restaurantes/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Restaurante> getRestaurante(@PathVariable Long id) {
         log.debug("REST request to get Restaurante : {}", id);
-        Optional<Restaurante> restaurante = restauranteRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(restaurante);
+        long generation = menuSnapshotService.getGeneration();
+        return restauranteRepository
+            .findOneWithCardapiosById(id)
+            .map(
+                restaurante ->
+                    ETagUtil.menuResponse(id, menuSnapshotService.getVersion(id, generation).orElse(null)).body(restaurante)
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -0,0 +1,73 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.security.AuthoritiesConstants;
+import br.com.qrdapio.service.ShardRebalancingService;
+import br.com.qrdapio.service.dto.ShardDTO;
+import br.com.qrdapio.service.dto.ShardMoveDTO;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the database shards the {@link br.com.qrdapio.domain.Restaurante}s are spread over.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ShardResource {
+
+    private static final String ENTITY_NAME = "shard";
+
+    private final Logger log = LoggerFactory.getLogger(ShardResource.class);
+
+    private final ShardRebalancingService shardRebalancingService;
+
+    private final ShardMap shardMap;
+
+    public ShardResource(ShardRebalancingService shardRebalancingService, ShardMap shardMap) {
+        this.shardRebalancingService = shardRebalancingService;
+        this.shardMap = shardMap;
+    }
+
+    /**
+     * {@code GET  /admin/shards} : get the shards with their number of restaurantes.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the shards in body, the default one first.
+     */
+    @GetMapping("/shards")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<ShardDTO> getAllShards() {
+        log.debug("REST request to get all Shards");
+        return shardRebalancingService.findAll();
+    }
+
+    /**
+     * {@code POST  /admin/shards/:shard/restaurantes/:id} : move the "id" restaurante and its data to the "shard" shard.
+     * <p>
+     * The requests of the restaurante are refused with a {@code 503 (Service Unavailable)} during the move, which
+     * waits for all the servers to know about it first.
+     *
+     * @param shard the name of the shard to move the restaurante to.
+     * @param id the id of the restaurante.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the move in body,
+     * or with status {@code 400 (Bad Request)} if the shard is unknown or already holds the restaurante,
+     * or with status {@code 404 (Not Found)} if there is no such restaurante.
+     */
+    @PostMapping("/shards/{shard}/restaurantes/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ShardMoveDTO> moveRestaurante(@PathVariable String shard, @PathVariable Long id) {
+        log.debug("REST request to move Restaurante : {} to Shard : {}", id, shard);
+        if (shardMap.getDataSource(shard) == null) {
+            throw new BadRequestAlertException("Unknown shard " + shard, ENTITY_NAME, "notfound");
+        }
+        if (shard.equals(shardMap.shardOf(id))) {
+            throw new BadRequestAlertException("The restaurante is already on shard " + shard, ENTITY_NAME, "sameshard");
+        }
+        return ResponseUtil.wrapOrNotFound(shardRebalancingService.move(id, shard));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.qrdapio.web.rest;
+
+import br.com.qrdapio.security.AuthoritiesConstants;
+import br.com.qrdapio.service.VendaDiariaService;
+import br.com.qrdapio.service.dto.VendaDiariaDTO;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the daily sales of the {@link br.com.qrdapio.domain.Restaurante}s.
+ */
+@RestController
+@RequestMapping("/api")
+public class VendaDiariaResource {
+
+    /**
+     * Number of days returned when no period is given.
+     */
+    public static final int DEFAULT_DAYS = 30;
+
+    /**
+     * Maximum number of days of a request.
+     */
+    public static final int MAX_DAYS = 366;
+
+    private static final String ENTITY_NAME = "vendaDiaria";
+
+    private final Logger log = LoggerFactory.getLogger(VendaDiariaResource.class);
+
+    private final VendaDiariaService vendaDiariaService;
+
+    public VendaDiariaResource(VendaDiariaService vendaDiariaService) {
+        this.vendaDiariaService = vendaDiariaService;
+    }
+
+    /**
+     * {@code GET  /restaurantes/:id/vendas} : get the sales of the "id" restaurante per day, forma de pagamento and categoria.
+     * <p>
+     * Read from the rollups only, which lag the pedidos by a few seconds.
+     *
+     * @param id the id of the restaurante.
+     * @param from the first day, defaults to {@value #DEFAULT_DAYS} days before {@code to}.
+     * @param to the last day, defaults to today.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the sales in body,
+     * or with status {@code 400 (Bad Request)} if the period is not valid.
+     */
+    @GetMapping("/restaurantes/{id}/vendas")
+    public ResponseEntity<List<VendaDiariaDTO>> getVendas(
+        @PathVariable Long id,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get the Vendas of Restaurante : {} from {} to {}", id, from, to);
+        LocalDate last = to != null ? to : vendaDiariaService.today();
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_DAYS - 1L);
+        if (first.isAfter(last) || ChronoUnit.DAYS.between(first, last) >= MAX_DAYS) {
+            throw new BadRequestAlertException("The period must be from 1 to " + MAX_DAYS + " days", ENTITY_NAME, "invalidperiod");
+        }
+        return ResponseEntity.ok(vendaDiariaService.findByRestaurante(id, first, last));
+    }
+
+    /**
+     * {@code POST  /admin/vendas/backfill} : rebuild the sales of past days from the pedidos.
+     *
+     * @param from the first day.
+     * @param to the last day, before today.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the period is not valid.
+     */
+    @PostMapping("/admin/vendas/backfill")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> backfillVendas(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to rebuild the Vendas from {} to {}", from, to);
+        if (from.isAfter(to)) {
+            throw new BadRequestAlertException("The period must end after it starts", ENTITY_NAME, "invalidperiod");
+        }
+        // The accumulators of today are still being written, rebuilding it would count them twice
+        if (!to.isBefore(vendaDiariaService.today())) {
+            throw new BadRequestAlertException("Only past days can be rebuilt", ENTITY_NAME, "invalidperiod");
+        }
+        vendaDiariaService.backfill(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.qrdapio.web.rest.util;
+
+import br.com.qrdapio.web.rest.errors.PreconditionFailedAlertException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utility class for the entity tags of the versioned entities and of the menu resources.
+ * <p>
+ * The tag of an entity is its optimistic locking version, as a strong tag: {@code "3"}. Updates may send it back
+ * in an {@code If-Match} header to only apply to that version.
+ * <p>
+ * The tag of a menu resource is the version of the menu of its restaurante, after the id of the restaurante:
+ * {@code "12.2pzkbj0cmwgy8"}. Reads may send it back in an {@code If-None-Match} header to get a
+ * {@code 304 (Not Modified)} while the menu is unchanged.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final char MENU_SEPARATOR = '.';
+
+    private ETagUtil() {}
+
+    /**
+     * Build the entity tag of a version.
+     *
+     * @param version the version of the entity.
+     * @return the quoted entity tag.
+     */
+    public static String toETag(int version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Resolve the version an update applies to.
+     *
+     * @param ifMatch the {@code If-Match} header of the update, {@code null} if none.
+     * @param entityName the name of the updated entity, for the error.
+     * @return the version of the {@code If-Match} header, {@code null} for any version.
+     * @throws PreconditionFailedAlertException if the header is not a single strong tag of ours: it cannot match.
+     */
+    public static Integer expectedVersion(String ifMatch, String entityName) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (ANY.equals(tag)) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Integer.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+        throw new PreconditionFailedAlertException("If-Match does not match the current version", entityName, "versionmismatch");
+    }
+
+    /**
+     * Build the entity tag of a menu resource.
+     *
+     * @param restauranteId the id of the restaurante of the resource.
+     * @param menuVersion the version of the menu of the restaurante.
+     * @return the quoted entity tag.
+     */
+    public static String toMenuETag(Long restauranteId, String menuVersion) {
+        return "\"" + restauranteId + MENU_SEPARATOR + menuVersion + "\"";
+    }
+
+    /**
+     * Read the restaurante of the entity tag of a menu resource.
+     *
+     * @param eTag a quoted entity tag.
+     * @return the id of the restaurante, or {@code null} if the tag is not the one of a menu resource.
+     */
+    public static Long menuRestauranteId(String eTag) {
+        int separator = eTag.indexOf(MENU_SEPARATOR);
+        if (separator < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eTag.substring(1, separator));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Caching of the menu resources: shared caches may keep them, as they are the same for every user, but must
+     * check with the server that they are current before each use.
+     *
+     * @return the cache control of the menu resources.
+     */
+    public static CacheControl menuCacheControl() {
+        return CacheControl.noCache().cachePublic();
+    }
+
+    /**
+     * Start the {@code 200 (OK)} response of a menu resource.
+     *
+     * @param restauranteId the id of the restaurante of the resource.
+     * @param menuVersion the version of the menu of the restaurante, {@code null} to send no entity tag.
+     * @return the response builder.
+     */
+    public static ResponseEntity.BodyBuilder menuResponse(Long restauranteId, String menuVersion) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(menuCacheControl());
+        return menuVersion != null ? response.eTag(toMenuETag(restauranteId, menuVersion)) : response;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.qrdapio.web.rest.util;
+
+import java.text.MessageFormat;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.PaginationUtil}, there is no total count nor last page: the {@code Link}
+ * header only points to the next slice, which starts after the cursor of the last element of the current one.
+ */
+public final class KeysetPaginationUtil {
+
+    /**
+     * Name of the request parameter carrying the cursor.
+     */
+    public static final String CURSOR_PARAMETER = "after";
+
+    /**
+     * Name of the request parameter carrying the slice size.
+     */
+    public static final String SIZE_PARAMETER = "size";
+
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate keyset pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder The URI builder of the current request.
+     * @param slice The slice.
+     * @param cursor Function extracting the cursor from an element, usually its id.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, Long> cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            String next = String.valueOf(cursor.apply(slice.getContent().get(slice.getNumberOfElements() - 1)));
+            String link = uriBuilder
+                .replaceQueryParam(CURSOR_PARAMETER, next)
+                .replaceQueryParam(SIZE_PARAMETER, slice.getSize())
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HEADER_NEXT_CURSOR, next);
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, link, "next"));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.qrdapio.web.rest.util;
+
+import br.com.qrdapio.web.filter.ShardFilter;
+import br.com.qrdapio.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Utility class for the entities sent to the resources of a restaurante's shard.
+ * <p>
+ * The {@link ShardFilter} sends a request to the shard of the restaurante of its path or of its
+ * {@value ShardFilter#RESTAURANTE_HEADER} header. The entities of the request must belong to that restaurante: an
+ * entity of another one would be written to a shard that does not hold its restaurante.
+ */
+public final class ShardUtil {
+
+    private ShardUtil() {}
+
+    /**
+     * Check that an entity belongs to the restaurante of the request.
+     *
+     * @param requestRestauranteId the restaurante of the request, from the {@value ShardFilter#RESTAURANTE_ATTRIBUTE}
+     * attribute; {@code null} if the request has none, and may write any restaurante.
+     * @param restauranteId the restaurante of the entity, {@code null} if it has none or could not be found.
+     * @param entityName the name of the entity, for the error.
+     * @throws BadRequestAlertException if the entity belongs to another restaurante.
+     */
+    public static void checkRestaurante(Long requestRestauranteId, Long restauranteId, String entityName) {
+        if (requestRestauranteId != null && !requestRestauranteId.equals(restauranteId)) {
+            throw new BadRequestAlertException(
+                "The " + entityName + " does not belong to restaurante " + requestRestauranteId + " of the request",
+                entityName,
+                "restaurantemismatch"
+            );
+        }
+    }
+}
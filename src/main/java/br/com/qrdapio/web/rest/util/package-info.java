@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the REST controllers.
+ */
+package br.com.qrdapio.web.rest.util;
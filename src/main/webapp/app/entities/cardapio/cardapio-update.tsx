@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { IRestaurante } from 'app/shared/model/restaurante.model';
-import { getEntities as getRestaurantes } from 'app/entities/restaurante/restaurante.reducer';
+import { getAllEntities as getRestaurantes } from 'app/entities/restaurante/restaurante.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './cardapio.reducer';
 import { ICardapio } from 'app/shared/model/cardapio.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
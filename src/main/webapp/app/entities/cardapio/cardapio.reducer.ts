@@ -1,13 +1,15 @@
 import axios from 'axios';
 import { ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
-import { cleanEntity } from 'app/shared/util/entity-utils';
+import { cleanEntity, restauranteHeader } from 'app/shared/util/entity-utils';
+import { getAllSlices, nextCursor } from 'app/shared/util/keyset-pagination-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { ICardapio, defaultValue } from 'app/shared/model/cardapio.model';
 
 export const ACTION_TYPES = {
   FETCH_CARDAPIO_LIST: 'cardapio/FETCH_CARDAPIO_LIST',
+  FETCH_CARDAPIO_NEXT_SLICE: 'cardapio/FETCH_CARDAPIO_NEXT_SLICE',
   FETCH_CARDAPIO: 'cardapio/FETCH_CARDAPIO',
   CREATE_CARDAPIO: 'cardapio/CREATE_CARDAPIO',
   UPDATE_CARDAPIO: 'cardapio/UPDATE_CARDAPIO',
@@ -20,6 +22,7 @@ const initialState = {
   loading: false,
   errorMessage: null,
   entities: [] as ReadonlyArray<ICardapio>,
+  nextCursor: null as string,
   entity: defaultValue,
   updating: false,
   updateSuccess: false,
@@ -32,6 +35,7 @@ export type CardapioState = Readonly<typeof initialState>;
 export default (state: CardapioState = initialState, action): CardapioState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.FETCH_CARDAPIO_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_CARDAPIO_NEXT_SLICE):
     case REQUEST(ACTION_TYPES.FETCH_CARDAPIO):
       return {
         ...state,
@@ -50,6 +54,7 @@ export default (state: CardapioState = initialState, action): CardapioState => {
         updating: true,
       };
     case FAILURE(ACTION_TYPES.FETCH_CARDAPIO_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_CARDAPIO_NEXT_SLICE):
     case FAILURE(ACTION_TYPES.FETCH_CARDAPIO):
     case FAILURE(ACTION_TYPES.CREATE_CARDAPIO):
     case FAILURE(ACTION_TYPES.UPDATE_CARDAPIO):
@@ -67,6 +72,14 @@ export default (state: CardapioState = initialState, action): CardapioState => {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: nextCursor(action.payload),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_CARDAPIO_NEXT_SLICE):
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: nextCursor(action.payload),
       };
     case SUCCESS(ACTION_TYPES.FETCH_CARDAPIO):
       return {
@@ -108,6 +121,19 @@ export const getEntities: ICrudGetAllAction<ICardapio> = (page, size, sort) => (
   payload: axios.get<ICardapio>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextSlice = (after: string) => ({
+  type: ACTION_TYPES.FETCH_CARDAPIO_NEXT_SLICE,
+  payload: axios.get<ICardapio>(`${apiUrl}?after=${after}&cacheBuster=${new Date().getTime()}`),
+});
+
+/**
+ * Fetch every slice of the list, for the dropdowns of the forms: they must offer all the entities.
+ */
+export const getAllEntities = () => ({
+  type: ACTION_TYPES.FETCH_CARDAPIO_LIST,
+  payload: getAllSlices<ICardapio>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
+});
+
 export const getEntity: ICrudGetAction<ICardapio> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -119,7 +145,7 @@ export const getEntity: ICrudGetAction<ICardapio> = id => {
 export const createEntity: ICrudPutAction<ICardapio> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.CREATE_CARDAPIO,
-    payload: axios.post(apiUrl, cleanEntity(entity)),
+    payload: axios.post(apiUrl, cleanEntity(entity), restauranteHeader(entity.restaurante)),
   });
   dispatch(getEntities());
   return result;
@@ -128,7 +154,7 @@ export const createEntity: ICrudPutAction<ICardapio> = entity => async dispatch
 export const updateEntity: ICrudPutAction<ICardapio> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.UPDATE_CARDAPIO,
-    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity)),
+    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity), restauranteHeader(entity.restaurante)),
   });
   return result;
 };
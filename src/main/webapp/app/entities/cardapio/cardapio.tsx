@@ -2,11 +2,12 @@ import React, { useState, useEffect } from 'react';
 import { connect } from 'react-redux';
 import { Link, RouteComponentProps } from 'react-router-dom';
 import { Button, Col, Row, Table } from 'reactstrap';
+import InfiniteScroll from 'react-infinite-scroller';
 import { Translate } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 
 import { IRootState } from 'app/shared/reducers';
-import { getEntities } from './cardapio.reducer';
+import { getEntities, getNextSlice } from './cardapio.reducer';
 import { ICardapio } from 'app/shared/model/cardapio.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -21,6 +22,12 @@ export const Cardapio = (props: ICardapioProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextSlice(props.nextCursor);
+    }
+  };
+
   const { cardapioList, match, loading } = props;
   return (
     <div>
@@ -40,59 +47,68 @@ export const Cardapio = (props: ICardapioProps) => {
       </h2>
       <div className="table-responsive">
         {cardapioList && cardapioList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="qrDapioApp.cardapio.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.cardapio.nome">Nome</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.cardapio.restaurante">Restaurante</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {cardapioList.map((cardapio, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${cardapio.id}`} color="link" size="sm">
-                      {cardapio.id}
-                    </Button>
-                  </td>
-                  <td>{cardapio.nome}</td>
-                  <td>
-                    {cardapio.restaurante ? <Link to={`restaurante/${cardapio.restaurante.id}`}>{cardapio.restaurante.id}</Link> : ''}
-                  </td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${cardapio.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${cardapio.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${cardapio.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="qrDapioApp.cardapio.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.cardapio.nome">Nome</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.cardapio.restaurante">Restaurante</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {cardapioList.map((cardapio, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${cardapio.id}`} color="link" size="sm">
+                        {cardapio.id}
+                      </Button>
+                    </td>
+                    <td>{cardapio.nome}</td>
+                    <td>
+                      {cardapio.restaurante ? <Link to={`restaurante/${cardapio.restaurante.id}`}>{cardapio.restaurante.id}</Link> : ''}
+                    </td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${cardapio.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${cardapio.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${cardapio.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -108,10 +124,12 @@ export const Cardapio = (props: ICardapioProps) => {
 const mapStateToProps = ({ cardapio }: IRootState) => ({
   cardapioList: cardapio.entities,
   loading: cardapio.loading,
+  nextCursor: cardapio.nextCursor,
 });
 
 const mapDispatchToProps = {
   getEntities,
+  getNextSlice,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { ICardapio } from 'app/shared/model/cardapio.model';
-import { getEntities as getCardapios } from 'app/entities/cardapio/cardapio.reducer';
+import { getAllEntities as getCardapios } from 'app/entities/cardapio/cardapio.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './item-cardapio.reducer';
 import { IItemCardapio } from 'app/shared/model/item-cardapio.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
@@ -1,13 +1,15 @@
 import axios from 'axios';
 import { ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
-import { cleanEntity } from 'app/shared/util/entity-utils';
+import { cleanEntity, restauranteHeader } from 'app/shared/util/entity-utils';
+import { getAllSlices, nextCursor } from 'app/shared/util/keyset-pagination-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IItemCardapio, defaultValue } from 'app/shared/model/item-cardapio.model';
 
 export const ACTION_TYPES = {
   FETCH_ITEMCARDAPIO_LIST: 'itemCardapio/FETCH_ITEMCARDAPIO_LIST',
+  FETCH_ITEMCARDAPIO_NEXT_SLICE: 'itemCardapio/FETCH_ITEMCARDAPIO_NEXT_SLICE',
   FETCH_ITEMCARDAPIO: 'itemCardapio/FETCH_ITEMCARDAPIO',
   CREATE_ITEMCARDAPIO: 'itemCardapio/CREATE_ITEMCARDAPIO',
   UPDATE_ITEMCARDAPIO: 'itemCardapio/UPDATE_ITEMCARDAPIO',
@@ -20,6 +22,7 @@ const initialState = {
   loading: false,
   errorMessage: null,
   entities: [] as ReadonlyArray<IItemCardapio>,
+  nextCursor: null as string,
   entity: defaultValue,
   updating: false,
   updateSuccess: false,
@@ -32,6 +35,7 @@ export type ItemCardapioState = Readonly<typeof initialState>;
 export default (state: ItemCardapioState = initialState, action): ItemCardapioState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.FETCH_ITEMCARDAPIO_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_ITEMCARDAPIO_NEXT_SLICE):
     case REQUEST(ACTION_TYPES.FETCH_ITEMCARDAPIO):
       return {
         ...state,
@@ -50,6 +54,7 @@ export default (state: ItemCardapioState = initialState, action): ItemCardapioSt
         updating: true,
       };
     case FAILURE(ACTION_TYPES.FETCH_ITEMCARDAPIO_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_ITEMCARDAPIO_NEXT_SLICE):
     case FAILURE(ACTION_TYPES.FETCH_ITEMCARDAPIO):
     case FAILURE(ACTION_TYPES.CREATE_ITEMCARDAPIO):
     case FAILURE(ACTION_TYPES.UPDATE_ITEMCARDAPIO):
@@ -67,6 +72,14 @@ export default (state: ItemCardapioState = initialState, action): ItemCardapioSt
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: nextCursor(action.payload),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_ITEMCARDAPIO_NEXT_SLICE):
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: nextCursor(action.payload),
       };
     case SUCCESS(ACTION_TYPES.FETCH_ITEMCARDAPIO):
       return {
@@ -108,6 +121,19 @@ export const getEntities: ICrudGetAllAction<IItemCardapio> = (page, size, sort)
   payload: axios.get<IItemCardapio>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextSlice = (after: string) => ({
+  type: ACTION_TYPES.FETCH_ITEMCARDAPIO_NEXT_SLICE,
+  payload: axios.get<IItemCardapio>(`${apiUrl}?after=${after}&cacheBuster=${new Date().getTime()}`),
+});
+
+/**
+ * Fetch every slice of the list, for the dropdowns of the forms: they must offer all the entities.
+ */
+export const getAllEntities = () => ({
+  type: ACTION_TYPES.FETCH_ITEMCARDAPIO_LIST,
+  payload: getAllSlices<IItemCardapio>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
+});
+
 export const getEntity: ICrudGetAction<IItemCardapio> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -119,7 +145,7 @@ export const getEntity: ICrudGetAction<IItemCardapio> = id => {
 export const createEntity: ICrudPutAction<IItemCardapio> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.CREATE_ITEMCARDAPIO,
-    payload: axios.post(apiUrl, cleanEntity(entity)),
+    payload: axios.post(apiUrl, cleanEntity(entity), restauranteHeader(entity.cardapio && entity.cardapio.restaurante)),
   });
   dispatch(getEntities());
   return result;
@@ -128,7 +154,7 @@ export const createEntity: ICrudPutAction<IItemCardapio> = entity => async dispa
 export const updateEntity: ICrudPutAction<IItemCardapio> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.UPDATE_ITEMCARDAPIO,
-    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity)),
+    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity), restauranteHeader(entity.cardapio && entity.cardapio.restaurante)),
   });
   return result;
 };
@@ -2,11 +2,12 @@ import React, { useState, useEffect } from 'react';
 import { connect } from 'react-redux';
 import { Link, RouteComponentProps } from 'react-router-dom';
 import { Button, Col, Row, Table } from 'reactstrap';
+import InfiniteScroll from 'react-infinite-scroller';
 import { Translate } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 
 import { IRootState } from 'app/shared/reducers';
-import { getEntities } from './item-cardapio.reducer';
+import { getEntities, getNextSlice } from './item-cardapio.reducer';
 import { IItemCardapio } from 'app/shared/model/item-cardapio.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -21,6 +22,12 @@ export const ItemCardapio = (props: IItemCardapioProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextSlice(props.nextCursor);
+    }
+  };
+
   const { itemCardapioList, match, loading } = props;
   return (
     <div>
@@ -40,79 +47,88 @@ export const ItemCardapio = (props: IItemCardapioProps) => {
       </h2>
       <div className="table-responsive">
         {itemCardapioList && itemCardapioList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemCardapio.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemCardapio.categoria">Categoria</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemCardapio.nome">Nome</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemCardapio.descricao">Descricao</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemCardapio.valor">Valor</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemCardapio.cardapio">Cardapio</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {itemCardapioList.map((itemCardapio, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${itemCardapio.id}`} color="link" size="sm">
-                      {itemCardapio.id}
-                    </Button>
-                  </td>
-                  <td>
-                    <Translate contentKey={`qrDapioApp.Categoria.${itemCardapio.categoria}`} />
-                  </td>
-                  <td>{itemCardapio.nome}</td>
-                  <td>{itemCardapio.descricao}</td>
-                  <td>{itemCardapio.valor}</td>
-                  <td>
-                    {itemCardapio.cardapio ? <Link to={`cardapio/${itemCardapio.cardapio.id}`}>{itemCardapio.cardapio.id}</Link> : ''}
-                  </td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${itemCardapio.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${itemCardapio.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button
-                        tag={Link}
-                        to={`${match.url}/${itemCardapio.id}/delete`}
-                        color="danger"
-                        size="sm"
-                        data-cy="entityDeleteButton"
-                      >
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemCardapio.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemCardapio.categoria">Categoria</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemCardapio.nome">Nome</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemCardapio.descricao">Descricao</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemCardapio.valor">Valor</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemCardapio.cardapio">Cardapio</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {itemCardapioList.map((itemCardapio, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${itemCardapio.id}`} color="link" size="sm">
+                        {itemCardapio.id}
+                      </Button>
+                    </td>
+                    <td>
+                      <Translate contentKey={`qrDapioApp.Categoria.${itemCardapio.categoria}`} />
+                    </td>
+                    <td>{itemCardapio.nome}</td>
+                    <td>{itemCardapio.descricao}</td>
+                    <td>{itemCardapio.valor}</td>
+                    <td>
+                      {itemCardapio.cardapio ? <Link to={`cardapio/${itemCardapio.cardapio.id}`}>{itemCardapio.cardapio.id}</Link> : ''}
+                    </td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${itemCardapio.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${itemCardapio.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button
+                          tag={Link}
+                          to={`${match.url}/${itemCardapio.id}/delete`}
+                          color="danger"
+                          size="sm"
+                          data-cy="entityDeleteButton"
+                        >
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -128,10 +144,12 @@ export const ItemCardapio = (props: IItemCardapioProps) => {
 const mapStateToProps = ({ itemCardapio }: IRootState) => ({
   itemCardapioList: itemCardapio.entities,
   loading: itemCardapio.loading,
+  nextCursor: itemCardapio.nextCursor,
 });
 
 const mapDispatchToProps = {
   getEntities,
+  getNextSlice,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
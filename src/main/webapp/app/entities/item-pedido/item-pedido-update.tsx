@@ -8,9 +8,9 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { IItemCardapio } from 'app/shared/model/item-cardapio.model';
-import { getEntities as getItemCardapios } from 'app/entities/item-cardapio/item-cardapio.reducer';
+import { getAllEntities as getItemCardapios } from 'app/entities/item-cardapio/item-cardapio.reducer';
 import { IPedido } from 'app/shared/model/pedido.model';
-import { getEntities as getPedidos } from 'app/entities/pedido/pedido.reducer';
+import { getAllEntities as getPedidos } from 'app/entities/pedido/pedido.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './item-pedido.reducer';
 import { IItemPedido } from 'app/shared/model/item-pedido.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
@@ -1,13 +1,15 @@
 import axios from 'axios';
 import { ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
-import { cleanEntity } from 'app/shared/util/entity-utils';
+import { cleanEntity, restauranteHeader } from 'app/shared/util/entity-utils';
+import { nextCursor } from 'app/shared/util/keyset-pagination-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IItemPedido, defaultValue } from 'app/shared/model/item-pedido.model';
 
 export const ACTION_TYPES = {
   FETCH_ITEMPEDIDO_LIST: 'itemPedido/FETCH_ITEMPEDIDO_LIST',
+  FETCH_ITEMPEDIDO_NEXT_SLICE: 'itemPedido/FETCH_ITEMPEDIDO_NEXT_SLICE',
   FETCH_ITEMPEDIDO: 'itemPedido/FETCH_ITEMPEDIDO',
   CREATE_ITEMPEDIDO: 'itemPedido/CREATE_ITEMPEDIDO',
   UPDATE_ITEMPEDIDO: 'itemPedido/UPDATE_ITEMPEDIDO',
@@ -20,6 +22,7 @@ const initialState = {
   loading: false,
   errorMessage: null,
   entities: [] as ReadonlyArray<IItemPedido>,
+  nextCursor: null as string,
   entity: defaultValue,
   updating: false,
   updateSuccess: false,
@@ -32,6 +35,7 @@ export type ItemPedidoState = Readonly<typeof initialState>;
 export default (state: ItemPedidoState = initialState, action): ItemPedidoState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.FETCH_ITEMPEDIDO_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_ITEMPEDIDO_NEXT_SLICE):
     case REQUEST(ACTION_TYPES.FETCH_ITEMPEDIDO):
       return {
         ...state,
@@ -50,6 +54,7 @@ export default (state: ItemPedidoState = initialState, action): ItemPedidoState
         updating: true,
       };
     case FAILURE(ACTION_TYPES.FETCH_ITEMPEDIDO_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_ITEMPEDIDO_NEXT_SLICE):
     case FAILURE(ACTION_TYPES.FETCH_ITEMPEDIDO):
     case FAILURE(ACTION_TYPES.CREATE_ITEMPEDIDO):
     case FAILURE(ACTION_TYPES.UPDATE_ITEMPEDIDO):
@@ -67,6 +72,14 @@ export default (state: ItemPedidoState = initialState, action): ItemPedidoState
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: nextCursor(action.payload),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_ITEMPEDIDO_NEXT_SLICE):
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: nextCursor(action.payload),
       };
     case SUCCESS(ACTION_TYPES.FETCH_ITEMPEDIDO):
       return {
@@ -108,6 +121,11 @@ export const getEntities: ICrudGetAllAction<IItemPedido> = (page, size, sort) =>
   payload: axios.get<IItemPedido>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextSlice = (after: string) => ({
+  type: ACTION_TYPES.FETCH_ITEMPEDIDO_NEXT_SLICE,
+  payload: axios.get<IItemPedido>(`${apiUrl}?after=${after}&cacheBuster=${new Date().getTime()}`),
+});
+
 export const getEntity: ICrudGetAction<IItemPedido> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -119,7 +137,7 @@ export const getEntity: ICrudGetAction<IItemPedido> = id => {
 export const createEntity: ICrudPutAction<IItemPedido> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.CREATE_ITEMPEDIDO,
-    payload: axios.post(apiUrl, cleanEntity(entity)),
+    payload: axios.post(apiUrl, cleanEntity(entity), restauranteHeader(entity.pedido && entity.pedido.restaurante)),
   });
   dispatch(getEntities());
   return result;
@@ -128,7 +146,7 @@ export const createEntity: ICrudPutAction<IItemPedido> = entity => async dispatc
 export const updateEntity: ICrudPutAction<IItemPedido> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.UPDATE_ITEMPEDIDO,
-    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity)),
+    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity), restauranteHeader(entity.pedido && entity.pedido.restaurante)),
   });
   return result;
 };
@@ -2,11 +2,12 @@ import React, { useState, useEffect } from 'react';
 import { connect } from 'react-redux';
 import { Link, RouteComponentProps } from 'react-router-dom';
 import { Button, Col, Row, Table } from 'reactstrap';
+import InfiniteScroll from 'react-infinite-scroller';
 import { Translate } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 
 import { IRootState } from 'app/shared/reducers';
-import { getEntities } from './item-pedido.reducer';
+import { getEntities, getNextSlice } from './item-pedido.reducer';
 import { IItemPedido } from 'app/shared/model/item-pedido.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -21,6 +22,12 @@ export const ItemPedido = (props: IItemPedidoProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextSlice(props.nextCursor);
+    }
+  };
+
   const { itemPedidoList, match, loading } = props;
   return (
     <div>
@@ -40,61 +47,76 @@ export const ItemPedido = (props: IItemPedidoProps) => {
       </h2>
       <div className="table-responsive">
         {itemPedidoList && itemPedidoList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemPedido.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemPedido.quantidade">Quantidade</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemPedido.item">Item</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.itemPedido.pedido">Pedido</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {itemPedidoList.map((itemPedido, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${itemPedido.id}`} color="link" size="sm">
-                      {itemPedido.id}
-                    </Button>
-                  </td>
-                  <td>{itemPedido.quantidade}</td>
-                  <td>{itemPedido.item ? <Link to={`item-cardapio/${itemPedido.item.id}`}>{itemPedido.item.id}</Link> : ''}</td>
-                  <td>{itemPedido.pedido ? <Link to={`pedido/${itemPedido.pedido.id}`}>{itemPedido.pedido.id}</Link> : ''}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${itemPedido.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${itemPedido.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${itemPedido.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemPedido.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemPedido.quantidade">Quantidade</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemPedido.item">Item</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.itemPedido.pedido">Pedido</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {itemPedidoList.map((itemPedido, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${itemPedido.id}`} color="link" size="sm">
+                        {itemPedido.id}
+                      </Button>
+                    </td>
+                    <td>{itemPedido.quantidade}</td>
+                    <td>{itemPedido.item ? <Link to={`item-cardapio/${itemPedido.item.id}`}>{itemPedido.item.id}</Link> : ''}</td>
+                    <td>{itemPedido.pedido ? <Link to={`pedido/${itemPedido.pedido.id}`}>{itemPedido.pedido.id}</Link> : ''}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${itemPedido.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${itemPedido.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button
+                          tag={Link}
+                          to={`${match.url}/${itemPedido.id}/delete`}
+                          color="danger"
+                          size="sm"
+                          data-cy="entityDeleteButton"
+                        >
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -110,10 +132,12 @@ export const ItemPedido = (props: IItemPedidoProps) => {
 const mapStateToProps = ({ itemPedido }: IRootState) => ({
   itemPedidoList: itemPedido.entities,
   loading: itemPedido.loading,
+  nextCursor: itemPedido.nextCursor,
 });
 
 const mapDispatchToProps = {
   getEntities,
+  getNextSlice,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { IRestaurante } from 'app/shared/model/restaurante.model';
-import { getEntities as getRestaurantes } from 'app/entities/restaurante/restaurante.reducer';
+import { getAllEntities as getRestaurantes } from 'app/entities/restaurante/restaurante.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './pedido.reducer';
 import { IPedido } from 'app/shared/model/pedido.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
@@ -120,16 +120,8 @@ export const PedidoUpdate = (props: IPedidoUpdateProps) => {
                 <Label id="senhaLabel" for="pedido-senha">
                   <Translate contentKey="qrDapioApp.pedido.senha">Senha</Translate>
                 </Label>
-                <AvField
-                  id="pedido-senha"
-                  data-cy="senha"
-                  type="string"
-                  className="form-control"
-                  name="senha"
-                  validate={{
-                    number: { value: true, errorMessage: translate('entity.validation.number') },
-                  }}
-                />
+                {/* Handed out by the server */}
+                <AvField id="pedido-senha" data-cy="senha" type="string" className="form-control" name="senha" readOnly />
               </AvGroup>
               <AvGroup>
                 <Label for="pedido-restaurante">
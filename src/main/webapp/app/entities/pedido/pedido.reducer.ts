@@ -1,13 +1,15 @@
 import axios from 'axios';
 import { ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
-import { cleanEntity } from 'app/shared/util/entity-utils';
+import { cleanEntity, restauranteHeader } from 'app/shared/util/entity-utils';
+import { getAllSlices, nextCursor } from 'app/shared/util/keyset-pagination-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IPedido, defaultValue } from 'app/shared/model/pedido.model';
 
 export const ACTION_TYPES = {
   FETCH_PEDIDO_LIST: 'pedido/FETCH_PEDIDO_LIST',
+  FETCH_PEDIDO_NEXT_SLICE: 'pedido/FETCH_PEDIDO_NEXT_SLICE',
   FETCH_PEDIDO: 'pedido/FETCH_PEDIDO',
   CREATE_PEDIDO: 'pedido/CREATE_PEDIDO',
   UPDATE_PEDIDO: 'pedido/UPDATE_PEDIDO',
@@ -20,6 +22,7 @@ const initialState = {
   loading: false,
   errorMessage: null,
   entities: [] as ReadonlyArray<IPedido>,
+  nextCursor: null as string,
   entity: defaultValue,
   updating: false,
   updateSuccess: false,
@@ -32,6 +35,7 @@ export type PedidoState = Readonly<typeof initialState>;
 export default (state: PedidoState = initialState, action): PedidoState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.FETCH_PEDIDO_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_PEDIDO_NEXT_SLICE):
     case REQUEST(ACTION_TYPES.FETCH_PEDIDO):
       return {
         ...state,
@@ -50,6 +54,7 @@ export default (state: PedidoState = initialState, action): PedidoState => {
         updating: true,
       };
     case FAILURE(ACTION_TYPES.FETCH_PEDIDO_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_PEDIDO_NEXT_SLICE):
     case FAILURE(ACTION_TYPES.FETCH_PEDIDO):
     case FAILURE(ACTION_TYPES.CREATE_PEDIDO):
     case FAILURE(ACTION_TYPES.UPDATE_PEDIDO):
@@ -67,6 +72,14 @@ export default (state: PedidoState = initialState, action): PedidoState => {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: nextCursor(action.payload),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_PEDIDO_NEXT_SLICE):
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: nextCursor(action.payload),
       };
     case SUCCESS(ACTION_TYPES.FETCH_PEDIDO):
       return {
@@ -108,6 +121,19 @@ export const getEntities: ICrudGetAllAction<IPedido> = (page, size, sort) => ({
   payload: axios.get<IPedido>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextSlice = (after: string) => ({
+  type: ACTION_TYPES.FETCH_PEDIDO_NEXT_SLICE,
+  payload: axios.get<IPedido>(`${apiUrl}?after=${after}&cacheBuster=${new Date().getTime()}`),
+});
+
+/**
+ * Fetch every slice of the list, for the dropdowns of the forms: they must offer all the entities.
+ */
+export const getAllEntities = () => ({
+  type: ACTION_TYPES.FETCH_PEDIDO_LIST,
+  payload: getAllSlices<IPedido>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
+});
+
 export const getEntity: ICrudGetAction<IPedido> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -119,7 +145,7 @@ export const getEntity: ICrudGetAction<IPedido> = id => {
 export const createEntity: ICrudPutAction<IPedido> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.CREATE_PEDIDO,
-    payload: axios.post(apiUrl, cleanEntity(entity)),
+    payload: axios.post(apiUrl, cleanEntity(entity), restauranteHeader(entity.restaurante)),
   });
   dispatch(getEntities());
   return result;
@@ -128,7 +154,7 @@ export const createEntity: ICrudPutAction<IPedido> = entity => async dispatch =>
 export const updateEntity: ICrudPutAction<IPedido> = entity => async dispatch => {
   const result = await dispatch({
     type: ACTION_TYPES.UPDATE_PEDIDO,
-    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity)),
+    payload: axios.put(`${apiUrl}/${entity.id}`, cleanEntity(entity), restauranteHeader(entity.restaurante)),
   });
   return result;
 };
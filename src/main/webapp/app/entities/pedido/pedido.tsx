@@ -2,11 +2,12 @@ import React, { useState, useEffect } from 'react';
 import { connect } from 'react-redux';
 import { Link, RouteComponentProps } from 'react-router-dom';
 import { Button, Col, Row, Table } from 'reactstrap';
+import InfiniteScroll from 'react-infinite-scroller';
 import { Translate, TextFormat } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 
 import { IRootState } from 'app/shared/reducers';
-import { getEntities } from './pedido.reducer';
+import { getEntities, getNextSlice } from './pedido.reducer';
 import { IPedido } from 'app/shared/model/pedido.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -21,6 +22,12 @@ export const Pedido = (props: IPedidoProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextSlice(props.nextCursor);
+    }
+  };
+
   const { pedidoList, match, loading } = props;
   return (
     <div>
@@ -40,67 +47,76 @@ export const Pedido = (props: IPedidoProps) => {
       </h2>
       <div className="table-responsive">
         {pedidoList && pedidoList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="qrDapioApp.pedido.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.pedido.formaPagamento">Forma Pagamento</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.pedido.dataHora">Data Hora</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.pedido.senha">Senha</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="qrDapioApp.pedido.restaurante">Restaurante</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {pedidoList.map((pedido, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${pedido.id}`} color="link" size="sm">
-                      {pedido.id}
-                    </Button>
-                  </td>
-                  <td>
-                    <Translate contentKey={`qrDapioApp.FormaPagamento.${pedido.formaPagamento}`} />
-                  </td>
-                  <td>{pedido.dataHora ? <TextFormat type="date" value={pedido.dataHora} format={APP_DATE_FORMAT} /> : null}</td>
-                  <td>{pedido.senha}</td>
-                  <td>{pedido.restaurante ? <Link to={`restaurante/${pedido.restaurante.id}`}>{pedido.restaurante.id}</Link> : ''}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${pedido.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${pedido.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${pedido.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="qrDapioApp.pedido.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.pedido.formaPagamento">Forma Pagamento</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.pedido.dataHora">Data Hora</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.pedido.senha">Senha</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="qrDapioApp.pedido.restaurante">Restaurante</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {pedidoList.map((pedido, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${pedido.id}`} color="link" size="sm">
+                        {pedido.id}
+                      </Button>
+                    </td>
+                    <td>
+                      <Translate contentKey={`qrDapioApp.FormaPagamento.${pedido.formaPagamento}`} />
+                    </td>
+                    <td>{pedido.dataHora ? <TextFormat type="date" value={pedido.dataHora} format={APP_DATE_FORMAT} /> : null}</td>
+                    <td>{pedido.senha}</td>
+                    <td>{pedido.restaurante ? <Link to={`restaurante/${pedido.restaurante.id}`}>{pedido.restaurante.id}</Link> : ''}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${pedido.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${pedido.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${pedido.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -116,10 +132,12 @@ export const Pedido = (props: IPedidoProps) => {
 const mapStateToProps = ({ pedido }: IRootState) => ({
   pedidoList: pedido.entities,
   loading: pedido.loading,
+  nextCursor: pedido.nextCursor,
 });
 
 const mapDispatchToProps = {
   getEntities,
+  getNextSlice,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
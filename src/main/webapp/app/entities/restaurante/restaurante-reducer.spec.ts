@@ -11,6 +11,7 @@ import reducer, {
   deleteEntity,
   getEntities,
   getEntity,
+  getNextSlice,
   updateEntity,
   partialUpdate,
   reset,
@@ -31,6 +32,7 @@ describe('Entities reducer tests', () => {
     loading: false,
     errorMessage: null,
     entities: [] as ReadonlyArray<IRestaurante>,
+    nextCursor: null,
     entity: defaultValue,
     updating: false,
     updateSuccess: false,
@@ -61,13 +63,21 @@ describe('Entities reducer tests', () => {
 
   describe('Requests', () => {
     it('should set state to loading', () => {
-      testMultipleTypes([REQUEST(ACTION_TYPES.FETCH_RESTAURANTE_LIST), REQUEST(ACTION_TYPES.FETCH_RESTAURANTE)], {}, state => {
-        expect(state).toMatchObject({
-          errorMessage: null,
-          updateSuccess: false,
-          loading: true,
-        });
-      });
+      testMultipleTypes(
+        [
+          REQUEST(ACTION_TYPES.FETCH_RESTAURANTE_LIST),
+          REQUEST(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE),
+          REQUEST(ACTION_TYPES.FETCH_RESTAURANTE),
+        ],
+        {},
+        state => {
+          expect(state).toMatchObject({
+            errorMessage: null,
+            updateSuccess: false,
+            loading: true,
+          });
+        }
+      );
     });
 
     it('should set state to updating', () => {
@@ -141,6 +151,39 @@ describe('Entities reducer tests', () => {
       });
     });
 
+    it('should keep the cursor of the next slice', () => {
+      const payload = { data: [{ 1: 'fake1' }], headers: { 'x-next-cursor': '1' } };
+      expect(
+        reducer(undefined, {
+          type: SUCCESS(ACTION_TYPES.FETCH_RESTAURANTE_LIST),
+          payload,
+        })
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        entities: payload.data,
+        nextCursor: '1',
+      });
+    });
+
+    it('should append the next slice', () => {
+      const payload = { data: [{ 2: 'fake2' }], headers: {} };
+      expect(
+        reducer(
+          { ...initialState, entities: [{ 1: 'fake1' }], nextCursor: '1' },
+          {
+            type: SUCCESS(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE),
+            payload,
+          }
+        )
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        entities: [{ 1: 'fake1' }, { 2: 'fake2' }],
+        nextCursor: null,
+      });
+    });
+
     it('should fetch a single entity', () => {
       const payload = { data: { 1: 'fake1' } };
       expect(
@@ -210,6 +253,19 @@ describe('Entities reducer tests', () => {
       await store.dispatch(getEntities()).then(() => expect(store.getActions()).toEqual(expectedActions));
     });
 
+    it('dispatches ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE actions', async () => {
+      const expectedActions = [
+        {
+          type: REQUEST(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE),
+        },
+        {
+          type: SUCCESS(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE),
+          payload: resolvedObject,
+        },
+      ];
+      await store.dispatch(getNextSlice('42')).then(() => expect(store.getActions()).toEqual(expectedActions));
+    });
+
     it('dispatches ACTION_TYPES.FETCH_RESTAURANTE actions', async () => {
       const expectedActions = [
         {
@@ -2,12 +2,14 @@ import axios from 'axios';
 import { ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getAllSlices, nextCursor } from 'app/shared/util/keyset-pagination-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IRestaurante, defaultValue } from 'app/shared/model/restaurante.model';
 
 export const ACTION_TYPES = {
   FETCH_RESTAURANTE_LIST: 'restaurante/FETCH_RESTAURANTE_LIST',
+  FETCH_RESTAURANTE_NEXT_SLICE: 'restaurante/FETCH_RESTAURANTE_NEXT_SLICE',
   FETCH_RESTAURANTE: 'restaurante/FETCH_RESTAURANTE',
   CREATE_RESTAURANTE: 'restaurante/CREATE_RESTAURANTE',
   UPDATE_RESTAURANTE: 'restaurante/UPDATE_RESTAURANTE',
@@ -20,6 +22,7 @@ const initialState = {
   loading: false,
   errorMessage: null,
   entities: [] as ReadonlyArray<IRestaurante>,
+  nextCursor: null as string,
   entity: defaultValue,
   updating: false,
   updateSuccess: false,
@@ -32,6 +35,7 @@ export type RestauranteState = Readonly<typeof initialState>;
 export default (state: RestauranteState = initialState, action): RestauranteState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.FETCH_RESTAURANTE_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE):
     case REQUEST(ACTION_TYPES.FETCH_RESTAURANTE):
       return {
         ...state,
@@ -50,6 +54,7 @@ export default (state: RestauranteState = initialState, action): RestauranteStat
         updating: true,
       };
     case FAILURE(ACTION_TYPES.FETCH_RESTAURANTE_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE):
     case FAILURE(ACTION_TYPES.FETCH_RESTAURANTE):
     case FAILURE(ACTION_TYPES.CREATE_RESTAURANTE):
     case FAILURE(ACTION_TYPES.UPDATE_RESTAURANTE):
@@ -67,6 +72,14 @@ export default (state: RestauranteState = initialState, action): RestauranteStat
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: nextCursor(action.payload),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE):
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: nextCursor(action.payload),
       };
     case SUCCESS(ACTION_TYPES.FETCH_RESTAURANTE):
       return {
@@ -108,6 +121,19 @@ export const getEntities: ICrudGetAllAction<IRestaurante> = (page, size, sort) =
   payload: axios.get<IRestaurante>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextSlice = (after: string) => ({
+  type: ACTION_TYPES.FETCH_RESTAURANTE_NEXT_SLICE,
+  payload: axios.get<IRestaurante>(`${apiUrl}?after=${after}&cacheBuster=${new Date().getTime()}`),
+});
+
+/**
+ * Fetch every slice of the list, for the dropdowns of the forms: they must offer all the entities.
+ */
+export const getAllEntities = () => ({
+  type: ACTION_TYPES.FETCH_RESTAURANTE_LIST,
+  payload: getAllSlices<IRestaurante>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
+});
+
 export const getEntity: ICrudGetAction<IRestaurante> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -7,6 +7,7 @@ export interface IItemCardapio {
   nome?: string;
   descricao?: string;
   valor?: number | null;
+  version?: number;
   cardapio?: ICardapio;
 }
 
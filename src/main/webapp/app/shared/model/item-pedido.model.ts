@@ -4,6 +4,7 @@ import { IPedido } from 'app/shared/model/pedido.model';
 export interface IItemPedido {
   id?: number;
   quantidade?: number | null;
+  version?: number;
   item?: IItemCardapio;
   pedido?: IPedido;
 }
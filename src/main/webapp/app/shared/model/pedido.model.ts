@@ -8,6 +8,8 @@ export interface IPedido {
   formaPagamento?: FormaPagamento;
   dataHora?: string;
   senha?: number | null;
+  dia?: string | null;
+  version?: number;
   itemPedidos?: IItemPedido[] | null;
   restaurante?: IRestaurante;
 }
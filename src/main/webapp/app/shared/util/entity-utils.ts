@@ -14,6 +14,15 @@ export const cleanEntity = entity => {
   return pick(entity, keysToKeep);
 };
 
+/**
+ * Request config sending the restaurante of an entity in the X-Restaurante-Id header, which
+ * the server needs to create the entities of a restaurante once its database is sharded.
+ *
+ * @param restaurante The restaurante of the entity, if known.
+ */
+export const restauranteHeader = (restaurante?: { id?: number }) =>
+  restaurante && restaurante.id ? { headers: { 'X-Restaurante-Id': restaurante.id } } : {};
+
 /**
  * Simply map a list of element to a list a object with the element as id.
  *
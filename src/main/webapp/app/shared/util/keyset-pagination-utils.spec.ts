@@ -0,0 +1,39 @@
+import axios from 'axios';
+import sinon from 'sinon';
+
+import { getAllSlices, nextCursor } from './keyset-pagination-utils';
+
+describe('Keyset pagination utils', () => {
+  describe('nextCursor', () => {
+    it('should read the cursor of the next slice', () => {
+      expect(nextCursor({ headers: { 'x-next-cursor': '42' } } as any)).toBe('42');
+    });
+
+    it('should return null after the last slice', () => {
+      expect(nextCursor({ headers: {} } as any)).toBeNull();
+      expect(nextCursor({ data: [] } as any)).toBeNull();
+    });
+  });
+
+  describe('getAllSlices', () => {
+    it('should return a single slice as it is', async () => {
+      const response = { data: [{ id: 1 }], headers: {} };
+      axios.get = sinon.stub().returns(Promise.resolve(response));
+
+      expect(await getAllSlices('api/pedidos?cacheBuster=1')).toBe(response);
+    });
+
+    it('should follow the cursor of each slice', async () => {
+      const get = sinon.stub();
+      get.withArgs('api/pedidos?cacheBuster=1').returns(Promise.resolve({ data: [{ id: 1 }], headers: { 'x-next-cursor': '1' } }));
+      get.withArgs('api/pedidos?cacheBuster=1&after=1').returns(Promise.resolve({ data: [{ id: 2 }], headers: { 'x-next-cursor': '2' } }));
+      get.withArgs('api/pedidos?cacheBuster=1&after=2').returns(Promise.resolve({ data: [{ id: 3 }], headers: {} }));
+      axios.get = get;
+
+      const response = await getAllSlices('api/pedidos?cacheBuster=1');
+
+      expect(response.data).toEqual([{ id: 1 }, { id: 2 }, { id: 3 }]);
+      expect(get.callCount).toBe(3);
+    });
+  });
+});
@@ -0,0 +1,33 @@
+import axios, { AxiosPromise, AxiosResponse } from 'axios';
+
+/**
+ * Name of the header carrying the cursor of the next slice, as sent by the server.
+ */
+export const HEADER_NEXT_CURSOR = 'x-next-cursor';
+
+/**
+ * The cursor of the slice after the one of a response, to pass as its after parameter.
+ *
+ * @param response The response of a keyset paginated list.
+ * @returns The cursor, or null if the response holds the last slice.
+ */
+export const nextCursor = (response: AxiosResponse): string => (response.headers && response.headers[HEADER_NEXT_CURSOR]) || null;
+
+/**
+ * Get every slice of a keyset paginated list, following the X-Next-Cursor header until the last slice.
+ * That is one request per slice: only for the few views that need the whole list, the others load the
+ * next slice on demand.
+ *
+ * @param url The url of the list, with its query string.
+ * @returns The response of the last slice, holding the elements of all the slices.
+ */
+export const getAllSlices = async <T>(url: string): AxiosPromise<T> => {
+  const separator = url.includes('?') ? '&' : '?';
+  let response = await axios.get(url);
+  let data = response.data;
+  while (nextCursor(response)) {
+    response = await axios.get(`${url}${separator}after=${nextCursor(response)}`);
+    data = data.concat(response.data);
+  }
+  return data === response.data ? response : { ...response, data };
+};
@@ -0,0 +1,112 @@
+package br.com.qrdapio.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the Hibernate second-level cache set up by {@link CacheConfiguration}.
+ */
+@IntegrationTest
+class CacheConfigurationIT {
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private CardapioRepository cardapioRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Restaurante restaurante;
+
+    private Cardapio cardapio;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = restauranteRepository.saveAndFlush(new Restaurante().nome("AAAAAAAAAA"));
+        cardapio = cardapioRepository.saveAndFlush(new Cardapio().nome("AAAAAAAAAA").restaurante(restaurante));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        itemCardapioRepository.deleteAll(itemCardapioRepository.findAllByCardapioRestauranteIdOrderById(restaurante.getId()));
+        cardapioRepository.deleteById(cardapio.getId());
+        restauranteRepository.deleteById(restaurante.getId());
+    }
+
+    @Test
+    void findByIdIsServedFromTheCache() {
+        double hits = cacheHits(Restaurante.class.getName());
+
+        String nome = transactionTemplate.execute(status -> restauranteRepository.findById(restaurante.getId()).get().getNome());
+
+        assertThat(nome).isEqualTo("AAAAAAAAAA");
+        assertThat(cacheHits(Restaurante.class.getName())).isGreaterThan(hits);
+    }
+
+    @Test
+    void itemCardapiosCollectionIsEvictedOnInsert() {
+        ItemCardapio first = itemCardapioRepository.saveAndFlush(createItemCardapio());
+        assertThat(itemCardapioIds()).containsExactly(first.getId());
+
+        // A second read of the collection is a hit
+        double hits = cacheHits(Cardapio.class.getName() + ".itemCardapios");
+        assertThat(itemCardapioIds()).containsExactly(first.getId());
+        assertThat(cacheHits(Cardapio.class.getName() + ".itemCardapios")).isGreaterThan(hits);
+
+        // Inserting an item on the inverse side must not leave the cached collection stale
+        ItemCardapio second = itemCardapioRepository.saveAndFlush(createItemCardapio());
+        assertThat(itemCardapioIds()).containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    private ItemCardapio createItemCardapio() {
+        return new ItemCardapio()
+            .categoria(Categoria.PRATO)
+            .nome("AAAAAAAAAA")
+            .descricao("AAAAAAAAAA")
+            .valor(BigDecimal.ONE)
+            .cardapio(cardapio);
+    }
+
+    private Set<Long> itemCardapioIds() {
+        return transactionTemplate.execute(status ->
+            cardapioRepository
+                .findById(cardapio.getId())
+                .get()
+                .getItemCardapios()
+                .stream()
+                .map(ItemCardapio::getId)
+                .collect(Collectors.toSet())
+        );
+    }
+
+    private double cacheHits(String cacheName) {
+        FunctionCounter counter = meterRegistry.get("cache.gets").tag("cache", cacheName).tag("result", "hit").functionCounter();
+        return counter.count();
+    }
+}
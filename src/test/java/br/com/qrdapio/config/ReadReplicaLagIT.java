@@ -0,0 +1,191 @@
+package br.com.qrdapio.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.service.CozinhaService;
+import br.com.qrdapio.service.ItemBuscaService;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.service.PedidoAbertoService;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.dto.ItemBuscaDTO;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoAbertoDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests of the services loading committed pedidos and menus into memory, with a read replica that never
+ * caught up with the primary: it has its schema, but none of its rows.
+ * <p>
+ * Not transactional on purpose: the services load what was committed.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.read-replicas.replicas[0].url=" + ReadReplicaLagIT.REPLICA_URL,
+        // Only the checks of the tests count
+        "application.read-replicas.heartbeat-interval=PT1H",
+        "application.read-replicas.max-lag=PT1H",
+    }
+)
+class ReadReplicaLagIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:qrdapio-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoAbertoService pedidoAbertoService;
+
+    @Autowired
+    private CozinhaService cozinhaService;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private ItemBuscaService itemBuscaService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Restaurante restaurante;
+
+    private Cardapio cardapio;
+
+    private ItemCardapio moqueca;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        copySchemaToReplica();
+        dataSource.unwrap(ReadReplicaRoutingDataSource.class).checkReplicas();
+        assertThat(dataSource.unwrap(ReadReplicaRoutingDataSource.class).getAvailableReplicas()).containsExactly("replica-1");
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Replica");
+                em.persist(restaurante);
+                cardapio = new Cardapio().nome("Replica").restaurante(restaurante);
+                em.persist(cardapio);
+                moqueca =
+                    new ItemCardapio()
+                        .categoria(Categoria.PRATO)
+                        .nome("Moqueca")
+                        .descricao("Moqueca")
+                        .valor(BigDecimal.TEN)
+                        .cardapio(cardapio);
+                em.persist(moqueca);
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void readOnlyTransactionsMissTheNewRows() {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Long restaurantes = readOnlyTransaction.execute(
+            status ->
+                em
+                    .createQuery("select count(r) from Restaurante r where r.id = :id", Long.class)
+                    .setParameter("id", restaurante.getId())
+                    .getSingleResult()
+        );
+        assertThat(restaurantes).isZero();
+    }
+
+    @Test
+    void loadersReadThePrimary() throws InterruptedException {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(List.of(new ItemPedidoSubmissionDTO(moqueca.getId(), 2)));
+        Pedido pedido = pedidoService.submit(restaurante.getId(), submission);
+
+        assertThat(pedidoAbertoService.findAbertos(restaurante.getId(), null))
+            .extracting(PedidoAbertoDTO::getId)
+            .containsExactly(pedido.getId());
+        awaitPendentes(Categoria.PRATO, 1);
+        assertThat(cozinhaService.pendentes(restaurante.getId(), Categoria.PRATO)).isEqualTo(1);
+        assertThat(menuSnapshotService.getSnapshot(restaurante.getId()))
+            .hasValueSatisfying(snapshot -> assertThat(snapshot.containsCardapio(cardapio.getId())).isTrue());
+        assertThat(itemBuscaService.search(restaurante.getId(), "moq", 10))
+            .extracting(ItemBuscaDTO::getId)
+            .containsExactly(moqueca.getId());
+    }
+
+    /**
+     * Give the replica the tables of the primary, without their rows, and a heartbeat in time.
+     */
+    private void copySchemaToReplica() throws SQLException {
+        List<String> script = new JdbcTemplate(dataSource).queryForList("script nodata", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL)) {
+            try (Statement statement = replica.createStatement()) {
+                statement.execute("drop all objects");
+                for (String sql : script) {
+                    statement.execute(sql);
+                }
+            }
+            try (PreparedStatement statement = replica.prepareStatement("insert into replica_heartbeat (id, beat) values (1, ?)")) {
+                statement.setLong(1, System.currentTimeMillis());
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private void awaitPendentes(Categoria estacao, int pendentes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline && cozinhaService.pendentes(restaurante.getId(), estacao) < pendentes) {
+            Thread.sleep(20);
+        }
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
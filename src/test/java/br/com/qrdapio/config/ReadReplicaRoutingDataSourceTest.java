@@ -0,0 +1,181 @@
+package br.com.qrdapio.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests of the read-replica routing of {@link DatabaseConfiguration}, with two in-memory H2 databases standing for
+ * the primary and its replica.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primaryPool;
+
+    private DatabaseConfiguration.LazyRoutingDataSource dataSource;
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        primaryPool = new HikariDataSource();
+        primaryPool.setJdbcUrl("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        primaryPool.setAutoCommit(false);
+        primaryPool.setPoolName("Primary");
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.ReadReplicas.Replica replicaProperties = new ApplicationProperties.ReadReplicas.Replica();
+        replicaProperties.setUrl("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+        applicationProperties.getReadReplicas().getReplicas().add(replicaProperties);
+        applicationProperties.getReadReplicas().setMaxLag(Duration.ofSeconds(5));
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("applicationProperties", applicationProperties);
+        dataSource =
+            (DatabaseConfiguration.LazyRoutingDataSource) new DatabaseConfiguration.ReadReplicaRoutingDataSourcePostProcessor(
+                beanFactory.getBeanProvider(ApplicationProperties.class)
+            )
+                .postProcessAfterInitialization(primaryPool, "dataSource");
+        routingDataSource = dataSource.unwrap(ReadReplicaRoutingDataSource.class);
+
+        primary = createDatabase(routingDataSource.getPrimary(), "primary");
+        replica = createDatabase(routingDataSource.getReplicas().get("replica-1"), "replica");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        ReadReplicaRoutingDataSource.setPrimaryRequired(false);
+        for (JdbcTemplate database : new JdbcTemplate[] { primary, replica }) {
+            database.execute("drop all objects");
+            ((HikariDataSource) database.getDataSource()).close();
+        }
+        dataSource.close();
+    }
+
+    @Test
+    void replicaPoolHasTheSettingsOfThePrimary() {
+        HikariDataSource replicaPool = (HikariDataSource) routingDataSource.getReplicas().get("replica-1");
+
+        assertThat(replicaPool.getPoolName()).isEqualTo("Primary-replica-1");
+        assertThat(replicaPool.isAutoCommit()).isFalse();
+        assertThat(replicaPool.isReadOnly()).isTrue();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        replicate();
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getAvailableReplicas()).containsExactly("replica-1");
+        assertThat(origin(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(origin(readWriteTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void everythingGoesToThePrimaryBeforeTheFirstCheck() {
+        assertThat(origin(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaIsNotRead() {
+        replica.update("update replica_heartbeat set beat = ?", System.currentTimeMillis() - 60_000);
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getAvailableReplicas()).isEmpty();
+        assertThat(origin(readOnlyTransaction)).isEqualTo("primary");
+
+        // Caught up
+        replicate();
+        routingDataSource.checkReplicas();
+
+        assertThat(origin(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaIsNotRead() {
+        replicate();
+        routingDataSource.checkReplicas();
+        replica.execute("drop table replica_heartbeat");
+        routingDataSource.checkReplicas();
+
+        assertThat(origin(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsGoToThePrimaryWhenRequired() {
+        replicate();
+        routingDataSource.checkReplicas();
+        ReadReplicaRoutingDataSource.setPrimaryRequired(true);
+
+        assertThat(origin(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void primaryTransactionTemplateReadsThePrimary() {
+        replicate();
+        routingDataSource.checkReplicas();
+        TransactionTemplate primaryTransaction = new PrimaryTransactionTemplate(readOnlyTransaction.getTransactionManager());
+        primaryTransaction.setReadOnly(true);
+
+        assertThat(origin(primaryTransaction)).isEqualTo("primary");
+        // The thread is back to the replicas
+        assertThat(ReadReplicaRoutingDataSource.isPrimaryRequired()).isFalse();
+        assertThat(origin(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void checkWritesTheHeartbeatToThePrimary() {
+        long before = System.currentTimeMillis();
+        routingDataSource.checkReplicas();
+
+        Long beat = primary.queryForObject("select beat from replica_heartbeat where id = 1", Long.class);
+        assertThat(beat).isGreaterThanOrEqualTo(before);
+    }
+
+    /**
+     * Stand for the replication of the last heartbeat.
+     */
+    private void replicate() {
+        replica.update("update replica_heartbeat set beat = ?", System.currentTimeMillis());
+    }
+
+    private String origin(TransactionTemplate transaction) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select name from origin", String.class));
+    }
+
+    private static JdbcTemplate createDatabase(DataSource pool, String name) {
+        // Straight to the pool: the replica is read-only through the routing
+        HikariDataSource hikari = (HikariDataSource) pool;
+        HikariDataSource writable = new HikariDataSource();
+        writable.setJdbcUrl(hikari.getJdbcUrl());
+        writable.setAutoCommit(true);
+        writable.setMaximumPoolSize(1);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(writable);
+        jdbcTemplate.execute("create table origin (name varchar(20))");
+        jdbcTemplate.update("insert into origin (name) values (?)", name);
+        jdbcTemplate.execute("create table replica_heartbeat (id integer primary key, beat bigint not null)");
+        jdbcTemplate.update("insert into replica_heartbeat (id, beat) values (1, 0)");
+        return jdbcTemplate;
+    }
+}
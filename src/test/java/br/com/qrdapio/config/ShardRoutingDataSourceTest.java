@@ -0,0 +1,162 @@
+package br.com.qrdapio.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests of the sharding of {@link DatabaseConfiguration} and {@link LiquibaseConfiguration}, with two in-memory H2
+ * databases standing for the default shard and another one.
+ */
+class ShardRoutingDataSourceTest {
+
+    private ShardRoutingDataSource dataSource;
+
+    private ShardMap shardMap;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        HikariDataSource defaultPool = new HikariDataSource();
+        defaultPool.setJdbcUrl("jdbc:h2:mem:routing-default;DB_CLOSE_DELAY=-1");
+        defaultPool.setPoolName("Default");
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Sharding.Shard shard = new ApplicationProperties.Sharding.Shard();
+        shard.setName("shard-1");
+        shard.setUrl("jdbc:h2:mem:routing-shard-1;DB_CLOSE_DELAY=-1");
+        applicationProperties.getSharding().getShards().add(shard);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("applicationProperties", applicationProperties);
+        dataSource =
+            (ShardRoutingDataSource) new DatabaseConfiguration.ShardRoutingDataSourcePostProcessor(
+                beanFactory.getBeanProvider(ApplicationProperties.class)
+            )
+                .postProcessAfterInitialization(defaultPool, "dataSource");
+
+        LiquibaseProperties liquibaseProperties = new LiquibaseProperties();
+        liquibaseProperties.setContexts("test, faker");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(defaultPool);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setChangeLog("classpath:config/liquibase/master.xml");
+        liquibase.setContexts("test");
+        liquibase.afterPropertiesSet();
+        LiquibaseConfiguration.ShardLiquibase shardLiquibase = new LiquibaseConfiguration.ShardLiquibase(
+            Map.of("shard-1", dataSource.getShards().get("shard-1")),
+            liquibaseProperties,
+            true
+        );
+        shardLiquibase.setResourceLoader(new DefaultResourceLoader());
+        shardLiquibase.afterPropertiesSet();
+
+        shardMap = new ShardMap(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        ShardRoutingDataSource.setCurrentShard(null);
+        for (String shard : shardMap.getShardNames()) {
+            new JdbcTemplate(shardMap.getDataSource(shard)).execute("drop all objects");
+        }
+        dataSource.close();
+    }
+
+    @Test
+    void shardPoolHasTheSettingsOfTheDefaultOne() {
+        HikariDataSource shardPool = (HikariDataSource) dataSource.getShards().get("shard-1");
+
+        assertThat(dataSource.getShards()).containsOnlyKeys("default", "shard-1");
+        assertThat(shardPool.getPoolName()).isEqualTo("Default-shard-1");
+        assertThat(shardPool.isReadOnly()).isFalse();
+        assertThat(shardMap.isSharded()).isTrue();
+    }
+
+    @Test
+    void connectionsGoToTheShardOfTheThread() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String select = "select nome from restaurante";
+        jdbcTemplate.update("insert into restaurante (id, nome) values (1, 'Default')");
+        ShardRoutingDataSource.callInShard("shard-1", () -> jdbcTemplate.update("insert into restaurante (id, nome) values (2, 'Shard')"));
+
+        assertThat(jdbcTemplate.queryForList(select, String.class)).containsExactly("Default");
+        assertThat(ShardRoutingDataSource.callInShard("shard-1", () -> jdbcTemplate.queryForList(select, String.class)))
+            .containsExactly("Shard");
+        assertThat(ShardRoutingDataSource.getCurrentShard()).isEqualTo("default");
+    }
+
+    @Test
+    void shardsHandOutIdsFromTheirOwnRange() {
+        String nextId = "select next value for sequence_generator";
+
+        assertThat(new JdbcTemplate(shardMap.getDataSource("default")).queryForObject(nextId, Long.class))
+            .isLessThan(LiquibaseConfiguration.ShardLiquibase.SHARD_ID_RANGE);
+        assertThat(new JdbcTemplate(shardMap.getDataSource("shard-1")).queryForObject(nextId, Long.class))
+            .isEqualTo(LiquibaseConfiguration.ShardLiquibase.SHARD_ID_RANGE);
+    }
+
+    @Test
+    void shardsHaveNoFakeData() {
+        JdbcTemplate shard = new JdbcTemplate(shardMap.getDataSource("shard-1"));
+
+        assertThat(shard.queryForObject("select count(*) from restaurante", Long.class)).isZero();
+    }
+
+    @Test
+    void tasksRunOnTheShardOfTheirSubmitter() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ShardRoutingDataSource.setCurrentShard("shard-1");
+            CompletableFuture<String> shard = new CompletableFuture<>();
+            Runnable task = () -> shard.complete(ShardRoutingDataSource.getCurrentShard());
+            executor.execute(ShardRoutingDataSource.propagate(task));
+
+            assertThat(shard.get()).isEqualTo("shard-1");
+            CompletableFuture<String> after = new CompletableFuture<>();
+            executor.execute(() -> after.complete(ShardRoutingDataSource.getCurrentShard()));
+            assertThat(after.get()).isEqualTo("default");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void restaurantesOfRowsAreLookedUpOnce() {
+        JdbcTemplate shard = new JdbcTemplate(shardMap.getDataSource("shard-1"));
+        shard.update("insert into restaurante (id, nome) values (2, 'Shard')");
+        shard.update("insert into cardapio (id, nome, restaurante_id) values (20, 'Shard', 2)");
+
+        assertThat(shardMap.findRestauranteOf("cardapio", 20L)).contains(2L);
+        assertThat(shardMap.findRestauranteOf("cardapio", 21L)).isEmpty();
+
+        // Remembered, even once gone
+        shard.update("delete from cardapio where id = 20");
+        assertThat(shardMap.findRestauranteOf("cardapio", 20L, 2L)).contains(2L);
+    }
+
+    @Test
+    void restaurantesAreOnTheDefaultShardUntilAssigned() throws Exception {
+        assertThat(shardMap.shardOf(1L)).isEqualTo("default");
+
+        shardMap.assign(1L, "shard-1", true);
+
+        assertThat(shardMap.shardOf(1L)).isEqualTo("shard-1");
+        assertThat(shardMap.isMoving(1L)).isTrue();
+        shardMap.assign(1L, "shard-1", false);
+        ShardMap otherServer = new ShardMap(dataSource);
+        otherServer.refresh();
+        assertThat(otherServer.shardOf(1L)).isEqualTo("shard-1");
+        assertThat(otherServer.isMoving(1L)).isFalse();
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.qrdapio.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} counting the SQL statements prepared by the current thread.
+ * <p>
+ * Registered in the test {@code application.yml}, so that a test can count the statements of a MockMvc
+ * request, which runs on the test thread.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Reset the count of the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return the number of statements prepared by the current thread since the last {@link #reset()}.
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+}
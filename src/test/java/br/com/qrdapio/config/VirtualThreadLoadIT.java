@@ -0,0 +1,199 @@
+package br.com.qrdapio.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import br.com.qrdapio.QrDapioApp;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.security.AuthoritiesConstants;
+import com.zaxxer.hikari.HikariDataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Load test comparing the throughput and p99 latency of a database-backed endpoint with
+ * {@code application.virtual-threads.enabled} off and on.
+ * <p>
+ * Each mode gets its own application, listening on a random port, and is hit over HTTP by concurrent clients
+ * after a warm-up round.
+ * Only run from Java 21 on: below, the mode is a no-op and both runs would measure the same application.
+ */
+@EnabledIf("br.com.qrdapio.config.VirtualThreadExecutors#isAvailable")
+class VirtualThreadLoadIT {
+
+    private static final int CLIENTS = 64;
+
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    private static final int WARM_UP_REQUESTS_PER_CLIENT = 5;
+
+    private static final int PEDIDOS = 20;
+
+    /**
+     * JCache managers are shared per configuration URI: closing the default one along with a standalone application
+     * would close the caches of the shared test context too, and break the later tests committing cached entities.
+     */
+    private static final String OWN_CACHE_MANAGER = "spring.cache.jcache.config=classpath:config/application.yml";
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+    @Test
+    void compareVirtualThreadModeOffAndOn() throws Exception {
+        Result off = run(false);
+        Result on = run(true);
+
+        log.info(
+            "GET /api/pedidos, {} clients x {} requests: virtual threads off {} req/s p99 {}ms, on {} req/s p99 {}ms",
+            CLIENTS,
+            REQUESTS_PER_CLIENT,
+            off.requestsPerSecond,
+            off.p99Millis,
+            on.requestsPerSecond,
+            on.p99Millis
+        );
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(QrDapioApp.class, TestSecurityConfiguration.class)
+                .properties(
+                    "server.port=0",
+                    "application.virtual-threads.enabled=" + virtualThreads,
+                    OWN_CACHE_MANAGER
+                )
+                .run()
+        ) {
+            JwtDecoder jwtDecoder = context.getBean(JwtDecoder.class);
+            Jwt jwt = Jwt
+                .withTokenValue("token")
+                .header("alg", "none")
+                .subject("load")
+                .claim("groups", List.of(AuthoritiesConstants.USER))
+                .build();
+            when(jwtDecoder.decode(anyString())).thenReturn(jwt);
+            Restaurante restaurante = seed(context);
+            try {
+                String url =
+                    "http://localhost:" +
+                    context.getEnvironment().getProperty("local.server.port") +
+                    "/api/pedidos?restauranteId.equals=" +
+                    restaurante.getId();
+                load(url, WARM_UP_REQUESTS_PER_CLIENT);
+                Result result = load(url, REQUESTS_PER_CLIENT);
+
+                DataSource dataSource = context.getBean(DataSource.class);
+                assertThat(dataSource instanceof ConnectionLimitingDataSource).isEqualTo(virtualThreads);
+                if (virtualThreads) {
+                    // Every connection handed out was given back
+                    assertThat(((ConnectionLimitingDataSource) dataSource).getAvailablePermits())
+                        .isEqualTo(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+                }
+                return result;
+            } finally {
+                cleanUp(context, restaurante);
+            }
+        }
+    }
+
+    private Result load(String url, int requestsPerClient) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer token").build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(
+                    clients.submit(() -> {
+                        start.await();
+                        long[] latencies = new long[requestsPerClient];
+                        for (int r = 0; r < requestsPerClient; r++) {
+                            long sent = System.nanoTime();
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            latencies[r] = System.nanoTime() - sent;
+                            assertThat(response.statusCode()).isEqualTo(200);
+                        }
+                        return latencies;
+                    })
+                );
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            long[] latencies = new long[CLIENTS * requestsPerClient];
+            for (int i = 0; i < CLIENTS; i++) {
+                System.arraycopy(futures.get(i).get(), 0, latencies, i * requestsPerClient, requestsPerClient);
+            }
+            long elapsed = System.nanoTime() - begin;
+            Arrays.sort(latencies);
+            return new Result(
+                latencies.length * 1_000_000_000L / Math.max(elapsed, 1),
+                latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000
+            );
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static Restaurante seed(ConfigurableApplicationContext context) {
+        Restaurante restaurante = context.getBean(RestauranteRepository.class).save(new Restaurante().nome("Load"));
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos.add(
+                new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.now()).senha(i + 1).restaurante(restaurante)
+            );
+        }
+        context.getBean(PedidoRepository.class).saveAll(pedidos);
+        return restaurante;
+    }
+
+    private static void cleanUp(ConfigurableApplicationContext context, Restaurante restaurante) {
+        EntityManager em = context.getBean(EntityManager.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+            .executeWithoutResult(
+                status -> {
+                    Long id = restaurante.getId();
+                    em.createQuery("delete from Pedido p where p.restaurante.id = :id").setParameter("id", id).executeUpdate();
+                    em.createQuery("delete from Restaurante r where r.id = :id").setParameter("id", id).executeUpdate();
+                }
+            );
+    }
+
+    private static final class Result {
+
+        private final long requestsPerSecond;
+
+        private final long p99Millis;
+
+        private Result(long requestsPerSecond, long p99Millis) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.p99Millis = p99Millis;
+        }
+    }
+}
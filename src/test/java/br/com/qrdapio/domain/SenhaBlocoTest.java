@@ -0,0 +1,23 @@
+package br.com.qrdapio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SenhaBlocoTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SenhaBloco.class);
+        SenhaBloco senhaBloco1 = new SenhaBloco();
+        senhaBloco1.setId(1L);
+        SenhaBloco senhaBloco2 = new SenhaBloco();
+        senhaBloco2.setId(senhaBloco1.getId());
+        assertThat(senhaBloco1).isEqualTo(senhaBloco2);
+        senhaBloco2.setId(2L);
+        assertThat(senhaBloco1).isNotEqualTo(senhaBloco2);
+        senhaBloco1.setId(null);
+        assertThat(senhaBloco1).isNotEqualTo(senhaBloco2);
+    }
+}
@@ -8,10 +8,12 @@ import static org.mockito.Mockito.when;
 
 import br.com.qrdapio.IntegrationTest;
 import br.com.qrdapio.QrDapioApp;
+import br.com.qrdapio.config.ApplicationProperties;
 import br.com.qrdapio.config.TestSecurityConfiguration;
 import br.com.qrdapio.security.AuthoritiesConstants;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -46,7 +48,14 @@ class CustomClaimConverterIT {
 
     @BeforeEach
     public void initTest() {
-        customClaimConverter = new CustomClaimConverter(clientRegistrationRepository.findByRegistrationId("oidc"), restTemplate);
+        customClaimConverter =
+            new CustomClaimConverter(
+                clientRegistrationRepository.findByRegistrationId("oidc"),
+                restTemplate,
+                new ApplicationProperties.UserInfo(),
+                Runnable::run,
+                new SimpleMeterRegistry()
+            );
     }
 
     private void mockHttpGetUserInfo(ObjectNode userInfo) {
@@ -0,0 +1,210 @@
+package br.com.qrdapio.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Tests for the user-info cache of {@link CustomClaimConverter}, against a local stub of the userinfo endpoint.
+ */
+class CustomClaimConverterTest {
+
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(1);
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private volatile int status = 200;
+
+    private volatile long delayMillis = 0;
+
+    private HttpServer userInfoServer;
+
+    private MeterRegistry meterRegistry;
+
+    private CustomClaimConverter customClaimConverter;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        userInfoServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        userInfoServer.createContext(
+            "/userinfo",
+            exchange -> {
+                int call = calls.incrementAndGet();
+                sleep(delayMillis);
+                byte[] body = ("{\"preferred_username\":\"admin\",\"given_name\":\"John" + call + "\",\"family_name\":\"Doe\"}").getBytes(
+                        StandardCharsets.UTF_8
+                    );
+                if (status == 204) {
+                    exchange.sendResponseHeaders(status, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        );
+        userInfoServer.setExecutor(Executors.newCachedThreadPool());
+        userInfoServer.start();
+
+        ClientRegistration registration = ClientRegistration
+            .withRegistrationId("oidc")
+            .clientId("web_app")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+            .authorizationUri("http://127.0.0.1/auth")
+            .tokenUri("http://127.0.0.1/token")
+            .userInfoUri("http://127.0.0.1:" + userInfoServer.getAddress().getPort() + "/userinfo")
+            .build();
+
+        ApplicationProperties.UserInfo properties = new ApplicationProperties.UserInfo();
+        properties.setRefreshAfter(REFRESH_AFTER);
+        properties.setTimeToLive(TIME_TO_LIVE);
+        meterRegistry = new SimpleMeterRegistry();
+        // Background refreshes run on the calling thread, so that the tests can check their outcome right away
+        customClaimConverter =
+            new CustomClaimConverter(registration, new RestTemplate(), properties, Runnable::run, meterRegistry, nanos::get);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userInfoServer.stop(0);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void cachedUserIsNotLoadedAgain() {
+        assertThat(givenName("123")).isEqualTo("John1");
+        assertThat(givenName("123")).isEqualTo("John1");
+
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "userInfo").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "userInfo").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRequestsForOneUserLoadItOnce() throws Exception {
+        delayMillis = 200;
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(
+                    executor.submit(() -> {
+                        start.await();
+                        return givenName("123");
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("John1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void staleUserIsServedWhileRefreshed() {
+        assertThat(givenName("123")).isEqualTo("John1");
+
+        nanos.addAndGet(REFRESH_AFTER.toNanos());
+
+        assertThat(givenName("123")).isEqualTo("John1");
+        assertThat(calls).hasValue(2);
+        assertThat(givenName("123")).isEqualTo("John2");
+        assertThat(calls).hasValue(2);
+        assertThat(meterRegistry.get("cache.refreshes").tag("result", "success").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRefreshKeepsStaleUser() {
+        assertThat(givenName("123")).isEqualTo("John1");
+
+        status = 500;
+        nanos.addAndGet(REFRESH_AFTER.toNanos());
+
+        assertThat(givenName("123")).isEqualTo("John1");
+        assertThat(givenName("123")).isEqualTo("John1");
+        assertThat(meterRegistry.get("cache.refreshes").tag("result", "failure").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyRefreshIsRetried() {
+        assertThat(givenName("123")).isEqualTo("John1");
+
+        status = 204;
+        nanos.addAndGet(REFRESH_AFTER.toNanos());
+
+        assertThat(givenName("123")).isEqualTo("John1");
+        assertThat(calls).hasValue(2);
+        status = 200;
+        assertThat(givenName("123")).isEqualTo("John1");
+        assertThat(calls).hasValue(3);
+        assertThat(givenName("123")).isEqualTo("John3");
+    }
+
+    @Test
+    void expiredUserIsLoadedAgain() {
+        assertThat(givenName("123")).isEqualTo("John1");
+
+        nanos.addAndGet(TIME_TO_LIVE.toNanos());
+
+        assertThat(givenName("123")).isEqualTo("John2");
+        assertThat(calls).hasValue(2);
+    }
+
+    private String givenName(String sub) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token-" + sub);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", sub);
+        return customClaimConverter.convert(claims).get("given_name").toString();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
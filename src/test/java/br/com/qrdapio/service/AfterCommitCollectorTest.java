@@ -0,0 +1,72 @@
+package br.com.qrdapio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests of {@link AfterCommitCollector}, with the synchronizations of a transaction committed by hand.
+ */
+class AfterCommitCollectorTest {
+
+    private final Object service = new Object();
+
+    private final Object otherService = new Object();
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void idsAreHandledOnceTheTransactionCommits() {
+        List<Set<Long>> handled = new ArrayList<>();
+        List<Set<Long>> handledByOther = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommitCollector.collect(service, 1L, handled::add);
+        AfterCommitCollector.collect(otherService, 3L, handledByOther::add);
+        AfterCommitCollector.collect(service, 2L, handled::add);
+        AfterCommitCollector.collect(service, 1L, handled::add);
+        assertThat(handled).isEmpty();
+
+        commit();
+        assertThat(handled).containsExactly(Set.of(1L, 2L));
+        assertThat(handledByOther).containsExactly(Set.of(3L));
+    }
+
+    @Test
+    void idsAreHandledRightAwayWithoutTransaction() {
+        List<Set<Long>> handled = new ArrayList<>();
+
+        AfterCommitCollector.collect(service, 1L, handled::add);
+
+        assertThat(handled).containsExactly(Set.of(1L));
+    }
+
+    @Test
+    void synchronizationsAreRegisteredOnce() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionSynchronization synchronization = AfterCommitCollector.registered(Pending.class, Pending::new);
+
+        assertThat(AfterCommitCollector.registered(Pending.class, Pending::new)).isSameAs(synchronization);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).containsExactly(synchronization);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static final class Pending implements TransactionSynchronization {}
+}
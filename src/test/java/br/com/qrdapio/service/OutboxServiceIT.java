@@ -0,0 +1,195 @@
+package br.com.qrdapio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.OutboxMessage;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import br.com.qrdapio.service.outbox.FileOutboxSink;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link OutboxService}, with the {@link FileOutboxSink} of the test configuration.
+ * <p>
+ * Not transactional on purpose: events are only written when their transaction commits.
+ */
+@IntegrationTest
+class OutboxServiceIT {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Restaurante restaurante;
+
+    private ItemCardapio moqueca;
+
+    @BeforeEach
+    public void initTest() throws IOException {
+        // The ids start over with the database, the events of the previous runs would match them
+        Files.deleteIfExists(Paths.get(applicationProperties.getOutbox().getFile().getPath()));
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Outbox");
+                em.persist(restaurante);
+                Cardapio cardapio = new Cardapio().nome("Outbox").restaurante(restaurante);
+                em.persist(cardapio);
+                moqueca =
+                    new ItemCardapio()
+                        .categoria(Categoria.PRATO)
+                        .nome("Moqueca")
+                        .descricao("Moqueca")
+                        .valor(BigDecimal.TEN)
+                        .cardapio(cardapio);
+                em.persist(moqueca);
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                delete("delete from OutboxMessage m where m.restauranteId = :id");
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void committedPedidoIsDeliveredOnce() throws Exception {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(List.of(new ItemPedidoSubmissionDTO(moqueca.getId(), 2)));
+        Pedido pedido = pedidoService.submit(restaurante.getId(), submission);
+
+        outboxService.relay();
+
+        List<JsonNode> events = delivered(pedido.getId());
+        assertThat(events).hasSize(1);
+        JsonNode event = events.get(0);
+        assertThat(event.get("eventType").asText()).isEqualTo(OutboxService.PEDIDO_CHANGED);
+        assertThat(event.get("restauranteId").asLong()).isEqualTo(restaurante.getId());
+        assertThat(event.at("/payload/itens/0/nome").asText()).isEqualTo("Moqueca");
+        assertThat(event.at("/payload/itens/0/quantidade").asInt()).isEqualTo(2);
+        assertThat(event.at("/payload/itens/0/valorUnitario").decimalValue()).isEqualByComparingTo(BigDecimal.TEN);
+        assertThat(event.at("/payload/status").asText()).isEqualTo(StatusPedido.RECEBIDO.name());
+        assertThat(event.at("/payload/total").decimalValue()).isEqualByComparingTo("20");
+        assertThat(messages()).isEmpty();
+    }
+
+    @Test
+    void rolledBackPedidoIsNotWritten() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    Pedido pedido = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.now()).senha(1);
+                    em.persist(pedido.restaurante(restaurante));
+                    em.flush();
+                    status.setRollbackOnly();
+                }
+            );
+
+        assertThat(messages()).isEmpty();
+    }
+
+    @Test
+    void failedDeliveryIsRetriedLater() {
+        Instant now = Instant.now();
+        inTransaction(
+            () ->
+                em.persist(
+                    new OutboxMessage()
+                        .sink("missing")
+                        .eventType(OutboxService.PEDIDO_CHANGED)
+                        .restauranteId(restaurante.getId())
+                        .aggregateId(1L)
+                        .payload("{}")
+                        .createdAt(now)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                )
+        );
+
+        outboxService.relay();
+
+        List<OutboxMessage> messages = messages();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).getAttempts()).isEqualTo(1);
+        assertThat(messages.get(0).getNextAttemptAt())
+            .isAfterOrEqualTo(now.plus(applicationProperties.getOutbox().getInitialBackoff()));
+    }
+
+    private List<JsonNode> delivered(Long pedidoId) throws IOException {
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(applicationProperties.getOutbox().getFile().getPath()))) {
+            JsonNode event = objectMapper.readTree(line);
+            if (event.get("aggregateId").asLong() == pedidoId) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private List<OutboxMessage> messages() {
+        return new TransactionTemplate(transactionManager)
+            .execute(
+                status ->
+                    em
+                        .createQuery("select m from OutboxMessage m where m.restauranteId = :id", OutboxMessage.class)
+                        .setParameter("id", restaurante.getId())
+                        .getResultList()
+            );
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
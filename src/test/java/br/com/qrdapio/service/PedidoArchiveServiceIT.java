@@ -0,0 +1,306 @@
+package br.com.qrdapio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.service.archive.PartitionFile;
+import br.com.qrdapio.service.dto.VendaDiariaDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Integration tests for {@link PedidoArchiveService}.
+ * <p>
+ * Not transactional on purpose: pedidos are archived in transactions of their own.
+ */
+@IntegrationTest
+class PedidoArchiveServiceIT {
+
+    private static final LocalDate DIA = LocalDate.of(2001, 3, 10);
+
+    @Autowired
+    private PedidoArchiveService pedidoArchiveService;
+
+    @Autowired
+    private PedidoExportService pedidoExportService;
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ZoneId timeZone;
+
+    private Path directory;
+
+    private Restaurante restaurante;
+
+    private Cardapio cardapio;
+
+    private Pedido entregue;
+
+    private Pedido cancelado;
+
+    private Pedido aberto;
+
+    private Pedido vazio;
+
+    private Pedido recente;
+
+    @BeforeEach
+    public void initTest() {
+        timeZone = ZoneId.of(applicationProperties.getSenha().getTimeZone());
+        directory = Paths.get(applicationProperties.getPedidoArchive().getDirectory());
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Arquivo");
+                em.persist(restaurante);
+                cardapio = new Cardapio().nome("Arquivo").restaurante(restaurante);
+                em.persist(cardapio);
+                ItemCardapio prato = createItem(cardapio, Categoria.PRATO, "Moqueca", "10.00");
+                ItemCardapio bebida = createItem(cardapio, Categoria.BEBIDA, "Suco, de caju", "5.00");
+
+                entregue = createPedido(StatusPedido.ENTREGUE, DIA.atTime(LocalTime.NOON).atZone(timeZone));
+                createLine(entregue, prato, 2);
+                createLine(entregue, bebida, 1);
+                cancelado = createPedido(StatusPedido.CANCELADO, DIA.plusMonths(1).atStartOfDay(timeZone));
+                createLine(cancelado, bebida, 3);
+                aberto = createPedido(StatusPedido.RECEBIDO, DIA.plusDays(1).atStartOfDay(timeZone));
+                createLine(aberto, prato, 1);
+                vazio = createPedido(StatusPedido.ENTREGUE, DIA.plusDays(2).atStartOfDay(timeZone));
+                recente = createPedido(StatusPedido.ENTREGUE, DIA.plusMonths(4).atStartOfDay(timeZone));
+                createLine(recente, prato, 1);
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        // Accumulated lines of the test must not be written after the cleanup
+        vendaDiariaService.flush();
+        inTransaction(
+            () -> {
+                delete("delete from VendaDiaria v where v.restauranteId = :id");
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+        FileSystemUtils.deleteRecursively(directory.toFile());
+        pedidoArchiveService.loadHorizon();
+    }
+
+    @Test
+    void closedPedidosOlderThanTheDateAreArchived() {
+        Instant before = DIA.plusMonths(3).atStartOfDay(timeZone).toInstant();
+
+        assertThat(pedidoArchiveService.archive(before)).isEqualTo(3);
+
+        assertThat(pedidoIds()).containsExactlyInAnyOrder(aberto.getId(), recente.getId());
+        assertThat(partition("2001-03")).exists();
+        assertThat(partition("2001-04")).exists();
+        assertThat(pedidoArchiveService.getHorizon()).contains(before);
+        // Nothing left to archive
+        assertThat(pedidoArchiveService.archive(before)).isZero();
+        assertThat(pedidoIds()).hasSize(2);
+    }
+
+    @Test
+    void monthsLongerThanABatchAreArchivedWhole() throws IOException {
+        ZonedDateTime dia = DIA.plusDays(5).atStartOfDay(timeZone);
+        inTransaction(
+            () -> {
+                ItemCardapio prato = createItem(cardapio, Categoria.PRATO, "Feijoada", "30.00");
+                for (int i = 0; i < 600; i++) {
+                    createLine(createPedido(StatusPedido.ENTREGUE, dia.plusMinutes(i)), prato, 1);
+                }
+            }
+        );
+
+        assertThat(pedidoArchiveService.archive(DIA.plusMonths(3).atStartOfDay(timeZone).toInstant())).isEqualTo(603);
+
+        assertThat(pedidoIds()).containsExactlyInAnyOrder(aberto.getId(), recente.getId());
+        assertThat(PartitionFile.read(partition("2001-03"), restaurante.getId()))
+            .filteredOn(line -> line.getItemPedidoId() != null)
+            .hasSize(602);
+    }
+
+    @Test
+    void horizonsOfOtherServersAreFollowed() throws IOException {
+        ZonedDateTime from = DIA.atStartOfDay(timeZone);
+        assertThat(pedidoArchiveService.reaches(from)).isFalse();
+
+        Instant before = DIA.plusMonths(3).atStartOfDay(timeZone).toInstant();
+        writeHorizon(before);
+        assertThat(pedidoArchiveService.getHorizon()).contains(before);
+        assertThat(pedidoArchiveService.reaches(from)).isTrue();
+
+        writeHorizon(before.plusSeconds(1));
+        assertThat(pedidoArchiveService.getHorizon()).contains(before.plusSeconds(1));
+    }
+
+    @Test
+    void exportsReadTheArchive() throws IOException {
+        pedidoArchiveService.archive(DIA.plusMonths(3).atStartOfDay(timeZone).toInstant());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZonedDateTime from = DIA.withDayOfYear(1).atStartOfDay(timeZone);
+        long lines = pedidoExportService.export(from, from.plusYears(1), restaurante.getId(), PedidoExportService.Format.NDJSON, out);
+
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            nodes.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).isEqualTo(5);
+        // The archived lines come first, the pedido without lines has none
+        assertThat(nodes)
+            .extracting(node -> node.get("pedidoId").asLong(), node -> node.get("item").asText(), node -> node.get("quantidade").asInt())
+            .containsExactly(
+                tuple(entregue.getId(), "Moqueca", 2),
+                tuple(entregue.getId(), "Suco, de caju", 1),
+                tuple(cancelado.getId(), "Suco, de caju", 3),
+                tuple(aberto.getId(), "Moqueca", 1),
+                tuple(recente.getId(), "Moqueca", 1)
+            );
+        assertThat(nodes.get(0).get("restauranteId").asLong()).isEqualTo(restaurante.getId());
+        assertThat(nodes.get(0).get("formaPagamento").asText()).isEqualTo("PIX");
+        assertThat(nodes.get(0).get("total").decimalValue()).isEqualByComparingTo("20.00");
+        assertThat(ZonedDateTime.parse(nodes.get(0).get("dataHora").asText()).toInstant())
+            .isEqualTo(entregue.getDataHora().toInstant());
+
+        // Periods after the horizon do not read the archive
+        out.reset();
+        ZonedDateTime recent = DIA.plusMonths(4).atStartOfDay(timeZone);
+        assertThat(pedidoExportService.export(recent, recent.plusDays(1), null, PedidoExportService.Format.CSV, out)).isEqualTo(1);
+    }
+
+    @Test
+    void backfillReadsTheArchive() throws InterruptedException {
+        awaitRollups(vendas -> vendas.size() == 2);
+        pedidoArchiveService.archive(DIA.plusMonths(3).atStartOfDay(timeZone).toInstant());
+
+        inTransaction(() -> vendaDiariaService.backfill(DIA, DIA));
+
+        List<VendaDiariaDTO> vendas = vendaDiariaService.findByRestaurante(restaurante.getId(), DIA, DIA);
+        assertThat(vendas)
+            .extracting(VendaDiariaDTO::getFormaPagamento, VendaDiariaDTO::getCategoria, VendaDiariaDTO::getQuantidade)
+            .containsExactly(tuple(FormaPagamento.PIX, Categoria.BEBIDA, 1L), tuple(FormaPagamento.PIX, Categoria.PRATO, 2L));
+        assertThat(vendas.get(1).getTotal()).isEqualByComparingTo("20.00");
+    }
+
+    private void awaitRollups(Predicate<List<VendaDiariaDTO>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<VendaDiariaDTO> vendas;
+        do {
+            Thread.sleep(20);
+            vendaDiariaService.flush();
+            vendas = vendaDiariaService.findByRestaurante(restaurante.getId(), DIA, DIA);
+        } while (!condition.test(vendas) && System.currentTimeMillis() < deadline);
+        assertThat(condition.test(vendas)).as("rollups of %s: %s", DIA, vendas).isTrue();
+    }
+
+    private List<Long> pedidoIds() {
+        return new TransactionTemplate(transactionManager)
+            .execute(
+                status ->
+                    em
+                        .createQuery("select p.id from Pedido p where p.restaurante.id = :id", Long.class)
+                        .setParameter("id", restaurante.getId())
+                        .getResultList()
+            );
+    }
+
+    /**
+     * Replace the horizon file, as the archiving of another server does.
+     */
+    private void writeHorizon(Instant horizon) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "horizon", ".tmp");
+        Files.writeString(temporary, horizon.toString(), StandardCharsets.UTF_8);
+        Files.move(temporary, directory.resolve("horizon"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path partition(String month) {
+        return directory.resolve(restaurante.getId().toString()).resolve(month + ".gz");
+    }
+
+    private ItemCardapio createItem(Cardapio cardapio, Categoria categoria, String nome, String valor) {
+        ItemCardapio item = new ItemCardapio()
+            .categoria(categoria)
+            .nome(nome)
+            .descricao(nome)
+            .valor(new BigDecimal(valor))
+            .cardapio(cardapio);
+        em.persist(item);
+        return item;
+    }
+
+    private Pedido createPedido(StatusPedido status, ZonedDateTime dataHora) {
+        Pedido pedido = new Pedido()
+            .formaPagamento(FormaPagamento.PIX)
+            .dataHora(dataHora)
+            .senha(1)
+            .status(status)
+            .restaurante(restaurante);
+        em.persist(pedido);
+        return pedido;
+    }
+
+    private void createLine(Pedido pedido, ItemCardapio item, int quantidade) {
+        em.persist(new ItemPedido().quantidade(quantidade).valorUnitario(item.getValor()).item(item).pedido(pedido));
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
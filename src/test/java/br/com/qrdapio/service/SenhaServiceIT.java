@@ -0,0 +1,127 @@
+package br.com.qrdapio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.repository.SenhaBlocoRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link SenhaService}.
+ * <p>
+ * Not transactional on purpose: blocks are reserved in their own transaction.
+ */
+@IntegrationTest
+class SenhaServiceIT {
+
+    private static final LocalDate DIA = LocalDate.of(2021, 5, 1);
+
+    private static final AtomicLong restauranteIds = new AtomicLong(Long.MAX_VALUE / 2);
+
+    @Autowired
+    private SenhaService senhaService;
+
+    @Autowired
+    private SenhaBlocoRepository senhaBlocoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final List<Long> usedRestauranteIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        senhaBlocoRepository
+            .findAll()
+            .stream()
+            .filter(senhaBloco -> usedRestauranteIds.contains(senhaBloco.getRestauranteId()))
+            .forEach(senhaBlocoRepository::delete);
+    }
+
+    @Test
+    void nextSenhaIsSequentialPerRestauranteAndDay() {
+        Long restauranteId = newRestauranteId();
+        Long outroRestauranteId = newRestauranteId();
+
+        assertThat(senhaService.nextSenha(restauranteId, DIA)).isEqualTo(1);
+        assertThat(senhaService.nextSenha(restauranteId, DIA)).isEqualTo(2);
+        assertThat(senhaService.nextSenha(outroRestauranteId, DIA)).isEqualTo(1);
+        assertThat(senhaService.nextSenha(restauranteId, DIA)).isEqualTo(3);
+        assertThat(senhaService.nextSenha(restauranteId, DIA.plusDays(1))).isEqualTo(1);
+    }
+
+    @Test
+    void nextSenhaCrossesBlocks() {
+        Long restauranteId = newRestauranteId();
+        int blockSize = applicationProperties.getSenha().getBlockSize();
+
+        for (int i = 1; i <= 2 * blockSize + 1; i++) {
+            assertThat(senhaService.nextSenha(restauranteId, DIA)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void nextSenhaDoesNotReuseNumbersAfterRestart() {
+        Long restauranteId = newRestauranteId();
+        assertThat(senhaService.nextSenha(restauranteId, DIA)).isEqualTo(1);
+
+        SenhaService restarted = new SenhaService(senhaBlocoRepository, transactionManager, applicationProperties);
+
+        // The rest of the first block was reserved by the previous instance and is skipped
+        assertThat(restarted.nextSenha(restauranteId, DIA)).isEqualTo(applicationProperties.getSenha().getBlockSize() + 1);
+    }
+
+    @Test
+    void nextSenhaIsUniqueUnderContention() throws Exception {
+        Long restauranteId = newRestauranteId();
+        int threads = 8;
+        int senhasPerThread = 200;
+        Set<Integer> senhas = ConcurrentHashMap.newKeySet();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(
+                () -> {
+                    for (int j = 0; j < senhasPerThread; j++) {
+                        assertThat(senhas.add(senhaService.nextSenha(restauranteId, DIA))).isTrue();
+                    }
+                    return null;
+                }
+            );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(senhas).hasSize(threads * senhasPerThread);
+        assertThat(senhas).allMatch(senha -> senha >= 1 && senha <= threads * senhasPerThread);
+    }
+
+    private Long newRestauranteId() {
+        Long restauranteId = restauranteIds.incrementAndGet();
+        usedRestauranteIds.add(restauranteId);
+        return restauranteId;
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.qrdapio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.config.LiquibaseConfiguration;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import br.com.qrdapio.service.dto.ShardDTO;
+import br.com.qrdapio.service.dto.ShardMoveDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests of {@link ShardRebalancingService}, with two in-memory H2 databases standing for the default shard and
+ * another one.
+ */
+class ShardRebalancingServiceTest {
+
+    private static final long RESTAURANTE_ID = 1051L;
+
+    private ShardRoutingDataSource dataSource;
+
+    private ShardMap shardMap;
+
+    private ShardRebalancingService shardRebalancingService;
+
+    private JdbcTemplate defaultShard;
+
+    private JdbcTemplate shard1;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(ShardRoutingDataSource.DEFAULT_SHARD, createShard("rebalancing-default", true));
+        shards.put("shard-1", createShard("rebalancing-shard-1", false));
+        dataSource = new ShardRoutingDataSource(shards);
+        shardMap = new ShardMap(dataSource);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSharding().setMapRefreshInterval(Duration.ZERO);
+        shardRebalancingService = new ShardRebalancingService(shardMap, applicationProperties);
+        defaultShard = new JdbcTemplate(shards.get(ShardRoutingDataSource.DEFAULT_SHARD));
+        shard1 = new JdbcTemplate(shards.get("shard-1"));
+
+        insertRestaurante(defaultShard, RESTAURANTE_ID, 1100L);
+        insertRestaurante(defaultShard, 2051L, 2100L);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        defaultShard.execute("drop all objects");
+        shard1.execute("drop all objects");
+        dataSource.close();
+    }
+
+    @Test
+    void moveCopiesTheRestauranteAndDeletesItFromItsShard() {
+        ShardMoveDTO move = shardRebalancingService.move(RESTAURANTE_ID, "shard-1").orElseThrow();
+
+        assertThat(move.getOrigem()).isEqualTo("default");
+        assertThat(move.getDestino()).isEqualTo("shard-1");
+        assertThat(move.getLinhas()).isEqualTo(7L);
+        assertThat(shardMap.shardOf(RESTAURANTE_ID)).isEqualTo("shard-1");
+        assertThat(shardMap.isMoving(RESTAURANTE_ID)).isFalse();
+        assertThat(rows(shard1, RESTAURANTE_ID)).isEqualTo(7L);
+        assertThat(rows(defaultShard, RESTAURANTE_ID)).isZero();
+        // Other restaurantes stay where they are
+        assertThat(rows(defaultShard, 2051L)).isEqualTo(7L);
+        assertThat(shard1.queryForObject("select nome from item_cardapio where id = 1102", String.class)).isEqualTo("Moqueca");
+    }
+
+    @Test
+    void moveBackRestoresTheDefaultShard() {
+        shardRebalancingService.move(RESTAURANTE_ID, "shard-1");
+
+        shardRebalancingService.move(RESTAURANTE_ID, "default");
+
+        assertThat(shardMap.shardOf(RESTAURANTE_ID)).isEqualTo("default");
+        assertThat(rows(defaultShard, RESTAURANTE_ID)).isEqualTo(7L);
+        assertThat(rows(shard1, RESTAURANTE_ID)).isZero();
+    }
+
+    @Test
+    void failedMoveLeavesTheRestauranteInPlace() {
+        // Clashes with the copy of the restaurante
+        shard1.update("insert into restaurante (id, nome) values (?, 'Outro')", RESTAURANTE_ID);
+
+        assertThatThrownBy(() -> shardRebalancingService.move(RESTAURANTE_ID, "shard-1"))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(shardMap.shardOf(RESTAURANTE_ID)).isEqualTo("default");
+        assertThat(shardMap.isMoving(RESTAURANTE_ID)).isFalse();
+        assertThat(rows(defaultShard, RESTAURANTE_ID)).isEqualTo(7L);
+        assertThat(shard1.queryForObject("select count(*) from cardapio", Long.class)).isZero();
+    }
+
+    @Test
+    void moveOfUnknownRestaurante() {
+        assertThat(shardRebalancingService.move(Long.MAX_VALUE, "shard-1")).isEmpty();
+        assertThatThrownBy(() -> shardRebalancingService.move(RESTAURANTE_ID, "shard-2"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findAllCountsTheRestaurantesOfEachShard() {
+        shardRebalancingService.move(RESTAURANTE_ID, "shard-1");
+
+        assertThat(shardRebalancingService.findAll())
+            .extracting(ShardDTO::getNome, ShardDTO::getRestaurantes)
+            .containsExactly(tuple("default", 1L), tuple("shard-1", 1L));
+    }
+
+    private static DataSource createShard(String name, boolean defaultShard) throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        LiquibaseProperties liquibaseProperties = new LiquibaseProperties();
+        liquibaseProperties.setContexts("test");
+        if (defaultShard) {
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(pool);
+            liquibase.setResourceLoader(new DefaultResourceLoader());
+            liquibase.setChangeLog("classpath:config/liquibase/master.xml");
+            liquibase.setContexts(liquibaseProperties.getContexts());
+            liquibase.afterPropertiesSet();
+        } else {
+            LiquibaseConfiguration.ShardLiquibase liquibase = new LiquibaseConfiguration.ShardLiquibase(
+                Map.of(name, pool),
+                liquibaseProperties,
+                true
+            );
+            liquibase.setResourceLoader(new DefaultResourceLoader());
+            liquibase.afterPropertiesSet();
+        }
+        return pool;
+    }
+
+    /**
+     * Insert a restaurante with one row in each of its tables, with ids from {@code id}.
+     */
+    private static void insertRestaurante(JdbcTemplate shard, long restauranteId, long id) {
+        shard.update("insert into restaurante (id, nome) values (?, 'Restaurante')", restauranteId);
+        shard.update("insert into cardapio (id, nome, restaurante_id) values (?, 'Cardapio', ?)", id, restauranteId);
+        shard.update(
+            "insert into item_cardapio (id, categoria, nome, descricao, valor, cardapio_id) " +
+            "values (?, 'PRATO', 'Moqueca', 'Moqueca', 42.50, ?)",
+            id + 2,
+            id
+        );
+        shard.update(
+            "insert into pedido (id, forma_pagamento, data_hora, senha, restaurante_id) " +
+            "values (?, 'PIX', current_timestamp, 1, ?)",
+            id + 3,
+            restauranteId
+        );
+        shard.update("insert into item_pedido (id, quantidade, item_id, pedido_id) values (?, 2, ?, ?)", id + 4, id + 2, id + 3);
+        shard.update(
+            "insert into senha_bloco (id, restaurante_id, dia, proximo) values (?, ?, current_date, 2)",
+            id + 5,
+            restauranteId
+        );
+        shard.update(
+            "insert into sales_daily_rollup (id, restaurante_id, dia, forma_pagamento, categoria, quantidade, total) " +
+            "values (?, ?, current_date, 'PIX', 'PRATO', 2, 85.00)",
+            id + 6,
+            restauranteId
+        );
+    }
+
+    /**
+     * @return the number of rows of a restaurante in a shard.
+     */
+    private static long rows(JdbcTemplate shard, long restauranteId) {
+        return shard.queryForObject(
+            "select (select count(*) from restaurante where id = ?) + (select count(*) from cardapio where restaurante_id = ?) + " +
+            "(select count(*) from item_cardapio where cardapio_id in (select id from cardapio where restaurante_id = ?)) + " +
+            "(select count(*) from pedido where restaurante_id = ?) + " +
+            "(select count(*) from item_pedido where pedido_id in (select id from pedido where restaurante_id = ?)) + " +
+            "(select count(*) from senha_bloco where restaurante_id = ?) + " +
+            "(select count(*) from sales_daily_rollup where restaurante_id = ?)",
+            Long.class,
+            restauranteId,
+            restauranteId,
+            restauranteId,
+            restauranteId,
+            restauranteId,
+            restauranteId,
+            restauranteId
+        );
+    }
+}
@@ -0,0 +1,211 @@
+package br.com.qrdapio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.VendaDiaria;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.repository.VendaDiariaRepository;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.VendaDiariaDTO;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link VendaDiariaService}.
+ * <p>
+ * Not transactional on purpose: lines are only accumulated once their transaction commits.
+ */
+@IntegrationTest
+class VendaDiariaServiceIT {
+
+    private static final LocalDate DIA = LocalDate.of(2001, 3, 10);
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ZoneId timeZone;
+
+    private Restaurante restaurante;
+
+    private ItemCardapio prato;
+
+    private ItemCardapio bebida;
+
+    private ItemCardapio outroPrato;
+
+    @BeforeEach
+    public void initTest() {
+        timeZone = ZoneId.of("America/Sao_Paulo");
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Vendas");
+                em.persist(restaurante);
+                Cardapio cardapio = new Cardapio().nome("Vendas").restaurante(restaurante);
+                em.persist(cardapio);
+                prato = createItem(cardapio, Categoria.PRATO, "10.00");
+                bebida = createItem(cardapio, Categoria.BEBIDA, "5.00");
+                outroPrato = createItem(cardapio, Categoria.PRATO, "10.00");
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        // Accumulated lines of the test must not be written after the cleanup
+        vendaDiariaService.flush();
+        inTransaction(
+            () -> {
+                delete("delete from VendaDiaria v where v.restauranteId = :id");
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void committedPedidosAreAddedToTheRollups() throws Exception {
+        submit(FormaPagamento.PIX, new ItemPedidoSubmissionDTO(prato.getId(), 2), new ItemPedidoSubmissionDTO(bebida.getId(), 3));
+        LocalDate today = vendaDiariaService.today();
+        awaitRollups(today, vendas -> vendas.size() == 2);
+
+        // The second pedido updates the rows of the first one in place
+        submit(FormaPagamento.PIX, new ItemPedidoSubmissionDTO(outroPrato.getId(), 1));
+        List<VendaDiariaDTO> vendas = awaitRollups(today, rows -> rows.stream().mapToLong(VendaDiariaDTO::getQuantidade).sum() == 6);
+
+        assertThat(vendas)
+            .extracting(
+                VendaDiariaDTO::getDia,
+                VendaDiariaDTO::getFormaPagamento,
+                VendaDiariaDTO::getCategoria,
+                VendaDiariaDTO::getQuantidade
+            )
+            .containsExactly(tuple(today, FormaPagamento.PIX, Categoria.BEBIDA, 3L), tuple(today, FormaPagamento.PIX, Categoria.PRATO, 3L));
+        assertThat(vendas.get(0).getTotal()).isEqualByComparingTo("15.00");
+        assertThat(vendas.get(1).getTotal()).isEqualByComparingTo("30.00");
+        assertThat(vendaDiariaRepository.findAll().stream().filter(venda -> venda.getRestauranteId().equals(restaurante.getId())))
+            .hasSize(2);
+    }
+
+    @Test
+    void backfillRebuildsPastDays() throws Exception {
+        inTransaction(
+            () -> {
+                // Just before midnight in the business time zone, still the same day there
+                Pedido pedido = createPedido(FormaPagamento.CREDITO, DIA.atTime(LocalTime.of(23, 59)).atZone(timeZone));
+                em.persist(new ItemPedido().quantidade(4).valorUnitario(prato.getValor()).item(prato).pedido(pedido));
+                Pedido outro = createPedido(FormaPagamento.DEBITO, DIA.plusDays(1).atStartOfDay(timeZone));
+                em.persist(new ItemPedido().quantidade(1).valorUnitario(bebida.getValor()).item(bebida).pedido(outro));
+                // A stale rollup, from lines deleted since
+                em.persist(
+                    new VendaDiaria()
+                        .restauranteId(restaurante.getId())
+                        .dia(DIA)
+                        .formaPagamento(FormaPagamento.PIX)
+                        .categoria(Categoria.SOBREMESA)
+                        .quantidade(7L)
+                        .total(BigDecimal.TEN)
+                );
+            }
+        );
+        // The lines of the past pedidos were accumulated too
+        awaitRollups(DIA, vendas -> vendas.size() == 2);
+
+        for (int i = 0; i < 2; i++) {
+            inTransaction(() -> vendaDiariaService.backfill(DIA, DIA));
+
+            List<VendaDiariaDTO> vendas = vendaDiariaService.findByRestaurante(restaurante.getId(), DIA, DIA.plusDays(1));
+            assertThat(vendas)
+                .extracting(
+                    VendaDiariaDTO::getDia,
+                    VendaDiariaDTO::getFormaPagamento,
+                    VendaDiariaDTO::getCategoria,
+                    VendaDiariaDTO::getQuantidade
+                )
+                .containsExactly(
+                    tuple(DIA, FormaPagamento.CREDITO, Categoria.PRATO, 4L),
+                    tuple(DIA.plusDays(1), FormaPagamento.DEBITO, Categoria.BEBIDA, 1L)
+                );
+            assertThat(vendas.get(0).getTotal()).isEqualByComparingTo("40.00");
+        }
+    }
+
+    private List<VendaDiariaDTO> awaitRollups(LocalDate dia, Predicate<List<VendaDiariaDTO>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<VendaDiariaDTO> vendas;
+        do {
+            Thread.sleep(20);
+            vendaDiariaService.flush();
+            vendas = vendaDiariaService.findByRestaurante(restaurante.getId(), dia, dia);
+        } while (!condition.test(vendas) && System.currentTimeMillis() < deadline);
+        assertThat(condition.test(vendas)).as("rollups of %s: %s", dia, vendas).isTrue();
+        return vendas;
+    }
+
+    private void submit(FormaPagamento formaPagamento, ItemPedidoSubmissionDTO... itens) {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(formaPagamento);
+        submission.setItens(List.of(itens));
+        pedidoService.submit(restaurante.getId(), submission);
+    }
+
+    private ItemCardapio createItem(Cardapio cardapio, Categoria categoria, String valor) {
+        ItemCardapio item = new ItemCardapio()
+            .categoria(categoria)
+            .nome(categoria.name())
+            .descricao(categoria.name())
+            .valor(new BigDecimal(valor))
+            .cardapio(cardapio);
+        em.persist(item);
+        return item;
+    }
+
+    private Pedido createPedido(FormaPagamento formaPagamento, ZonedDateTime dataHora) {
+        Pedido pedido = new Pedido().formaPagamento(formaPagamento).dataHora(dataHora).senha(1).restaurante(restaurante);
+        em.persist(pedido);
+        return pedido;
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
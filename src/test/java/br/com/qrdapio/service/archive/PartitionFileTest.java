@@ -0,0 +1,141 @@
+package br.com.qrdapio.service.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PartitionFileTest {
+
+    private static final ZonedDateTime DATA_HORA = ZonedDateTime.parse("2001-03-10T12:30:15.123-03:00");
+
+    private static final BigDecimal MOQUECA = new BigDecimal("10.50");
+
+    private static final BigDecimal SUCO = new BigDecimal("5.00");
+
+    @Test
+    void linesAreReadAsWritten() throws IOException {
+        List<ArchivedLine> lines = List.of(
+            line(10, 100L, DATA_HORA).senha(7).item("Moqueca").categoria(Categoria.PRATO).quantidade(2).valorUnitario(MOQUECA),
+            line(10, 101L, DATA_HORA).senha(7).item("Suco").categoria(Categoria.BEBIDA).quantidade(1).valorUnitario(SUCO),
+            // Lower ids than the line before, and no lines
+            line(3, null, DATA_HORA.plusHours(1)),
+            line(11, 90L, DATA_HORA.withZoneSameInstant(ZoneOffset.UTC).plusDays(1)).item("Moqueca").quantidade(1)
+        );
+
+        List<ArchivedLine> read = PartitionFile.read(new ByteArrayInputStream(write(lines)), 42L);
+
+        assertThat(read)
+            .extracting(
+                ArchivedLine::getPedidoId,
+                ArchivedLine::getRestauranteId,
+                ArchivedLine::getDataHora,
+                ArchivedLine::getSenha,
+                ArchivedLine::getFormaPagamento,
+                ArchivedLine::getStatus,
+                ArchivedLine::getItemPedidoId,
+                ArchivedLine::getItemId,
+                ArchivedLine::getItem,
+                ArchivedLine::getCategoria,
+                ArchivedLine::getQuantidade,
+                ArchivedLine::getValorUnitario
+            )
+            .containsExactly(
+                tuple(10L, 42L, DATA_HORA, 7, FormaPagamento.PIX, StatusPedido.ENTREGUE, 100L, 1L, "Moqueca", Categoria.PRATO, 2, MOQUECA),
+                tuple(10L, 42L, DATA_HORA, 7, FormaPagamento.PIX, StatusPedido.ENTREGUE, 101L, 1L, "Suco", Categoria.BEBIDA, 1, SUCO),
+                tuple(3L, 42L, DATA_HORA.plusHours(1), null, FormaPagamento.PIX, StatusPedido.ENTREGUE, null, null, null, null, null, null),
+                tuple(
+                    11L,
+                    42L,
+                    DATA_HORA.withZoneSameInstant(ZoneOffset.UTC).plusDays(1),
+                    null,
+                    FormaPagamento.PIX,
+                    StatusPedido.ENTREGUE,
+                    90L,
+                    1L,
+                    "Moqueca",
+                    null,
+                    1,
+                    null
+                )
+            );
+    }
+
+    @Test
+    void repeatedValuesAreWrittenOnce() throws IOException {
+        List<ArchivedLine> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add(
+                line(i / 2, (long) i, DATA_HORA.plusMinutes(i))
+                    .senha(i % 100)
+                    .item("Um nome de item bem comprido, e repetido " + (i % 3))
+                    .categoria(Categoria.PRATO)
+                    .quantidade(1)
+                    .valorUnitario(new BigDecimal("39.90"))
+            );
+        }
+
+        byte[] file = write(lines);
+
+        assertThat(file.length).isLessThan(4 * lines.size());
+        assertThat(PartitionFile.read(new ByteArrayInputStream(file), 1L)).hasSize(1000);
+    }
+
+    @Test
+    void filesAreReplaced(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("1").resolve("2001-03.gz");
+        assertThat(PartitionFile.read(file, 1L)).isEmpty();
+
+        PartitionFile.write(file, List.of(line(1, 1L, DATA_HORA)));
+        PartitionFile.write(file, List.of(line(1, 1L, DATA_HORA), line(2, 2L, DATA_HORA)));
+
+        assertThat(PartitionFile.read(file, 1L)).extracting(ArchivedLine::getPedidoId).containsExactly(1L, 2L);
+        assertThat(directory.resolve("1")).isDirectoryContaining(path -> path.equals(file));
+        assertThat(directory.resolve("1").toFile().list()).hasSize(1);
+    }
+
+    @Test
+    void unknownVersionsAreRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeInt(PartitionFile.VERSION + 1);
+            data.writeInt(0);
+        }
+
+        assertThatThrownBy(() -> PartitionFile.read(new ByteArrayInputStream(out.toByteArray()), 1L))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("version");
+    }
+
+    private static ArchivedLine line(long pedidoId, Long itemPedidoId, ZonedDateTime dataHora) {
+        return new ArchivedLine()
+            .pedidoId(pedidoId)
+            .dataHora(dataHora)
+            .formaPagamento(FormaPagamento.PIX)
+            .status(StatusPedido.ENTREGUE)
+            .itemPedidoId(itemPedidoId)
+            .itemId(itemPedidoId == null ? null : 1L);
+    }
+
+    private static byte[] write(List<ArchivedLine> lines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PartitionFile.write(out, lines);
+        return out.toByteArray();
+    }
+}
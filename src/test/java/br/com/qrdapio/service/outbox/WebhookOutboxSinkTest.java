@@ -0,0 +1,96 @@
+package br.com.qrdapio.service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.service.dto.OutboxEventDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+/**
+ * Tests of {@link WebhookOutboxSink}, against a local stub of the webhook.
+ */
+class WebhookOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+
+    private volatile int status = 204;
+
+    private WebhookOutboxSink sink;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(
+            "/events",
+            exchange -> {
+                bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            }
+        );
+        server.start();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getOutbox().getWebhook().setUrl("http://localhost:" + server.getAddress().getPort() + "/events");
+        sink = new WebhookOutboxSink(objectMapper, new RestTemplateBuilder(), applicationProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void eventsArePostedAsAJsonArray() throws Exception {
+        sink.send(List.of(event(1L), event(2L)));
+
+        assertThat(bodies).hasSize(1);
+        JsonNode events = objectMapper.readTree(bodies.get(0));
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(events.get(1).get("eventType").asText()).isEqualTo("PedidoChanged");
+        // The payload is embedded as JSON, not as a string
+        assertThat(events.get(1).at("/payload/senha").asInt()).isEqualTo(42);
+    }
+
+    @Test
+    void errorResponseFailsTheBatch() {
+        status = 503;
+
+        assertThatThrownBy(() -> sink.send(List.of(event(1L)))).isInstanceOf(IOException.class);
+        assertThat(bodies).hasSize(1);
+    }
+
+    @Test
+    void unreachableWebhookFailsTheBatch() {
+        server.stop(0);
+
+        assertThatThrownBy(() -> sink.send(List.of(event(1L)))).isInstanceOf(IOException.class);
+    }
+
+    private static OutboxEventDTO event(Long id) {
+        OutboxEventDTO event = new OutboxEventDTO();
+        event.setId(id);
+        event.setEventType("PedidoChanged");
+        event.setRestauranteId(1L);
+        event.setAggregateId(10L);
+        event.setPayload(JsonNodeFactory.instance.objectNode().put("senha", 42));
+        return event;
+    }
+}
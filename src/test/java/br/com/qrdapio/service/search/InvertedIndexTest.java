@@ -0,0 +1,111 @@
+package br.com.qrdapio.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+    @Test
+    void findsDocumentsHavingEveryTerm() {
+        InvertedIndex index = menu();
+
+        assertThat(ids(index, "frango ")).containsExactly(1L, 2L);
+        assertThat(ids(index, "frango grelhado ")).containsExactly(1L);
+        assertThat(ids(index, "frango pizza ")).isEmpty();
+    }
+
+    @Test
+    void titlesWeighMoreThanBodies() {
+        InvertedIndex index = menu();
+
+        // Arroz is in the nome of 2, and only in the descricao of 3
+        assertThat(ids(index, "arroz ")).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void ignoresAccentsAndPlurals() {
+        InvertedIndex index = menu();
+
+        assertThat(ids(index, "FEIJÃO ")).isEqualTo(ids(index, "feijao "));
+        assertThat(ids(index, "feijões ")).isEqualTo(ids(index, "feijao "));
+        assertThat(ids(index, "grelhados ")).containsExactly(1L);
+    }
+
+    @Test
+    void takesTheLastWordBeingTypedAsAPrefix() {
+        InvertedIndex index = menu();
+
+        assertThat(ids(index, "fei")).containsExactly(3L);
+        assertThat(ids(index, "fei ")).isEmpty();
+        assertThat(ids(index, "fra")).containsExactly(1L, 2L);
+        // Only the last one
+        assertThat(ids(index, "fra grelhado")).isEmpty();
+    }
+
+    @Test
+    void toleratesTypos() {
+        InvertedIndex index = menu();
+
+        assertThat(ids(index, "frnago ")).isEmpty();
+        assertThat(ids(index, "franfo ")).containsExactly(1L, 2L);
+        assertThat(ids(index, "feijoda ")).containsExactly(3L);
+        // An exact match comes before a typo
+        index.put(4, "Feijoda", null);
+        assertThat(ids(index, "feijoda ")).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        InvertedIndex index = menu();
+
+        index.put(1, "Peixe grelhado", null);
+        assertThat(ids(index, "frango ")).containsExactly(2L);
+        assertThat(ids(index, "peixe ")).containsExactly(1L);
+
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.remove(1)).isFalse();
+        assertThat(index.contains(1)).isFalse();
+        assertThat(ids(index, "grelhado ")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void limitsTheHits() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 10_000; id++) {
+            index.put(id, "Prato " + id, "Arroz, feijão e frango");
+        }
+
+        assertThat(index.search("frango", 20)).hasSize(20).extracting(InvertedIndex.Hit::getId).startsWith(1L, 2L);
+        assertThat(ids(index, "prato 4217 ")).containsExactly(4217L);
+        assertThat(index.search("frango", 0)).isEmpty();
+        assertThat(index.search("", 10)).isEmpty();
+    }
+
+    @Test
+    void distanceStopsAboveTheMaximum() {
+        assertThat(InvertedIndex.distance("frango", "frango", 1)).isZero();
+        assertThat(InvertedIndex.distance("frango", "franfo", 1)).isEqualTo(1);
+        assertThat(InvertedIndex.distance("frango", "frang", 1)).isEqualTo(1);
+        assertThat(InvertedIndex.distance("frango", "pernil", 2)).isEqualTo(3);
+        assertThat(InvertedIndex.maxEdits("pao")).isZero();
+        assertThat(InvertedIndex.maxEdits("frango")).isEqualTo(1);
+        assertThat(InvertedIndex.maxEdits("feijoada")).isEqualTo(2);
+        assertThat(InvertedIndex.maxEdits("500ml")).isZero();
+    }
+
+    private static InvertedIndex menu() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Frango grelhado", "Peito de frango com legumes");
+        index.put(2, "Frango com arroz", null);
+        index.put(3, "Feijoada", "Feijão preto, arroz, couve e farofa. Sem lactose");
+        return index;
+    }
+
+    private static List<Long> ids(InvertedIndex index, String query) {
+        return index.search(query, 10).stream().map(InvertedIndex.Hit::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.qrdapio.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PortugueseAnalyzerTest {
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(PortugueseAnalyzer.terms("Feijão À Moda")).containsExactly("feija", "mod");
+        assertThat(PortugueseAnalyzer.terms("FEIJAO")).isEqualTo(PortugueseAnalyzer.terms("feijão"));
+    }
+
+    @Test
+    void dropsStopWordsButNotComOrSem() {
+        assertThat(PortugueseAnalyzer.terms("Bolo de chocolate sem lactose, com calda"))
+            .containsExactly("bol", "chocolat", "sem", "lactos", "com", "cald");
+    }
+
+    @Test
+    void stemsPluralsAndGenders() {
+        assertThat(PortugueseAnalyzer.stem("grelhados")).isEqualTo(PortugueseAnalyzer.stem("grelhada"));
+        assertThat(PortugueseAnalyzer.stem("pasteis")).isEqualTo(PortugueseAnalyzer.stem("pastel"));
+        assertThat(PortugueseAnalyzer.stem("limoes")).isEqualTo(PortugueseAnalyzer.stem("limao"));
+        assertThat(PortugueseAnalyzer.stem("paes")).isEqualTo(PortugueseAnalyzer.stem("pao"));
+        assertThat(PortugueseAnalyzer.stem("molhos")).isEqualTo(PortugueseAnalyzer.stem("molho"));
+        assertThat(PortugueseAnalyzer.stem("flores")).isEqualTo(PortugueseAnalyzer.stem("flor"));
+    }
+
+    @Test
+    void keepsShortWordsAndNumbers() {
+        assertThat(PortugueseAnalyzer.terms("Suco 500ml de uva")).containsExactly("suc", "500ml", "uva");
+        assertThat(PortugueseAnalyzer.terms(null)).isEmpty();
+        assertThat(PortugueseAnalyzer.terms(" - ")).isEmpty();
+    }
+
+    @Test
+    void typedPrefixesStayPrefixesOfTheStem() {
+        assertThat(PortugueseAnalyzer.stem("frango")).startsWith(PortugueseAnalyzer.stem("fran"));
+        assertThat(PortugueseAnalyzer.stem("camaroes")).startsWith(PortugueseAnalyzer.stem("camar"));
+    }
+}
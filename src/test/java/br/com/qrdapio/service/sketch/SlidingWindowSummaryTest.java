@@ -0,0 +1,88 @@
+package br.com.qrdapio.service.sketch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowSummaryTest {
+
+    private static final Instant START = Instant.parse("2001-01-01T12:00:00Z");
+
+    @Test
+    void countsTheItemsOfTheWindow() {
+        SlidingWindowSummary summary = new SlidingWindowSummary(Duration.ofMinutes(15), 15, 8);
+        summary.add(1L, 2, START, START);
+        summary.add(2L, 1, START.plusSeconds(60), START.plusSeconds(60));
+        summary.add(1L, 1, START.plusSeconds(600), START.plusSeconds(600));
+        Instant now = START.plusSeconds(600);
+
+        assertThat(summary.top(10, now))
+            .extracting(SpaceSaving.Estimate::getItem, SpaceSaving.Estimate::getCount)
+            .containsExactly(tuple(1L, 3L), tuple(2L, 1L));
+        assertThat(summary.top(1, now)).extracting(SpaceSaving.Estimate::getItem).containsExactly(1L);
+    }
+
+    @Test
+    void bucketsLeaveTheWindow() {
+        SlidingWindowSummary summary = new SlidingWindowSummary(Duration.ofMinutes(15), 15, 8);
+        summary.add(1L, 5, START, START);
+        summary.add(2L, 1, START.plusSeconds(300), START.plusSeconds(300));
+
+        assertThat(summary.top(10, START.plusSeconds(14 * 60)))
+            .extracting(SpaceSaving.Estimate::getItem, SpaceSaving.Estimate::getCount)
+            .containsExactly(tuple(1L, 5L), tuple(2L, 1L));
+        assertThat(summary.top(10, START.plusSeconds(15 * 60)))
+            .extracting(SpaceSaving.Estimate::getItem, SpaceSaving.Estimate::getCount)
+            .containsExactly(tuple(2L, 1L));
+        assertThat(summary.isEmpty(START.plusSeconds(20 * 60))).isTrue();
+    }
+
+    @Test
+    void bucketsAreReused() {
+        SlidingWindowSummary summary = new SlidingWindowSummary(Duration.ofMinutes(15), 15, 8);
+        summary.add(1L, 5, START, START);
+        // Same slot of the ring, one window later
+        Instant later = START.plusSeconds(15 * 60);
+        summary.add(2L, 1, later, later);
+
+        assertThat(summary.top(10, later)).extracting(SpaceSaving.Estimate::getItem).containsExactly(2L);
+    }
+
+    @Test
+    void updatesOutOfTheWindowAreIgnored() {
+        SlidingWindowSummary summary = new SlidingWindowSummary(Duration.ofMinutes(15), 15, 8);
+        Instant now = START.plusSeconds(3600);
+        summary.add(1L, 5, START, now);
+        summary.add(2L, 5, now.plusSeconds(3600), now);
+
+        assertThat(summary.isEmpty(now)).isTrue();
+    }
+
+    @Test
+    void readsWhatItWrote() throws Exception {
+        SlidingWindowSummary summary = new SlidingWindowSummary(Duration.ofHours(1), 12, 8);
+        summary.add(1L, 5, START, START);
+        summary.add(2L, 3, START.plusSeconds(600), START.plusSeconds(600));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        summary.writeTo(new DataOutputStream(bytes));
+
+        SlidingWindowSummary read = new SlidingWindowSummary(Duration.ofHours(1), 12, 8);
+        read.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.top(10, START.plusSeconds(600)))
+            .extracting(SpaceSaving.Estimate::getItem, SpaceSaving.Estimate::getCount)
+            .containsExactly(tuple(1L, 5L), tuple(2L, 3L));
+        SlidingWindowSummary otherShape = new SlidingWindowSummary(Duration.ofHours(1), 6, 8);
+        assertThatThrownBy(() -> otherShape.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))))
+            .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.qrdapio.service.sketch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingTest {
+
+    @Test
+    void countsAreExactBelowTheCapacity() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add(1L, 2);
+        summary.add(2L, 5);
+        summary.add(1L, 1);
+        summary.add(3L, 3);
+
+        assertThat(summary.estimates())
+            .extracting(SpaceSaving.Estimate::getItem, SpaceSaving.Estimate::getCount, SpaceSaving.Estimate::getError)
+            .containsExactly(tuple(2L, 5L, 0L), tuple(1L, 3L, 0L), tuple(3L, 3L, 0L));
+    }
+
+    @Test
+    void heavyItemsAreKeptBeyondTheCapacity() {
+        SpaceSaving summary = new SpaceSaving(2);
+        for (long item = 10; item < 100; item++) {
+            summary.add(item, 1);
+            summary.add(1L, 3);
+        }
+
+        SpaceSaving.Estimate heaviest = summary.estimates().get(0);
+        assertThat(heaviest.getItem()).isEqualTo(1L);
+        assertThat(heaviest.getCount()).isEqualTo(270L);
+        assertThat(heaviest.getError()).isZero();
+        // The other counter keeps being taken over, and over-estimates its last item
+        SpaceSaving.Estimate other = summary.estimates().get(1);
+        assertThat(other.getCount()).isEqualTo(90L);
+        assertThat(other.getCount() - other.getError()).isEqualTo(1L);
+    }
+
+    @Test
+    void readsWhatItWrote() throws Exception {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add(1L, 2);
+        summary.add(2L, 5);
+        summary.add(3L, 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        summary.writeTo(new DataOutputStream(bytes));
+
+        // A smaller capacity keeps the heaviest items
+        SpaceSaving read = new SpaceSaving(2);
+        read.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.estimates()).extracting(SpaceSaving.Estimate::getItem).containsExactly(2L, 1L);
+    }
+}
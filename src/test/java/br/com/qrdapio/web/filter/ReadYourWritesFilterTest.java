@@ -0,0 +1,64 @@
+package br.com.qrdapio.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.qrdapio.config.ReadReplicaRoutingDataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    void writesRequireThePrimaryAndSetTheCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(primaryRequired(new MockHttpServletRequest("POST", "/api/pedidos"), response)).isTrue();
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+        assertThat(ReadReplicaRoutingDataSource.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    void readsAfterAWriteRequireThePrimary() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pedidos");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() + 4_000)));
+
+        assertThat(primaryRequired(request, new MockHttpServletResponse())).isTrue();
+    }
+
+    @Test
+    void otherReadsMayGoToTheReplicas() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pedidos");
+        assertThat(primaryRequired(request, new MockHttpServletResponse())).isFalse();
+
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1)));
+        assertThat(primaryRequired(request, new MockHttpServletResponse())).isFalse();
+
+        // Not set by the filter
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(Long.MAX_VALUE)));
+        assertThat(primaryRequired(request, new MockHttpServletResponse())).isFalse();
+    }
+
+    private boolean primaryRequired(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean required = new AtomicBoolean();
+        filter.doFilter(
+            request,
+            response,
+            new MockFilterChain() {
+                @Override
+                public void doFilter(javax.servlet.ServletRequest req, javax.servlet.ServletResponse res) {
+                    required.set(ReadReplicaRoutingDataSource.isPrimaryRequired());
+                }
+            }
+        );
+        return required.get();
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.qrdapio.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.config.ShardRoutingDataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ShardFilterTest {
+
+    private ShardMap shardMap;
+
+    private ShardFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        shardMap = mock(ShardMap.class);
+        when(shardMap.shardOf(1L)).thenReturn("shard-1");
+        when(shardMap.shardOf(2L)).thenReturn("shard-2");
+        filter = new ShardFilter(shardMap, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void restauranteOfThePathSelectsTheShard() throws Exception {
+        assertThat(shard(new MockHttpServletRequest("POST", "/api/restaurantes/1/pedidos"))).isEqualTo("shard-1");
+        assertThat(shard(new MockHttpServletRequest("GET", "/api/restaurantes/2"))).isEqualTo("shard-2");
+        assertThat(ShardRoutingDataSource.getCurrentShard()).isEqualTo(ShardRoutingDataSource.DEFAULT_SHARD);
+    }
+
+    @Test
+    void restauranteOfTheHeaderSelectsTheShard() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pedidos");
+        request.addHeader(ShardFilter.RESTAURANTE_HEADER, "2");
+
+        assertThat(shard(request)).isEqualTo("shard-2");
+    }
+
+    @Test
+    void restauranteOfTheEntitySelectsTheShard() throws Exception {
+        when(shardMap.isSharded()).thenReturn(true);
+        when(shardMap.findRestauranteOf("item_pedido", 10L, null)).thenReturn(Optional.of(2L));
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/item-pedidos/10");
+
+        assertThat(shard(request)).isEqualTo("shard-2");
+        assertThat(request.getAttribute(ShardFilter.RESTAURANTE_ATTRIBUTE)).isEqualTo(2L);
+        // Unknown entities are left to the resources
+        assertThat(shard(new MockHttpServletRequest("GET", "/api/pedidos/11"))).isEqualTo(ShardRoutingDataSource.DEFAULT_SHARD);
+    }
+
+    @Test
+    void restauranteOfTheExportIsChecked() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pedidos/export");
+        request.setParameter("restaurante", "1");
+        assertThat(shard(request)).isEqualTo("shard-1");
+
+        request.addHeader(ShardFilter.RESTAURANTE_HEADER, "2");
+        assertThat(status(request)).isEqualTo(400);
+    }
+
+    @Test
+    void entitiesAreNotLookedUpWithoutShards() throws Exception {
+        assertThat(shard(new MockHttpServletRequest("GET", "/api/cardapios/10"))).isEqualTo(ShardRoutingDataSource.DEFAULT_SHARD);
+        verify(shardMap, never()).findRestauranteOf(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void otherRequestsGoToTheDefaultShard() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurantes");
+
+        assertThat(shard(request)).isEqualTo(ShardRoutingDataSource.DEFAULT_SHARD);
+        assertThat(request.getAttribute(ShardFilter.RESTAURANTE_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void invalidHeaderIsRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurantes");
+        request.addHeader(ShardFilter.RESTAURANTE_HEADER, "x");
+
+        assertThat(status(request)).isEqualTo(400);
+    }
+
+    @Test
+    void headerMustMatchTheRestauranteOfThePath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurantes/1/cardapio");
+        request.addHeader(ShardFilter.RESTAURANTE_HEADER, "2");
+        assertThat(status(request)).isEqualTo(400);
+
+        when(shardMap.isSharded()).thenReturn(true);
+        when(shardMap.findRestauranteOf("pedido", 10L, 2L)).thenReturn(Optional.of(1L));
+        request = new MockHttpServletRequest("DELETE", "/api/pedidos/10");
+        request.addHeader(ShardFilter.RESTAURANTE_HEADER, "2");
+        assertThat(status(request)).isEqualTo(400);
+    }
+
+    @Test
+    void headerIsRequiredToCreateEntitiesWithShards() throws Exception {
+        assertThat(status(new MockHttpServletRequest("POST", "/api/pedidos"))).isEqualTo(200);
+
+        when(shardMap.isSharded()).thenReturn(true);
+        assertThat(status(new MockHttpServletRequest("POST", "/api/item-cardapios"))).isEqualTo(400);
+        assertThat(status(new MockHttpServletRequest("GET", "/api/item-cardapios"))).isEqualTo(200);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/item-cardapios");
+        request.addHeader(ShardFilter.RESTAURANTE_HEADER, "2");
+        assertThat(shard(request)).isEqualTo("shard-2");
+    }
+
+    @Test
+    void restauranteBeingMovedIsUnavailable() throws Exception {
+        when(shardMap.isMoving(1L)).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/restaurantes/1/cardapio"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    private int status(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private String shard(MockHttpServletRequest request) throws Exception {
+        AtomicReference<String> shard = new AtomicReference<>();
+        filter.doFilter(
+            request,
+            new MockHttpServletResponse(),
+            new MockFilterChain() {
+                @Override
+                public void doFilter(ServletRequest request, ServletResponse response) {
+                    shard.set(ShardRoutingDataSource.getCurrentShard());
+                }
+            }
+        );
+        return shard.get();
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.qrdapio.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -8,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import br.com.qrdapio.IntegrationTest;
 import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
 import br.com.qrdapio.domain.Restaurante;
 import br.com.qrdapio.repository.CardapioRepository;
 import java.util.List;
@@ -36,6 +38,7 @@ class CardapioResourceIT {
 
     private static final String ENTITY_API_URL = "/api/cardapios";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String RESUMOS_API_URL = "/api/restaurantes/{id}/cardapios";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -194,6 +197,112 @@ class CardapioResourceIT {
             .andExpect(jsonPath("$.nome").value(DEFAULT_NOME));
     }
 
+    @Test
+    @Transactional
+    void getCardapiosByIdFiltering() throws Exception {
+        // Initialize the database
+        cardapioRepository.saveAndFlush(cardapio);
+
+        Long id = cardapio.getId();
+
+        defaultCardapioShouldBeFound("id.equals=" + id);
+        defaultCardapioShouldNotBeFound("id.notEquals=" + id);
+
+        defaultCardapioShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultCardapioShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllCardapiosByNomeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        cardapioRepository.saveAndFlush(cardapio);
+
+        // Get all the cardapioList where nome equals to the default one
+        defaultCardapioShouldBeFound("nome.equals=" + DEFAULT_NOME);
+
+        // Get all the cardapioList where nome equals to another one
+        defaultCardapioShouldNotBeFound("nome.equals=" + UPDATED_NOME);
+    }
+
+    @Test
+    @Transactional
+    void getAllCardapiosByRestauranteIsEqualToSomething() throws Exception {
+        // Initialize the database
+        cardapioRepository.saveAndFlush(cardapio);
+        Long restauranteId = cardapio.getRestaurante().getId();
+
+        // Get all the cardapioList where restaurante equals to the default one
+        defaultCardapioShouldBeFound("restauranteId.equals=" + restauranteId);
+
+        // Get all the cardapioList where restaurante equals to another one
+        defaultCardapioShouldNotBeFound("restauranteId.equals=" + (restauranteId + 1));
+    }
+
+    @Test
+    @Transactional
+    void getCardapioWithItemCardapios() throws Exception {
+        // Initialize the database
+        cardapioRepository.saveAndFlush(cardapio);
+        ItemCardapio itemCardapio = ItemCardapioResourceIT.createEntity(em);
+        cardapio.addItemCardapio(itemCardapio);
+        em.persist(itemCardapio);
+        em.flush();
+
+        // The items come with the cardapio
+        restCardapioMockMvc
+            .perform(get(ENTITY_API_URL_ID, cardapio.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(cardapio.getId().intValue()))
+            .andExpect(jsonPath("$.itemCardapios.[*].id").value(contains(itemCardapio.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getCardapioResumos() throws Exception {
+        Restaurante restaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(restaurante);
+        Cardapio first = cardapioRepository.saveAndFlush(createEntity(em).restaurante(restaurante));
+        for (int i = 0; i < 2; i++) {
+            em.persist(ItemCardapioResourceIT.createEntity(em).cardapio(first));
+        }
+        Cardapio second = cardapioRepository.saveAndFlush(createEntity(em).restaurante(restaurante));
+        em.flush();
+
+        // The cardapios of the restaurante, with the number of their items
+        restCardapioMockMvc
+            .perform(get(RESUMOS_API_URL, restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(jsonPath("$.[*].nome").value(hasItem(DEFAULT_NOME)))
+            .andExpect(jsonPath("$.[*].itens").value(contains(2, 0)));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCardapioShouldBeFound(String filter) throws Exception {
+        restCardapioMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(cardapio.getId().intValue())))
+            .andExpect(jsonPath("$.[*].nome").value(hasItem(DEFAULT_NOME)));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCardapioShouldNotBeFound(String filter) throws Exception {
+        restCardapioMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getNonExistingCardapio() throws Exception {
@@ -0,0 +1,293 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.service.CozinhaService;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.TarefaCozinhaDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link CozinhaResource} REST controller.
+ * <p>
+ * Not transactional on purpose: lines are only queued once their transaction commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CozinhaResourceIT {
+
+    @Autowired
+    private CozinhaService cozinhaService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor executor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private ItemCardapio moqueca;
+
+    private ItemCardapio suco;
+
+    private ItemCardapio pudim;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Cozinha");
+                em.persist(restaurante);
+                Cardapio cardapio = new Cardapio().nome("Cozinha").restaurante(restaurante);
+                em.persist(cardapio);
+                moqueca = createItem(cardapio, Categoria.PRATO, "Moqueca");
+                suco = createItem(cardapio, Categoria.BEBIDA, "Suco");
+                pudim = createItem(cardapio, Categoria.SOBREMESA, "Pudim");
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void claimProximo() throws Exception {
+        ZonedDateTime now = ZonedDateTime.now();
+        Pedido antigo = submit(
+            now.minusMinutes(5),
+            new ItemPedidoSubmissionDTO(moqueca.getId(), 2),
+            new ItemPedidoSubmissionDTO(suco.getId(), 1)
+        );
+        Pedido novo = submit(now, new ItemPedidoSubmissionDTO(suco.getId(), 3), new ItemPedidoSubmissionDTO(pudim.getId(), 1));
+        awaitPendentes(Categoria.BEBIDA, 2);
+
+        // The drink of the older pedido waits for its moqueca, the one of the newer pedido only for the pudim
+        restMockMvc
+            .perform(post(proximoUrl("bebida")).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pedidoId").value(novo.getId().intValue()))
+            .andExpect(jsonPath("$.senha").value(novo.getSenha()))
+            .andExpect(jsonPath("$.itemCardapioId").value(suco.getId().intValue()))
+            .andExpect(jsonPath("$.nome").value("Suco"))
+            .andExpect(jsonPath("$.categoria").value("BEBIDA"))
+            .andExpect(jsonPath("$.quantidade").value(3));
+        restMockMvc
+            .perform(post(proximoUrl("BEBIDA")).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pedidoId").value(antigo.getId().intValue()));
+        restMockMvc.perform(post(proximoUrl("bebida")).with(csrf())).andExpect(status().isNoContent());
+
+        restMockMvc
+            .perform(post(proximoUrl("prato")).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pedidoId").value(antigo.getId().intValue()))
+            .andExpect(jsonPath("$.nome").value("Moqueca"))
+            .andExpect(jsonPath("$.quantidade").value(2));
+        restMockMvc
+            .perform(post(proximoUrl("sobremesa")).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pedidoId").value(novo.getId().intValue()));
+        assertThat(cozinhaService.pendentes(restaurante.getId(), Categoria.PRATO)).isZero();
+        assertThat(cozinhaService.pendentes(restaurante.getId(), Categoria.SOBREMESA)).isZero();
+        assertThat(pedidoRepository.findById(antigo.getId()).orElseThrow().getStatus()).isEqualTo(StatusPedido.EM_PREPARO);
+        assertThat(pedidoRepository.findById(novo.getId()).orElseThrow().getStatus()).isEqualTo(StatusPedido.EM_PREPARO);
+    }
+
+    @Test
+    void cancelledPedidosLeaveTheStations() throws Exception {
+        Pedido cancelado = submit(ZonedDateTime.now().minusMinutes(1), new ItemPedidoSubmissionDTO(moqueca.getId(), 1));
+        Pedido pedido = submit(ZonedDateTime.now(), new ItemPedidoSubmissionDTO(moqueca.getId(), 1));
+        awaitPendentes(Categoria.PRATO, 2);
+
+        pedidoService.changeStatus(cancelado.getId(), StatusPedido.RECEBIDO, StatusPedido.CANCELADO).orElseThrow();
+
+        restMockMvc
+            .perform(post(proximoUrl("prato")).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pedidoId").value(pedido.getId().intValue()));
+        restMockMvc.perform(post(proximoUrl("prato")).with(csrf())).andExpect(status().isNoContent());
+    }
+
+    @Test
+    void deletedLinesAndPedidosLeaveTheStations() throws Exception {
+        Pedido pedido = submit(
+            ZonedDateTime.now(),
+            new ItemPedidoSubmissionDTO(moqueca.getId(), 1),
+            new ItemPedidoSubmissionDTO(suco.getId(), 1)
+        );
+        Pedido outro = submit(ZonedDateTime.now(), new ItemPedidoSubmissionDTO(pudim.getId(), 1));
+        awaitPendentes(Categoria.SOBREMESA, 1);
+        awaitPendentes(Categoria.BEBIDA, 1);
+
+        restMockMvc
+            .perform(MockMvcRequestBuilders.delete("/api/item-pedidos/{id}", itemPedidoId(pedido, moqueca)).with(csrf()))
+            .andExpect(status().isNoContent());
+        inTransaction(
+            () -> {
+                Pedido removed = em.find(Pedido.class, outro.getId());
+                removed.getItemPedidos().forEach(em::remove);
+                em.remove(removed);
+            }
+        );
+
+        assertThat(cozinhaService.pendentes(restaurante.getId(), Categoria.PRATO)).isZero();
+        assertThat(cozinhaService.pendentes(restaurante.getId(), Categoria.SOBREMESA)).isZero();
+        assertThat(cozinhaService.pendentes(restaurante.getId(), Categoria.BEBIDA)).isEqualTo(1);
+    }
+
+    @Test
+    void claimProximoOfOlderPedidoFirst() throws Exception {
+        ZonedDateTime now = ZonedDateTime.now();
+        Pedido antigo = submit(now.minusMinutes(1), new ItemPedidoSubmissionDTO(moqueca.getId(), 1));
+        Pedido novo = submit(now, new ItemPedidoSubmissionDTO(moqueca.getId(), 1));
+        awaitPendentes(Categoria.PRATO, 2);
+
+        List<TarefaCozinhaDTO> tarefas = List.of(
+            cozinhaService.proximo(restaurante.getId(), Categoria.PRATO).orElseThrow(),
+            cozinhaService.proximo(restaurante.getId(), Categoria.PRATO).orElseThrow()
+        );
+
+        assertThat(tarefas).extracting(TarefaCozinhaDTO::getPedidoId).containsExactly(antigo.getId(), novo.getId());
+        assertThat(cozinhaService.proximo(restaurante.getId(), Categoria.PRATO)).isEmpty();
+    }
+
+    @Test
+    void claimProximoWithoutPedidos() throws Exception {
+        restMockMvc.perform(post(proximoUrl("prato")).with(csrf())).andExpect(status().isNoContent());
+        restMockMvc
+            .perform(post("/api/restaurantes/" + Long.MAX_VALUE + "/estacoes/prato/proximo").with(csrf()))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void claimProximoOfUnknownEstacao() throws Exception {
+        restMockMvc.perform(post(proximoUrl("churrasqueira")).with(csrf())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void linesAreClaimedOnceWhateverTheServer() throws Exception {
+        Pedido pedido = submit(ZonedDateTime.now(), new ItemPedidoSubmissionDTO(pudim.getId(), 2));
+        awaitPendentes(Categoria.SOBREMESA, 1);
+
+        // Another server, or this one after a restart, reads the lines from the database
+        CozinhaService outro = new CozinhaService(em, transactionManager, executor, applicationProperties);
+        TarefaCozinhaDTO tarefa = outro.proximo(restaurante.getId(), Categoria.SOBREMESA).orElseThrow();
+        assertThat(tarefa.getPedidoId()).isEqualTo(pedido.getId());
+        assertThat(tarefa.getSenha()).isEqualTo(pedido.getSenha());
+        assertThat(tarefa.getNome()).isEqualTo("Pudim");
+        assertThat(tarefa.getQuantidade()).isEqualTo(2);
+
+        assertThat(cozinhaService.proximo(restaurante.getId(), Categoria.SOBREMESA)).isEmpty();
+        CozinhaService reiniciado = new CozinhaService(em, transactionManager, executor, applicationProperties);
+        assertThat(reiniciado.pendentes(restaurante.getId(), Categoria.SOBREMESA)).isZero();
+        Instant claimedAt = new TransactionTemplate(transactionManager)
+            .execute(status -> em.find(ItemPedido.class, tarefa.getItemPedidoId()).getClaimedAt());
+        assertThat(claimedAt).isNotNull();
+    }
+
+    private void awaitPendentes(Categoria estacao, int pendentes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline && cozinhaService.pendentes(restaurante.getId(), estacao) < pendentes) {
+            Thread.sleep(20);
+        }
+    }
+
+    private Pedido submit(ZonedDateTime dataHora, ItemPedidoSubmissionDTO... itens) {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setDataHora(dataHora);
+        submission.setItens(List.of(itens));
+        return pedidoService.submit(restaurante.getId(), submission);
+    }
+
+    private Long itemPedidoId(Pedido pedido, ItemCardapio item) {
+        return new TransactionTemplate(transactionManager)
+            .execute(
+                status ->
+                    em
+                        .createQuery("select i.id from ItemPedido i where i.pedido.id = :pedido and i.item.id = :item", Long.class)
+                        .setParameter("pedido", pedido.getId())
+                        .setParameter("item", item.getId())
+                        .getSingleResult()
+            );
+    }
+
+    private String proximoUrl(String estacao) {
+        return "/api/restaurantes/" + restaurante.getId() + "/estacoes/" + estacao + "/proximo";
+    }
+
+    private ItemCardapio createItem(Cardapio cardapio, Categoria categoria, String nome) {
+        ItemCardapio item = new ItemCardapio().categoria(categoria).nome(nome).descricao(nome).valor(BigDecimal.TEN).cardapio(cardapio);
+        em.persist(item);
+        return item;
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
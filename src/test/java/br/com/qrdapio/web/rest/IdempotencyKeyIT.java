@@ -0,0 +1,257 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.service.IdempotencyService;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@code Idempotency-Key} header of the create endpoints, see {@link IdempotencyService}.
+ * <p>
+ * Not transactional on purpose: the responses are only kept once their transaction commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class IdempotencyKeyIT {
+
+    private static final ZonedDateTime DATA_HORA = ZonedDateTime.of(2021, 4, 30, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private List<ItemCardapio> itens;
+
+    private String key;
+
+    @BeforeEach
+    public void initTest() {
+        // The responses stay in memory after the rows of the test are deleted
+        key = UUID.randomUUID().toString();
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Idempotente");
+                em.persist(restaurante);
+                Cardapio cardapio = new Cardapio().nome("Idempotente").restaurante(restaurante);
+                em.persist(cardapio);
+                itens = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    ItemCardapio item = new ItemCardapio()
+                        .categoria(Categoria.PRATO)
+                        .nome("Moqueca")
+                        .descricao("Moqueca")
+                        .valor(BigDecimal.TEN)
+                        .cardapio(cardapio);
+                    em.persist(item);
+                    itens.add(item);
+                }
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                em.createQuery("delete from IdempotencyKey").executeUpdate();
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void retryOfCreatePedidoGetsTheFirstResponse() throws Exception {
+        Pedido pedido = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(DATA_HORA);
+        pedido.setRestaurante(restaurante);
+        byte[] content = TestUtil.convertObjectToJsonBytes(pedido);
+
+        MockHttpServletResponse first = restMockMvc
+            .perform(createPedido(content, key))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+            .andReturn()
+            .getResponse();
+        MockHttpServletResponse retry = restMockMvc
+            .perform(createPedido(content, key))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+            .andReturn()
+            .getResponse();
+
+        assertThat(retry.getHeader("Location")).isEqualTo(first.getHeader("Location"));
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(pedidos()).isEqualTo(1L);
+        // Other keys, and requests without a key, create other pedidos
+        restMockMvc.perform(createPedido(content, key + "-2")).andExpect(status().isCreated());
+        restMockMvc.perform(createPedido(content, null)).andExpect(status().isCreated());
+        assertThat(pedidos()).isEqualTo(3L);
+    }
+
+    @Test
+    void keyCannotBeReusedForAnotherRequest() throws Exception {
+        Pedido pedido = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(DATA_HORA);
+        pedido.setRestaurante(restaurante);
+        restMockMvc.perform(createPedido(TestUtil.convertObjectToJsonBytes(pedido), key)).andExpect(status().isCreated());
+
+        pedido.setFormaPagamento(FormaPagamento.CREDITO);
+        restMockMvc
+            .perform(createPedido(TestUtil.convertObjectToJsonBytes(pedido), key))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idempotencykeyreused"));
+        restMockMvc
+            .perform(createPedido(TestUtil.convertObjectToJsonBytes(pedido), " "))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idempotencykeyinvalid"));
+
+        assertThat(pedidos()).isEqualTo(1L);
+    }
+
+    @Test
+    void concurrentDuplicatesCreateASinglePedido() throws Exception {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(List.of(new ItemPedidoSubmissionDTO(itens.get(0).getId(), 2)));
+        byte[] content = TestUtil.convertObjectToJsonBytes(submission);
+        int requests = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                Callable<MockHttpServletResponse> request = () -> {
+                    start.await();
+                    return restMockMvc
+                        .perform(
+                            post("/api/restaurantes/{id}/pedidos:submit", restaurante.getId())
+                                .with(user("user"))
+                                .with(csrf())
+                                .header(IdempotencyService.HEADER, key)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(content)
+                        )
+                        .andReturn()
+                        .getResponse();
+                };
+                responses.add(executor.submit(request));
+            }
+            start.countDown();
+
+            Set<String> locations = new HashSet<>();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertThat(response.get().getStatus()).isEqualTo(201);
+                locations.add(response.get().getHeader("Location"));
+            }
+            assertThat(locations).hasSize(1);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(pedidos()).isEqualTo(1L);
+    }
+
+    @Test
+    void retryOfCreateItemPedidoGetsTheFirstResponse() throws Exception {
+        Pedido pedido = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(DATA_HORA).senha(1).restaurante(restaurante);
+        inTransaction(() -> em.persist(pedido));
+        ItemPedido itemPedido = new ItemPedido().quantidade(1).item(itens.get(1)).pedido(pedido);
+        byte[] content = TestUtil.convertObjectToJsonBytes(itemPedido);
+
+        for (int i = 0; i < 2; i++) {
+            restMockMvc
+                .perform(
+                    post("/api/item-pedidos")
+                        .with(csrf())
+                        .header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content)
+                )
+                .andExpect(status().isCreated());
+        }
+
+        Long itemPedidos = new TransactionTemplate(transactionManager)
+            .execute(
+                status ->
+                    em
+                        .createQuery("select count(i) from ItemPedido i where i.pedido.id = :id", Long.class)
+                        .setParameter("id", pedido.getId())
+                        .getSingleResult()
+            );
+        assertThat(itemPedidos).isEqualTo(1L);
+    }
+
+    private MockHttpServletRequestBuilder createPedido(byte[] content, String idempotencyKey) {
+        MockHttpServletRequestBuilder request = post("/api/pedidos").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(content);
+        return idempotencyKey != null ? request.header(IdempotencyService.HEADER, idempotencyKey) : request;
+    }
+
+    private long pedidos() {
+        return new TransactionTemplate(transactionManager)
+            .execute(
+                status ->
+                    em
+                        .createQuery("select count(p) from Pedido p where p.restaurante.id = :id", Long.class)
+                        .setParameter("id", restaurante.getId())
+                        .getSingleResult()
+            );
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
@@ -0,0 +1,222 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.service.ItemBuscaService;
+import br.com.qrdapio.service.dto.ItemBuscaDTO;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ItemBuscaResource} REST controller.
+ * <p>
+ * Not transactional on purpose: items are only indexed once their transaction commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ItemBuscaResourceIT {
+
+    @Autowired
+    private ItemBuscaService itemBuscaService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private Cardapio cardapio;
+
+    private ItemCardapio frango;
+
+    private ItemCardapio feijoada;
+
+    private ItemCardapio suco;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        // The ids restart with the database, forget the items of the previous runs
+        Files.deleteIfExists(Paths.get(applicationProperties.getBusca().getSegmentFile()));
+        itemBuscaService.loadSegment();
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Busca");
+                em.persist(restaurante);
+                cardapio = new Cardapio().nome("Busca").restaurante(restaurante);
+                em.persist(cardapio);
+                frango = createItem(Categoria.PRATO, "Frango grelhado", "Peito de frango com legumes");
+                feijoada = createItem(Categoria.PRATO, "Feijoada", "Feijão preto, arroz, couve e farofa. Sem lactose");
+                suco = createItem(Categoria.BEBIDA, "Suco de laranja", "Natural, 500ml");
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void searchItens() throws Exception {
+        restMockMvc
+            .perform(get(buscaUrl() + "?q=frango"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(frango.getId().intValue()))
+            .andExpect(jsonPath("$[0].cardapioId").value(cardapio.getId().intValue()))
+            .andExpect(jsonPath("$[0].categoria").value("PRATO"))
+            .andExpect(jsonPath("$[0].nome").value("Frango grelhado"))
+            .andExpect(jsonPath("$[0].descricao").value("Peito de frango com legumes"))
+            .andExpect(jsonPath("$[0].valor").value(10));
+        restMockMvc
+            .perform(get(buscaUrl() + "?q=sem lactose"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(feijoada.getId().intValue()));
+    }
+
+    @Test
+    void searchItensIgnoringAccentsPrefixesAndTypos() {
+        assertThat(search("FEIJAO")).containsExactly(feijoada.getId());
+        assertThat(search("feijões ")).containsExactly(feijoada.getId());
+        assertThat(search("lar")).containsExactly(suco.getId());
+        assertThat(search("franfo ")).containsExactly(frango.getId());
+        assertThat(search("pizza")).isEmpty();
+    }
+
+    @Test
+    void searchItensOfUnknownRestaurante() throws Exception {
+        restMockMvc
+            .perform(get("/api/restaurantes/" + Long.MAX_VALUE + "/itens/busca?q=frango"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void searchItensWithInvalidLimite() throws Exception {
+        restMockMvc.perform(get(buscaUrl() + "?q=frango&limite=0")).andExpect(status().isBadRequest());
+        restMockMvc.perform(get(buscaUrl() + "?q=frango&limite=101")).andExpect(status().isBadRequest());
+        restMockMvc.perform(get(buscaUrl())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changedItensAreIndexedOnCommit() throws Exception {
+        assertThat(search("frango")).containsExactly(frango.getId());
+
+        inTransaction(() -> em.find(ItemCardapio.class, frango.getId()).nome("Tilápia grelhada").descricao("Com legumes"));
+        ItemCardapio[] added = new ItemCardapio[1];
+        inTransaction(() -> added[0] = createItem(Categoria.PRATO, "Frango à passarinho", "Porção"));
+        inTransaction(() -> em.remove(em.find(ItemCardapio.class, suco.getId())));
+
+        awaitSearch("tilapia", ids -> ids.contains(frango.getId()));
+        awaitSearch("suco", List::isEmpty);
+        assertThat(search("frango")).containsExactly(added[0].getId());
+        assertThat(search("grelhada")).containsExactly(frango.getId());
+    }
+
+    @Test
+    void itensSurviveARestart() {
+        assertThat(search("frango")).containsExactly(frango.getId());
+        itemBuscaService.saveSegment();
+        assertThat(Files.exists(Paths.get(applicationProperties.getBusca().getSegmentFile()))).isTrue();
+
+        itemBuscaService.loadSegment();
+
+        assertThat(itemBuscaService.search(restaurante.getId(), "frango", 10))
+            .extracting(ItemBuscaDTO::getId, ItemBuscaDTO::getNome)
+            .containsExactly(tuple(frango.getId(), "Frango grelhado"));
+    }
+
+    @Test
+    void itensChangedWhileStoppedAreIndexedAgain() {
+        assertThat(search("frango")).containsExactly(frango.getId());
+        itemBuscaService.saveSegment();
+
+        // Written by another server, or while this one was stopped: no event
+        inTransaction(
+            () ->
+                em
+                    .createQuery("update ItemCardapio i set i.nome = 'Tilápia', i.version = i.version + 1 where i.id = :id")
+                    .setParameter("id", frango.getId())
+                    .executeUpdate()
+        );
+        itemBuscaService.loadSegment();
+
+        assertThat(search("tilapia")).containsExactly(frango.getId());
+    }
+
+    private List<Long> search(String query) {
+        return itemBuscaService.search(restaurante.getId(), query, 10).stream().map(ItemBuscaDTO::getId).collect(Collectors.toList());
+    }
+
+    private void awaitSearch(String query, Predicate<List<Long>> done) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline && !done.test(search(query))) {
+            Thread.sleep(20);
+        }
+        assertThat(done.test(search(query))).as("search of %s", query).isTrue();
+    }
+
+    private String buscaUrl() {
+        return "/api/restaurantes/" + restaurante.getId() + "/itens/busca";
+    }
+
+    private ItemCardapio createItem(Categoria categoria, String nome, String descricao) {
+        ItemCardapio item = new ItemCardapio()
+            .categoria(categoria)
+            .nome(nome)
+            .descricao(descricao)
+            .valor(BigDecimal.TEN)
+            .cardapio(cardapio);
+        em.persist(item);
+        return item;
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
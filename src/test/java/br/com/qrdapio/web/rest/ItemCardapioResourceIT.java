@@ -21,6 +21,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -267,6 +268,102 @@ class ItemCardapioResourceIT {
             .andExpect(jsonPath("$.valor").value(sameNumber(DEFAULT_VALOR)));
     }
 
+    @Test
+    @Transactional
+    void getItemCardapiosByIdFiltering() throws Exception {
+        // Initialize the database
+        itemCardapioRepository.saveAndFlush(itemCardapio);
+
+        Long id = itemCardapio.getId();
+
+        defaultItemCardapioShouldBeFound("id.equals=" + id);
+        defaultItemCardapioShouldNotBeFound("id.notEquals=" + id);
+
+        defaultItemCardapioShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultItemCardapioShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllItemCardapiosByCategoriaIsEqualToSomething() throws Exception {
+        // Initialize the database
+        itemCardapioRepository.saveAndFlush(itemCardapio);
+
+        // Get all the itemCardapioList where categoria equals to the default one
+        defaultItemCardapioShouldBeFound("categoria.equals=" + DEFAULT_CATEGORIA);
+
+        // Get all the itemCardapioList where categoria equals to another one
+        defaultItemCardapioShouldNotBeFound("categoria.equals=" + UPDATED_CATEGORIA);
+    }
+
+    @Test
+    @Transactional
+    void getAllItemCardapiosByValorIsLessThanSomething() throws Exception {
+        // Initialize the database
+        itemCardapioRepository.saveAndFlush(itemCardapio);
+
+        // Get all the itemCardapioList where valor equals to the default one
+        defaultItemCardapioShouldBeFound("valor.lessThan=" + UPDATED_VALOR);
+
+        // Get all the itemCardapioList where valor equals to another one
+        defaultItemCardapioShouldNotBeFound("valor.lessThan=" + DEFAULT_VALOR);
+    }
+
+    @Test
+    @Transactional
+    void getAllItemCardapiosByCardapioIsEqualToSomething() throws Exception {
+        // Initialize the database
+        itemCardapioRepository.saveAndFlush(itemCardapio);
+        Long cardapioId = itemCardapio.getCardapio().getId();
+
+        // Get all the itemCardapioList where cardapio equals to the default one
+        defaultItemCardapioShouldBeFound("cardapioId.equals=" + cardapioId);
+
+        // Get all the itemCardapioList where cardapio equals to another one
+        defaultItemCardapioShouldNotBeFound("cardapioId.equals=" + (cardapioId + 1));
+    }
+
+    @Test
+    @Transactional
+    void getAllItemCardapiosByRestauranteIsEqualToSomething() throws Exception {
+        // Initialize the database
+        itemCardapioRepository.saveAndFlush(itemCardapio);
+        Long restauranteId = itemCardapio.getCardapio().getRestaurante().getId();
+
+        // Get all the itemCardapioList where restaurante equals to the default one
+        defaultItemCardapioShouldBeFound("restauranteId.equals=" + restauranteId);
+
+        // Get all the itemCardapioList where restaurante equals to another one
+        defaultItemCardapioShouldNotBeFound("restauranteId.equals=" + (restauranteId + 1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultItemCardapioShouldBeFound(String filter) throws Exception {
+        restItemCardapioMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(itemCardapio.getId().intValue())))
+            .andExpect(jsonPath("$.[*].categoria").value(hasItem(DEFAULT_CATEGORIA.toString())))
+            .andExpect(jsonPath("$.[*].nome").value(hasItem(DEFAULT_NOME)))
+            .andExpect(jsonPath("$.[*].descricao").value(hasItem(DEFAULT_DESCRICAO)))
+            .andExpect(jsonPath("$.[*].valor").value(hasItem(sameNumber(DEFAULT_VALOR))));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultItemCardapioShouldNotBeFound(String filter) throws Exception {
+        restItemCardapioMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getNonExistingItemCardapio() throws Exception {
@@ -497,6 +594,41 @@ class ItemCardapioResourceIT {
         assertThat(itemCardapioList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void patchItemCardapioWithStaleETag() throws Exception {
+        // Initialize the database
+        itemCardapioRepository.saveAndFlush(itemCardapio);
+
+        ItemCardapio partialUpdatedItemCardapio = new ItemCardapio();
+        partialUpdatedItemCardapio.setId(itemCardapio.getId());
+        partialUpdatedItemCardapio.nome(UPDATED_NOME);
+
+        restItemCardapioMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedItemCardapio.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedItemCardapio))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restItemCardapioMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedItemCardapio.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedItemCardapio))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        ItemCardapio testItemCardapio = itemCardapioRepository.findById(itemCardapio.getId()).get();
+        assertThat(testItemCardapio.getNome()).isEqualTo(UPDATED_NOME);
+        assertThat(testItemCardapio.getDescricao()).isEqualTo(DEFAULT_DESCRICAO);
+    }
+
     @Test
     @Transactional
     void deleteItemCardapio() throws Exception {
@@ -10,7 +10,9 @@ import br.com.qrdapio.IntegrationTest;
 import br.com.qrdapio.domain.ItemCardapio;
 import br.com.qrdapio.domain.ItemPedido;
 import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.enumeration.Categoria;
 import br.com.qrdapio.repository.ItemPedidoRepository;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -193,6 +195,87 @@ class ItemPedidoResourceIT {
             .andExpect(jsonPath("$.quantidade").value(DEFAULT_QUANTIDADE));
     }
 
+    @Test
+    @Transactional
+    void getItemPedidosByIdFiltering() throws Exception {
+        // Initialize the database
+        itemPedidoRepository.saveAndFlush(itemPedido);
+
+        Long id = itemPedido.getId();
+
+        defaultItemPedidoShouldBeFound("id.equals=" + id);
+        defaultItemPedidoShouldNotBeFound("id.notEquals=" + id);
+
+        defaultItemPedidoShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultItemPedidoShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllItemPedidosByPedidoIsEqualToSomething() throws Exception {
+        // Initialize the database
+        itemPedidoRepository.saveAndFlush(itemPedido);
+        Long pedidoId = itemPedido.getPedido().getId();
+
+        // Get all the itemPedidoList where pedido equals to the default one
+        defaultItemPedidoShouldBeFound("pedidoId.equals=" + pedidoId);
+
+        // Get all the itemPedidoList where pedido equals to another one
+        defaultItemPedidoShouldNotBeFound("pedidoId.equals=" + (pedidoId + 1));
+    }
+
+    @Test
+    @Transactional
+    void getAllItemPedidosByCategoriaIsEqualToSomething() throws Exception {
+        // Initialize the database
+        itemPedidoRepository.saveAndFlush(itemPedido);
+        Categoria categoria = itemPedido.getItem().getCategoria();
+
+        // Get all the itemPedidoList where categoria equals to the default one
+        defaultItemPedidoShouldBeFound("categoria.equals=" + categoria);
+
+        // Get all the itemPedidoList where categoria equals to another one
+        defaultItemPedidoShouldNotBeFound("categoria.notEquals=" + categoria);
+    }
+
+    @Test
+    @Transactional
+    void getAllItemPedidosByRestauranteIsEqualToSomething() throws Exception {
+        // Initialize the database
+        itemPedidoRepository.saveAndFlush(itemPedido);
+        Long restauranteId = itemPedido.getPedido().getRestaurante().getId();
+
+        // Get all the itemPedidoList where restaurante equals to the default one
+        defaultItemPedidoShouldBeFound("restauranteId.equals=" + restauranteId);
+
+        // Get all the itemPedidoList where restaurante equals to another one
+        defaultItemPedidoShouldNotBeFound("restauranteId.equals=" + (restauranteId + 1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultItemPedidoShouldBeFound(String filter) throws Exception {
+        restItemPedidoMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(itemPedido.getId().intValue())))
+            .andExpect(jsonPath("$.[*].quantidade").value(hasItem(DEFAULT_QUANTIDADE)));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultItemPedidoShouldNotBeFound(String filter) throws Exception {
+        restItemPedidoMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getNonExistingItemPedido() throws Exception {
@@ -416,6 +499,30 @@ class ItemPedidoResourceIT {
         assertThat(itemPedidoList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void patchItemPedidoWithInvalidQuantidade() throws Exception {
+        // Initialize the database
+        itemPedidoRepository.saveAndFlush(itemPedido);
+
+        ItemPedido partialUpdatedItemPedido = new ItemPedido();
+        partialUpdatedItemPedido.setId(itemPedido.getId());
+        partialUpdatedItemPedido.quantidade(0);
+
+        restItemPedidoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedItemPedido.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedItemPedido))
+            )
+            .andExpect(status().isBadRequest());
+
+        ItemPedido testItemPedido = itemPedidoRepository.findById(itemPedido.getId()).get();
+        assertThat(testItemPedido.getQuantidade()).isEqualTo(DEFAULT_QUANTIDADE);
+        assertThat(testItemPedido.getVersion()).isZero();
+    }
+
     @Test
     @Transactional
     void deleteItemPedido() throws Exception {
@@ -433,4 +540,46 @@ class ItemPedidoResourceIT {
         List<ItemPedido> itemPedidoList = itemPedidoRepository.findAll();
         assertThat(itemPedidoList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void pedidoTotalFollowsItsItemPedidos() throws Exception {
+        itemPedido.getItem().setValor(new BigDecimal("4.25"));
+        em.flush();
+        Long pedidoId = itemPedido.getPedido().getId();
+
+        // The valorUnitario is the one of the menu, whatever the client sent
+        restItemPedidoMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(itemPedido.quantidade(2).valorUnitario(new BigDecimal("0.01"))))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.valorUnitario").value(4.25));
+        List<ItemPedido> itemPedidoList = itemPedidoRepository.findAll();
+        ItemPedido created = itemPedidoList.get(itemPedidoList.size() - 1);
+        assertThat(totalOf(pedidoId)).isEqualByComparingTo("8.50");
+
+        restItemPedidoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, created.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(new ItemPedido().id(created.getId()).quantidade(3)))
+            )
+            .andExpect(status().isOk());
+        assertThat(totalOf(pedidoId)).isEqualByComparingTo("12.75");
+
+        restItemPedidoMockMvc.perform(delete(ENTITY_API_URL_ID, created.getId()).with(csrf())).andExpect(status().isNoContent());
+        assertThat(totalOf(pedidoId)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    private BigDecimal totalOf(Long pedidoId) {
+        return em
+            .createQuery("select pedido.total from Pedido pedido where pedido.id = :id", BigDecimal.class)
+            .setParameter("id", pedidoId)
+            .getSingleResult();
+    }
 }
@@ -0,0 +1,194 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.service.ItemPopularService;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.ItemPopularDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ItemPopularResource} REST controller.
+ * <p>
+ * Not transactional on purpose: lines are only counted once their transaction commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ItemPopularResourceIT {
+
+    @Autowired
+    private ItemPopularService itemPopularService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private ItemCardapio moqueca;
+
+    private ItemCardapio suco;
+
+    private ItemCardapio outroSuco;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        // The ids restart with the database, forget the counts of the previous runs
+        Files.deleteIfExists(Paths.get(applicationProperties.getItensPopulares().getSnapshotFile()));
+        itemPopularService.loadSnapshot();
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Populares");
+                em.persist(restaurante);
+                Cardapio cardapio = new Cardapio().nome("Populares").restaurante(restaurante);
+                em.persist(cardapio);
+                moqueca = createItem(cardapio, "Moqueca");
+                suco = createItem(cardapio, "Suco");
+                outroSuco = createItem(cardapio, "Suco");
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void getItensPopulares() throws Exception {
+        submit(new ItemPedidoSubmissionDTO(suco.getId(), 1), new ItemPedidoSubmissionDTO(moqueca.getId(), 3));
+        submit(new ItemPedidoSubmissionDTO(outroSuco.getId(), 2));
+        awaitPopulares(6);
+
+        for (String janela : List.of("15m", "1h", "1d")) {
+            restMockMvc
+                .perform(get(popularesUrl() + "?janela=" + janela))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(moqueca.getId().intValue()))
+                .andExpect(jsonPath("$[0].nome").value("Moqueca"))
+                .andExpect(jsonPath("$[0].quantidade").value(3))
+                .andExpect(jsonPath("$[1].id").value(outroSuco.getId().intValue()))
+                .andExpect(jsonPath("$[1].quantidade").value(2))
+                .andExpect(jsonPath("$[2].id").value(suco.getId().intValue()));
+        }
+        restMockMvc.perform(get(popularesUrl() + "?limite=1")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getItensPopularesWithoutSales() throws Exception {
+        restMockMvc.perform(get(popularesUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void getItensPopularesOfUnknownJanela() throws Exception {
+        restMockMvc.perform(get(popularesUrl() + "?janela=2h")).andExpect(status().isBadRequest());
+        restMockMvc.perform(get(popularesUrl() + "?limite=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void itensPopularesSurviveARestart() throws Exception {
+        itemPopularService.count(restaurante.getId(), moqueca.getId(), 4, Instant.now());
+        itemPopularService.saveSnapshot();
+        assertThat(Files.exists(Paths.get(applicationProperties.getItensPopulares().getSnapshotFile()))).isTrue();
+
+        itemPopularService.loadSnapshot();
+
+        assertThat(itemPopularService.findPopulares(restaurante.getId(), ItemPopularService.Janela.UM_DIA, 10))
+            .extracting(ItemPopularDTO::getId, ItemPopularDTO::getQuantidade)
+            .containsExactly(tuple(moqueca.getId(), 4L));
+    }
+
+    private void awaitPopulares(long quantidade) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline && count() < quantidade) {
+            Thread.sleep(20);
+        }
+    }
+
+    private long count() {
+        return itemPopularService
+            .findPopulares(restaurante.getId(), ItemPopularService.Janela.QUINZE_MINUTOS, 10)
+            .stream()
+            .mapToLong(ItemPopularDTO::getQuantidade)
+            .sum();
+    }
+
+    private void submit(ItemPedidoSubmissionDTO... itens) {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(List.of(itens));
+        pedidoService.submit(restaurante.getId(), submission);
+    }
+
+    private String popularesUrl() {
+        return "/api/restaurantes/" + restaurante.getId() + "/itens/populares";
+    }
+
+    private ItemCardapio createItem(Cardapio cardapio, String nome) {
+        ItemCardapio item = new ItemCardapio()
+            .categoria(Categoria.PRATO)
+            .nome(nome)
+            .descricao(nome)
+            .valor(BigDecimal.TEN)
+            .cardapio(cardapio);
+        em.persist(item);
+        return item;
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
@@ -0,0 +1,186 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.SqlStatementCounter;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.web.rest.util.ETagUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import br.com.qrdapio.web.filter.MenuNotModifiedFilter;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for the entity tags of the menu resources, see {@link MenuNotModifiedFilter}.
+ * <p>
+ * Not transactional on purpose: the menu versions only change once the menu write commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class MenuETagIT {
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private CardapioRepository cardapioRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private Restaurante outroRestaurante;
+
+    private Cardapio cardapio;
+
+    private ItemCardapio itemCardapio;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = restauranteRepository.save(new Restaurante().nome("Cantina"));
+        outroRestaurante = restauranteRepository.save(new Restaurante().nome("Bistrô"));
+        cardapio = cardapioRepository.save(new Cardapio().nome("Almoço").restaurante(restaurante));
+        itemCardapio =
+            itemCardapioRepository.save(
+                new ItemCardapio()
+                    .categoria(Categoria.PRATO)
+                    .nome("Frango")
+                    .descricao("Grelhado")
+                    .valor(new BigDecimal("30.00"))
+                    .cardapio(cardapio)
+            );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        for (Restaurante owner : List.of(restaurante, outroRestaurante)) {
+            itemCardapioRepository.deleteAll(itemCardapioRepository.findAllByCardapioRestauranteIdOrderById(owner.getId()));
+            cardapioRepository.deleteAll(cardapioRepository.findAllByRestauranteIdOrderById(owner.getId()));
+            restauranteRepository.deleteById(owner.getId());
+        }
+    }
+
+    @Test
+    void unchangedMenuResourcesAreNotModifiedWithoutSql() throws Exception {
+        for (String url : List.of(
+            "/api/restaurantes/" + restaurante.getId(),
+            "/api/restaurantes/" + restaurante.getId() + "/menu",
+            "/api/cardapios/" + cardapio.getId(),
+            "/api/item-cardapios?restauranteId.equals=" + restaurante.getId(),
+            "/api/item-cardapios?cardapioId.equals=" + cardapio.getId()
+        )) {
+            String eTag = restMockMvc
+                .perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("public")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+            assertThat(eTag).as("entity tag of %s", url).startsWith("\"" + restaurante.getId() + ".");
+
+            SqlStatementCounter.reset();
+            restMockMvc
+                .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+            assertThat(SqlStatementCounter.count()).as("statements for %s", url).isZero();
+        }
+    }
+
+    @Test
+    void itemUpdateChangesTheTagOfTheMenu() throws Exception {
+        String eTag = eTag("/api/cardapios/" + cardapio.getId());
+
+        itemCardapioRepository.save(itemCardapioRepository.findById(itemCardapio.getId()).orElseThrow().nome("Frango assado"));
+
+        String newETag = restMockMvc
+            .perform(get("/api/cardapios/{id}", cardapio.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.itemCardapios[0].nome").value("Frango assado"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotNull().isNotEqualTo(eTag);
+    }
+
+    @Test
+    void movedCardapioChangesTheTagOfItsPreviousRestaurante() throws Exception {
+        String eTag = eTag("/api/restaurantes/" + restaurante.getId());
+
+        cardapioRepository.save(cardapioRepository.findById(cardapio.getId()).orElseThrow().restaurante(outroRestaurante));
+
+        restMockMvc
+            .perform(get("/api/restaurantes/{id}", restaurante.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cardapios", hasSize(0)));
+        // The tag of a restaurante is not the one of another
+        restMockMvc
+            .perform(get("/api/restaurantes/{id}", outroRestaurante.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void everyServerTagsTheMenuAlike() throws Exception {
+        String eTag = eTag("/api/restaurantes/" + restaurante.getId() + "/menu");
+
+        // Another server, or this one after a restart
+        MenuSnapshotService outro = new MenuSnapshotService(
+            restauranteRepository,
+            cardapioRepository,
+            itemCardapioRepository,
+            objectMapper,
+            transactionManager
+        );
+        String version = outro.getSnapshot(restaurante.getId()).orElseThrow().getVersion();
+        assertThat(ETagUtil.toMenuETag(restaurante.getId(), version)).isEqualTo(eTag);
+    }
+
+    @Test
+    void itemCardapiosOfSeveralMenusHaveNoTag() throws Exception {
+        restMockMvc
+            .perform(get("/api/item-cardapios?restauranteId.in={id}", restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String eTag(String url) throws Exception {
+        return restMockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.qrdapio.web.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link MenuResource} REST controller.
+ * <p>
+ * Not transactional on purpose: snapshots are only evicted once the menu write commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class MenuResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/restaurantes/{id}/menu";
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private CardapioRepository cardapioRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private MockMvc restMenuMockMvc;
+
+    private Restaurante restaurante;
+
+    private Cardapio cardapio;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = restauranteRepository.save(new Restaurante().nome("Cantina"));
+        cardapio = cardapioRepository.save(new Cardapio().nome("Almoço").restaurante(restaurante));
+        itemCardapioRepository.save(
+            new ItemCardapio()
+                .categoria(Categoria.PRATO)
+                .nome("Frango")
+                .descricao("Grelhado")
+                .valor(new BigDecimal("30.00"))
+                .cardapio(cardapio)
+        );
+        itemCardapioRepository.save(
+            new ItemCardapio()
+                .categoria(Categoria.BEBIDA)
+                .nome("Suco")
+                .descricao("Laranja")
+                .valor(new BigDecimal("8.50"))
+                .cardapio(cardapio)
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        itemCardapioRepository.deleteAll(itemCardapioRepository.findAllByCardapioRestauranteIdOrderById(restaurante.getId()));
+        cardapioRepository.deleteAll(cardapioRepository.findAllByRestauranteIdOrderById(restaurante.getId()));
+        restauranteRepository.deleteById(restaurante.getId());
+    }
+
+    @Test
+    void getMenu() throws Exception {
+        restMenuMockMvc
+            .perform(get(ENTITY_API_URL, restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.id").value(restaurante.getId().intValue()))
+            .andExpect(jsonPath("$.nome").value("Cantina"))
+            .andExpect(jsonPath("$.cardapios", hasSize(1)))
+            .andExpect(jsonPath("$.cardapios[0].nome").value("Almoço"))
+            .andExpect(jsonPath("$.cardapios[0].itens.PRATO[0].nome").value("Frango"))
+            .andExpect(jsonPath("$.cardapios[0].itens.BEBIDA[0].valor").value(8.5))
+            .andExpect(jsonPath("$.cardapios[0].itens.SOBREMESA").doesNotExist());
+    }
+
+    @Test
+    void getMenuAfterItemUpdate() throws Exception {
+        restMenuMockMvc
+            .perform(get(ENTITY_API_URL, restaurante.getId()))
+            .andExpect(jsonPath("$.cardapios[0].itens.PRATO[0].nome").value("Frango"));
+
+        ItemCardapio prato = itemCardapioRepository.findAllByCardapioRestauranteIdOrderById(restaurante.getId()).get(0);
+        itemCardapioRepository.save(prato.nome("Frango assado"));
+
+        restMenuMockMvc
+            .perform(get(ENTITY_API_URL, restaurante.getId()))
+            .andExpect(jsonPath("$.cardapios[0].itens.PRATO[0].nome").value("Frango assado"));
+    }
+
+    @Test
+    void getMenuAfterItemCreatedWithCardapioReference() throws Exception {
+        restMenuMockMvc
+            .perform(get(ENTITY_API_URL, restaurante.getId()))
+            .andExpect(jsonPath("$.cardapios[0].itens.SOBREMESA").doesNotExist());
+
+        // Same shape as a POST /api/item-cardapios body: the cardapio only carries its id
+        itemCardapioRepository.save(
+            new ItemCardapio()
+                .categoria(Categoria.SOBREMESA)
+                .nome("Pudim")
+                .descricao("De leite")
+                .valor(new BigDecimal("12.00"))
+                .cardapio(new Cardapio().id(cardapio.getId()))
+        );
+
+        restMenuMockMvc
+            .perform(get(ENTITY_API_URL, restaurante.getId()))
+            .andExpect(jsonPath("$.cardapios[0].itens.SOBREMESA[0].nome").value("Pudim"));
+    }
+
+    @Test
+    void getNonExistingMenu() throws Exception {
+        restMenuMockMvc.perform(get(ENTITY_API_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+}
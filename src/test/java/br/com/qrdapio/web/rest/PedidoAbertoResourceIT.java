@@ -0,0 +1,215 @@
+package br.com.qrdapio.web.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ApplicationProperties;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link PedidoAbertoResource} REST controller.
+ * <p>
+ * Not transactional on purpose: the views only follow the changes once their transaction commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PedidoAbertoResourceIT {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private Restaurante restaurante;
+
+    private ItemCardapio moqueca;
+
+    @BeforeEach
+    public void initTest() {
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Abertos");
+                em.persist(restaurante);
+                Cardapio cardapio = new Cardapio().nome("Abertos").restaurante(restaurante);
+                em.persist(cardapio);
+                moqueca =
+                    new ItemCardapio()
+                        .categoria(Categoria.PRATO)
+                        .nome("Moqueca")
+                        .descricao("Moqueca")
+                        .valor(BigDecimal.TEN)
+                        .cardapio(cardapio);
+                em.persist(moqueca);
+            }
+        );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(
+            () -> {
+                delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                delete("delete from Pedido p where p.restaurante.id = :id");
+                delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                delete("delete from Cardapio c where c.restaurante.id = :id");
+                delete("delete from Restaurante r where r.id = :id");
+            }
+        );
+    }
+
+    @Test
+    void getPedidosAbertos() throws Exception {
+        ZonedDateTime now = ZonedDateTime.now();
+        Pedido entregue = submit(now.minusMinutes(30), 1);
+        changeStatus(entregue, StatusPedido.RECEBIDO, StatusPedido.EM_PREPARO, StatusPedido.PRONTO, StatusPedido.ENTREGUE);
+        Pedido novo = submit(now.minusMinutes(5), 3);
+        Pedido antigo = submit(now.minusMinutes(10), 2);
+
+        restMockMvc
+            .perform(get(abertosUrl()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].id").value(antigo.getId().intValue()))
+            .andExpect(jsonPath("$[0].senha").value(antigo.getSenha()))
+            .andExpect(jsonPath("$[0].status").value("RECEBIDO"))
+            .andExpect(jsonPath("$[0].total").value(20))
+            .andExpect(jsonPath("$[1].id").value(novo.getId().intValue()));
+    }
+
+    @Test
+    void pedidosAbertosFollowTheChanges() throws Exception {
+        // Loaded before the pedidos are placed
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+
+        Pedido pedido = submit(ZonedDateTime.now(), 1);
+        Pedido cancelado = submit(ZonedDateTime.now(), 1);
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
+
+        changeStatus(pedido, StatusPedido.RECEBIDO, StatusPedido.EM_PREPARO);
+        changeStatus(cancelado, StatusPedido.RECEBIDO, StatusPedido.CANCELADO);
+        restMockMvc
+            .perform(get(abertosUrl() + "?status=EM_PREPARO"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(pedido.getId().intValue()))
+            .andExpect(jsonPath("$[0].status").value("EM_PREPARO"));
+        restMockMvc.perform(get(abertosUrl() + "?status=RECEBIDO")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+
+        changeStatus(pedido, StatusPedido.EM_PREPARO, StatusPedido.PRONTO, StatusPedido.ENTREGUE);
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void deletedPedidosAreNoLongerOpen() throws Exception {
+        Pedido pedido = pedidoService.create(
+            new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.now()).restaurante(restaurante)
+        );
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)));
+
+        restMockMvc
+            .perform(MockMvcRequestBuilders.delete("/api/pedidos/{id}", pedido.getId()).with(csrf()))
+            .andExpect(status().isNoContent());
+
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void changesOfOtherServersAreSeenOnceTheViewIsReloaded() throws Exception {
+        Pedido pedido = submit(ZonedDateTime.now(), 1);
+        Pedido cancelado = submit(ZonedDateTime.now(), 1);
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
+
+        // Written without the events, as another server does
+        inTransaction(
+            () ->
+                em
+                    .createNativeQuery("update pedido set status = 'CANCELADO', version = version + 1 where id = :id")
+                    .setParameter("id", cancelado.getId())
+                    .executeUpdate()
+        );
+        restMockMvc.perform(get(abertosUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
+
+        Duration reloadInterval = applicationProperties.getPedidoAberto().getReloadInterval();
+        applicationProperties.getPedidoAberto().setReloadInterval(Duration.ZERO);
+        try {
+            restMockMvc
+                .perform(get(abertosUrl()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(pedido.getId().intValue()));
+        } finally {
+            applicationProperties.getPedidoAberto().setReloadInterval(reloadInterval);
+        }
+    }
+
+    @Test
+    void getPedidosAbertosInAClosedStatus() throws Exception {
+        restMockMvc.perform(get(abertosUrl() + "?status=ENTREGUE")).andExpect(status().isBadRequest());
+        restMockMvc.perform(get(abertosUrl() + "?status=PERDIDO")).andExpect(status().isBadRequest());
+    }
+
+    private Pedido submit(ZonedDateTime dataHora, int quantidade) {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setDataHora(dataHora);
+        submission.setItens(List.of(new ItemPedidoSubmissionDTO(moqueca.getId(), quantidade)));
+        return pedidoService.submit(restaurante.getId(), submission);
+    }
+
+    private void changeStatus(Pedido pedido, StatusPedido... statuses) {
+        for (int i = 1; i < statuses.length; i++) {
+            pedidoService.changeStatus(pedido.getId(), statuses[i - 1], statuses[i]).orElseThrow();
+        }
+    }
+
+    private String abertosUrl() {
+        return "/api/restaurantes/" + restaurante.getId() + "/pedidos/abertos";
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
@@ -0,0 +1,220 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link PedidoExportResource} REST controller.
+ * <p>
+ * Not transactional: the export is written on another thread, in its own transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PedidoExportResourceIT {
+
+    private static final String EXPORT_API_URL = "/api/pedidos/export";
+
+    private static final String FROM = "2001-01-01T00:00:00Z";
+
+    private static final String TO = "2001-02-01T00:00:00Z";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private final List<Restaurante> restaurantes = new ArrayList<>();
+
+    private Restaurante restaurante;
+
+    private Pedido first;
+
+    private Pedido second;
+
+    @BeforeEach
+    public void initTest() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    restaurante = createRestaurante();
+                    // In date order, the second pedido was placed first
+                    second = createPedido(restaurante, "2001-01-10T12:00:00Z", 2);
+                    createItemPedido(second, createItem(restaurante, "Suco", new BigDecimal("8.00")), 3);
+                    first = createPedido(restaurante, "2001-01-31T23:59:59Z", 1);
+                    createItemPedido(first, createItem(restaurante, "Moqueca, com \"pirao\"", new BigDecimal("42.50")), 2);
+                    createItemPedido(first, createItem(restaurante, "Suco", new BigDecimal("8.00")), 1);
+                    // Outside of the period
+                    createItemPedido(createPedido(restaurante, TO, 3), createItem(restaurante, "Feijoada", BigDecimal.TEN), 1);
+                    Pedido before = createPedido(restaurante, "2000-12-31T23:59:59Z", 4);
+                    createItemPedido(before, createItem(restaurante, "Vatapa", BigDecimal.TEN), 1);
+                    // Of another restaurante
+                    Restaurante outro = createRestaurante();
+                    createItemPedido(createPedido(outro, "2001-01-15T12:00:00Z", 1), createItem(outro, "Acaraje", BigDecimal.ONE), 5);
+                }
+            );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    for (Restaurante r : restaurantes) {
+                        Long id = r.getId();
+                        delete(
+                            "delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)",
+                            id
+                        );
+                        delete("delete from Pedido p where p.restaurante.id = :id", id);
+                        delete(
+                            "delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)",
+                            id
+                        );
+                        delete("delete from Cardapio c where c.restaurante.id = :id", id);
+                        delete("delete from Restaurante r where r.id = :id", id);
+                    }
+                }
+            );
+    }
+
+    @Test
+    void exportPedidosAsNdjson() throws Exception {
+        MvcResult result = export("&restaurante=" + restaurante.getId());
+        restMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(PedidoExportResource.APPLICATION_NDJSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos.ndjson\""));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode suco = objectMapper.readTree(lines[0]);
+        assertThat(suco.get("pedidoId").asLong()).isEqualTo(second.getId());
+        assertThat(suco.get("restauranteId").asLong()).isEqualTo(restaurante.getId());
+        assertThat(suco.get("senha").asInt()).isEqualTo(2);
+        assertThat(suco.get("formaPagamento").asText()).isEqualTo("PIX");
+        assertThat(suco.get("item").asText()).isEqualTo("Suco");
+        assertThat(suco.get("quantidade").asInt()).isEqualTo(3);
+        assertThat(suco.get("total").decimalValue()).isEqualByComparingTo("24.00");
+        assertThat(ZonedDateTime.parse(suco.get("dataHora").asText()).toInstant())
+            .isEqualTo(ZonedDateTime.parse("2001-01-10T12:00:00Z").toInstant());
+        JsonNode moqueca = objectMapper.readTree(lines[1]);
+        assertThat(moqueca.get("pedidoId").asLong()).isEqualTo(first.getId());
+        assertThat(moqueca.get("valorUnitario").decimalValue()).isEqualByComparingTo("42.50");
+        assertThat(moqueca.get("total").decimalValue()).isEqualByComparingTo("85.00");
+        assertThat(objectMapper.readTree(lines[2]).get("total").decimalValue()).isEqualByComparingTo("8.00");
+    }
+
+    @Test
+    void exportPedidosAsCsv() throws Exception {
+        MvcResult result = export("&restaurante=" + restaurante.getId() + "&format=csv");
+        restMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(PedidoExportResource.TEXT_CSV));
+
+        String[] lines = result.getResponse().getContentAsString().split("\r\n");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo("pedidoId,restauranteId,dataHora,senha,formaPagamento,itemId,item,quantidade,valorUnitario,total");
+        assertThat(lines[1]).startsWith(second.getId() + "," + restaurante.getId() + ",").endsWith(",Suco,3,8.00,24.00");
+        assertThat(lines[2]).startsWith(first.getId() + ",").endsWith(",\"Moqueca, com \"\"pirao\"\"\",2,42.50,85.00");
+        assertThat(lines[3]).endsWith(",Suco,1,8.00,8.00");
+    }
+
+    @Test
+    void exportPedidosOfAllRestaurantes() throws Exception {
+        MvcResult result = export("");
+        restMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertThat(result.getResponse().getContentAsString().split("\n")).hasSize(4).anyMatch(line -> line.contains("Acaraje"));
+    }
+
+    @Test
+    void exportPedidosOfEmptyPeriod() throws Exception {
+        restMockMvc
+            .perform(get(EXPORT_API_URL + "?from=" + TO + "&to=" + FROM))
+            .andExpect(status().isBadRequest())
+            .andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void exportPedidosInUnknownFormat() throws Exception {
+        restMockMvc.perform(get(EXPORT_API_URL + "?from=" + FROM + "&to=" + TO + "&format=xml")).andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(String parameters) throws Exception {
+        return restMockMvc
+            .perform(get(EXPORT_API_URL + "?from=" + FROM + "&to=" + TO + parameters))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private Restaurante createRestaurante() {
+        Restaurante r = new Restaurante().nome("Export");
+        em.persist(r);
+        restaurantes.add(r);
+        return r;
+    }
+
+    private ItemCardapio createItem(Restaurante r, String nome, BigDecimal valor) {
+        Cardapio cardapio = new Cardapio().nome("Export").restaurante(r);
+        em.persist(cardapio);
+        ItemCardapio item = new ItemCardapio().categoria(Categoria.PRATO).nome(nome).descricao(nome).valor(valor).cardapio(cardapio);
+        em.persist(item);
+        return item;
+    }
+
+    private Pedido createPedido(Restaurante r, String dataHora, int senha) {
+        Pedido pedido = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.parse(dataHora)).senha(senha).restaurante(r);
+        em.persist(pedido);
+        return pedido;
+    }
+
+    private void createItemPedido(Pedido pedido, ItemCardapio item, int quantidade) {
+        em.persist(new ItemPedido().quantidade(quantidade).valorUnitario(item.getValor()).item(item).pedido(pedido));
+    }
+
+    private void delete(String jpql, Long id) {
+        em.createQuery(jpql).setParameter("id", id).executeUpdate();
+    }
+}
@@ -2,20 +2,34 @@ package br.com.qrdapio.web.rest;
 
 import static br.com.qrdapio.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
 import br.com.qrdapio.domain.Pedido;
 import br.com.qrdapio.domain.Restaurante;
 import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.domain.enumeration.StatusPedido;
 import br.com.qrdapio.repository.PedidoRepository;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.StatusPedidoTransicaoDTO;
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -24,6 +38,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -48,6 +64,9 @@ class PedidoResourceIT {
 
     private static final String ENTITY_API_URL = "/api/pedidos";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String SUBMIT_API_URL = "/api/restaurantes/{id}/pedidos:submit";
+    private static final String RESUMOS_API_URL = "/api/restaurantes/{id}/pedidos";
+    private static final String STATUS_API_URL = ENTITY_API_URL_ID + "/status";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -127,7 +146,55 @@ class PedidoResourceIT {
         Pedido testPedido = pedidoList.get(pedidoList.size() - 1);
         assertThat(testPedido.getFormaPagamento()).isEqualTo(DEFAULT_FORMA_PAGAMENTO);
         assertThat(testPedido.getDataHora()).isEqualTo(DEFAULT_DATA_HORA);
-        assertThat(testPedido.getSenha()).isEqualTo(DEFAULT_SENHA);
+        assertThat(testPedido.getSenha()).isNotNull();
+        assertThat(testPedido.getDia()).isNotNull();
+        assertThat(testPedido.getStatus()).isEqualTo(StatusPedido.RECEBIDO);
+    }
+
+    @Test
+    @Transactional
+    void createPedidoIgnoresTheSenhaOfTheClient() throws Exception {
+        pedido.setSenha(UPDATED_SENHA);
+
+        for (int i = 0; i < 2; i++) {
+            restPedidoMockMvc
+                .perform(
+                    post(ENTITY_API_URL)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(pedido))
+                )
+                .andExpect(status().isCreated());
+        }
+
+        List<Pedido> pedidoList = pedidoRepository.findAll();
+        Pedido first = pedidoList.get(pedidoList.size() - 2);
+        Pedido second = pedidoList.get(pedidoList.size() - 1);
+        assertThat(second.getSenha()).isNotEqualTo(first.getSenha());
+        assertThat(second.getDia()).isEqualTo(first.getDia());
+    }
+
+    @Test
+    @Transactional
+    void senhaIsUniquePerRestauranteAndDia() {
+        Pedido first = createEntity(em).dia(LocalDate.of(2021, 5, 1));
+        pedidoRepository.saveAndFlush(first);
+        Pedido second = createEntity(em).restaurante(first.getRestaurante()).dia(first.getDia());
+
+        assertThatThrownBy(() -> pedidoRepository.saveAndFlush(second)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @Transactional
+    void createPedidoWithoutSenha() throws Exception {
+        pedido.setSenha(null);
+
+        restPedidoMockMvc
+            .perform(
+                post(ENTITY_API_URL).with(csrf()).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(pedido))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.senha").isNumber());
     }
 
     @Test
@@ -222,6 +289,207 @@ class PedidoResourceIT {
             .andExpect(jsonPath("$.senha").value(DEFAULT_SENHA));
     }
 
+    @Test
+    @Transactional
+    void getPedidosByIdFiltering() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        Long id = pedido.getId();
+
+        defaultPedidoShouldBeFound("id.equals=" + id);
+        defaultPedidoShouldNotBeFound("id.notEquals=" + id);
+
+        defaultPedidoShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultPedidoShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosByFormaPagamentoIsEqualToSomething() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        // Get all the pedidoList where formaPagamento equals to DEFAULT_FORMA_PAGAMENTO
+        defaultPedidoShouldBeFound("formaPagamento.equals=" + DEFAULT_FORMA_PAGAMENTO);
+
+        // Get all the pedidoList where formaPagamento equals to UPDATED_FORMA_PAGAMENTO
+        defaultPedidoShouldNotBeFound("formaPagamento.equals=" + UPDATED_FORMA_PAGAMENTO);
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosByFormaPagamentoIsInShouldWork() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        // Get all the pedidoList where formaPagamento in DEFAULT_FORMA_PAGAMENTO or UPDATED_FORMA_PAGAMENTO
+        defaultPedidoShouldBeFound("formaPagamento.in=" + DEFAULT_FORMA_PAGAMENTO + "," + UPDATED_FORMA_PAGAMENTO);
+
+        // Get all the pedidoList where formaPagamento equals to UPDATED_FORMA_PAGAMENTO
+        defaultPedidoShouldNotBeFound("formaPagamento.in=" + UPDATED_FORMA_PAGAMENTO);
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosByStatusIsInShouldWork() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        // Get all the pedidoList where status in RECEBIDO or EM_PREPARO
+        defaultPedidoShouldBeFound("status.in=" + StatusPedido.RECEBIDO + "," + StatusPedido.EM_PREPARO);
+
+        // Get all the pedidoList where status equals to ENTREGUE
+        defaultPedidoShouldNotBeFound("status.equals=" + StatusPedido.ENTREGUE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosByDataHoraIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        // Get all the pedidoList where dataHora is greater than or equal to DEFAULT_DATA_HORA
+        defaultPedidoShouldBeFound("dataHora.greaterThanOrEqual=" + DEFAULT_DATA_HORA);
+
+        // Get all the pedidoList where dataHora is greater than or equal to UPDATED_DATA_HORA
+        defaultPedidoShouldNotBeFound("dataHora.greaterThanOrEqual=" + UPDATED_DATA_HORA);
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosByDataHoraIsLessThanSomething() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        // Get all the pedidoList where dataHora is less than DEFAULT_DATA_HORA
+        defaultPedidoShouldNotBeFound("dataHora.lessThan=" + DEFAULT_DATA_HORA);
+
+        // Get all the pedidoList where dataHora is less than UPDATED_DATA_HORA
+        defaultPedidoShouldBeFound("dataHora.lessThan=" + UPDATED_DATA_HORA);
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosByRestauranteIsEqualToSomething() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+        Long restauranteId = pedido.getRestaurante().getId();
+
+        // Get all the pedidoList where restaurante equals to restauranteId
+        defaultPedidoShouldBeFound("restauranteId.equals=" + restauranteId);
+
+        // Get all the pedidoList where restaurante equals to (restauranteId + 1)
+        defaultPedidoShouldNotBeFound("restauranteId.equals=" + (restauranteId + 1));
+    }
+
+    @Test
+    @Transactional
+    void getAllPedidosBySlices() throws Exception {
+        // Initialize the database
+        Pedido first = pedidoRepository.saveAndFlush(pedido);
+        Pedido second = pedidoRepository.saveAndFlush(createEntity(em));
+        Pedido third = pedidoRepository.saveAndFlush(createEntity(em));
+        String filter = "id.greaterThanOrEqual=" + first.getId();
+
+        // The first slice links to the one after the second pedido
+        restPedidoMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter + "&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(header().string("X-Next-Cursor", second.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + second.getId())));
+
+        // The last slice has no link
+        restPedidoMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter + "&size=2&after=" + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getPedidoWithItemPedidos() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+        ItemPedido itemPedido = new ItemPedido().quantidade(2).item(createItemCardapio(pedido.getRestaurante()));
+        pedido.addItemPedido(itemPedido);
+        em.persist(itemPedido);
+        em.flush();
+
+        // The items come with the pedido
+        restPedidoMockMvc
+            .perform(get(ENTITY_API_URL_ID, pedido.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(pedido.getId().intValue()))
+            .andExpect(jsonPath("$.itemPedidos.[*].id").value(contains(itemPedido.getId().intValue())))
+            .andExpect(jsonPath("$.itemPedidos.[*].quantidade").value(contains(2)));
+    }
+
+    @Test
+    @Transactional
+    void getPedidoResumos() throws Exception {
+        Restaurante restaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(restaurante);
+        Pedido first = pedidoRepository.saveAndFlush(createEntity(em).restaurante(restaurante).total(new BigDecimal("7.50")));
+        for (int i = 0; i < 2; i++) {
+            em.persist(new ItemPedido().quantidade(1).item(createItemCardapio(restaurante)).pedido(first));
+        }
+        Pedido second = pedidoRepository.saveAndFlush(createEntity(em).restaurante(restaurante));
+        Pedido third = pedidoRepository.saveAndFlush(createEntity(em).restaurante(restaurante));
+        em.flush();
+
+        // The pedidos of the restaurante, with the number of their items
+        restPedidoMockMvc
+            .perform(get(RESUMOS_API_URL + "?size=2", restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(jsonPath("$.[*].itens").value(contains(2, 0)))
+            .andExpect(jsonPath("$.[*].total").value(contains(7.5, 0.0)))
+            .andExpect(jsonPath("$.[*].senha").value(hasItem(DEFAULT_SENHA)))
+            .andExpect(jsonPath("$.[*].formaPagamento").value(hasItem(DEFAULT_FORMA_PAGAMENTO.toString())))
+            .andExpect(jsonPath("$.[*].dataHora").value(hasItem(sameInstant(DEFAULT_DATA_HORA))))
+            .andExpect(header().string("X-Next-Cursor", second.getId().toString()));
+
+        restPedidoMockMvc
+            .perform(get(RESUMOS_API_URL + "?size=2&after=" + second.getId(), restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private static StatusPedidoTransicaoDTO transicao(StatusPedido de, StatusPedido para) {
+        return new StatusPedidoTransicaoDTO(de, para);
+    }
+
+    private void defaultPedidoShouldBeFound(String filter) throws Exception {
+        restPedidoMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(pedido.getId().intValue())))
+            .andExpect(jsonPath("$.[*].formaPagamento").value(hasItem(DEFAULT_FORMA_PAGAMENTO.toString())))
+            .andExpect(jsonPath("$.[*].dataHora").value(hasItem(sameInstant(DEFAULT_DATA_HORA))))
+            .andExpect(jsonPath("$.[*].senha").value(hasItem(DEFAULT_SENHA)));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultPedidoShouldNotBeFound(String filter) throws Exception {
+        restPedidoMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getNonExistingPedido() throws Exception {
@@ -242,6 +510,8 @@ class PedidoResourceIT {
         // Disconnect from session so that the updates on updatedPedido are not directly saved in db
         em.detach(updatedPedido);
         updatedPedido.formaPagamento(UPDATED_FORMA_PAGAMENTO).dataHora(UPDATED_DATA_HORA).senha(UPDATED_SENHA);
+        // Computed by the server
+        updatedPedido.total(new BigDecimal("99.00"));
 
         restPedidoMockMvc
             .perform(
@@ -258,7 +528,9 @@ class PedidoResourceIT {
         Pedido testPedido = pedidoList.get(pedidoList.size() - 1);
         assertThat(testPedido.getFormaPagamento()).isEqualTo(UPDATED_FORMA_PAGAMENTO);
         assertThat(testPedido.getDataHora()).isEqualTo(UPDATED_DATA_HORA);
-        assertThat(testPedido.getSenha()).isEqualTo(UPDATED_SENHA);
+        // Handed out by the server
+        assertThat(testPedido.getSenha()).isEqualTo(DEFAULT_SENHA);
+        assertThat(testPedido.getTotal()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     @Test
@@ -350,7 +622,7 @@ class PedidoResourceIT {
         Pedido testPedido = pedidoList.get(pedidoList.size() - 1);
         assertThat(testPedido.getFormaPagamento()).isEqualTo(DEFAULT_FORMA_PAGAMENTO);
         assertThat(testPedido.getDataHora()).isEqualTo(UPDATED_DATA_HORA);
-        assertThat(testPedido.getSenha()).isEqualTo(UPDATED_SENHA);
+        assertThat(testPedido.getSenha()).isEqualTo(DEFAULT_SENHA);
     }
 
     @Test
@@ -382,7 +654,7 @@ class PedidoResourceIT {
         Pedido testPedido = pedidoList.get(pedidoList.size() - 1);
         assertThat(testPedido.getFormaPagamento()).isEqualTo(UPDATED_FORMA_PAGAMENTO);
         assertThat(testPedido.getDataHora()).isEqualTo(UPDATED_DATA_HORA);
-        assertThat(testPedido.getSenha()).isEqualTo(UPDATED_SENHA);
+        assertThat(testPedido.getSenha()).isEqualTo(DEFAULT_SENHA);
     }
 
     @Test
@@ -448,6 +720,161 @@ class PedidoResourceIT {
         assertThat(pedidoList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void patchPedidoWithETag() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        String eTag = restPedidoMockMvc
+            .perform(get(ENTITY_API_URL_ID, pedido.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        Pedido partialUpdatedPedido = new Pedido();
+        partialUpdatedPedido.setId(pedido.getId());
+        partialUpdatedPedido.formaPagamento(UPDATED_FORMA_PAGAMENTO);
+
+        restPedidoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPedido.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPedido))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1))
+            .andExpect(jsonPath("$.formaPagamento").value(UPDATED_FORMA_PAGAMENTO.toString()));
+
+        // The same tag is now stale
+        partialUpdatedPedido.formaPagamento(DEFAULT_FORMA_PAGAMENTO);
+        restPedidoMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPedido.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPedido))
+            )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("error.versionmismatch"));
+
+        Pedido testPedido = pedidoRepository.findById(pedido.getId()).get();
+        assertThat(testPedido.getFormaPagamento()).isEqualTo(UPDATED_FORMA_PAGAMENTO);
+        assertThat(testPedido.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void putPedidoWithStaleETag() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        Pedido updatedPedido = pedidoRepository.findById(pedido.getId()).get();
+        em.detach(updatedPedido);
+        updatedPedido.formaPagamento(UPDATED_FORMA_PAGAMENTO);
+
+        restPedidoMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPedido.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPedido))
+            )
+            .andExpect(status().isPreconditionFailed());
+        assertThat(pedidoRepository.findById(pedido.getId()).get().getFormaPagamento()).isEqualTo(DEFAULT_FORMA_PAGAMENTO);
+
+        restPedidoMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPedido.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPedido))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        Pedido testPedido = pedidoRepository.findById(pedido.getId()).get();
+        assertThat(testPedido.getFormaPagamento()).isEqualTo(UPDATED_FORMA_PAGAMENTO);
+    }
+
+    @Test
+    @Transactional
+    void changePedidoStatus() throws Exception {
+        // Initialize the database
+        pedidoRepository.saveAndFlush(pedido);
+
+        restPedidoMockMvc
+            .perform(
+                post(STATUS_API_URL, pedido.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(transicao(StatusPedido.RECEBIDO, StatusPedido.EM_PREPARO)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.status").value(StatusPedido.EM_PREPARO.toString()));
+
+        // Another client saw it received too
+        restPedidoMockMvc
+            .perform(
+                post(STATUS_API_URL, pedido.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(transicao(StatusPedido.RECEBIDO, StatusPedido.CANCELADO)))
+            )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("error.statusmismatch"));
+
+        // Not ready yet
+        restPedidoMockMvc
+            .perform(
+                post(STATUS_API_URL, pedido.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(transicao(StatusPedido.EM_PREPARO, StatusPedido.ENTREGUE)))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidtransicao"));
+
+        Pedido testPedido = pedidoRepository.findById(pedido.getId()).get();
+        assertThat(testPedido.getStatus()).isEqualTo(StatusPedido.EM_PREPARO);
+        assertThat(testPedido.getVersion()).isEqualTo(1);
+
+        // Left as is by a full update
+        Pedido updatedPedido = createUpdatedEntity(em).id(pedido.getId()).status(StatusPedido.ENTREGUE);
+        restPedidoMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPedido.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPedido))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(StatusPedido.EM_PREPARO.toString()));
+    }
+
+    @Test
+    @Transactional
+    void changeStatusOfNonExistingPedido() throws Exception {
+        restPedidoMockMvc
+            .perform(
+                post(STATUS_API_URL, count.incrementAndGet())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(transicao(StatusPedido.RECEBIDO, StatusPedido.EM_PREPARO)))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idnotfound"));
+    }
+
     @Test
     @Transactional
     void deletePedido() throws Exception {
@@ -465,4 +892,142 @@ class PedidoResourceIT {
         List<Pedido> pedidoList = pedidoRepository.findAll();
         assertThat(pedidoList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void submitPedido() throws Exception {
+        Restaurante restaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(restaurante);
+        ItemCardapio prato = createItemCardapio(restaurante).valor(new BigDecimal("12.50"));
+        ItemCardapio bebida = createItemCardapio(restaurante).valor(new BigDecimal("6.00"));
+        int databaseSizeBeforeSubmit = pedidoRepository.findAll().size();
+
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setDataHora(DEFAULT_DATA_HORA);
+        submission.setItens(
+            Arrays.asList(
+                new ItemPedidoSubmissionDTO(prato.getId(), 2),
+                new ItemPedidoSubmissionDTO(bebida.getId(), 1),
+                new ItemPedidoSubmissionDTO(prato.getId(), 1)
+            )
+        );
+
+        restPedidoMockMvc
+            .perform(
+                post(SUBMIT_API_URL, restaurante.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(submission))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.formaPagamento").value(FormaPagamento.PIX.toString()))
+            .andExpect(jsonPath("$.senha").isNumber())
+            .andExpect(jsonPath("$.itemPedidos.length()").value(2))
+            .andExpect(jsonPath("$.total").value(43.5));
+
+        List<Pedido> pedidoList = pedidoRepository.findAll();
+        assertThat(pedidoList).hasSize(databaseSizeBeforeSubmit + 1);
+        Pedido testPedido = pedidoList.get(pedidoList.size() - 1);
+        assertThat(testPedido.getRestaurante()).isEqualTo(restaurante);
+        assertThat(testPedido.getItemPedidos())
+            .extracting(ItemPedido::getItem, ItemPedido::getQuantidade)
+            .containsExactlyInAnyOrder(tuple(prato, 3), tuple(bebida, 1));
+
+        // A later price change leaves the pedido as it was charged
+        prato.setValor(new BigDecimal("15.00"));
+        em.flush();
+        em.clear();
+        Pedido chargedPedido = pedidoRepository.findOneWithItemPedidosById(testPedido.getId()).get();
+        assertThat(chargedPedido.getTotal()).isEqualByComparingTo("43.50");
+        assertThat(chargedPedido.getItemPedidos())
+            .extracting(itemPedido -> itemPedido.getItem().getId(), ItemPedido::getValorUnitario)
+            .containsExactlyInAnyOrder(tuple(prato.getId(), new BigDecimal("12.50")), tuple(bebida.getId(), new BigDecimal("6.00")));
+    }
+
+    @Test
+    @Transactional
+    void submitPedidosOrderingTheSameItem() throws Exception {
+        Restaurante restaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(restaurante);
+        ItemCardapio prato = createItemCardapio(restaurante);
+        int menuSizeBeforeSubmit = TestUtil.findAll(em, ItemCardapio.class).size();
+
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(Arrays.asList(new ItemPedidoSubmissionDTO(prato.getId(), 1)));
+        for (int i = 0; i < 2; i++) {
+            restPedidoMockMvc
+                .perform(
+                    post(SUBMIT_API_URL, restaurante.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(submission))
+                )
+                .andExpect(status().isCreated());
+        }
+        em.flush();
+
+        // Both pedidos order the same row of the menu
+        assertThat(TestUtil.findAll(em, ItemCardapio.class)).hasSize(menuSizeBeforeSubmit);
+        assertThat(TestUtil.findAll(em, ItemPedido.class))
+            .filteredOn(itemPedido -> itemPedido.getItem().equals(prato))
+            .extracting(itemPedido -> itemPedido.getPedido().getId())
+            .doesNotHaveDuplicates()
+            .hasSize(2);
+    }
+
+    @Test
+    @Transactional
+    void submitPedidoWithItemFromAnotherRestaurante() throws Exception {
+        Restaurante restaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(restaurante);
+        Restaurante outroRestaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(outroRestaurante);
+        ItemCardapio item = createItemCardapio(outroRestaurante);
+        int databaseSizeBeforeSubmit = pedidoRepository.findAll().size();
+
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(Arrays.asList(new ItemPedidoSubmissionDTO(item.getId(), 1)));
+
+        restPedidoMockMvc
+            .perform(
+                post(SUBMIT_API_URL, restaurante.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(submission))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertThat(pedidoRepository.findAll()).hasSize(databaseSizeBeforeSubmit);
+    }
+
+    @Test
+    @Transactional
+    void submitPedidoWithoutItens() throws Exception {
+        Restaurante restaurante = RestauranteResourceIT.createEntity(em);
+        em.persist(restaurante);
+
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+
+        restPedidoMockMvc
+            .perform(
+                post(SUBMIT_API_URL, restaurante.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(submission))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    private ItemCardapio createItemCardapio(Restaurante restaurante) {
+        Cardapio cardapio = new Cardapio().nome("AAAAAAAAAA").restaurante(restaurante);
+        em.persist(cardapio);
+        ItemCardapio itemCardapio = ItemCardapioResourceIT.createEntity(em).cardapio(cardapio);
+        em.persist(itemCardapio);
+        em.flush();
+        return itemCardapio;
+    }
 }
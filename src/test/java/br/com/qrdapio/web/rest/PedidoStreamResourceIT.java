@@ -0,0 +1,193 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.PedidoService;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link PedidoStreamResource} REST controller.
+ * <p>
+ * Not transactional: pedidos are only streamed once their transaction commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PedidoStreamResourceIT {
+
+    private static final String STREAM_API_URL = "/api/restaurantes/{id}/pedidos/stream";
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private CardapioRepository cardapioRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private Cardapio cardapio;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = restauranteRepository.save(new Restaurante().nome("Cozinha"));
+        cardapio = cardapioRepository.save(new Cardapio().nome("Cozinha").restaurante(restaurante));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                    delete("delete from Pedido p where p.restaurante.id = :id");
+                    delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                    delete("delete from Cardapio c where c.restaurante.id = :id");
+                    delete("delete from Restaurante r where r.id = :id");
+                }
+            );
+    }
+
+    @Test
+    void streamCommittedPedidos() throws Exception {
+        MvcResult stream = openStream(null);
+
+        Pedido pedido = submitPedido("Moqueca");
+
+        String content = awaitContent(stream, "event:pedido");
+        assertThat(content)
+            .contains("\"id\":" + pedido.getId())
+            .contains("\"restauranteId\":" + restaurante.getId())
+            .contains("\"nome\":\"Moqueca\"")
+            .contains("\"quantidade\":2");
+        // One event for the pedido, although its lines were inserted in the same transaction
+        assertThat(content.split("event:pedido", -1)).hasSize(2);
+    }
+
+    @Test
+    void resumeFromLastEventId() throws Exception {
+        MvcResult stream = openStream(null);
+        Pedido first = submitPedido("Acaraje");
+        Matcher id = EVENT_ID.matcher(awaitContent(stream, "event:pedido"));
+        assertThat(id.find()).isTrue();
+
+        Pedido second = submitPedido("Vatapa");
+        awaitContent(stream, "Vatapa");
+
+        String replay = awaitContent(openStream(id.group(1)), "event:pedido");
+        assertThat(replay).contains("\"id\":" + second.getId()).doesNotContain("\"id\":" + first.getId() + ",");
+    }
+
+    @Test
+    void streamDeletedPedidos() throws Exception {
+        Pedido pedido = pedidoService.create(
+            new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.now()).restaurante(restaurante)
+        );
+        MvcResult stream = openStream(null);
+
+        restMockMvc
+            .perform(MockMvcRequestBuilders.delete("/api/pedidos/{id}", pedido.getId()).with(csrf()))
+            .andExpect(status().isNoContent());
+
+        assertThat(awaitContent(stream, "event:pedido-removed"))
+            .contains("\"id\":" + pedido.getId())
+            .contains("\"restauranteId\":" + restaurante.getId());
+    }
+
+    @Test
+    void resumeFromUnknownEventIdSendsReset() throws Exception {
+        assertThat(awaitContent(openStream("1"), "event:reset")).contains("data:reset");
+    }
+
+    @Test
+    void streamPedidosOfNonExistingRestaurante() throws Exception {
+        restMockMvc.perform(get(STREAM_API_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    private MvcResult openStream(String lastEventId) throws Exception {
+        return restMockMvc
+            .perform(
+                lastEventId == null
+                    ? get(STREAM_API_URL, restaurante.getId())
+                    : get(STREAM_API_URL, restaurante.getId()).header("Last-Event-ID", lastEventId)
+            )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private Pedido submitPedido(String nome) {
+        ItemCardapio item = itemCardapioRepository.save(
+            new ItemCardapio().categoria(Categoria.PRATO).nome(nome).descricao(nome).valor(BigDecimal.TEN).cardapio(cardapio)
+        );
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.PIX);
+        submission.setItens(List.of(new ItemPedidoSubmissionDTO(item.getId(), 2)));
+        return pedidoService.submit(restaurante.getId(), submission);
+    }
+
+    /**
+     * Wait until the stream contains the expected text, and its last event is complete.
+     */
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = stream.getResponse().getContentAsString();
+        while (!(content.contains(expected) && content.endsWith("\n\n")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.repository.CardapioRepository;
+import br.com.qrdapio.repository.ItemCardapioRepository;
+import br.com.qrdapio.repository.RestauranteRepository;
+import br.com.qrdapio.service.dto.ItemPedidoSubmissionDTO;
+import br.com.qrdapio.service.dto.PedidoSubmissionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the throughput of {@code POST /api/restaurantes/:id/pedidos:submit} with the
+ * {@code POST /api/pedidos} + N x {@code POST /api/item-pedidos} flow it replaces.
+ * <p>
+ * Not transactional on purpose: each request must run in its own transaction, as in production.
+ * MockMvc has no network, so the measured gap only covers per-request and per-transaction costs;
+ * the round trips saved on a mobile network come on top of it.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PedidoSubmissionBenchmarkIT {
+
+    private static final int ORDERS = 50;
+
+    private static final int LINES_PER_ORDER = 3;
+
+    private final Logger log = LoggerFactory.getLogger(PedidoSubmissionBenchmarkIT.class);
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private CardapioRepository cardapioRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private List<ItemCardapio> itens;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = restauranteRepository.save(new Restaurante().nome("Benchmark"));
+        Cardapio cardapio = cardapioRepository.save(new Cardapio().nome("Benchmark").restaurante(restaurante));
+        List<ItemCardapio> novosItens = new ArrayList<>();
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            novosItens.add(
+                new ItemCardapio()
+                    .categoria(Categoria.PRATO)
+                    .nome("Item " + i)
+                    .descricao("Item " + i)
+                    .valor(BigDecimal.TEN)
+                    .cardapio(cardapio)
+            );
+        }
+        itens = itemCardapioRepository.saveAll(novosItens);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)");
+                    delete("delete from Pedido p where p.restaurante.id = :id");
+                    delete("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)");
+                    delete("delete from Cardapio c where c.restaurante.id = :id");
+                    delete("delete from Restaurante r where r.id = :id");
+                }
+            );
+    }
+
+    @Test
+    void compareSubmitWithMultiCallFlow() throws Exception {
+        long multiCallNanos = time(this::createWithMultipleCalls);
+        long submitNanos = time(this::createWithSubmit);
+
+        log.info(
+            "Pedido creation, {} orders of {} lines: multi-call flow {} orders/s ({} requests), submit {} orders/s ({} requests)",
+            ORDERS,
+            LINES_PER_ORDER,
+            ordersPerSecond(multiCallNanos),
+            ORDERS * (1 + LINES_PER_ORDER),
+            ordersPerSecond(submitNanos),
+            ORDERS
+        );
+        Long pedidos = em
+            .createQuery("select count(p) from Pedido p where p.restaurante.id = :id", Long.class)
+            .setParameter("id", restaurante.getId())
+            .getSingleResult();
+        assertThat(pedidos).isEqualTo(2L * ORDERS);
+    }
+
+    private void createWithMultipleCalls() throws Exception {
+        Pedido pedido = new Pedido().formaPagamento(FormaPagamento.CREDITO).dataHora(ZonedDateTime.now()).restaurante(restaurante);
+        String location = restMockMvc
+            .perform(
+                post("/api/pedidos").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(pedido))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getHeader("Location");
+        pedido.setId(Long.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+        for (int line = 0; line < LINES_PER_ORDER; line++) {
+            ItemPedido itemPedido = new ItemPedido().quantidade(1).item(itens.get(line)).pedido(pedido);
+            restMockMvc
+                .perform(
+                    post("/api/item-pedidos")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(itemPedido))
+                )
+                .andExpect(status().isCreated());
+        }
+    }
+
+    private void createWithSubmit() throws Exception {
+        PedidoSubmissionDTO submission = new PedidoSubmissionDTO();
+        submission.setFormaPagamento(FormaPagamento.CREDITO);
+        for (int line = 0; line < LINES_PER_ORDER; line++) {
+            submission.getItens().add(new ItemPedidoSubmissionDTO(itens.get(line).getId(), 1));
+        }
+        restMockMvc
+            .perform(
+                post("/api/restaurantes/{id}/pedidos:submit", restaurante.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsBytes(submission))
+            )
+            .andExpect(status().isCreated());
+    }
+
+    private long time(OrderCreation orderCreation) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            orderCreation.create();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void delete(String jpql) {
+        em.createQuery(jpql).setParameter("id", restaurante.getId()).executeUpdate();
+    }
+
+    private static long ordersPerSecond(long nanos) {
+        return ORDERS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    @FunctionalInterface
+    private interface OrderCreation {
+        void create() throws Exception;
+    }
+}
@@ -1,12 +1,14 @@
 package br.com.qrdapio.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Cardapio;
 import br.com.qrdapio.domain.Restaurante;
 import br.com.qrdapio.repository.RestauranteRepository;
 import java.util.List;
@@ -173,6 +175,76 @@ class RestauranteResourceIT {
             .andExpect(jsonPath("$.nome").value(DEFAULT_NOME));
     }
 
+    @Test
+    @Transactional
+    void getRestaurantesByIdFiltering() throws Exception {
+        // Initialize the database
+        restauranteRepository.saveAndFlush(restaurante);
+
+        Long id = restaurante.getId();
+
+        defaultRestauranteShouldBeFound("id.equals=" + id);
+        defaultRestauranteShouldNotBeFound("id.notEquals=" + id);
+
+        defaultRestauranteShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultRestauranteShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllRestaurantesByNomeContainsSomething() throws Exception {
+        // Initialize the database
+        restauranteRepository.saveAndFlush(restaurante);
+
+        // Get all the restauranteList where nome equals to the default one
+        defaultRestauranteShouldBeFound("nome.contains=" + DEFAULT_NOME);
+
+        // Get all the restauranteList where nome equals to another one
+        defaultRestauranteShouldNotBeFound("nome.contains=" + UPDATED_NOME);
+    }
+
+    @Test
+    @Transactional
+    void getRestauranteWithCardapios() throws Exception {
+        // Initialize the database
+        restauranteRepository.saveAndFlush(restaurante);
+        Cardapio cardapio = new Cardapio().nome("AAAAAAAAAA");
+        restaurante.addCardapio(cardapio);
+        em.persist(cardapio);
+        em.flush();
+
+        // The cardapios come with the restaurante
+        restRestauranteMockMvc
+            .perform(get(ENTITY_API_URL_ID, restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(restaurante.getId().intValue()))
+            .andExpect(jsonPath("$.cardapios.[*].id").value(contains(cardapio.getId().intValue())));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultRestauranteShouldBeFound(String filter) throws Exception {
+        restRestauranteMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(restaurante.getId().intValue())))
+            .andExpect(jsonPath("$.[*].nome").value(hasItem(DEFAULT_NOME)));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultRestauranteShouldNotBeFound(String filter) throws Exception {
+        restRestauranteMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getNonExistingRestaurante() throws Exception {
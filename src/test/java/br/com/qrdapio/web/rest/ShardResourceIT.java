@@ -0,0 +1,72 @@
+package br.com.qrdapio.web.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.security.AuthoritiesConstants;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ShardResource} REST controller, without shards configured.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ShardResourceIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = new Restaurante().nome("Shards");
+        em.persist(restaurante);
+    }
+
+    @Test
+    @Transactional
+    void getAllShards() throws Exception {
+        restMockMvc
+            .perform(get("/api/admin/shards"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].nome").value("default"));
+    }
+
+    @Test
+    @Transactional
+    void moveRestauranteToUnknownShard() throws Exception {
+        restMockMvc.perform(post(moveUrl("shard-1")).with(csrf())).andExpect(status().isBadRequest());
+        restMockMvc.perform(post(moveUrl("default")).with(csrf())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void shardsAreForbiddenToUsers() throws Exception {
+        restMockMvc.perform(get("/api/admin/shards")).andExpect(status().isForbidden());
+        restMockMvc.perform(post(moveUrl("default")).with(csrf())).andExpect(status().isForbidden());
+    }
+
+    private String moveUrl(String shard) {
+        return "/api/admin/shards/" + shard + "/restaurantes/" + restaurante.getId();
+    }
+}
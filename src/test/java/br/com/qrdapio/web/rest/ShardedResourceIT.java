@@ -0,0 +1,241 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.ShardMap;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.service.ShardRebalancingService;
+import br.com.qrdapio.web.filter.ShardFilter;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests of the cardapio, item-cardapio, pedido and item-pedido REST controllers, for a restaurante moved
+ * out of the default shard.
+ * <p>
+ * Not transactional: the restaurante is moved by transactions of their own.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(
+    properties = {
+        "application.sharding.shards[0].name=shard-1",
+        "application.sharding.shards[0].url=jdbc:h2:mem:qrdapio-shard-1;DB_CLOSE_DELAY=-1",
+        "application.sharding.map-refresh-interval=PT0.1S",
+    }
+)
+class ShardedResourceIT {
+
+    @Autowired
+    private ShardMap shardMap;
+
+    @Autowired
+    private ShardRebalancingService shardRebalancingService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    private Restaurante outro;
+
+    private Cardapio cardapio;
+
+    private ItemCardapio moqueca;
+
+    private Pedido pedido;
+
+    @BeforeEach
+    public void initTest() {
+        inTransaction(
+            () -> {
+                restaurante = new Restaurante().nome("Movido");
+                em.persist(restaurante);
+                outro = new Restaurante().nome("Ficou");
+                em.persist(outro);
+                cardapio = new Cardapio().nome("Movido").restaurante(restaurante);
+                em.persist(cardapio);
+                moqueca =
+                    new ItemCardapio()
+                        .categoria(Categoria.PRATO)
+                        .nome("Moqueca")
+                        .descricao("Moqueca")
+                        .valor(BigDecimal.TEN)
+                        .cardapio(cardapio);
+                em.persist(moqueca);
+                pedido = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.now()).restaurante(restaurante);
+                em.persist(pedido);
+            }
+        );
+        shardRebalancingService.move(restaurante.getId(), "shard-1");
+        assertThat(shardMap.shardOf(restaurante.getId())).isEqualTo("shard-1");
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        shardMap.callInEachShard(
+            () -> {
+                inTransaction(
+                    () -> {
+                        deleteRestaurante(restaurante);
+                        deleteRestaurante(outro);
+                    }
+                );
+                return null;
+            }
+        );
+        new JdbcTemplate(shardMap.getDataSource("default"))
+            .update("delete from restaurante_shard where restaurante_id = ?", restaurante.getId());
+        shardMap.refresh();
+    }
+
+    @Test
+    void listsReadAllTheShards() throws Exception {
+        restMockMvc
+            .perform(get("/api/pedidos?restauranteId.equals={id}", restaurante.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(pedido.getId().intValue())));
+        restMockMvc
+            .perform(get("/api/item-cardapios?cardapioId.equals={id}", cardapio.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(moqueca.getId().intValue())));
+        restMockMvc
+            .perform(get("/api/cardapios?size=1000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(cardapio.getId().intValue())));
+    }
+
+    @Test
+    void entitiesAreFoundOnTheShardOfTheirRestaurante() throws Exception {
+        restMockMvc.perform(get("/api/pedidos/{id}", pedido.getId())).andExpect(status().isOk());
+        restMockMvc.perform(get("/api/cardapios/{id}", cardapio.getId())).andExpect(status().isOk());
+        restMockMvc.perform(get("/api/item-cardapios/{id}", moqueca.getId())).andExpect(status().isOk());
+        // A header of another restaurante is refused
+        restMockMvc
+            .perform(get("/api/pedidos/{id}", pedido.getId()).header(ShardFilter.RESTAURANTE_HEADER, outro.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void creationsNeedTheRestauranteOfTheirEntity() throws Exception {
+        Pedido novo = new Pedido().formaPagamento(FormaPagamento.PIX).dataHora(ZonedDateTime.now()).restaurante(restaurante);
+
+        restMockMvc.perform(json(post("/api/pedidos"), novo)).andExpect(status().isBadRequest());
+        restMockMvc
+            .perform(json(post("/api/pedidos"), novo).header(ShardFilter.RESTAURANTE_HEADER, outro.getId()))
+            .andExpect(status().isBadRequest());
+        restMockMvc
+            .perform(json(post("/api/pedidos"), novo).header(ShardFilter.RESTAURANTE_HEADER, restaurante.getId()))
+            .andExpect(status().isCreated());
+
+        ItemPedido linha = new ItemPedido().quantidade(1).item(moqueca).pedido(pedido);
+        restMockMvc
+            .perform(json(post("/api/item-pedidos"), linha).header(ShardFilter.RESTAURANTE_HEADER, outro.getId()))
+            .andExpect(status().isBadRequest());
+        restMockMvc
+            .perform(json(post("/api/item-pedidos"), linha).header(ShardFilter.RESTAURANTE_HEADER, restaurante.getId()))
+            .andExpect(status().isCreated());
+    }
+
+    @Test
+    void updatesKeepTheRestauranteOfTheirEntity() throws Exception {
+        cardapio.setRestaurante(outro);
+        restMockMvc.perform(json(put("/api/cardapios/{id}", cardapio.getId()), cardapio)).andExpect(status().isBadRequest());
+
+        cardapio.setRestaurante(restaurante);
+        cardapio.setNome("Renomeado");
+        restMockMvc
+            .perform(json(put("/api/cardapios/{id}", cardapio.getId()), cardapio))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.nome").value("Renomeado"));
+        restMockMvc.perform(delete("/api/pedidos/{id}", pedido.getId()).with(csrf())).andExpect(status().isNoContent());
+        restMockMvc.perform(get("/api/pedidos/{id}", pedido.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportsReadTheShardOfTheirRestaurante() throws Exception {
+        shardMap.callInShardOf(
+            restaurante.getId(),
+            () -> {
+                inTransaction(() -> em.persist(new ItemPedido().quantidade(2).valorUnitario(BigDecimal.TEN).item(moqueca).pedido(pedido)));
+                return null;
+            }
+        );
+        String period = "from=" + pedido.getDataHora().minusDays(1).toInstant() + "&to=" + pedido.getDataHora().plusDays(1).toInstant();
+
+        // Of the restaurante, then of all of them
+        for (String parameters : List.of(period + "&restaurante=" + restaurante.getId(), period)) {
+            MvcResult result = restMockMvc
+                .perform(get("/api/pedidos/export?" + parameters))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"pedidoId\":" + pedido.getId())));
+        }
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.with(csrf()).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(body));
+    }
+
+    private void inTransaction(Runnable runnable) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> runnable.run());
+    }
+
+    private void deleteRestaurante(Restaurante r) {
+        deleteRows("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id = :id)", r);
+        deleteRows("delete from Pedido p where p.restaurante.id = :id", r);
+        deleteRows("delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id = :id)", r);
+        deleteRows("delete from Cardapio c where c.restaurante.id = :id", r);
+        deleteRows("delete from Restaurante r where r.id = :id", r);
+    }
+
+    private void deleteRows(String jpql, Restaurante r) {
+        em.createQuery(jpql).setParameter("id", r.getId()).executeUpdate();
+    }
+}
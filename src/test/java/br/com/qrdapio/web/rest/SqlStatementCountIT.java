@@ -0,0 +1,228 @@
+package br.com.qrdapio.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.config.SqlStatementCounter;
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.service.MenuSnapshotService;
+import br.com.qrdapio.service.PedidoStreamService;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that the number of SQL statements of the read endpoints does not grow with the size of their result.
+ * <p>
+ * Every restaurante gets its own cardapio, item and pedido, so that no association is shared between the rows
+ * of a response, and the second-level cache is cleared before each request: the counts are the worst case.
+ * Single entities with their collection, and the summaries of list views, take one statement.
+ * Not transactional, otherwise the entities would already be in the persistence context of the requests.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SqlStatementCountIT {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PedidoStreamService pedidoStreamService;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private final List<Restaurante> restaurantes = new ArrayList<>();
+
+    private final List<Pedido> pedidos = new ArrayList<>();
+
+    private final List<Cardapio> cardapios = new ArrayList<>();
+
+    private String restauranteIds;
+
+    @BeforeEach
+    public void initTest() throws InterruptedException {
+        // Committed pedidos are published to the kitchen stream in the background, which loads their restaurantes:
+        // wait for it, so that it does not fill the second-level cache during a measurement
+        CountDownLatch published = new CountDownLatch(ROWS);
+        List<Runnable> subscriptions = new ArrayList<>();
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    for (int i = 0; i < ROWS; i++) {
+                        Restaurante restaurante = new Restaurante().nome("Restaurante " + i);
+                        em.persist(restaurante);
+                        subscriptions.add(
+                            pedidoStreamService.subscribe(
+                                restaurante.getId(),
+                                null,
+                                event -> {
+                                    published.countDown();
+                                    return true;
+                                }
+                            )
+                        );
+                        Cardapio cardapio = new Cardapio().nome("Cardapio " + i).restaurante(restaurante);
+                        em.persist(cardapio);
+                        ItemCardapio itemCardapio = new ItemCardapio()
+                            .categoria(Categoria.PRATO)
+                            .nome("Item " + i)
+                            .descricao("Item " + i)
+                            .valor(BigDecimal.TEN)
+                            .cardapio(cardapio);
+                        em.persist(itemCardapio);
+                        Pedido pedido = new Pedido()
+                            .formaPagamento(FormaPagamento.PIX)
+                            .dataHora(ZonedDateTime.now())
+                            .senha(i + 1)
+                            .restaurante(restaurante);
+                        em.persist(pedido);
+                        em.persist(new ItemPedido().quantidade(1).item(itemCardapio).pedido(pedido));
+                        restaurantes.add(restaurante);
+                        cardapios.add(cardapio);
+                        pedidos.add(pedido);
+                    }
+                }
+            );
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        subscriptions.forEach(Runnable::run);
+        restauranteIds = restaurantes.stream().map(restaurante -> restaurante.getId().toString()).collect(Collectors.joining(","));
+        // The menus give their version to the tags of the menu resources: build them, as the first scans would
+        restaurantes.forEach(restaurante -> menuSnapshotService.getSnapshot(restaurante.getId()));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        List<Long> ids = restaurantes.stream().map(Restaurante::getId).collect(Collectors.toList());
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(
+                status -> {
+                    delete("delete from ItemPedido i where i.pedido.id in (select p.id from Pedido p where p.restaurante.id in :ids)", ids);
+                    delete("delete from Pedido p where p.restaurante.id in :ids", ids);
+                    delete(
+                        "delete from ItemCardapio i where i.cardapio.id in (select c.id from Cardapio c where c.restaurante.id in :ids)",
+                        ids
+                    );
+                    delete("delete from Cardapio c where c.restaurante.id in :ids", ids);
+                    delete("delete from Restaurante r where r.id in :ids", ids);
+                }
+            );
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void getAllPedidos() throws Exception {
+        assertConstantStatementCount("/api/pedidos?restauranteId.in=" + restauranteIds + "&size=");
+    }
+
+    @Test
+    void getAllItemPedidos() throws Exception {
+        assertConstantStatementCount("/api/item-pedidos?restauranteId.in=" + restauranteIds + "&size=");
+    }
+
+    @Test
+    void getAllItemCardapios() throws Exception {
+        assertConstantStatementCount("/api/item-cardapios?restauranteId.in=" + restauranteIds + "&size=");
+    }
+
+    @Test
+    void getAllCardapios() throws Exception {
+        assertConstantStatementCount("/api/cardapios?restauranteId.in=" + restauranteIds + "&size=");
+    }
+
+    @Test
+    void getAllRestaurantes() throws Exception {
+        assertConstantStatementCount("/api/restaurantes?id.in=" + restauranteIds + "&size=");
+    }
+
+    @Test
+    void getPedido() throws Exception {
+        assertSingleStatement("/api/pedidos/" + pedidos.get(0).getId(), "$.itemPedidos.length()", 1);
+    }
+
+    @Test
+    void getCardapio() throws Exception {
+        assertSingleStatement("/api/cardapios/" + cardapios.get(0).getId(), "$.itemCardapios.length()", 1);
+    }
+
+    @Test
+    void getRestaurante() throws Exception {
+        assertSingleStatement("/api/restaurantes/" + restaurantes.get(0).getId(), "$.cardapios.length()", 1);
+    }
+
+    @Test
+    void getPedidoResumos() throws Exception {
+        assertSingleStatement("/api/restaurantes/" + restaurantes.get(0).getId() + "/pedidos", "$[0].itens", 1);
+    }
+
+    @Test
+    void getCardapioResumos() throws Exception {
+        assertSingleStatement("/api/restaurantes/" + restaurantes.get(0).getId() + "/cardapios", "$[0].itens", 1);
+    }
+
+    /**
+     * Request the first slice of one row, then of all the rows, and compare their statement counts.
+     */
+    private void assertConstantStatementCount(String urlWithoutSize) throws Exception {
+        long one = countStatements(urlWithoutSize + 1, 1);
+        long all = countStatements(urlWithoutSize + ROWS, ROWS);
+        assertThat(all).as("statements for %d rows, against %d for 1 row", ROWS, one).isEqualTo(one);
+    }
+
+    private long countStatements(String url, int rows) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        SqlStatementCounter.reset();
+        restMockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(rows));
+        return SqlStatementCounter.count();
+    }
+
+    /**
+     * Request an entity with its collection, or a summary, which must be read by one statement.
+     */
+    private void assertSingleStatement(String url, String jsonPath, int expected) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        SqlStatementCounter.reset();
+        restMockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath(jsonPath).value(expected));
+        assertThat(SqlStatementCounter.count()).as("statements for %s", url).isEqualTo(1);
+    }
+
+    private void delete(String jpql, List<Long> ids) {
+        em.createQuery(jpql).setParameter("ids", ids).executeUpdate();
+    }
+}
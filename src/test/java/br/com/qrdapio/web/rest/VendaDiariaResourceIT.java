@@ -0,0 +1,147 @@
+package br.com.qrdapio.web.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.qrdapio.IntegrationTest;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.VendaDiaria;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import br.com.qrdapio.security.AuthoritiesConstants;
+import br.com.qrdapio.service.VendaDiariaService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link VendaDiariaResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class VendaDiariaResourceIT {
+
+    private static final String BACKFILL_API_URL = "/api/admin/vendas/backfill";
+
+    private static final LocalDate DIA = LocalDate.of(2001, 3, 10);
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Restaurante restaurante;
+
+    @BeforeEach
+    public void initTest() {
+        restaurante = new Restaurante().nome("Vendas");
+        em.persist(restaurante);
+    }
+
+    @Test
+    @Transactional
+    void getVendasOfPeriod() throws Exception {
+        createVenda(DIA, FormaPagamento.PIX, Categoria.PRATO, 3L, "30.00");
+        createVenda(DIA, FormaPagamento.CREDITO, Categoria.BEBIDA, 1L, "5.00");
+        createVenda(DIA.plusDays(1), FormaPagamento.PIX, Categoria.PRATO, 2L, "20.00");
+        // Outside of the period
+        createVenda(DIA.minusDays(1), FormaPagamento.PIX, Categoria.PRATO, 9L, "90.00");
+
+        restMockMvc
+            .perform(get(vendasUrl() + "?from=" + DIA + "&to=" + DIA.plusDays(1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].dia").value(DIA.toString()))
+            .andExpect(jsonPath("$[0].formaPagamento").value(FormaPagamento.CREDITO.toString()))
+            .andExpect(jsonPath("$[0].categoria").value(Categoria.BEBIDA.toString()))
+            .andExpect(jsonPath("$[0].quantidade").value(1))
+            .andExpect(jsonPath("$[0].total").value(5.0))
+            .andExpect(jsonPath("$[1].formaPagamento").value(FormaPagamento.PIX.toString()))
+            .andExpect(jsonPath("$[2].dia").value(DIA.plusDays(1).toString()))
+            .andExpect(jsonPath("$[2].total").value(20.0));
+    }
+
+    @Test
+    @Transactional
+    void getVendasOfLastDays() throws Exception {
+        LocalDate today = vendaDiariaService.today();
+        createVenda(today, FormaPagamento.PIX, Categoria.PRATO, 1L, "10.00");
+        createVenda(today.minusDays(VendaDiariaResource.DEFAULT_DAYS - 1L), FormaPagamento.PIX, Categoria.PRATO, 1L, "10.00");
+        createVenda(today.minusDays(VendaDiariaResource.DEFAULT_DAYS), FormaPagamento.PIX, Categoria.PRATO, 1L, "10.00");
+
+        restMockMvc.perform(get(vendasUrl())).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @Transactional
+    void getVendasOfInvalidPeriod() throws Exception {
+        restMockMvc.perform(get(vendasUrl() + "?from=" + DIA.plusDays(1) + "&to=" + DIA)).andExpect(status().isBadRequest());
+        restMockMvc
+            .perform(get(vendasUrl() + "?from=" + DIA.minusDays(VendaDiariaResource.MAX_DAYS) + "&to=" + DIA))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void backfillVendas() throws Exception {
+        createVenda(DIA, FormaPagamento.PIX, Categoria.SOBREMESA, 7L, "70.00");
+
+        restMockMvc.perform(post(BACKFILL_API_URL + "?from=" + DIA + "&to=" + DIA).with(csrf())).andExpect(status().isNoContent());
+
+        // No pedido was placed that day
+        restMockMvc
+            .perform(get(vendasUrl() + "?from=" + DIA + "&to=" + DIA))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void backfillVendasOfToday() throws Exception {
+        LocalDate today = vendaDiariaService.today();
+        restMockMvc.perform(post(BACKFILL_API_URL + "?from=" + DIA + "&to=" + today).with(csrf())).andExpect(status().isBadRequest());
+        restMockMvc
+            .perform(post(BACKFILL_API_URL + "?from=" + DIA.plusDays(1) + "&to=" + DIA).with(csrf()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void backfillVendasIsForbiddenToUsers() throws Exception {
+        restMockMvc.perform(post(BACKFILL_API_URL + "?from=" + DIA + "&to=" + DIA).with(csrf())).andExpect(status().isForbidden());
+    }
+
+    private String vendasUrl() {
+        return "/api/restaurantes/" + restaurante.getId() + "/vendas";
+    }
+
+    private void createVenda(LocalDate dia, FormaPagamento formaPagamento, Categoria categoria, long quantidade, String total) {
+        em.persist(
+            new VendaDiaria()
+                .restauranteId(restaurante.getId())
+                .dia(dia)
+                .formaPagamento(formaPagamento)
+                .categoria(categoria)
+                .quantidade(quantidade)
+                .total(new BigDecimal(total))
+        );
+    }
+}
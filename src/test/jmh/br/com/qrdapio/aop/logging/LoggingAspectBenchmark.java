@@ -0,0 +1,163 @@
+package br.com.qrdapio.aop.logging;
+
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Overhead of {@link LoggingAspect#logAround} around a trivial service method, with debug logging off as in
+ * production, against calling the method directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    private LoggingAspect loggingAspect;
+
+    private ProceedingJoinPoint joinPoint;
+
+    private Object[] args;
+
+    @Setup
+    public void setup() {
+        loggingAspect = new LoggingAspect(new MockEnvironment());
+        args = new Object[] { 1L, "argument" };
+        joinPoint = new ServiceMethodJoinPoint(args);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return serviceMethod(args);
+    }
+
+    @Benchmark
+    public Object logAround() throws Throwable {
+        return loggingAspect.logAround(joinPoint);
+    }
+
+    private static Object serviceMethod(Object[] args) {
+        return args[0];
+    }
+
+    /**
+     * Join point of a call to {@code br.com.qrdapio.service.PedidoService.findOne}, as woven by Spring AOP.
+     */
+    private static final class ServiceMethodJoinPoint implements ProceedingJoinPoint {
+
+        private final Object[] args;
+
+        private final Signature signature = new Signature() {
+            @Override
+            public String toShortString() {
+                return "PedidoService.findOne(..)";
+            }
+
+            @Override
+            public String toLongString() {
+                return "public java.util.Optional br.com.qrdapio.service.PedidoService.findOne(java.lang.Long)";
+            }
+
+            @Override
+            public String getName() {
+                return "findOne";
+            }
+
+            @Override
+            public int getModifiers() {
+                return Modifier.PUBLIC;
+            }
+
+            @Override
+            public Class getDeclaringType() {
+                return Object.class;
+            }
+
+            @Override
+            public String getDeclaringTypeName() {
+                return "br.com.qrdapio.service.PedidoService";
+            }
+        };
+
+        private ServiceMethodJoinPoint(Object[] args) {
+            this.args = args;
+        }
+
+        @Override
+        public void set$AroundClosure(AroundClosure arc) {
+            // Not woven by AspectJ
+        }
+
+        @Override
+        public Object proceed() {
+            return serviceMethod(args);
+        }
+
+        @Override
+        public Object proceed(Object[] args) {
+            return serviceMethod(args);
+        }
+
+        @Override
+        public String toShortString() {
+            return signature.toShortString();
+        }
+
+        @Override
+        public String toLongString() {
+            return signature.toLongString();
+        }
+
+        @Override
+        public Object getThis() {
+            return null;
+        }
+
+        @Override
+        public Object getTarget() {
+            return null;
+        }
+
+        @Override
+        public Object[] getArgs() {
+            return args;
+        }
+
+        @Override
+        public Signature getSignature() {
+            return signature;
+        }
+
+        @Override
+        public SourceLocation getSourceLocation() {
+            return null;
+        }
+
+        @Override
+        public String getKind() {
+            return METHOD_EXECUTION;
+        }
+
+        @Override
+        public StaticPart getStaticPart() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.qrdapio.config;
+
+import br.com.qrdapio.domain.Cardapio;
+import br.com.qrdapio.domain.ItemCardapio;
+import br.com.qrdapio.domain.ItemPedido;
+import br.com.qrdapio.domain.Pedido;
+import br.com.qrdapio.domain.Restaurante;
+import br.com.qrdapio.domain.enumeration.Categoria;
+import br.com.qrdapio.domain.enumeration.FormaPagamento;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of the entity graphs returned by the pedido and cardapio endpoints, with the modules
+ * of {@link JacksonConfiguration}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    @Param({ "1", "20" })
+    private int itens;
+
+    private ObjectMapper objectMapper;
+
+    private Pedido pedido;
+
+    private List<ItemCardapio> itemCardapios;
+
+    private byte[] pedidoJson;
+
+    private byte[] itemCardapiosJson;
+
+    @Setup
+    public void setup() throws IOException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        // Same modules and date settings as the ObjectMapper built by Spring Boot
+        objectMapper =
+            Jackson2ObjectMapperBuilder
+                .json()
+                .modules(
+                    jacksonConfiguration.javaTimeModule(),
+                    jacksonConfiguration.jdk8TimeModule(),
+                    jacksonConfiguration.hibernate5Module(),
+                    jacksonConfiguration.problemModule(),
+                    jacksonConfiguration.constraintViolationProblemModule()
+                )
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+
+        Restaurante restaurante = new Restaurante().nome("Restaurante");
+        restaurante.setId(1L);
+        Cardapio cardapio = new Cardapio().nome("Cardapio").restaurante(restaurante);
+        cardapio.setId(1L);
+        pedido =
+            new Pedido()
+                .formaPagamento(FormaPagamento.CREDITO)
+                .dataHora(ZonedDateTime.of(2021, 4, 1, 12, 0, 0, 0, ZoneId.of("America/Sao_Paulo")))
+                .senha(42)
+                .restaurante(restaurante);
+        pedido.setId(1L);
+        itemCardapios = new ArrayList<>();
+        for (long i = 1; i <= itens; i++) {
+            ItemCardapio itemCardapio = new ItemCardapio()
+                .categoria(Categoria.PRATO)
+                .nome("Item " + i)
+                .descricao("Descricao do item " + i)
+                .valor(new BigDecimal("29.90"))
+                .cardapio(cardapio);
+            itemCardapio.setId(i);
+            itemCardapios.add(itemCardapio);
+            ItemPedido itemPedido = new ItemPedido().quantidade(2).item(itemCardapio);
+            itemPedido.setId(i);
+            pedido.addItemPedido(itemPedido);
+        }
+        pedidoJson = objectMapper.writeValueAsBytes(pedido);
+        itemCardapiosJson = objectMapper.writeValueAsBytes(itemCardapios);
+    }
+
+    @Benchmark
+    public byte[] serializePedido() throws IOException {
+        return objectMapper.writeValueAsBytes(pedido);
+    }
+
+    @Benchmark
+    public Pedido deserializePedido() throws IOException {
+        return objectMapper.readValue(pedidoJson, Pedido.class);
+    }
+
+    @Benchmark
+    public byte[] serializeItemCardapios() throws IOException {
+        return objectMapper.writeValueAsBytes(itemCardapios);
+    }
+
+    @Benchmark
+    public List<ItemCardapio> deserializeItemCardapios() throws IOException {
+        return objectMapper.readValue(itemCardapiosJson, new TypeReference<List<ItemCardapio>>() {});
+    }
+}
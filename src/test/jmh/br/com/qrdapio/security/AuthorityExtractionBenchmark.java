@@ -0,0 +1,61 @@
+package br.com.qrdapio.security;
+
+import br.com.qrdapio.security.oauth2.JwtGrantedAuthorityConverter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Extraction of the authorities of a request from the claims of its access token, done on every API call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorityExtractionBenchmark {
+
+    private JwtGrantedAuthorityConverter converter;
+
+    private Jwt jwt;
+
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setup() {
+        converter = new JwtGrantedAuthorityConverter();
+        jwt =
+            Jwt
+                .withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("4c973896-5761-41fc-8217-07c5d13a004b")
+                .claim("preferred_username", "admin")
+                .claim("groups", List.of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER, "offline_access", "uma_authorization"))
+                .build();
+        claims = jwt.getClaims();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> jwtGrantedAuthorityConverter() {
+        return converter.convert(jwt);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> extractAuthorityFromClaims() {
+        return SecurityUtils.extractAuthorityFromClaims(claims);
+    }
+}
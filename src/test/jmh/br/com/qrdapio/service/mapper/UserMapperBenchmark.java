@@ -0,0 +1,85 @@
+package br.com.qrdapio.service.mapper;
+
+import br.com.qrdapio.domain.Authority;
+import br.com.qrdapio.domain.User;
+import br.com.qrdapio.security.AuthoritiesConstants;
+import br.com.qrdapio.service.dto.AdminUserDTO;
+import br.com.qrdapio.service.dto.UserDTO;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversions of {@link UserMapper}, for a single user and for a page of users.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    @Param({ "1", "20" })
+    private int users;
+
+    private UserMapper userMapper;
+
+    private List<User> userList;
+
+    private List<AdminUserDTO> userDTOList;
+
+    @Setup
+    public void setup() {
+        userMapper = new UserMapper();
+        Set<Authority> authorities = new HashSet<>();
+        for (String name : List.of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER)) {
+            Authority authority = new Authority();
+            authority.setName(name);
+            authorities.add(authority);
+        }
+        userList = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setId("id" + i);
+            user.setLogin("johndoe" + i);
+            user.setActivated(true);
+            user.setEmail("johndoe" + i + "@localhost");
+            user.setFirstName("john");
+            user.setLastName("doe");
+            user.setImageUrl("image_url");
+            user.setLangKey("en");
+            user.setAuthorities(authorities);
+            userList.add(user);
+        }
+        userDTOList = userMapper.usersToAdminUserDTOs(userList);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(userList);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(userList);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(userDTOList);
+    }
+}
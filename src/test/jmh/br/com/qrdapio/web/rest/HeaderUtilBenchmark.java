@@ -0,0 +1,55 @@
+package br.com.qrdapio.web.rest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * Creation of the alert headers added by the entity resources to every write response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeaderUtilBenchmark {
+
+    private static final String APPLICATION_NAME = "qrDapioApp";
+
+    private static final String ENTITY_NAME = "pedido";
+
+    @Setup
+    public void setup() {
+        // The failure alert is logged as an error: only the header creation is measured, not the console
+        ((Logger) LoggerFactory.getLogger(HeaderUtil.class)).setLevel(Level.OFF);
+    }
+
+    @Benchmark
+    public HttpHeaders entityCreationAlert() {
+        return HeaderUtil.createEntityCreationAlert(APPLICATION_NAME, true, ENTITY_NAME, "1234");
+    }
+
+    @Benchmark
+    public HttpHeaders entityUpdateAlert() {
+        return HeaderUtil.createEntityUpdateAlert(APPLICATION_NAME, true, ENTITY_NAME, "1234");
+    }
+
+    @Benchmark
+    public HttpHeaders failureAlert() {
+        return HeaderUtil.createFailureAlert(APPLICATION_NAME, true, ENTITY_NAME, "idexists", "A new pedido cannot already have an ID");
+    }
+}